@@ -42,7 +42,6 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
-import io.crate.breaker.TypedCellsAccounting;
 import io.crate.data.BatchIterator;
 import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Input;
@@ -53,12 +52,15 @@ import io.crate.data.SkippingBatchIterator;
 import io.crate.data.breaker.RamAccounting;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.execution.engine.collect.RowCollectExpression;
-import io.crate.execution.engine.join.HashInnerJoinBatchIterator;
+import io.crate.execution.engine.join.HashJoinBatchIterator;
+import io.crate.execution.engine.join.PagedRowHashTable;
 import io.crate.execution.engine.window.WindowFunction;
 import io.crate.execution.engine.window.WindowFunctionBatchIterator;
+import io.crate.memory.OnHeapMemoryManager;
 import io.crate.metadata.Functions;
 import io.crate.metadata.functions.Signature;
 import io.crate.metadata.settings.session.SessionSettingRegistry;
+import io.crate.sql.tree.JoinType;
 import io.crate.types.DataTypes;
 import io.crate.types.TypeSignature;
 
@@ -67,8 +69,6 @@ import io.crate.types.TypeSignature;
 @State(Scope.Benchmark)
 public class RowsBatchIteratorBenchmark {
 
-    private final TypedCellsAccounting rowAccounting = new TypedCellsAccounting(
-        List.of(DataTypes.INTEGER), RamAccounting.NO_ACCOUNTING, 0);
 
     private List<RowN> rows;
 
@@ -153,11 +153,13 @@ public class RowsBatchIteratorBenchmark {
 
     @Benchmark
     public void measureConsumeHashInnerJoin(Blackhole blackhole) {
-        BatchIterator<Row> leftJoin = new HashInnerJoinBatchIterator(
+        BatchIterator<Row> leftJoin = new HashJoinBatchIterator(
             InMemoryBatchIterator.of(oneThousandRows, SENTINEL, true),
             InMemoryBatchIterator.of(tenThousandRows, SENTINEL, true),
-            rowAccounting,
+            new PagedRowHashTable(
+                List.of(DataTypes.INTEGER), new OnHeapMemoryManager(bytes -> {}), RamAccounting.NO_ACCOUNTING),
             new CombinedRow(1, 1),
+            JoinType.INNER,
             row -> Objects.equals(row.get(0), row.get(1)),
             row -> Objects.hash(row.get(0)),
             row -> Objects.hash(row.get(0)),
@@ -170,11 +172,13 @@ public class RowsBatchIteratorBenchmark {
 
     @Benchmark
     public void measureConsumeHashInnerJoinWithHashCollisions(Blackhole blackhole) {
-        BatchIterator<Row> leftJoin = new HashInnerJoinBatchIterator(
+        BatchIterator<Row> leftJoin = new HashJoinBatchIterator(
             InMemoryBatchIterator.of(oneThousandRows, SENTINEL, true),
             InMemoryBatchIterator.of(tenThousandRows, SENTINEL, true),
-            rowAccounting,
+            new PagedRowHashTable(
+                List.of(DataTypes.INTEGER), new OnHeapMemoryManager(bytes -> {}), RamAccounting.NO_ACCOUNTING),
             new CombinedRow(1, 1),
+            JoinType.INNER,
             row -> Objects.equals(row.get(0), row.get(1)),
             row -> {
                 // For the 0-499 records no collisions
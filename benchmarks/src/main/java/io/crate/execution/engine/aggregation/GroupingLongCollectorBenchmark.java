@@ -63,6 +63,7 @@ import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.data.Row1;
+import io.crate.data.RowN;
 import io.crate.data.breaker.RamAccounting;
 import io.crate.execution.engine.aggregation.impl.SumAggregation;
 import io.crate.execution.engine.collect.CollectExpression;
@@ -86,7 +87,9 @@ import io.netty.util.collection.LongObjectHashMap;
 public class GroupingLongCollectorBenchmark {
 
     private GroupingCollector<?> groupBySumCollector;
+    private GroupingCollector<?> groupBySumTwoKeysCollector;
     private List<Row> rows;
+    private List<Row> twoKeyRows;
     private long[] numbers;
     private IndexSearcher searcher;
 
@@ -107,13 +110,16 @@ public class GroupingLongCollectorBenchmark {
             var memoryManager = new OnHeapMemoryManager(bytes -> {
             });
             groupBySumCollector = createGroupBySumCollector(sumAgg, memoryManager);
+            groupBySumTwoKeysCollector = createGroupBySumTwoKeysCollector(sumAgg, memoryManager);
 
             int size = 20_000_000;
             rows = new ArrayList<>(size);
+            twoKeyRows = new ArrayList<>(size);
             numbers = new long[size];
             for (int i = 0; i < size; i++) {
                 long value = (long) i % 200;
                 rows.add(new Row1(value));
+                twoKeyRows.add(new RowN(value, value % 7));
                 numbers[i] = value;
                 var doc = new Document();
                 doc.add(new NumericDocValuesField("x", value));
@@ -143,7 +149,31 @@ public class GroupingLongCollectorBenchmark {
             Version.CURRENT,
             keyInputs.getFirst(),
             DataTypes.LONG,
-            Version.CURRENT
+            Version.CURRENT,
+            0
+        );
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static GroupingCollector<?> createGroupBySumTwoKeysCollector(AggregationFunction<?, ?> sumAgg,
+                                                                        MemoryManager memoryManager) {
+        RowCollectExpression firstKey = new RowCollectExpression(0);
+        RowCollectExpression secondKey = new RowCollectExpression(1);
+        CollectExpression[] collectExpressions = new CollectExpression[]{firstKey, secondKey};
+
+        return GroupingCollector.manyKeys(
+            collectExpressions,
+            AggregateMode.ITER_FINAL,
+            new AggregationFunction[] { sumAgg },
+            new Input[][] { new Input[] { firstKey }},
+            new Input[] { Literal.BOOLEAN_TRUE },
+            RamAccounting.NO_ACCOUNTING,
+            memoryManager,
+            Version.CURRENT,
+            List.of(firstKey, secondKey),
+            List.of(DataTypes.LONG, DataTypes.LONG),
+            Version.CURRENT,
+            0
         );
     }
 
@@ -153,6 +183,12 @@ public class GroupingLongCollectorBenchmark {
         blackhole.consume(rowsIterator.collect(groupBySumCollector).get());
     }
 
+    @Benchmark
+    public void measureGroupBySumTwoLongKeys(Blackhole blackhole) throws Exception {
+        var rowsIterator = InMemoryBatchIterator.of(twoKeyRows, SENTINEL, true);
+        blackhole.consume(rowsIterator.collect(groupBySumTwoKeysCollector).get());
+    }
+
     @Benchmark
     public LongObjectHashMap<Long> measureGroupingOnNumericDocValues() throws Exception {
         Weight weight = searcher.createWeight(new MatchAllDocsQuery(), ScoreMode.COMPLETE_NO_SCORES, 1.0f);
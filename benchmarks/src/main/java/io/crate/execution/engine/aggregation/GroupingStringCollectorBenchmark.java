@@ -47,6 +47,7 @@ import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.data.Row1;
+import io.crate.data.RowN;
 import io.crate.data.breaker.RamAccounting;
 import io.crate.execution.engine.aggregation.impl.MinimumAggregation;
 import io.crate.execution.engine.collect.CollectExpression;
@@ -65,8 +66,10 @@ import io.crate.types.DataTypes;
 public class GroupingStringCollectorBenchmark {
 
     private GroupingCollector<?> groupByMinCollector;
+    private GroupingCollector<?> groupByMinTwoKeysCollector;
     private BatchIterator<Row> rowsIterator;
     private List<Row> rows;
+    private List<Row> twoKeyRows;
     private OnHeapMemoryManager memoryManager;
 
     @Setup
@@ -74,14 +77,18 @@ public class GroupingStringCollectorBenchmark {
         Functions functions = Functions.load(Settings.EMPTY, new SessionSettingRegistry(Set.of()));
 
         groupByMinCollector = createGroupByMinBytesRefCollector(functions);
+        groupByMinTwoKeysCollector = createGroupByMinTwoKeysCollector(functions);
         memoryManager = new OnHeapMemoryManager(bytes -> {});
 
         List<String> keys = new ArrayList<>(Locale.getISOCountries().length);
         keys.addAll(Arrays.asList(Locale.getISOCountries()));
 
         rows = new ArrayList<>(20_000_000);
+        twoKeyRows = new ArrayList<>(20_000_000);
         for (int i = 0; i < 20_000_000; i++) {
-            rows.add(new Row1(keys.get(i % keys.size())));
+            String key = keys.get(i % keys.size());
+            rows.add(new Row1(key));
+            twoKeyRows.add(new RowN(key, (long) i % 10));
         }
     }
 
@@ -91,20 +98,10 @@ public class GroupingStringCollectorBenchmark {
         List<Input<?>> keyInputs = Collections.singletonList(keyInput);
         CollectExpression[] collectExpressions = new CollectExpression[]{keyInput};
 
-        MinimumAggregation minAgg = (MinimumAggregation) functions.getQualified(
-            Signature.aggregate(
-                MinimumAggregation.NAME,
-                DataTypes.STRING.getTypeSignature(),
-                DataTypes.STRING.getTypeSignature()
-            ),
-            List.of(DataTypes.STRING),
-            DataTypes.STRING
-        );
-
         return GroupingCollector.singleKey(
             collectExpressions,
             AggregateMode.ITER_FINAL,
-            new AggregationFunction[] { minAgg },
+            new AggregationFunction[] { minStringAggregation(functions) },
             new Input[][] { new Input[] { keyInput }},
             new Input[] { Literal.BOOLEAN_TRUE },
             RamAccounting.NO_ACCOUNTING,
@@ -112,7 +109,42 @@ public class GroupingStringCollectorBenchmark {
             Version.CURRENT,
             keyInputs.get(0),
             DataTypes.STRING,
-            Version.CURRENT
+            Version.CURRENT,
+            0
+        );
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private GroupingCollector<?> createGroupByMinTwoKeysCollector(Functions functions) {
+        RowCollectExpression stringKey = new RowCollectExpression(0);
+        RowCollectExpression longKey = new RowCollectExpression(1);
+        CollectExpression[] collectExpressions = new CollectExpression[]{stringKey, longKey};
+
+        return GroupingCollector.manyKeys(
+            collectExpressions,
+            AggregateMode.ITER_FINAL,
+            new AggregationFunction[] { minStringAggregation(functions) },
+            new Input[][] { new Input[] { stringKey }},
+            new Input[] { Literal.BOOLEAN_TRUE },
+            RamAccounting.NO_ACCOUNTING,
+            memoryManager,
+            Version.CURRENT,
+            List.of(stringKey, longKey),
+            List.of(DataTypes.STRING, DataTypes.LONG),
+            Version.CURRENT,
+            0
+        );
+    }
+
+    private static MinimumAggregation minStringAggregation(Functions functions) {
+        return (MinimumAggregation) functions.getQualified(
+            Signature.aggregate(
+                MinimumAggregation.NAME,
+                DataTypes.STRING.getTypeSignature(),
+                DataTypes.STRING.getTypeSignature()
+            ),
+            List.of(DataTypes.STRING),
+            DataTypes.STRING
         );
     }
 
@@ -121,4 +153,10 @@ public class GroupingStringCollectorBenchmark {
         rowsIterator = InMemoryBatchIterator.of(rows, SENTINEL, true);
         blackhole.consume(rowsIterator.collect(groupByMinCollector).get());
     }
+
+    @Benchmark
+    public void measureGroupByMinStringAndLong(Blackhole blackhole) throws Exception {
+        rowsIterator = InMemoryBatchIterator.of(twoKeyRows, SENTINEL, true);
+        blackhole.consume(rowsIterator.collect(groupByMinTwoKeysCollector).get());
+    }
 }
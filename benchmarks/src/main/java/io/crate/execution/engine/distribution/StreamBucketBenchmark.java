@@ -0,0 +1,119 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.distribution;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.crate.Streamer;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.types.DataTypes;
+
+/**
+ * Compares sending a page of rows in the row format used before 5.8.0 with the columnar format.
+ * Each iteration serializes the bucket and consumes all rows on the receiving side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StreamBucketBenchmark {
+
+    @Param({"ROWS", "COLUMNAR"})
+    public StreamBucket.Format format;
+
+    @Param({"10", "10000"})
+    public int distinctStrings;
+
+    private static final int NUM_ROWS = 500_000;
+
+    private Streamer<?>[] streamers;
+    private StreamBucket bucket;
+    private Version version;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        streamers = DataTypes.getStreamers(List.of(DataTypes.STRING, DataTypes.LONG, DataTypes.INTEGER));
+        StreamBucket.Builder builder = new StreamBucket.Builder(streamers, RamAccounting.NO_ACCOUNTING);
+        Object[] cells = new Object[3];
+        RowN row = new RowN(cells);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            cells[0] = "value-" + random.nextInt(distinctStrings);
+            cells[1] = 1_700_000_000_000L + i;
+            cells[2] = random.nextInt(1000);
+            builder.add(row);
+        }
+        bucket = builder.build();
+        version = format == StreamBucket.Format.ROWS ? Version.V_5_7_0 : Version.CURRENT;
+    }
+
+    @Benchmark
+    public void measureSendAndConsume(Blackhole blackhole) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(version);
+        // a fresh copy without cached encoding per iteration
+        StreamBucket toSend = copy();
+        toSend.writeTo(out);
+        blackhole.consume(out.size());
+
+        StreamInput in = out.bytes().streamInput();
+        in.setVersion(version);
+        StreamBucket received = new StreamBucket(in, streamers);
+        for (Row row : received) {
+            blackhole.consume(row.get(0));
+            blackhole.consume(row.get(1));
+            blackhole.consume(row.get(2));
+        }
+    }
+
+    private StreamBucket copy() throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(Version.V_5_7_0);
+        bucket.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        in.setVersion(Version.V_5_7_0);
+        return new StreamBucket(in, streamers);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.elasticsearch.common.settings.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.InputFactory;
+import io.crate.expression.RowFilter;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.scalar.arithmetic.ArithmeticFunctions;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.CoordinatorTxnCtx;
+import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.Functions;
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.SearchPath;
+import io.crate.metadata.settings.session.SessionSettingRegistry;
+import io.crate.types.DataTypes;
+
+/**
+ * Compares the evaluation of scalars by the {@link ScalarCompiler} with the interpreted evaluation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ScalarCompilerBenchmark {
+
+    @Param({"true", "false"})
+    public boolean compileScalars;
+
+    private final List<Row> rows = IntStream.range(0, 10_000)
+        .mapToObj(i -> (Row) new RowN((long) i, (long) i % 100, i % 7 == 0 ? null : (long) i * 3))
+        .toList();
+
+    private Predicate<Row> filter;
+    private Input<?> projection;
+    private List<CollectExpression<Row, ?>> projectionExpressions;
+
+    private static Function call(NodeContext nodeCtx, String name, Symbol... args) {
+        List<Symbol> arguments = List.of(args);
+        FunctionImplementation impl = nodeCtx.functions().get(null, name, arguments, SearchPath.pathWithPGCatalogAndDoc());
+        return new Function(impl.signature(), arguments, impl.boundSignature().returnType());
+    }
+
+    @Setup
+    public void setup() {
+        NodeContext nodeCtx = new NodeContext(
+            Functions.load(Settings.EMPTY, new SessionSettingRegistry(Set.of())),
+            List::of,
+            ignored -> null
+        );
+        InputFactory inputFactory = new InputFactory(nodeCtx, compileScalars);
+        var txnCtx = CoordinatorTxnCtx.systemTransactionContext();
+
+        InputColumn a = new InputColumn(0, DataTypes.LONG);
+        InputColumn b = new InputColumn(1, DataTypes.LONG);
+        InputColumn c = new InputColumn(2, DataTypes.LONG);
+        // a + b * 2
+        Function sum = call(
+            nodeCtx,
+            ArithmeticFunctions.Names.ADD,
+            a,
+            call(nodeCtx, ArithmeticFunctions.Names.MULTIPLY, b, Literal.of(2L))
+        );
+        // a + b * 2 > c
+        Function condition = call(nodeCtx, GtOperator.NAME, sum, c);
+        filter = RowFilter.create(txnCtx, inputFactory, condition);
+
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns(txnCtx);
+        projection = ctx.add(sum);
+        projectionExpressions = ctx.expressions();
+    }
+
+    @Benchmark
+    public int measure_filter() {
+        int matches = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (filter.test(rows.get(i))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public void measure_projection(Blackhole blackhole) {
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            for (int j = 0; j < projectionExpressions.size(); j++) {
+                projectionExpressions.get(j).setNextRow(row);
+            }
+            blackhole.consume(projection.value());
+        }
+    }
+}
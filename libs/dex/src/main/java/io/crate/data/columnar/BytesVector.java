@@ -0,0 +1,109 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data.columnar;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Vector of variable-length values, stored back to back in a single byte array.
+ * Text values are stored UTF-8 encoded and {@link #get(int)} returns them as strings.
+ *
+ * <p>
+ * The values must be written in the order of their positions, starting at 0 after a {@link #reset()}.
+ * </p>
+ */
+public final class BytesVector extends ColumnVector {
+
+    private byte[] data;
+
+    /**
+     * The value at position {@code i} is stored in {@code data[offsets[i]..offsets[i + 1])}
+     */
+    private final int[] offsets;
+    private int nextPosition = 0;
+
+    public BytesVector(int capacity) {
+        super(capacity);
+        this.offsets = new int[capacity + 1];
+        this.data = new byte[capacity * 16];
+    }
+
+    public byte[] data() {
+        return data;
+    }
+
+    public int offset(int position) {
+        return offsets[position];
+    }
+
+    public int length(int position) {
+        return offsets[position + 1] - offsets[position];
+    }
+
+    public void set(int position, byte[] bytes, int offset, int length) {
+        assert position == nextPosition : "Values must be written in order, expected position " + nextPosition;
+        int start = offsets[position];
+        int end = start + length;
+        if (end > data.length) {
+            data = Arrays.copyOf(data, Math.max(end, data.length * 2));
+        }
+        System.arraycopy(bytes, offset, data, start, length);
+        offsets[position + 1] = end;
+        nulls[position] = false;
+        nextPosition++;
+    }
+
+    @Override
+    public void setNull(int position) {
+        assert position == nextPosition : "Values must be written in order, expected position " + nextPosition;
+        offsets[position + 1] = offsets[position];
+        nulls[position] = true;
+        nextPosition++;
+    }
+
+    @Override
+    public void reset() {
+        nextPosition = 0;
+    }
+
+    @Nullable
+    @Override
+    public String get(int position) {
+        if (nulls[position]) {
+            return null;
+        }
+        return new String(data, offsets[position], length(position), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void set(int position, @Nullable Object value) {
+        if (value == null) {
+            setNull(position);
+        } else {
+            byte[] bytes = value instanceof byte[] b ? b : value.toString().getBytes(StandardCharsets.UTF_8);
+            set(position, bytes, 0, bytes.length);
+        }
+    }
+}
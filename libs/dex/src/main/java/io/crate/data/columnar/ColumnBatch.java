@@ -0,0 +1,119 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data.columnar;
+
+/**
+ * A batch of rows in columnar layout: one {@link ColumnVector} per column, all sharing the same positions.
+ *
+ * <p>
+ * The positions {@code 0..size()} hold values. Of those, only the positions in the selection vector
+ * ({@code selection()[0..numSelected()]}, in ascending order) are part of the result; operators like filters
+ * shrink the selection instead of copying the values.
+ * </p>
+ */
+public final class ColumnBatch {
+
+    private final ColumnVector[] columns;
+    private final int[] selection;
+    private int size;
+    private int numSelected;
+
+    public ColumnBatch(ColumnVector... columns) {
+        assert columns.length > 0 : "A ColumnBatch must have at least one column";
+        int capacity = Integer.MAX_VALUE;
+        for (ColumnVector column : columns) {
+            capacity = Math.min(capacity, column.capacity());
+        }
+        this.columns = columns;
+        this.selection = new int[capacity];
+    }
+
+    private ColumnBatch(ColumnVector[] columns, int[] selection, int size, int numSelected) {
+        this.columns = columns;
+        this.selection = selection;
+        this.size = size;
+        this.numSelected = numSelected;
+    }
+
+    public int capacity() {
+        return selection.length;
+    }
+
+    public int numColumns() {
+        return columns.length;
+    }
+
+    public ColumnVector column(int index) {
+        return columns[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Prepares the batch to be filled again
+     */
+    public void reset() {
+        size = 0;
+        numSelected = 0;
+        for (ColumnVector column : columns) {
+            column.reset();
+        }
+    }
+
+    /**
+     * Sets the number of positions which hold values and selects all of them.
+     */
+    public void setSize(int size) {
+        assert size <= capacity() : "size must not exceed the capacity of the batch";
+        this.size = size;
+        for (int i = 0; i < size; i++) {
+            selection[i] = i;
+        }
+        this.numSelected = size;
+    }
+
+    public int[] selection() {
+        return selection;
+    }
+
+    public int numSelected() {
+        return numSelected;
+    }
+
+    public void numSelected(int numSelected) {
+        assert numSelected <= size : "Cannot select more positions than the batch holds";
+        this.numSelected = numSelected;
+    }
+
+    /**
+     * @return a batch with the given columns of this batch. It shares the vectors and the selection with this batch.
+     */
+    public ColumnBatch project(int[] columnIndices) {
+        ColumnVector[] projected = new ColumnVector[columnIndices.length];
+        for (int i = 0; i < columnIndices.length; i++) {
+            projected[i] = columns[columnIndices[i]];
+        }
+        return new ColumnBatch(projected, selection, size, numSelected);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data.columnar;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionStage;
+
+import org.jetbrains.annotations.NotNull;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.FilteringBatchIterator;
+import io.crate.data.FlatMapBatchIterator;
+import io.crate.data.Row;
+
+/**
+ * Operators on BatchIterators of {@link ColumnBatch}es and the conversion from and to BatchIterators of rows.
+ */
+public final class ColumnBatchIterators {
+
+    private ColumnBatchIterators() {
+    }
+
+    /**
+     * Converts rows into batches. The given batch is re-used; each batch holds up to {@link ColumnBatch#capacity()}
+     * rows. A batch can hold fewer rows if the source needs to load more data.
+     */
+    public static BatchIterator<ColumnBatch> toBatches(BatchIterator<Row> source, ColumnBatch batch) {
+        return new RowsToBatchesIterator(source, batch);
+    }
+
+    /**
+     * Converts batches into rows; returns one row per selected position.
+     * The returned row is a view on the current batch and must be materialized to be retained.
+     */
+    public static BatchIterator<Row> toRows(BatchIterator<ColumnBatch> source) {
+        return new FlatMapBatchIterator<>(source, SelectedRowsIterator::new);
+    }
+
+    public static BatchIterator<ColumnBatch> filter(BatchIterator<ColumnBatch> source, VectorPredicate predicate) {
+        return new FilteringBatchIterator<>(source, batch -> predicate.filter(batch) > 0);
+    }
+
+    /**
+     * Returns batches with the given columns, e.g. to re-order or drop columns.
+     */
+    public static BatchIterator<ColumnBatch> project(BatchIterator<ColumnBatch> source, int[] columnIndices) {
+        return source.map(batch -> batch.project(columnIndices));
+    }
+
+    private static final class SelectedRowsIterator implements Iterator<Row> {
+
+        private final ColumnBatch batch;
+        private final BatchRow row;
+        private int idx = 0;
+
+        SelectedRowsIterator(ColumnBatch batch) {
+            this.batch = batch;
+            this.row = new BatchRow(batch);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return idx < batch.numSelected();
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Iterator is exhausted");
+            }
+            row.position = batch.selection()[idx++];
+            return row;
+        }
+    }
+
+    private static final class BatchRow extends Row {
+
+        private final ColumnBatch batch;
+        private int position;
+
+        BatchRow(ColumnBatch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public int numColumns() {
+            return batch.numColumns();
+        }
+
+        @Override
+        public Object get(int index) {
+            return batch.column(index).get(position);
+        }
+    }
+
+    private static final class RowsToBatchesIterator implements BatchIterator<ColumnBatch> {
+
+        private final BatchIterator<Row> source;
+        private final ColumnBatch batch;
+
+        RowsToBatchesIterator(BatchIterator<Row> source, ColumnBatch batch) {
+            this.source = source;
+            this.batch = batch;
+        }
+
+        @Override
+        public ColumnBatch currentElement() {
+            return batch;
+        }
+
+        @Override
+        public void moveToStart() {
+            batch.reset();
+            source.moveToStart();
+        }
+
+        @Override
+        public boolean moveNext() {
+            batch.reset();
+            int capacity = batch.capacity();
+            int numColumns = batch.numColumns();
+            int size = 0;
+            while (size < capacity && source.moveNext()) {
+                Row row = source.currentElement();
+                for (int i = 0; i < numColumns; i++) {
+                    batch.column(i).set(size, row.get(i));
+                }
+                size++;
+            }
+            batch.setSize(size);
+            return size > 0;
+        }
+
+        @Override
+        public void close() {
+            source.close();
+        }
+
+        @Override
+        public CompletionStage<?> loadNextBatch() throws Exception {
+            return source.loadNextBatch();
+        }
+
+        @Override
+        public boolean allLoaded() {
+            return source.allLoaded();
+        }
+
+        @Override
+        public void kill(@NotNull Throwable throwable) {
+            source.kill(throwable);
+        }
+
+        @Override
+        public boolean hasLazyResultSet() {
+            return source.hasLazyResultSet();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data.columnar;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A column of a {@link ColumnBatch}; holds the values of one column for up to {@link #capacity()} rows.
+ *
+ * <p>
+ * Subclasses provide typed access to the values, e.g. {@link LongVector#values()}, which should be used by operators
+ * processing a whole batch. {@link #get(int)} and {@link #set(int, Object)} box the values and are meant for the
+ * conversion from and to rows.
+ * </p>
+ */
+public abstract class ColumnVector {
+
+    protected final boolean[] nulls;
+
+    protected ColumnVector(int capacity) {
+        this.nulls = new boolean[capacity];
+    }
+
+    public final int capacity() {
+        return nulls.length;
+    }
+
+    public final boolean isNull(int position) {
+        return nulls[position];
+    }
+
+    public final boolean[] nulls() {
+        return nulls;
+    }
+
+    public void setNull(int position) {
+        nulls[position] = true;
+    }
+
+    /**
+     * Prepares the vector to be filled again, starting at position 0.
+     */
+    public void reset() {
+    }
+
+    @Nullable
+    public abstract Object get(int position);
+
+    public abstract void set(int position, @Nullable Object value);
+}
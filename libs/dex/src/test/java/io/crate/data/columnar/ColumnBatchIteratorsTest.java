@@ -0,0 +1,128 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data.columnar;
+
+import static io.crate.data.SentinelRow.SENTINEL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.testing.BatchIteratorTester;
+import io.crate.data.testing.BatchIteratorTester.ResultOrder;
+import io.crate.data.testing.BatchSimulatingIterator;
+import io.crate.data.testing.TestingBatchIterators;
+
+class ColumnBatchIteratorsTest {
+
+    private static final VectorPredicate EVEN = batch -> {
+        long[] values = ((LongVector) batch.column(0)).values();
+        int[] selection = batch.selection();
+        int numSelected = 0;
+        for (int i = 0; i < batch.numSelected(); i++) {
+            int position = selection[i];
+            if (values[position] % 2 == 0) {
+                selection[numSelected++] = position;
+            }
+        }
+        batch.numSelected(numSelected);
+        return numSelected;
+    };
+
+    private static List<Object[]> range(long from, long to, long step) {
+        List<Object[]> result = new ArrayList<>();
+        for (long i = from; i < to; i += step) {
+            result.add(new Object[] { i });
+        }
+        return result;
+    }
+
+    @Test
+    void test_rows_to_batches_and_back_returns_all_rows() throws Exception {
+        var tester = BatchIteratorTester.forRows(
+            () -> ColumnBatchIterators.toRows(
+                ColumnBatchIterators.toBatches(TestingBatchIterators.range(0L, 20L), new ColumnBatch(new LongVector(8)))
+            ),
+            ResultOrder.EXACT
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(range(0, 20, 1));
+    }
+
+    @Test
+    void test_batches_can_be_created_from_a_source_that_loads_in_batches() throws Exception {
+        var tester = BatchIteratorTester.forRows(
+            () -> {
+                BatchIterator<Row> source = new BatchSimulatingIterator<>(TestingBatchIterators.range(0L, 20L), 3, 7, null);
+                return ColumnBatchIterators.toRows(
+                    ColumnBatchIterators.filter(
+                        ColumnBatchIterators.toBatches(source, new ColumnBatch(new LongVector(8))),
+                        EVEN
+                    )
+                );
+            },
+            ResultOrder.EXACT
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(range(0, 20, 2));
+    }
+
+    @Test
+    void test_project_selects_columns_of_the_batch() throws Exception {
+        List<Object[]> rows = List.of(
+            new Object[] { 1L, "a", 1.5 },
+            new Object[] { 2L, null, 2.5 },
+            new Object[] { 3L, "c", null }
+        );
+        var tester = BatchIteratorTester.forRows(
+            () -> {
+                ColumnBatch batch = new ColumnBatch(new LongVector(2), new BytesVector(2), new DoubleVector(2));
+                var source = InMemoryBatchIterator.of(rows.stream().map(RowN::new).toList(), SENTINEL, true);
+                var batches = ColumnBatchIterators.toBatches(source, batch);
+                return ColumnBatchIterators.toRows(ColumnBatchIterators.project(batches, new int[] { 2, 1 }));
+            },
+            ResultOrder.EXACT
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(List.of(
+            new Object[] { 1.5, "a" },
+            new Object[] { 2.5, null },
+            new Object[] { null, "c" }
+        ));
+    }
+
+    @Test
+    void test_bytes_vector_grows_and_keeps_values() {
+        BytesVector vector = new BytesVector(3);
+        vector.set(0, "x".repeat(100));
+        vector.setNull(1);
+        vector.set(2, "äöü");
+
+        assertThat(vector.get(0)).isEqualTo("x".repeat(100));
+        assertThat(vector.get(1)).isNull();
+        assertThat(vector.get(2)).isEqualTo("äöü");
+        assertThat(vector.length(2)).isEqualTo(6);
+    }
+}
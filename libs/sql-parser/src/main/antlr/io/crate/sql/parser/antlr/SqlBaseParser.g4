@@ -77,9 +77,11 @@ statement
         withProperties?                                                              #restore
     | COPY tableWithPartition
         (OPEN_ROUND_BRACKET ident (COMMA ident)* CLOSE_ROUND_BRACKET)?
-        FROM path=expr withProperties? (RETURN SUMMARY)?                             #copyFrom
+        FROM (STDIN | path=expr) withProperties? (RETURN SUMMARY)?                   #copyFrom
     | COPY tableWithPartition columns? where?
         TO DIRECTORY? path=expr withProperties?                                      #copyTo
+    | COPY OPEN_ROUND_BRACKET query CLOSE_ROUND_BRACKET
+        TO STDOUT withProperties?                                                    #copyToStdout
     | dropStmt                                                                       #drop
     | GRANT (priviliges=idents | ALL PRIVILEGES?)
         (ON securable qnames)? TO users=idents                                       #grantPrivilege
@@ -1012,6 +1014,8 @@ nonReserved
     | SHOW
     | SNAPSHOT
     | START
+    | STDIN
+    | STDOUT
     | STORAGE
     | STRICT
     | STRING_TYPE
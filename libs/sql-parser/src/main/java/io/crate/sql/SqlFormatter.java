@@ -58,6 +58,7 @@ import io.crate.sql.tree.ColumnDefinition;
 import io.crate.sql.tree.ColumnStorageDefinition;
 import io.crate.sql.tree.ColumnType;
 import io.crate.sql.tree.CopyFrom;
+import io.crate.sql.tree.CopyToStdout;
 import io.crate.sql.tree.CreateForeignTable;
 import io.crate.sql.tree.CreateFunction;
 import io.crate.sql.tree.CreatePublication;
@@ -269,7 +270,11 @@ public final class SqlFormatter {
                 builder.append(')');
             }
             append(indent, " FROM ");
-            copyFrom.path().accept(this, indent);
+            if (copyFrom.fromStdin()) {
+                append(indent, "STDIN");
+            } else {
+                copyFrom.path().accept(this, indent);
+            }
             if (!copyFrom.properties().isEmpty()) {
                 append(indent, " ");
                 copyFrom.properties().accept(this, indent);
@@ -280,6 +285,20 @@ public final class SqlFormatter {
             return null;
         }
 
+        @SuppressWarnings("unchecked")
+        @Override
+        public Void visitCopyToStdout(CopyToStdout<?> node, Integer indent) {
+            var copyTo = (CopyToStdout<Expression>) node;
+            append(indent, "COPY (");
+            copyTo.query().accept(this, indent);
+            append(indent, ") TO STDOUT");
+            if (!copyTo.properties().isEmpty()) {
+                append(indent, " ");
+                copyTo.properties().accept(this, indent);
+            }
+            return null;
+        }
+
         @Override
         public Void visitRefreshStatement(RefreshStatement<?> node, Integer indent) {
             append(indent, "REFRESH TABLE ");
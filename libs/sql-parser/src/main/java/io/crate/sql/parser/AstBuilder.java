@@ -114,6 +114,7 @@ import io.crate.sql.tree.CommitStatement;
 import io.crate.sql.tree.ComparisonExpression;
 import io.crate.sql.tree.CopyFrom;
 import io.crate.sql.tree.CopyTo;
+import io.crate.sql.tree.CopyToStdout;
 import io.crate.sql.tree.CreateAnalyzer;
 import io.crate.sql.tree.CreateBlobTable;
 import io.crate.sql.tree.CreateForeignTable;
@@ -793,7 +794,7 @@ class AstBuilder extends SqlBaseParserBaseVisitor<Node> {
         return new CopyFrom(
             (Table<?>) visit(context.tableWithPartition()),
             context.ident() == null ? emptyList() : identsToStrings(context.ident()),
-            visit(context.path),
+            context.STDIN() == null ? visit(context.path) : null,
             extractGenericProperties(context.withProperties()),
             returnSummary);
     }
@@ -810,6 +811,13 @@ class AstBuilder extends SqlBaseParserBaseVisitor<Node> {
             extractGenericProperties(context.withProperties()));
     }
 
+    @Override
+    public Node visitCopyToStdout(SqlBaseParser.CopyToStdoutContext context) {
+        return new CopyToStdout<>(
+            (Query) visit(context.query()),
+            extractGenericProperties(context.withProperties()));
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public Node visitInsert(SqlBaseParser.InsertContext context) throws IllegalArgumentException {
@@ -48,6 +48,7 @@ import io.crate.sql.tree.Close;
 import io.crate.sql.tree.CommitStatement;
 import io.crate.sql.tree.ComparisonExpression;
 import io.crate.sql.tree.CopyFrom;
+import io.crate.sql.tree.CopyToStdout;
 import io.crate.sql.tree.CreateForeignTable;
 import io.crate.sql.tree.CreateFunction;
 import io.crate.sql.tree.CreatePublication;
@@ -1359,6 +1360,8 @@ public class TestStatementBuilder {
         printStatement("copy schemah.foo from '/folder/file.extension'");
         printStatement("copy schemah.foo from '/folder/file.extension' return summary");
         printStatement("copy schemah.foo from '/folder/file.extension' with (some_property=1) return summary");
+        printStatement("copy foo from stdin");
+        printStatement("copy foo (a, b) from stdin with (format='csv')");
 
         printStatement("copy foo (nae) to '/folder/file.extension'");
         printStatement("copy foo to '/folder/file.extension'");
@@ -1369,6 +1372,9 @@ public class TestStatementBuilder {
         printStatement("copy foo partition (a=?) to DIRECTORY '/folder' with (some_param=4)");
 
         printStatement("copy foo where a = 'x' to DIRECTORY '/folder'");
+
+        printStatement("copy (select * from foo) to stdout");
+        printStatement("copy (select a, b from foo where a = 'x' order by b limit 10) to stdout with (format='csv')");
     }
 
     @Test
@@ -2209,6 +2215,7 @@ public class TestStatementBuilder {
             statement instanceof CreateTableAs ||
             statement instanceof CreateForeignTable ||
             statement instanceof CopyFrom ||
+            statement instanceof CopyToStdout ||
             statement instanceof SwapTable ||
             statement instanceof GCDanglingArtifacts ||
             statement instanceof CreateFunction ||
@@ -32,15 +32,21 @@ public class PreparedStmt {
     private final Statement parsedStatement;
     private final String rawStatement;
     private final DataType<?>[] describedParameterTypes;
+    private final long analyzedMetadataVersion;
 
+    /**
+     * @param analyzedMetadataVersion version of the cluster metadata that was used to analyze the statement.
+     */
     PreparedStmt(Statement parsedStatement,
                  AnalyzedStatement analyzedStatement,
                  String query,
-                 DataType<?>[] parameterTypes) {
+                 DataType<?>[] parameterTypes,
+                 long analyzedMetadataVersion) {
         this.parsedStatement = parsedStatement;
         this.analyzedStatement = analyzedStatement;
         this.rawStatement = query;
         this.describedParameterTypes = parameterTypes;
+        this.analyzedMetadataVersion = analyzedMetadataVersion;
     }
 
     public AnalyzedStatement analyzedStatement() {
@@ -71,4 +77,8 @@ public class PreparedStmt {
     public String rawStatement() {
         return rawStatement;
     }
+
+    long analyzedMetadataVersion() {
+        return analyzedMetadataVersion;
+    }
 }
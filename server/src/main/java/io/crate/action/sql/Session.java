@@ -22,6 +22,7 @@
 package io.crate.action.sql;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -44,6 +45,7 @@ import org.jetbrains.annotations.VisibleForTesting;
 import io.crate.analyze.AnalyzedBegin;
 import io.crate.analyze.AnalyzedClose;
 import io.crate.analyze.AnalyzedCommit;
+import io.crate.analyze.AnalyzedCopyToStdout;
 import io.crate.analyze.AnalyzedDeallocate;
 import io.crate.analyze.AnalyzedDeclare;
 import io.crate.analyze.AnalyzedDiscard;
@@ -62,6 +64,7 @@ import io.crate.data.RowConsumer;
 import io.crate.data.RowN;
 import io.crate.exceptions.ReadOnlyException;
 import io.crate.exceptions.SQLExceptions;
+import io.crate.execution.engine.collect.files.CopyInStream;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.execution.jobs.kill.KillJobsNodeAction;
 import io.crate.execution.jobs.kill.KillJobsNodeRequest;
@@ -301,6 +304,7 @@ public class Session implements AutoCloseable {
                         @Nullable String query) {
         AnalyzedStatement analyzedStatement;
         DataType<?>[] parameterTypes;
+        long metadataVersion = executor.clusterService().state().metadata().version();
         try {
             analyzedStatement = analyzer.analyze(
                 statement,
@@ -320,7 +324,7 @@ public class Session implements AutoCloseable {
         }
         preparedStatements.put(
             statementName,
-            new PreparedStmt(statement, analyzedStatement, query, parameterTypes));
+            new PreparedStmt(statement, analyzedStatement, query, parameterTypes, metadataVersion));
     }
 
     public void bind(String portalName,
@@ -361,7 +365,8 @@ public class Session implements AutoCloseable {
                     declare.query(),
                     analyzedDeclare.query(),
                     SqlFormatter.formatSql(declare.query()),
-                    parameterTypes
+                    parameterTypes,
+                    preparedStmt.analyzedMetadataVersion()
                 );
                 Portal queryPortal = new Portal(
                     cursorName,
@@ -633,11 +638,10 @@ public class Session implements AutoCloseable {
         );
 
         PreparedStmt firstPreparedStatement = toExec.get(0).portal().preparedStmt();
-        AnalyzedStatement analyzedStatement = firstPreparedStatement.analyzedStatement();
 
         Plan plan;
         try {
-            plan = planner.plan(analyzedStatement, plannerContext);
+            plan = plan(firstPreparedStatement, plannerContext);
         } catch (Throwable t) {
             jobsLogs.logPreExecutionFailure(
                 jobId,
@@ -672,6 +676,21 @@ public class Session implements AutoCloseable {
         return result;
     }
 
+    private Plan plan(PreparedStmt preparedStmt, PlannerContext plannerContext) {
+        AnalyzedStatement analyzedStatement = preparedStmt.analyzedStatement();
+        String rawStatement = preparedStmt.rawStatement();
+        if (rawStatement == null) {
+            return planner.plan(analyzedStatement, plannerContext);
+        }
+        return planner.plan(
+            rawStatement,
+            Arrays.asList(preparedStmt.parameterTypes()),
+            preparedStmt.analyzedMetadataVersion(),
+            analyzedStatement,
+            plannerContext
+        );
+    }
+
     private static void emitRowCountsToResultReceivers(UUID jobId,
                                                        JobsLogs jobsLogs,
                                                        List<DeferredExecution> executions,
@@ -725,7 +744,7 @@ public class Session implements AutoCloseable {
         }
         Plan plan;
         try {
-            plan = planner.plan(analyzedStmt, plannerContext);
+            plan = plan(portal.preparedStmt(), plannerContext);
         } catch (Throwable t) {
             jobsLogs.logPreExecutionFailure(jobId, rawStatement, SQLExceptions.messageOf(t), sessionSettings.sessionUser());
             throw t;
@@ -881,6 +900,30 @@ public class Session implements AutoCloseable {
         return mostRecentJobID;
     }
 
+    /**
+     * @return the stream of the most recent job if it is a {@code COPY FROM STDIN} which is still in progress.
+     */
+    @Nullable
+    public CopyInStream getCopyInStream() {
+        UUID jobId = mostRecentJobID;
+        if (jobId == null) {
+            return null;
+        }
+        return executor.stdinFileInputFactory().get(jobId);
+    }
+
+    /**
+     * @return the statement of the portal if it is a {@code COPY (query) TO STDOUT}, otherwise null.
+     */
+    @Nullable
+    public AnalyzedCopyToStdout getCopyToStdout(String portalName) {
+        Portal portal = getSafePortal(portalName);
+        if (portal.analyzedStatement() instanceof AnalyzedCopyToStdout copyToStdout) {
+            return copyToStdout;
+        }
+        return null;
+    }
+
     public void cancelCurrentJob() {
         if (mostRecentJobID == null) {
             return;
@@ -37,17 +37,20 @@ public class AnalyzedCopyFrom implements AnalyzedStatement {
     private final Table<Symbol> table;
     private final GenericProperties<Symbol> properties;
     private final Symbol uri;
+    private final boolean fromStdin;
 
     AnalyzedCopyFrom(DocTableInfo tableInfo,
                      List<String> targetColumns,
                      Table<Symbol> table,
                      GenericProperties<Symbol> properties,
-                     Symbol uri) {
+                     Symbol uri,
+                     boolean fromStdin) {
         this.tableInfo = tableInfo;
         this.targetColumns = targetColumns;
         this.table = table;
         this.properties = properties;
         this.uri = uri;
+        this.fromStdin = fromStdin;
     }
 
     public DocTableInfo tableInfo() {
@@ -70,6 +73,14 @@ public class AnalyzedCopyFrom implements AnalyzedStatement {
         return uri;
     }
 
+    /**
+     * @return true if the data is streamed by the client via the PostgreSQL COPY sub-protocol
+     *         instead of being read from {@link #uri()}
+     */
+    public boolean fromStdin() {
+        return fromStdin;
+    }
+
     @Override
     public void visitSymbols(Consumer<? super Symbol> consumer) {
         for (var partitionProperty : table.partitionProperties()) {
@@ -48,7 +48,7 @@ public class AnalyzedCopyFromReturnSummary extends AnalyzedCopyFrom implements A
                                   Table<Symbol> table,
                                   GenericProperties<Symbol> properties,
                                   Symbol uri) {
-        super(tableInfo, targetColumns, table, properties, uri);
+        super(tableInfo, targetColumns, table, properties, uri, false);
         this.fields = List.of(
             new ScopedSymbol(tableInfo.ident(), ColumnIdent.of("node"), ObjectType.builder()
                 .setInnerType("id", DataTypes.STRING)
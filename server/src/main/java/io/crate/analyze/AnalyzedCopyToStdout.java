@@ -0,0 +1,100 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.analyze;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.elasticsearch.common.settings.Settings;
+
+import io.crate.execution.dsl.phases.FileUriCollectPhase;
+import io.crate.expression.symbol.Symbol;
+
+/**
+ * {@code COPY (query) TO STDOUT}
+ *
+ * <p>
+ * Executes like the wrapped query, but the rows are sent to the client
+ * using the PostgreSQL COPY sub-protocol instead of as a result set.
+ * Therefore the statement itself has no {@link #outputs()}.
+ * </p>
+ */
+public class AnalyzedCopyToStdout implements AnalyzedStatement {
+
+    static final Set<String> SETTINGS = Set.of(
+        CopyStatementSettings.INPUT_FORMAT_SETTING.getKey(),
+        CopyStatementSettings.INPUT_HEADER_SETTINGS.getKey(),
+        CopyStatementSettings.CSV_COLUMN_SEPARATOR.getKey()
+    );
+
+    private final AnalyzedStatement query;
+    private final Settings settings;
+    private final FileUriCollectPhase.InputFormat format;
+
+    AnalyzedCopyToStdout(AnalyzedStatement query, Settings settings) {
+        this.query = query;
+        this.settings = settings;
+        this.format = CopyStatementSettings.settingAsEnum(
+            FileUriCollectPhase.InputFormat.class,
+            CopyStatementSettings.STDIO_FORMAT_SETTING.get(settings));
+    }
+
+    public AnalyzedStatement query() {
+        return query;
+    }
+
+    /**
+     * The rows are written in one of the formats {@code COPY FROM STDIN} understands,
+     * by default in the text format of PostgreSQL
+     */
+    public FileUriCollectPhase.InputFormat format() {
+        return format;
+    }
+
+    public boolean header() {
+        return CopyStatementSettings.INPUT_HEADER_SETTINGS.get(settings);
+    }
+
+    public char delimiter() {
+        if (format == FileUriCollectPhase.InputFormat.TEXT
+            && !settings.hasValue(CopyStatementSettings.CSV_COLUMN_SEPARATOR.getKey())) {
+            return CopyStatementSettings.TEXT_COLUMN_SEPARATOR;
+        }
+        return CopyStatementSettings.CSV_COLUMN_SEPARATOR.get(settings);
+    }
+
+    @Override
+    public <C, R> R accept(AnalyzedStatementVisitor<C, R> visitor, C context) {
+        return visitor.visitCopyToStdout(this, context);
+    }
+
+    @Override
+    public boolean isWriteOperation() {
+        return false;
+    }
+
+    @Override
+    public void visitSymbols(Consumer<? super Symbol> consumer) {
+        query.visitSymbols(consumer);
+    }
+}
@@ -33,6 +33,7 @@ import java.util.function.Function;
 
 import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexSortConfig;
 
 import io.crate.analyze.TableElementsAnalyzer.RefBuilder;
 import io.crate.common.collections.Lists;
@@ -160,6 +161,11 @@ public record AnalyzedCreateTable(
         List<Symbol> partitionedByColumns = partitionedBy
             .map(PartitionedBy::columns)
             .orElse(List.of());
+        IndexSortConfig.validate(
+            tableParameter.settings(),
+            references::get,
+            Lists.map(partitionedByColumns, Symbols::pathFromSymbol)
+        );
 
         return new BoundCreateTable(
             relationName,
@@ -43,6 +43,10 @@ public class AnalyzedStatementVisitor<C, R> {
         return visitAnalyzedStatement(analysis, context);
     }
 
+    public R visitCopyToStdout(AnalyzedCopyToStdout analysis, C context) {
+        return visitAnalyzedStatement(analysis, context);
+    }
+
     protected R visitCreateRepositoryAnalyzedStatement(AnalyzedCreateRepository analysis, C context) {
         return visitDDLStatement(analysis, context);
     }
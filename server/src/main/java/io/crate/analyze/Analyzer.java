@@ -66,6 +66,7 @@ import io.crate.sql.tree.Close;
 import io.crate.sql.tree.CommitStatement;
 import io.crate.sql.tree.CopyFrom;
 import io.crate.sql.tree.CopyTo;
+import io.crate.sql.tree.CopyToStdout;
 import io.crate.sql.tree.CreateAnalyzer;
 import io.crate.sql.tree.CreateBlobTable;
 import io.crate.sql.tree.CreateForeignTable;
@@ -374,6 +375,16 @@ public class Analyzer {
                 context.transactionContext());
         }
 
+        @Override
+        public AnalyzedStatement visitCopyToStdout(CopyToStdout<?> node, Analysis context) {
+            AnalyzedStatement query = node.query().accept(this, context);
+            return copyAnalyzer.analyzeCopyToStdout(
+                (CopyToStdout<Expression>) node,
+                query,
+                context.paramTypeHints(),
+                context.transactionContext());
+        }
+
         @Override
         public AnalyzedStatement visitCreateAnalyzer(CreateAnalyzer<?> node, Analysis context) {
             return createAnalyzerStatementAnalyzer.analyze(
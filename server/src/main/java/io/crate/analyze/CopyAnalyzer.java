@@ -21,6 +21,8 @@
 
 package io.crate.analyze;
 
+import org.elasticsearch.common.settings.Settings;
+
 import io.crate.analyze.expressions.ExpressionAnalysisContext;
 import io.crate.analyze.expressions.ExpressionAnalyzer;
 import io.crate.analyze.relations.DocTableRelation;
@@ -29,6 +31,7 @@ import io.crate.analyze.relations.NameFieldProvider;
 import io.crate.analyze.relations.TableRelation;
 import io.crate.common.collections.Lists;
 import io.crate.expression.eval.EvaluatingNormalizer;
+import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.CoordinatorTxnCtx;
 import io.crate.metadata.NodeContext;
@@ -39,6 +42,7 @@ import io.crate.metadata.settings.CoordinatorSessionSettings;
 import io.crate.metadata.table.Operation;
 import io.crate.sql.tree.CopyFrom;
 import io.crate.sql.tree.CopyTo;
+import io.crate.sql.tree.CopyToStdout;
 import io.crate.sql.tree.Expression;
 import io.crate.sql.tree.GenericProperties;
 import io.crate.sql.tree.Table;
@@ -80,6 +84,18 @@ class CopyAnalyzer {
         Table<Symbol> table = node.table().map(t -> exprAnalyzerWithFieldsAsString.convert(t, exprCtx));
         GenericProperties<Symbol> properties = node.properties().map(t -> exprAnalyzerWithoutFields.convert(t,
                                                                                                             exprCtx));
+        if (node.fromStdin()) {
+            if (node.isReturnSummary()) {
+                throw new UnsupportedOperationException("RETURN SUMMARY is not supported for COPY FROM STDIN");
+            }
+            return new AnalyzedCopyFrom(
+                tableInfo,
+                node.columns(),
+                table,
+                properties,
+                Literal.NULL,
+                true);
+        }
         Symbol uri = exprAnalyzerWithoutFields.convert(node.path(), exprCtx);
 
         if (node.isReturnSummary()) {
@@ -95,8 +111,31 @@ class CopyAnalyzer {
                 node.columns(),
                 table,
                 properties,
-                normalizer.normalize(uri, txnCtx));
+                normalizer.normalize(uri, txnCtx),
+                false);
+        }
+    }
+
+    AnalyzedCopyToStdout analyzeCopyToStdout(CopyToStdout<Expression> node,
+                                             AnalyzedStatement query,
+                                             ParamTypeHints paramTypeHints,
+                                             CoordinatorTxnCtx txnCtx) {
+        var exprCtx = new ExpressionAnalysisContext(txnCtx.sessionSettings());
+        var exprAnalyzerWithoutFields = new ExpressionAnalyzer(
+            txnCtx, nodeCtx, paramTypeHints, FieldProvider.UNSUPPORTED, null);
+        GenericProperties<Symbol> properties = node.properties().map(
+            x -> exprAnalyzerWithoutFields.convert(x, exprCtx));
+        // The options are needed by the protocol layer before the statement is executed,
+        // so they must not depend on parameters and are evaluated right away
+        Settings settings = Settings.builder()
+            .put(properties.map(x -> SymbolEvaluator.evaluateWithoutParams(txnCtx, nodeCtx, x)))
+            .build();
+        for (String key : settings.keySet()) {
+            if (!AnalyzedCopyToStdout.SETTINGS.contains(key)) {
+                throw new IllegalArgumentException("Setting '" + key + "' is not supported for COPY TO STDOUT");
+            }
         }
+        return new AnalyzedCopyToStdout(query, settings);
     }
 
     AnalyzedCopyTo analyzeCopyTo(CopyTo<Expression> node,
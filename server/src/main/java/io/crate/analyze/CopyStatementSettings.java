@@ -53,6 +53,32 @@ public final class CopyStatementSettings {
         DataTypes.STRING,
         Setting.Property.Dynamic);
 
+    private static final Setting.Validator<String> STDIO_FORMAT_VALIDATOR =
+        Validators.stringValidator("format", "text", "json", "csv");
+
+    /**
+     * Format of {@code COPY FROM STDIN} and {@code COPY TO STDOUT}.
+     * Like in PostgreSQL they default to the text format.
+     */
+    public static final Setting<String> STDIO_FORMAT_SETTING = new Setting<>(
+        "format",
+        "text",
+        (s) -> s,
+        value -> {
+            if (value.equalsIgnoreCase("binary")) {
+                throw new IllegalArgumentException(
+                    "The binary COPY format is not supported. Use one of: text, csv, json");
+            }
+            STDIO_FORMAT_VALIDATOR.validate(value);
+        },
+        DataTypes.STRING,
+        Setting.Property.Dynamic);
+
+    /**
+     * Column separator of the text format if no delimiter is set
+     */
+    public static final char TEXT_COLUMN_SEPARATOR = '\t';
+
     public static final Setting<Boolean> EMPTY_STRING_AS_NULL = Setting.boolSetting(
         "empty_string_as_null",
         false,
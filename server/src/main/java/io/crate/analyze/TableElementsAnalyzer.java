@@ -54,6 +54,7 @@ import io.crate.expression.symbol.RefReplacer;
 import io.crate.expression.symbol.RefVisitor;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.Symbols;
+import io.crate.lucene.codec.VectorIndexOptions;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.CoordinatorTxnCtx;
 import io.crate.metadata.GeneratedReference;
@@ -66,6 +67,7 @@ import io.crate.metadata.ReferenceIdent;
 import io.crate.metadata.RelationName;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.SimpleReference;
+import io.crate.metadata.VectorReference;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.metadata.table.Operation;
 import io.crate.planner.operators.EnsureNoMatchPredicate;
@@ -99,6 +101,7 @@ import io.crate.sql.tree.QualifiedName;
 import io.crate.types.ArrayType;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
+import io.crate.types.FloatVectorType;
 import io.crate.types.GeoShapeType;
 import io.crate.types.ObjectType;
 import io.crate.types.StorageSupport;
@@ -250,6 +253,9 @@ public class TableElementsAnalyzer implements FieldProvider<Reference> {
             if (defaultExpression != null) {
                 defaultExpression = bindParameter.apply(defaultExpression);
             }
+            VectorIndexOptions vectorIndexOptions = type.id() == FloatVectorType.ID
+                ? VectorIndexOptions.of(indexProperties.map(toValue).toMap(HashMap::new))
+                : VectorIndexOptions.DEFAULT;
 
             if (!indexSources.isEmpty() || indexType == IndexType.FULLTEXT || indexProperties.contains("analyzer")) {
                 List<Reference> sources = new ArrayList<>(indexSources.size());
@@ -310,6 +316,21 @@ public class TableElementsAnalyzer implements FieldProvider<Reference> {
                     (Integer) geoMap.get("tree_levels"),
                     distError == null ? null : distError.doubleValue()
                 );
+            } else if (!vectorIndexOptions.equals(VectorIndexOptions.DEFAULT)) {
+                ref = new VectorReference(
+                    refIdent,
+                    rowGranularity,
+                    type,
+                    columnPolicy,
+                    indexType,
+                    nullable,
+                    hasDocValues,
+                    position,
+                    COLUMN_OID_UNASSIGNED,
+                    false,
+                    defaultExpression,
+                    vectorIndexOptions
+                );
             } else {
                 ref = new SimpleReference(
                     refIdent,
@@ -618,6 +639,17 @@ public class TableElementsAnalyzer implements FieldProvider<Reference> {
                         DataTypes.STRING.getName()
                     ));
                 }
+                boolean isHnsw = VectorIndexOptions.INDEX_METHOD.equalsIgnoreCase(builder.indexMethod);
+                if (isHnsw && builder.type.id() != FloatVectorType.ID) {
+                    throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                        "INDEX USING %s can only be used on columns of type \"%s\": `%s`",
+                        VectorIndexOptions.INDEX_METHOD, FloatVectorType.NAME, columnName));
+                }
+                if (!isHnsw && builder.type.id() == FloatVectorType.ID && !builder.indexProperties.isEmpty()) {
+                    throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                        "Columns of type \"%s\" only support options for INDEX USING %s: `%s`",
+                        FloatVectorType.NAME, VectorIndexOptions.INDEX_METHOD, columnName));
+                }
                 if (builder.indexType != IndexType.PLAIN && UNSUPPORTED_INDEX_TYPE_IDS.contains(builder.type.id())) {
                     throw new IllegalArgumentException(String.format(Locale.ENGLISH,
                         "INDEX constraint cannot be used on columns of type \"%s\": `%s`", builder.type, columnName));
@@ -35,6 +35,7 @@ import org.jetbrains.annotations.Nullable;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.format.Style;
 import io.crate.fdw.ForeignTable;
+import io.crate.lucene.codec.VectorIndexOptions;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.FulltextAnalyzerResolver;
 import io.crate.metadata.GeneratedReference;
@@ -42,6 +43,7 @@ import io.crate.metadata.GeoReference;
 import io.crate.metadata.IndexReference;
 import io.crate.metadata.IndexType;
 import io.crate.metadata.Reference;
+import io.crate.metadata.VectorReference;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.metadata.settings.NumberOfReplicas;
 import io.crate.metadata.table.TableInfo;
@@ -72,6 +74,7 @@ import io.crate.sql.tree.Table;
 import io.crate.sql.tree.TableElement;
 import io.crate.types.ArrayType;
 import io.crate.types.DataTypes;
+import io.crate.types.FloatVectorType;
 import io.crate.types.ObjectType;
 import io.crate.types.StorageSupport;
 
@@ -220,6 +223,18 @@ public class TableInfoToAST {
                     properties.put("tree_levels", Literal.fromObject(geoReference.treeLevels()));
                 }
                 constraints.add(new IndexColumnConstraint<>(geoReference.geoTree(), new GenericProperties<>(properties)));
+            } else if (ref.valueType().id() == FloatVectorType.ID) {
+                VectorIndexOptions indexOptions = VectorReference.indexOptions(ref);
+                if (!indexOptions.equals(VectorIndexOptions.DEFAULT)) {
+                    Map<String, Expression> properties = new HashMap<>();
+                    for (var entry : indexOptions.toProperties().entrySet()) {
+                        properties.put(entry.getKey(), Literal.fromObject(entry.getValue()));
+                    }
+                    constraints.add(new IndexColumnConstraint<>(
+                        VectorIndexOptions.INDEX_METHOD,
+                        new GenericProperties<>(properties)
+                    ));
+                }
             }
 
             StorageSupport<?> storageSupport = ref.valueType().storageSupportSafe();
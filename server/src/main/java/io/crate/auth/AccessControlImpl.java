@@ -39,6 +39,7 @@ import io.crate.analyze.AnalyzedClose;
 import io.crate.analyze.AnalyzedCommit;
 import io.crate.analyze.AnalyzedCopyFrom;
 import io.crate.analyze.AnalyzedCopyTo;
+import io.crate.analyze.AnalyzedCopyToStdout;
 import io.crate.analyze.AnalyzedCreateAnalyzer;
 import io.crate.analyze.AnalyzedCreateBlobTable;
 import io.crate.analyze.AnalyzedCreateForeignTable;
@@ -314,6 +315,12 @@ public final class AccessControlImpl implements AccessControl {
             return null;
         }
 
+        @Override
+        public Void visitCopyToStdout(AnalyzedCopyToStdout copyToStdout, Role user) {
+            copyToStdout.query().accept(this, user);
+            return null;
+        }
+
         @Override
         public Void visitFetch(AnalyzedFetch fetch, Role user) {
             // We always allow to fetch. The privileges are checked through `Declare` when the user creates the cursor.
@@ -28,11 +28,14 @@ import io.crate.data.Bucket;
 import io.crate.data.CollectingBatchIterator;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
+import io.crate.execution.jobs.CumulativePageBucketReceiver;
 import io.crate.execution.jobs.PageBucketReceiver;
 import io.crate.execution.jobs.PageResultListener;
+import io.netty.util.collection.IntObjectHashMap;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 
 import org.jetbrains.annotations.NotNull;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -46,6 +49,7 @@ public class IncrementalPageBucketReceiver<T> implements PageBucketReceiver {
     private final BiConsumer<T, Row> accumulator;
     private final T state;
     private final AtomicInteger remainingUpstreams;
+    private final Map<Integer, PageCount> pageCountByBucketIdx = new IntObjectHashMap<>();
     private final CompletableFuture<Iterable<Row>> processingFuture = new CompletableFuture<>();
     private final Executor executor;
     private final Streamer<?>[] streamers;
@@ -79,7 +83,11 @@ public class IncrementalPageBucketReceiver<T> implements PageBucketReceiver {
     }
 
     @Override
-    public void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener) {
+    public void setBucket(int bucketIdx,
+                          int pageIdx,
+                          Bucket rows,
+                          boolean isLast,
+                          PageResultListener pageResultListener) {
         if (processingFuture.isCompletedExceptionally()) {
             pageResultListener.needMore(false);
             return;
@@ -107,13 +115,28 @@ public class IncrementalPageBucketReceiver<T> implements PageBucketReceiver {
                 });
             }
         }
-        if (isLast) {
+        if (receivedAllPages(bucketIdx, pageIdx, isLast)) {
             if (remainingUpstreams.decrementAndGet() == 0) {
                 currentlyAccumulating.whenComplete((r, t) -> consumeRows());
             }
         }
     }
 
+    /**
+     * Upstreams with multiple pages in flight can deliver the last page before the others,
+     * so a bucket is only complete once all pages up to the last one have been received.
+     */
+    private boolean receivedAllPages(int bucketIdx, int pageIdx, boolean isLast) {
+        synchronized (pageCountByBucketIdx) {
+            PageCount pageCount = pageCountByBucketIdx.computeIfAbsent(bucketIdx, k -> new PageCount());
+            pageCount.received++;
+            if (isLast) {
+                pageCount.expected = pageIdx < 0 ? pageCount.received : pageIdx + 1;
+            }
+            return pageCount.received == pageCount.expected;
+        }
+    }
+
     @Override
     public Streamer<?>[] streamers() {
         return streamers;
@@ -129,9 +152,20 @@ public class IncrementalPageBucketReceiver<T> implements PageBucketReceiver {
         processingFuture.complete(finisher.apply(state));
     }
 
+    @Override
+    public int credits() {
+        return CumulativePageBucketReceiver.MAX_PAGES_IN_FLIGHT;
+    }
+
     @Override
     public void kill(@NotNull Throwable t) {
         lazyBatchIterator.kill(t);
         processingFuture.completeExceptionally(t);
     }
+
+    private static class PageCount {
+
+        private int received = 0;
+        private int expected = -1;
+    }
 }
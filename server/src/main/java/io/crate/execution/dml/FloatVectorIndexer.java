@@ -44,8 +44,8 @@ import io.crate.execution.dml.Indexer.Synthetic;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.IndexType;
 import io.crate.metadata.Reference;
+import io.crate.metadata.VectorReference;
 import io.crate.metadata.doc.DocSysColumns;
-import io.crate.types.FloatVectorType;
 
 public class FloatVectorIndexer implements ValueIndexer<float[]> {
 
@@ -66,7 +66,7 @@ public class FloatVectorIndexer implements ValueIndexer<float[]> {
         this.fieldType.setVectorAttributes(
             ref.valueType().characterMaximumLength(),
             VectorEncoding.FLOAT32,
-            FloatVectorType.SIMILARITY_FUNC
+            VectorReference.indexOptions(ref).similarity()
         );
         this.ref = ref;
         this.name = ref.storageIdent();
@@ -63,6 +63,7 @@ import io.crate.execution.engine.collect.NestableCollectExpression;
 import io.crate.expression.InputFactory;
 import io.crate.expression.InputFactory.Context;
 import io.crate.expression.reference.ReferenceResolver;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.expression.symbol.DynamicReference;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.RefReplacer;
@@ -124,6 +125,8 @@ public class Indexer {
     private final List<Input<?>> returnValueInputs;
     private final List<Synthetic> undeterministic = new ArrayList<>();
     private final BytesStreamOutput stream;
+    @Nullable
+    private final BinarySource.Writer binarySource;
     private final Function<ColumnIdent, Reference> getRef;
 
     record IndexColumn(Reference reference, List<Input<?>> inputs) {
@@ -412,6 +415,7 @@ public class Indexer {
         this.synthetics = new HashMap<>();
         this.stream = new BytesStreamOutput();
         boolean writeOids = table.versionCreated().onOrAfter(Version.V_5_5_0);
+        this.binarySource = table.versionCreated().onOrAfter(Version.V_5_8_0) ? new BinarySource.Writer() : null;
         this.getRef = table::getReference;
         PartitionName partitionName = table.isPartitioned()
             ? PartitionName.fromIndexOrTemplate(indexName)
@@ -737,11 +741,16 @@ public class Indexer {
             expression.setNextRow(item);
         }
         stream.reset();
+        if (binarySource != null) {
+            binarySource.reset();
+        }
         for (Synthetic synthetic: synthetics.values()) {
             synthetic.reset();
         }
-        try (XContentBuilder xContentBuilder = XContentFactory.json(stream)) {
-            xContentBuilder.startObject();
+        try (XContentBuilder xContentBuilder = binarySource == null ? XContentFactory.json(stream) : null) {
+            if (xContentBuilder != null) {
+                xContentBuilder.startObject();
+            }
             Object[] values = item.insertValues();
             for (int i = 0; i < values.length; i++) {
                 Reference reference = columns.get(i);
@@ -757,14 +766,7 @@ public class Indexer {
                     continue;
                 }
                 ValueIndexer<Object> valueIndexer = (ValueIndexer<Object>) valueIndexers.get(i);
-                valueIndexer.indexValue(
-                    value,
-                    reference.storageIdentLeafName(),
-                    xContentBuilder,
-                    addField,
-                    synthetics,
-                    columnConstraints
-                );
+                indexValue(valueIndexer, reference, value, xContentBuilder, addField);
             }
             for (var entry : synthetics.entrySet()) {
                 ColumnIdent column = entry.getKey();
@@ -777,17 +779,11 @@ public class Indexer {
                 if (value == null) {
                     continue;
                 }
-                ValueIndexer<Object> indexer = synthetic.indexer();
-                indexer.indexValue(
-                    value,
-                    synthetic.ref.storageIdentLeafName(),
-                    xContentBuilder,
-                    addField,
-                    synthetics,
-                    columnConstraints
-                );
+                indexValue(synthetic.indexer(), synthetic.ref, value, xContentBuilder, addField);
+            }
+            if (xContentBuilder != null) {
+                xContentBuilder.endObject();
             }
-            xContentBuilder.endObject();
 
             for (var indexColumn : indexColumns) {
                 String fqn = indexColumn.reference.storageIdent();
@@ -818,7 +814,9 @@ public class Indexer {
             NumericDocValuesField version = new NumericDocValuesField(DocSysColumns.Names.VERSION, -1L);
             doc.add(version);
 
-            BytesReference source = BytesReference.bytes(xContentBuilder);
+            BytesReference source = xContentBuilder == null
+                ? binarySource.finish(stream)
+                : BytesReference.bytes(xContentBuilder);
             BytesRef sourceRef = source.toBytesRef();
             doc.add(new StoredField("_source", sourceRef.bytes, sourceRef.offset, sourceRef.length));
 
@@ -840,6 +838,28 @@ public class Indexer {
         }
     }
 
+    /**
+     * Adds the value to the source and creates the index fields for it.
+     *
+     * @param xContentBuilder builder of the JSON source or null if the source is binary encoded.
+     */
+    private void indexValue(ValueIndexer<Object> valueIndexer,
+                            Reference reference,
+                            Object value,
+                            @Nullable XContentBuilder xContentBuilder,
+                            Consumer<? super IndexableField> addField) throws IOException {
+        String key = reference.storageIdentLeafName();
+        if (xContentBuilder != null) {
+            valueIndexer.indexValue(value, key, xContentBuilder, addField, synthetics, columnConstraints);
+        } else if (binarySource.writeValue(key, reference.valueType(), value)) {
+            valueIndexer.indexValue(value, null, binarySource.discard(), addField, synthetics, columnConstraints);
+        } else {
+            XContentBuilder builder = binarySource.startJson(key);
+            valueIndexer.indexValue(value, key, builder, addField, synthetics, columnConstraints);
+            binarySource.endJson(builder);
+        }
+    }
+
     private static <T> T valueForInsert(DataType<T> valueType, Object value) {
         return valueType.valueForInsert(valueType.sanitizeValue(value));
     }
@@ -43,6 +43,8 @@ import org.elasticsearch.index.mapper.SequenceIDFields;
 import org.elasticsearch.index.mapper.Uid;
 
 import io.crate.expression.reference.doc.lucene.SourceParser;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.Reference;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.sql.tree.ColumnPolicy;
@@ -57,6 +59,7 @@ public class TranslogIndexer {
 
     private final Map<String, ColumnIndexer<?>> indexers = new HashMap<>();
     private final Map<String, List<String>> tableIndexSources = new HashMap<>();
+    private final DocTableInfo table;
     private final boolean ignoreUnknownColumns;
     private final SourceParser sourceParser;
 
@@ -79,6 +82,7 @@ public class TranslogIndexer {
                 tableIndexSources.computeIfAbsent(source.column().fqn(), _ -> new ArrayList<>()).add(ref.storageIdent());
             }
         }
+        this.table = table;
         this.ignoreUnknownColumns = table.columnPolicy() != ColumnPolicy.STRICT;
         this.sourceParser = new SourceParser(table);
     }
@@ -89,13 +93,25 @@ public class TranslogIndexer {
      * @param source    the transaction log entry bytes
      */
     public ParsedDocument index(String id, BytesReference source) {
+        return index(id, source, false);
+    }
+
+    /**
+     * Convert a transaction log entry to a ParsedDocument to be indexed
+     * @param id        the document ID
+     * @param source    the transaction log entry bytes
+     * @param requireKnownChildColumns if true, unknown child columns of objects also cause a
+     *                  {@link TranslogMappingUpdateException} instead of only being stored in the source.
+     *                  Top-level columns are always required to be known.
+     */
+    public ParsedDocument index(String id, BytesReference source, boolean requireKnownChildColumns) {
 
         Document doc = new Document();
 
         var stream = new BytesStreamOutput();
         try (XContentBuilder xContentBuilder = XContentFactory.json(stream)) {
 
-            populateLuceneFields(source, doc, xContentBuilder);
+            populateLuceneFields(source, doc, xContentBuilder, requireKnownChildColumns);
 
             NumericDocValuesField version = new NumericDocValuesField(DocSysColumns.Names.VERSION, -1L);
             doc.add(version);
@@ -125,7 +141,10 @@ public class TranslogIndexer {
 
     }
 
-    private void populateLuceneFields(BytesReference source, Document doc, XContentBuilder xcontent) throws IOException {
+    private void populateLuceneFields(BytesReference source,
+                                      Document doc,
+                                      XContentBuilder xcontent,
+                                      boolean requireKnownChildColumns) throws IOException {
         Map<String, Object> docMap = sourceParser.parse(source, ignoreUnknownColumns);
 
         for (var entry : docMap.entrySet()) {
@@ -137,6 +156,9 @@ public class TranslogIndexer {
                 }
                 throw new TranslogMappingUpdateException();
             }
+            if (requireKnownChildColumns) {
+                ensureKnownChildColumns(ColumnIdent.of(column), entry.getValue());
+            }
 
             Object castValue = valueForInsert(indexer.dataType, entry.getValue());
             if (castValue != null) {
@@ -148,6 +170,36 @@ public class TranslogIndexer {
         }
     }
 
+    private void ensureKnownChildColumns(ColumnIdent column, Object value) {
+        switch (value) {
+            case Map<?, ?> m -> {
+                Reference ref = table.getReference(column);
+                if (ref == null || ref.columnPolicy() == ColumnPolicy.IGNORED) {
+                    return;
+                }
+                for (var entry : m.entrySet()) {
+                    ColumnIdent child = column.getChild((String) entry.getKey());
+                    if (table.getReference(child) == null) {
+                        if (isEmpty(entry.getValue())) {
+                            continue;
+                        }
+                        throw new TranslogMappingUpdateException();
+                    }
+                    ensureKnownChildColumns(child, entry.getValue());
+                }
+            }
+            case List<?> l -> {
+                for (var item : l) {
+                    if (item != null) {
+                        ensureKnownChildColumns(column, item);
+                    }
+                }
+            }
+            case null, default -> {
+            }
+        }
+    }
+
     private static boolean isEmpty(Object value) {
         switch (value) {
             case null -> {
@@ -31,12 +31,14 @@ import java.util.UUID;
 
 import org.apache.lucene.util.RamUsageEstimator;
 import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.lucene.uid.Versions;
 import org.elasticsearch.index.seqno.SequenceNumbers;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.transport.CompressiblePayload;
 import org.jetbrains.annotations.Nullable;
 
 import io.crate.Streamer;
@@ -48,7 +50,8 @@ import io.crate.expression.symbol.Symbols;
 import io.crate.metadata.Reference;
 import io.crate.metadata.settings.SessionSettings;
 
-public final class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUpsertRequest.Item> {
+public final class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUpsertRequest.Item>
+    implements CompressiblePayload {
 
     public enum DuplicateKeyAction {
         UPDATE_OR_FAIL,
@@ -294,6 +297,13 @@ public final class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, S
 
         private final long autoGeneratedTimestamp;
 
+        /**
+         * Source of the document as indexed on the primary.
+         * Replicas index it as is instead of evaluating the insert values again.
+         */
+        @Nullable
+        private BytesReference source;
+
         /**
          * Used to cache calculation for {@link #ramBytesUsed()}
          */
@@ -371,6 +381,9 @@ public final class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, S
             for (String pkValue : pkValues) {
                 usedBytes += RamUsageEstimator.sizeOf(pkValue);
             }
+            if (source != null) {
+                usedBytes += source.length();
+            }
             return usedBytes;
         }
 
@@ -404,6 +417,16 @@ public final class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, S
             return autoGeneratedTimestamp;
         }
 
+        @Nullable
+        public BytesReference source() {
+            return source;
+        }
+
+        public void source(@Nullable BytesReference source) {
+            this.source = source;
+            this.usedBytes = -1L;
+        }
+
         private static boolean streamPkValues(Version version) {
             return version.after(Version.V_4_7_2) && !version.equals(Version.V_4_8_0);
         }
@@ -433,6 +456,8 @@ public final class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, S
                     // Below 5.3.0 a NULL source indicates a item to be skipped instead of the later introduced marker.
                     seqNo = SequenceNumbers.SKIP_ON_REPLICA;
                 }
+            } else {
+                source = in.readOptionalBytesReference();
             }
             if (streamPkValues(in.getVersion())) {
                 pkValues = in.readList(StreamInput::readString);
@@ -459,7 +484,10 @@ public final class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, S
                 out.writeBoolean(false);
             }
             // Stream References
-            if (insertValues != null) {
+            // Receivers on or after 5.8.0 index an attached source as is, the insert values would be redundant.
+            // Sources are only attached for replicas, a failed primary clears them before the request is retried.
+            boolean sendInsertValues = source == null || out.getVersion().before(Version.V_5_8_0);
+            if (insertValues != null && sendInsertValues) {
                 assert insertValueStreamers != null && insertValueStreamers.length >= insertValues.length
                     : "streamers are required to stream insert values and must have a streamer for each value";
                 out.writeVInt(insertValues.length);
@@ -471,6 +499,8 @@ public final class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, S
             }
             if (out.getVersion().before(Version.V_5_8_0)) {
                 out.writeBoolean(false);    // redundant source unavailable flag
+            } else {
+                out.writeOptionalBytesReference(source);
             }
             if (streamPkValues(out.getVersion())) {
                 out.writeStringCollection(pkValues);
@@ -66,6 +66,7 @@ import io.crate.execution.dml.IndexItem;
 import io.crate.execution.dml.Indexer;
 import io.crate.execution.dml.RawIndexer;
 import io.crate.execution.dml.ShardResponse;
+import io.crate.execution.dml.TranslogMappingUpdateException;
 import io.crate.execution.dml.TransportShardAction;
 import io.crate.execution.dml.upsert.ShardUpsertRequest.DuplicateKeyAction;
 import io.crate.execution.engine.collect.PKLookupOperation;
@@ -124,7 +125,22 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
     @Override
     protected WritePrimaryResult<ShardUpsertRequest, ShardResponse> processRequestItems(IndexShard indexShard,
                                                                                         ShardUpsertRequest request,
-                                                                                        AtomicBoolean killed) {
+                                                                                        AtomicBoolean killed) throws IOException {
+        try {
+            return processItemsOnPrimary(indexShard, request, killed);
+        } catch (RuntimeException | IOException e) {
+            // The request may be retried on a (new) primary. Items processed so far carry the source
+            // for the replicas, which would drop their insert values on the wire. See Item#writeTo
+            for (ShardUpsertRequest.Item item : request.items()) {
+                item.source(null);
+            }
+            throw e;
+        }
+    }
+
+    private WritePrimaryResult<ShardUpsertRequest, ShardResponse> processItemsOnPrimary(IndexShard indexShard,
+                                                                                        ShardUpsertRequest request,
+                                                                                        AtomicBoolean killed) throws IOException {
         ShardResponse shardResponse = new ShardResponse(request.returnValues());
         String indexName = request.index();
         DocTableInfo tableInfo = schemas.getTableInfo(RelationName.fromIndexName(indexName));
@@ -201,6 +217,11 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
             );
         }
 
+        if (canBulkInsert(request, updateToInsert)) {
+            Translog.Location translogLocation = bulkInsert(indexer, rawIndexer, request, indexShard, shardResponse, killed);
+            return new WritePrimaryResult<>(request, shardResponse, translogLocation, null, indexShard);
+        }
+
         Translog.Location translogLocation = null;
         for (ShardUpsertRequest.Item item : request.items()) {
             int location = item.location();
@@ -232,17 +253,7 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                     }
                 }
             } catch (Exception e) {
-                if (retryPrimaryException(e)) {
-                    throw Exceptions.toRuntimeException(e);
-                }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Failed to execute upsert on nodeName={}, shardId={} id={} error={}", clusterService.localNode().getName(), request.shardId(), item.id(), e);
-                }
-
-                // *mark* the item as failed by setting the sequence number
-                // to prevent the replica operation from processing this concrete item
-                item.seqNo(SequenceNumbers.SKIP_ON_REPLICA);
-
+                markFailed(request, item, e);
                 if (!request.continueOnError()) {
                     shardResponse.failure(e);
                     break;
@@ -263,6 +274,116 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         return new WritePrimaryResult<>(request, shardResponse, translogLocation, null, indexShard);
     }
 
+    private void markFailed(ShardUpsertRequest request, ShardUpsertRequest.Item item, Exception e) {
+        if (retryPrimaryException(e)) {
+            throw Exceptions.toRuntimeException(e);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Failed to execute upsert on nodeName={}, shardId={} id={} error={}", clusterService.localNode().getName(), request.shardId(), item.id(), e);
+        }
+
+        // *mark* the item as failed by setting the sequence number
+        // to prevent the replica operation from processing this concrete item
+        item.seqNo(SequenceNumbers.SKIP_ON_REPLICA);
+    }
+
+    /**
+     * Plain inserts of rows with auto generated ids can't conflict with existing documents,
+     * they can be parsed up-front and handed over to the engine in one go.
+     * Failing requests stop at the first failure, so they're processed item by item.
+     */
+    private static boolean canBulkInsert(ShardUpsertRequest request, @Nullable UpdateToInsert updateToInsert) {
+        List<ShardUpsertRequest.Item> items = request.items();
+        if (items.size() < 2 || updateToInsert != null || request.isRetry() || !request.continueOnError()) {
+            return false;
+        }
+        for (ShardUpsertRequest.Item item : items) {
+            if (item.insertValues() == null || item.autoGeneratedTimestamp() == Translog.UNSET_AUTO_GENERATED_TIMESTAMP) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private Translog.Location bulkInsert(Indexer indexer,
+                                         @Nullable RawIndexer rawIndexer,
+                                         ShardUpsertRequest request,
+                                         IndexShard indexShard,
+                                         ShardResponse shardResponse,
+                                         AtomicBoolean killed) throws IOException {
+        long version = request.duplicateKeyAction() == DuplicateKeyAction.OVERWRITE
+            ? Versions.MATCH_ANY
+            : Versions.MATCH_DELETED;
+        List<ShardUpsertRequest.Item> items = request.items();
+        List<ShardUpsertRequest.Item> preparedItems = new ArrayList<>(items.size());
+        List<Engine.Index> operations = new ArrayList<>(items.size());
+        for (ShardUpsertRequest.Item item : items) {
+            if (killed.get()) {
+                // same as for item by item processing: index what is already prepared, skip the rest
+                shardResponse.failure(new InterruptedException());
+                break;
+            }
+            try {
+                Engine.Index operation = prepareInsert(indexer, request, item, indexShard, false, rawIndexer, version);
+                if (item.source() == null) {
+                    // The indexer re-uses its source buffer for the next item
+                    operation.parsedDoc().detachSource();
+                }
+                operations.add(operation);
+                preparedItems.add(item);
+            } catch (Exception e) {
+                markFailed(request, item, e);
+                shardResponse.add(item.location(),
+                    new ShardResponse.Failure(
+                        item.id(),
+                        getExceptionMessage(e),
+                        (e instanceof VersionConflictEngineException)));
+            }
+        }
+        Translog.Location translogLocation = null;
+        // Engine level failures fail the whole request, the replica must not skip documents
+        // which might have been appended before the failure
+        List<IndexResult> results = indexShard.index(operations);
+        for (int i = 0; i < results.size(); i++) {
+            ShardUpsertRequest.Item item = preparedItems.get(i);
+            try {
+                IndexItemResponse indexItemResponse = toItemResponse(indexer, item, indexShard, results.get(i));
+                if (indexItemResponse.translog != null) {
+                    shardResponse.add(item.location());
+                    translogLocation = maxLocation(translogLocation, indexItemResponse.translog);
+                }
+                if (indexItemResponse.returnValues != null) {
+                    shardResponse.addResultRows(indexItemResponse.returnValues);
+                }
+            } catch (Exception e) {
+                if (e instanceof VersionConflictEngineException && request.duplicateKeyAction() == DuplicateKeyAction.IGNORE) {
+                    // on conflict do nothing
+                    item.seqNo(SequenceNumbers.SKIP_ON_REPLICA);
+                    continue;
+                }
+                markFailed(request, item, e);
+                shardResponse.add(item.location(),
+                    new ShardResponse.Failure(
+                        item.id(),
+                        getExceptionMessage(e),
+                        (e instanceof VersionConflictEngineException)));
+            }
+        }
+        return translogLocation;
+    }
+
+    @Nullable
+    private static Translog.Location maxLocation(@Nullable Translog.Location a, @Nullable Translog.Location b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
     private static String getExceptionMessage(Throwable e) {
         if (SQLExceptions.isDocumentAlreadyExistsException(e)) {
             return "A document with the same primary key exists already";
@@ -299,43 +420,46 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         DocTableInfo tableInfo = schemas.getTableInfo(relationName);
         TransactionContext txnCtx = TransactionContext.of(request.sessionSettings());
 
-        // Refresh insertColumns References from cluster state because ObjectType
-        // may have new children due to dynamic cluster state updates
-        // Not doing this would result in indefinite `Mappings are not available on the replica yet` errors below
-        List<Reference> targetColumns = Stream.of(insertColumns)
-            .map(ref -> {
-                Reference updatedRef = tableInfo.getReference(ref.column());
-                return updatedRef == null ? ref : updatedRef;
-            })
-            .toList();
-
-        RawIndexer rawIndexer;
-        Indexer indexer;
-        if (insertColumns[0].column().equals(DocSysColumns.RAW)) {
-            // Even if insertColumns supposed to have a single column _raw,
-            // insertColumns can be expanded to add non-deterministic synthetics.
-            // We must not check that insertColumns.length is 1
-            // in order not to fall back to regular Indexer which cannot handle _raw and persists it as String.
-            indexer = null;
-            rawIndexer = new RawIndexer(
-                indexName,
-                tableInfo,
-                txnCtx,
-                nodeCtx,
-                null,
-                targetColumns.subList(1, targetColumns.size()) // expanded refs (non-deterministic synthetics)
-            );
-        } else {
-            rawIndexer = null;
-            indexer = new Indexer(
-                indexName,
-                tableInfo,
-                txnCtx,
-                nodeCtx,
-                targetColumns,
-                null
-            );
+        RawIndexer rawIndexer = null;
+        Indexer indexer = null;
+        // Items usually carry the source created on the primary, the indexers are only
+        // needed for items without, e.g. sent by a primary running a version before 5.8.0
+        if (anyItemWithoutSource(request)) {
+            // Refresh insertColumns References from cluster state because ObjectType
+            // may have new children due to dynamic cluster state updates
+            // Not doing this would result in indefinite `Mappings are not available on the replica yet` errors below
+            List<Reference> targetColumns = Stream.of(insertColumns)
+                .map(ref -> {
+                    Reference updatedRef = tableInfo.getReference(ref.column());
+                    return updatedRef == null ? ref : updatedRef;
+                })
+                .toList();
+
+            if (insertColumns[0].column().equals(DocSysColumns.RAW)) {
+                // Even if insertColumns supposed to have a single column _raw,
+                // insertColumns can be expanded to add non-deterministic synthetics.
+                // We must not check that insertColumns.length is 1
+                // in order not to fall back to regular Indexer which cannot handle _raw and persists it as String.
+                rawIndexer = new RawIndexer(
+                    indexName,
+                    tableInfo,
+                    txnCtx,
+                    nodeCtx,
+                    null,
+                    targetColumns.subList(1, targetColumns.size()) // expanded refs (non-deterministic synthetics)
+                );
+            } else {
+                indexer = new Indexer(
+                    indexName,
+                    tableInfo,
+                    txnCtx,
+                    nodeCtx,
+                    targetColumns,
+                    null
+                );
+            }
         }
+        List<Engine.Index> operations = new ArrayList<>(request.items().size());
         for (ShardUpsertRequest.Item item : request.items()) {
             if (item.seqNo() == SequenceNumbers.SKIP_ON_REPLICA) {
                 if (traceEnabled) {
@@ -349,24 +473,13 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
             }
 
             long startTime = System.nanoTime();
-            List<Reference> newColumns = rawIndexer != null ? rawIndexer.collectSchemaUpdates(item) : indexer.collectSchemaUpdates(item);
-
-            if (!newColumns.isEmpty()) {
-                // Even though the primary waits on all nodes to ack the mapping changes to the master
-                // (see MappingUpdatedAction.updateMappingOnMaster) we still need to protect against missing mappings
-                // and wait for them. The reason is concurrent requests. Request r1 which has new field f triggers a
-                // mapping update. Assume that that update is first applied on the primary, and only later on the replica
-                // (it’s happening concurrently). Request r2, which now arrives on the primary and which also has the new
-                // field f might see the updated mapping (on the primary), and will therefore proceed to be replicated
-                // to the replica. When it arrives on the replica, there’s no guarantee that the replica has already
-                // applied the new mapping, so there is no other option than to wait.
-                logger.trace("Mappings are not available on the replica columns={}", newColumns);
-                throw new TransportReplicationAction.RetryOnReplicaException(indexShard.shardId(),
-                    "Mappings are not available on the replica yet, triggered update: " + newColumns);
+            ParsedDocument parsedDoc;
+            if (item.source() != null) {
+                parsedDoc = indexSource(indexShard, tableInfo, item);
+            } else {
+                parsedDoc = indexInsertValues(indexShard, request, item, indexer, rawIndexer);
             }
 
-            ParsedDocument parsedDoc = rawIndexer != null ? rawIndexer.index() : indexer.index(item);
-
             Term uid = new Term(DocSysColumns.Names.ID, Uid.encodeId(item.id()));
             boolean isRetry = false;
             Engine.Index index = new Engine.Index(
@@ -383,14 +496,97 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                 SequenceNumbers.UNASSIGNED_SEQ_NO,
                 SequenceNumbers.UNASSIGNED_PRIMARY_TERM
             );
-            IndexResult result = indexShard.index(index);
-            assert result.getResultType() != Engine.Result.Type.MAPPING_UPDATE_REQUIRED
-                : "If parsedDoc.newColumns is empty there must be no mapping update requirement";
-            location = result.getTranslogLocation();
+            operations.add(index);
+        }
+        if (operations.size() == 1) {
+            location = replicaLocation(location, indexShard.index(operations.get(0)));
+        } else if (operations.size() > 1) {
+            // Replicas apply all items of the request in one go, see Engine#index(List)
+            for (IndexResult result : indexShard.index(operations)) {
+                location = replicaLocation(location, result);
+            }
         }
         return new WriteReplicaResult<>(location, null, indexShard);
     }
 
+    /**
+     * A replica must apply every operation the primary applied. A failed result fails the replica
+     * instead of being acknowledged.
+     */
+    @Nullable
+    private static Translog.Location replicaLocation(@Nullable Translog.Location location,
+                                                     IndexResult result) throws IOException {
+        assert result.getResultType() != Engine.Result.Type.MAPPING_UPDATE_REQUIRED
+            : "If parsedDoc.newColumns is empty there must be no mapping update requirement";
+        Exception failure = result.getFailure();
+        if (failure instanceof IOException ioException) {
+            throw ioException;
+        } else if (failure != null) {
+            throw Exceptions.toRuntimeException(failure);
+        }
+        return maxLocation(location, result.getTranslogLocation());
+    }
+
+    private static boolean anyItemWithoutSource(ShardUpsertRequest request) {
+        for (ShardUpsertRequest.Item item : request.items()) {
+            if (item.seqNo() != SequenceNumbers.SKIP_ON_REPLICA && item.source() == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the document from the source computed by the primary.
+     * Generated columns, defaults and constraints are already resolved, only the Lucene fields are created.
+     */
+    private ParsedDocument indexSource(IndexShard indexShard, DocTableInfo tableInfo, ShardUpsertRequest.Item item) {
+        try {
+            // Unknown child columns of objects must not end up in the source only (as the indexer would do
+            // for ignored objects), the replica would miss the fields the primary created for them.
+            return tableInfo.getTranslogIndexer().index(item.id(), item.source(), true);
+        } catch (TranslogMappingUpdateException e) {
+            // The source contains a column added by the primary which is not yet known here,
+            // see indexInsertValues for why we need to wait.
+            logger.trace("Mappings are not available on the replica for id={}", item.id());
+            throw new TransportReplicationAction.RetryOnReplicaException(indexShard.shardId(),
+                "Mappings are not available on the replica yet");
+        }
+    }
+
+    /**
+     * Creates the document by evaluating the insert values, used for items without source.
+     */
+    private ParsedDocument indexInsertValues(IndexShard indexShard,
+                                             ShardUpsertRequest request,
+                                             ShardUpsertRequest.Item item,
+                                             @Nullable Indexer indexer,
+                                             @Nullable RawIndexer rawIndexer) throws IOException {
+        assert indexer != null || rawIndexer != null : "Indexer must be created if an item has no source";
+        List<Reference> newColumns = rawIndexer != null ? rawIndexer.collectSchemaUpdates(item) : indexer.collectSchemaUpdates(item);
+
+        if (!newColumns.isEmpty()) {
+            // Even though the primary waits on all nodes to ack the mapping changes to the master
+            // (see MappingUpdatedAction.updateMappingOnMaster) we still need to protect against missing mappings
+            // and wait for them. The reason is concurrent requests. Request r1 which has new field f triggers a
+            // mapping update. Assume that that update is first applied on the primary, and only later on the replica
+            // (it’s happening concurrently). Request r2, which now arrives on the primary and which also has the new
+            // field f might see the updated mapping (on the primary), and will therefore proceed to be replicated
+            // to the replica. When it arrives on the replica, there’s no guarantee that the replica has already
+            // applied the new mapping, so there is no other option than to wait.
+            logger.trace("Mappings are not available on the replica columns={}", newColumns);
+            throw new TransportReplicationAction.RetryOnReplicaException(indexShard.shardId(),
+                "Mappings are not available on the replica yet, triggered update: " + newColumns);
+        }
+
+        ParsedDocument parsedDoc = rawIndexer != null ? rawIndexer.index() : indexer.index(item);
+        if (request.items().size() > 1) {
+            // The indexer re-uses its source buffer for the next item
+            parsedDoc.detachSource();
+        }
+        return parsedDoc;
+    }
+
     /**
      * @param indexer is constantly used for:
      * <ul>
@@ -510,6 +706,18 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                                        boolean isRetry,
                                        @Nullable RawIndexer rawIndexer,
                                        long version) throws Exception {
+        Engine.Index index = prepareInsert(indexer, request, item, indexShard, isRetry, rawIndexer, version);
+        IndexResult result = indexShard.index(index);
+        return toItemResponse(indexer, item, indexShard, result);
+    }
+
+    private Engine.Index prepareInsert(Indexer indexer,
+                                       ShardUpsertRequest request,
+                                       ShardUpsertRequest.Item item,
+                                       IndexShard indexShard,
+                                       boolean isRetry,
+                                       @Nullable RawIndexer rawIndexer,
+                                       long version) throws Exception {
         final long startTime = System.nanoTime();
 
         List<Reference> newColumns = rawIndexer != null ? rawIndexer.collectSchemaUpdates(item) : indexer.collectSchemaUpdates(item);
@@ -532,6 +740,14 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         }
 
         ParsedDocument parsedDoc = rawIndexer != null ? rawIndexer.index() : indexer.index(item);
+        if (indexShard.indexSettings().getNumberOfReplicas() > 0) {
+            // Replicas index the source as is instead of evaluating the insert values again.
+            // The item outlives the indexer's source buffer which is re-used for the next item.
+            parsedDoc.detachSource();
+            item.source(parsedDoc.source());
+        } else {
+            item.source(null);
+        }
 
         // Replica must use the same values for undeterministic defaults/generated columns
         // This check must be done after index() call to let values/indexers size check compare original array sizes.
@@ -543,7 +759,7 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
 
         Term uid = new Term(DocSysColumns.Names.ID, Uid.encodeId(item.id()));
         assert VersionType.INTERNAL.validateVersionForWrites(version);
-        Engine.Index index = new Engine.Index(
+        return new Engine.Index(
             uid,
             parsedDoc,
             SequenceNumbers.UNASSIGNED_SEQ_NO,
@@ -557,7 +773,12 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
             SequenceNumbers.UNASSIGNED_SEQ_NO,
             SequenceNumbers.UNASSIGNED_PRIMARY_TERM
         );
-        IndexResult result = indexShard.index(index);
+    }
+
+    private static IndexItemResponse toItemResponse(Indexer indexer,
+                                                    ShardUpsertRequest.Item item,
+                                                    IndexShard indexShard,
+                                                    IndexResult result) throws Exception {
         switch (result.getResultType()) {
             case SUCCESS:
                 item.seqNo(result.getSeqNo());
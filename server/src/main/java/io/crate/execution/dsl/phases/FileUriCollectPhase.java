@@ -80,7 +80,11 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
 
     public enum InputFormat {
         JSON,
-        CSV
+        CSV,
+        /**
+         * The text format of PostgreSQL's COPY
+         */
+        TEXT
     }
 
     public Symbol targetUri() {
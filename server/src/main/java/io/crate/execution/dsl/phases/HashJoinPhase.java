@@ -44,7 +44,9 @@ public class HashJoinPhase extends JoinPhase {
     private final List<Symbol> rightJoinConditionInputs;
 
     private final List<DataType<?>> leftOutputTypes;
+    private final List<DataType<?>> rightOutputTypes;
     private final long estimatedRowSizeForLeft;
+    private final long estimatedNumRowsForLeft;
 
     public HashJoinPhase(UUID jobId,
                          int executionNodeId,
@@ -55,11 +57,14 @@ public class HashJoinPhase extends JoinPhase {
                          int numLeftOutputs,
                          int numRightOutputs,
                          Collection<String> executionNodes,
+                         JoinType joinType,
                          @Nullable Symbol joinCondition,
                          List<Symbol> leftJoinConditionInputs,
                          List<Symbol> rightJoinConditionInputs,
                          List<DataType<?>> leftOutputTypes,
-                         long estimatedRowSizeForLeft) {
+                         List<DataType<?>> rightOutputTypes,
+                         long estimatedRowSizeForLeft,
+                         long estimatedNumRowsForLeft) {
         super(
             jobId,
             executionNodeId,
@@ -70,13 +75,15 @@ public class HashJoinPhase extends JoinPhase {
             numLeftOutputs,
             numRightOutputs,
             executionNodes,
-            JoinType.INNER,
+            joinType,
             joinCondition);
         assert joinCondition != null : "JoinCondition for HashJoin cannot be null";
         this.leftJoinConditionInputs = leftJoinConditionInputs;
         this.rightJoinConditionInputs = rightJoinConditionInputs;
         this.leftOutputTypes = leftOutputTypes;
+        this.rightOutputTypes = rightOutputTypes;
         this.estimatedRowSizeForLeft = estimatedRowSizeForLeft;
+        this.estimatedNumRowsForLeft = estimatedNumRowsForLeft;
     }
 
     public HashJoinPhase(StreamInput in) throws IOException {
@@ -91,6 +98,13 @@ public class HashJoinPhase extends JoinPhase {
             // Version before 5.6.0 used to send numberOfRowsForLeft
             in.readZLong();
         }
+        if (in.getVersion().onOrAfter(Version.V_5_8_0)) {
+            rightOutputTypes = DataTypes.listFromStream(in);
+            estimatedNumRowsForLeft = in.readZLong();
+        } else {
+            rightOutputTypes = List.of();
+            estimatedNumRowsForLeft = -1;
+        }
     }
 
     @Override
@@ -107,6 +121,10 @@ public class HashJoinPhase extends JoinPhase {
             // sending neutral value, indicating that this stat is unavailable.
             out.writeZLong(-1);
         }
+        if (out.getVersion().onOrAfter(Version.V_5_8_0)) {
+            DataTypes.toStream(rightOutputTypes, out);
+            out.writeZLong(estimatedNumRowsForLeft);
+        }
     }
 
     @Override
@@ -131,7 +149,21 @@ public class HashJoinPhase extends JoinPhase {
         return leftOutputTypes;
     }
 
+    /**
+     * @return the types of the right outputs. Empty if the phase was sent by a node before 5.8.0
+     */
+    public List<DataType<?>> rightOutputTypes() {
+        return rightOutputTypes;
+    }
+
     public long estimatedRowSizeForLeft() {
         return estimatedRowSizeForLeft;
     }
+
+    /**
+     * @return the estimated number of rows of the left side or -1 if unknown
+     */
+    public long estimatedNumRowsForLeft() {
+        return estimatedNumRowsForLeft;
+    }
 }
@@ -110,6 +110,16 @@ public abstract class AggregationFunction<TPartial, TFinal> implements FunctionI
         return false;
     }
 
+    /**
+     * Indicates if {@link #reduce(RamAccounting, Object, Object)} leaves both states untouched and returns either
+     * one of them or a new instance. States of such functions can be combined repeatedly, which allows window
+     * functions to evaluate sliding frames using a segment tree of partial states instead of re-aggregating
+     * every frame.
+     */
+    public boolean isMergeable() {
+        return false;
+    }
+
     public TPartial removeFromAggregatedState(RamAccounting ramAccounting,
                                               TPartial previousAggState,
                                               Input<?>[] stateToRemove) {
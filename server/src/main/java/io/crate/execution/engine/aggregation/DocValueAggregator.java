@@ -38,6 +38,18 @@ public interface DocValueAggregator<T> {
 
     public void apply(RamAccounting ramAccounting, int doc, T state) throws IOException;
 
+    /**
+     * Applies the values of the first {@code numDocs} documents in {@code docs}.
+     * The doc ids belong to the current leaf and are in ascending order.
+     * Implementations can override this to keep the state in locals while
+     * iterating over the values.
+     */
+    default void apply(RamAccounting ramAccounting, int[] docs, int numDocs, T state) throws IOException {
+        for (int i = 0; i < numDocs; i++) {
+            apply(ramAccounting, docs[i], state);
+        }
+    }
+
     // Aggregations are executed on shard level,
     // that means there is always a final reduce step necessary
     // → never return final value, but always partial result
@@ -62,6 +62,11 @@ public final class GroupByMaps {
         };
     }
 
+    public static <V> BiConsumer<Map<PackedGroupKey, V>, PackedGroupKey> accountForNewEntry(RamAccounting ramAccounting,
+                                                                                          GroupKeyPacker packer) {
+        return (map, k) -> ramAccounting.addBytes(RamUsageEstimator.alignObjectSize(packer.ramBytesUsed(k) + 36));
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static <K, V> Supplier<Map<K, V>> mapForType(DataType<K> type) {
         switch (type.id()) {
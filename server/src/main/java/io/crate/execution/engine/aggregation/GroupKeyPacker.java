@@ -0,0 +1,277 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import io.crate.Streamer;
+import io.crate.data.Input;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.TimestampType;
+
+/**
+ * Creates {@link PackedGroupKey}s out of the values of multiple key columns.
+ *
+ * <p>
+ * Compared to a {@code List<Object>} per key, fixed-width values are stored unboxed in a single {@code long[]}.
+ * Lookups use a re-used probe key (see {@link #pack(List)}), so only new groups allocate a key
+ * (see {@link #copy(PackedGroupKey)}).
+ * </p>
+ *
+ * This class is not thread-safe.
+ */
+public final class GroupKeyPacker {
+
+    /**
+     * Number of key columns supported; limited by the bit-set of null columns held in the first word of a key.
+     */
+    public static final int MAX_KEYS = Long.SIZE;
+
+    private static final long SHALLOW_KEY_SIZE = RamUsageEstimator.shallowSizeOfInstance(PackedGroupKey.class);
+
+    private final List<? extends DataType<?>> types;
+
+    /**
+     * Per key column: index within {@link PackedGroupKey#words} if the value is packed, otherwise -(index + 1) within
+     * {@link PackedGroupKey#refs}
+     */
+    private final int[] slots;
+    private final int numWords;
+    private final int numRefs;
+    private final long shallowKeySize;
+    private final PackedGroupKey probe;
+
+    public GroupKeyPacker(List<? extends DataType<?>> types) {
+        assert types.size() <= MAX_KEYS : "GroupKeyPacker supports up to " + MAX_KEYS + " keys";
+        this.types = types;
+        this.slots = new int[types.size()];
+        int words = 1;
+        int refs = 0;
+        for (int i = 0; i < types.size(); i++) {
+            if (isFixedWidth(types.get(i))) {
+                slots[i] = words++;
+            } else {
+                slots[i] = -(refs + 1);
+                refs++;
+            }
+        }
+        this.numWords = words;
+        this.numRefs = refs;
+        this.probe = newKey();
+        long keySize = RamUsageEstimator.alignObjectSize(SHALLOW_KEY_SIZE) + RamUsageEstimator.sizeOf(probe.words);
+        if (probe.refs != null) {
+            keySize += RamUsageEstimator.shallowSizeOf(probe.refs);
+        }
+        this.shallowKeySize = keySize;
+    }
+
+    private static boolean isFixedWidth(DataType<?> type) {
+        return switch (type.id()) {
+            case BooleanType.ID,
+                 ByteType.ID,
+                 ShortType.ID,
+                 IntegerType.ID,
+                 LongType.ID,
+                 TimestampType.ID_WITH_TZ,
+                 TimestampType.ID_WITHOUT_TZ,
+                 FloatType.ID,
+                 DoubleType.ID -> true;
+            default -> false;
+        };
+    }
+
+    private PackedGroupKey newKey() {
+        return new PackedGroupKey(new long[numWords], numRefs == 0 ? null : new Object[numRefs]);
+    }
+
+    /**
+     * Packs the current values of the inputs into the probe key.
+     * The returned key is re-used by the next call, use {@link #copy(PackedGroupKey)} to store it.
+     */
+    public PackedGroupKey pack(List<? extends Input<?>> inputs) {
+        for (int i = 0; i < slots.length; i++) {
+            setValue(i, inputs.get(i).value());
+        }
+        return probe();
+    }
+
+    /**
+     * Sets the value of a key column of the probe key; see {@link #probe()}
+     */
+    public void setValue(int column, Object value) {
+        if (set(probe, column, value)) {
+            probe.words[0] |= 1L << column;
+        } else {
+            probe.words[0] &= ~(1L << column);
+        }
+    }
+
+    /**
+     * Sets the value of a key column of the probe key without boxing it.
+     * The column must be of a fixed-width integral or timestamp type.
+     */
+    public void setLong(int column, long value) {
+        assert slots[column] > 0 && !isFloatingPoint(types.get(column))
+            : "setLong is only supported for integral types, got: " + types.get(column);
+        probe.words[slots[column]] = value;
+        probe.words[0] &= ~(1L << column);
+    }
+
+    /**
+     * @return the probe key with the values set via {@link #setValue(int, Object)} and {@link #setLong(int, long)}.
+     *         The returned key is re-used, use {@link #copy(PackedGroupKey)} to store it.
+     */
+    public PackedGroupKey probe() {
+        probe.updateHash();
+        return probe;
+    }
+
+    /**
+     * @return true if values of the type can be set via {@link #setLong(int, long)}
+     */
+    public static boolean supportsLong(DataType<?> type) {
+        return isFixedWidth(type) && !isFloatingPoint(type) && type.id() != BooleanType.ID;
+    }
+
+    private static boolean isFloatingPoint(DataType<?> type) {
+        return type.id() == FloatType.ID || type.id() == DoubleType.ID;
+    }
+
+    /**
+     * @return a copy of the key which isn't affected by subsequent calls to {@link #pack(List)}
+     */
+    public PackedGroupKey copy(PackedGroupKey key) {
+        return key == probe ? key.copy() : key;
+    }
+
+    /**
+     * @return true if the value is null
+     */
+    private boolean set(PackedGroupKey key, int column, Object value) {
+        int slot = slots[column];
+        if (slot < 0) {
+            key.refs[-slot - 1] = value;
+            return value == null;
+        }
+        if (value == null) {
+            key.words[slot] = 0L;
+            return true;
+        }
+        key.words[slot] = switch (types.get(column).id()) {
+            case BooleanType.ID -> ((Boolean) value) ? 1L : 0L;
+            case FloatType.ID -> Float.floatToIntBits(((Number) value).floatValue());
+            case DoubleType.ID -> Double.doubleToLongBits(((Number) value).doubleValue());
+            default -> ((Number) value).longValue();
+        };
+        return false;
+    }
+
+    private Object get(PackedGroupKey key, int column) {
+        int slot = slots[column];
+        if (slot < 0) {
+            return key.refs[-slot - 1];
+        }
+        if ((key.words[0] & (1L << column)) != 0) {
+            return null;
+        }
+        long word = key.words[slot];
+        return switch (types.get(column).id()) {
+            case BooleanType.ID -> word != 0L;
+            case ByteType.ID -> (byte) word;
+            case ShortType.ID -> (short) word;
+            case IntegerType.ID -> (int) word;
+            case FloatType.ID -> Float.intBitsToFloat((int) word);
+            case DoubleType.ID -> Double.longBitsToDouble(word);
+            default -> word;
+        };
+    }
+
+    /**
+     * Writes the values of the key columns into {@code cells}, starting at index 0.
+     */
+    public void unpack(PackedGroupKey key, Object[] cells) {
+        for (int i = 0; i < slots.length; i++) {
+            cells[i] = get(key, i);
+        }
+    }
+
+    /**
+     * @return the estimated number of bytes used by a stored key, including the values held by reference
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public long ramBytesUsed(PackedGroupKey key) {
+        long size = shallowKeySize;
+        for (int i = 0; numRefs > 0 && i < slots.length; i++) {
+            int slot = slots[i];
+            if (slot < 0) {
+                size += ((DataType) types.get(i)).valueBytes(key.refs[-slot - 1]);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Streamer writing the values of the key columns using the streamers of their types, e.g. to spill groups to disk.
+     */
+    @SuppressWarnings("unchecked")
+    Streamer<PackedGroupKey> streamer() {
+        Streamer<Object>[] streamers = new Streamer[types.size()];
+        for (int i = 0; i < streamers.length; i++) {
+            streamers[i] = (Streamer<Object>) types.get(i).streamer();
+        }
+        return new Streamer<>() {
+
+            @Override
+            public PackedGroupKey readValueFrom(StreamInput in) throws IOException {
+                PackedGroupKey key = newKey();
+                long nulls = 0L;
+                for (int i = 0; i < streamers.length; i++) {
+                    if (set(key, i, streamers[i].readValueFrom(in))) {
+                        nulls |= 1L << i;
+                    }
+                }
+                key.words[0] = nulls;
+                key.updateHash();
+                return key;
+            }
+
+            @Override
+            public void writeValueTo(StreamOutput out, PackedGroupKey key) throws IOException {
+                for (int i = 0; i < streamers.length; i++) {
+                    streamers[i].writeValueTo(out, get(key, i));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+import io.crate.execution.engine.spill.SpillFile;
+import io.crate.execution.engine.spill.SpillRamAccounting;
+import io.crate.types.DataType;
+
+/**
+ * Moves the group states of a {@link GroupingCollector} to disk if the circuit breaker rejects new groups.
+ *
+ * <p>
+ * Groups are hash-partitioned by key and written as (key, partial states) records using the streamers of the
+ * {@link AggregationFunction#partialType()}. Once all input has been consumed the partitions are read back one at a
+ * time and records with the same key are merged using {@link AggregationFunction#reduce}.
+ * This requires that the groups of a single partition fit into memory.
+ * </p>
+ */
+final class GroupStatesSpiller<K> implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(GroupStatesSpiller.class);
+
+    private final Streamer<K> keyStreamer;
+    private final Streamer<Object>[] stateStreamers;
+    private final SpillRamAccounting ramAccounting;
+    private final SpillFile[] partitions;
+    private int numSpills = 0;
+
+    @SuppressWarnings("unchecked")
+    GroupStatesSpiller(Streamer<K> keyStreamer,
+                       AggregationFunction<?, ?>[] aggregations,
+                       SpillRamAccounting ramAccounting,
+                       int numPartitions) {
+        this.keyStreamer = keyStreamer;
+        this.stateStreamers = new Streamer[aggregations.length];
+        for (int i = 0; i < aggregations.length; i++) {
+            stateStreamers[i] = (Streamer<Object>) aggregations[i].partialType().streamer();
+        }
+        this.ramAccounting = ramAccounting;
+        this.partitions = new SpillFile[numPartitions];
+    }
+
+    boolean hasSpilled() {
+        return numSpills > 0;
+    }
+
+    /**
+     * Writes all groups to disk, clears {@code statesByKey} and releases the memory accounted for the groups.
+     *
+     * @param cause the exception that triggered the spill. Re-thrown if there is nothing to spill.
+     */
+    void spill(Map<K, Object[]> statesByKey, CircuitBreakingException cause) {
+        if (statesByKey.isEmpty()) {
+            throw cause;
+        }
+        LOGGER.debug("Spilling {} groups ({} bytes) to disk", statesByKey.size(), ramAccounting.totalBytes());
+        writeAll(statesByKey);
+    }
+
+    /**
+     * Writes the remaining in-memory groups to disk and makes the partitions readable.
+     */
+    void finish(Map<K, Object[]> statesByKey) {
+        if (!statesByKey.isEmpty()) {
+            writeAll(statesByKey);
+        }
+        for (SpillFile partition : partitions) {
+            if (partition != null) {
+                partition.finishWriting();
+            }
+        }
+    }
+
+    private void writeAll(Map<K, Object[]> statesByKey) {
+        try {
+            for (Map.Entry<K, Object[]> entry : statesByKey.entrySet()) {
+                K key = entry.getKey();
+                SpillFile partition = partition(key);
+                StreamOutput out = partition.output();
+                keyStreamer.writeValueTo(out, key);
+                Object[] states = entry.getValue();
+                for (int i = 0; i < states.length; i++) {
+                    stateStreamers[i].writeValueTo(out, states[i]);
+                }
+                partition.recordWritten();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        statesByKey.clear();
+        ramAccounting.release();
+        numSpills++;
+    }
+
+    private SpillFile partition(K key) {
+        int idx = Math.floorMod(BitMixer.mix32(Objects.hashCode(key)), partitions.length);
+        SpillFile partition = partitions[idx];
+        if (partition == null) {
+            partition = SpillFile.create();
+            partitions[idx] = partition;
+        }
+        return partition;
+    }
+
+    /**
+     * Returns the non-empty partitions; {@link #finish(Map)} must have been called.
+     */
+    List<SpillFile> partitions() {
+        ArrayList<SpillFile> result = new ArrayList<>(partitions.length);
+        for (SpillFile partition : partitions) {
+            if (partition != null) {
+                result.add(partition);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a partition into a new map, merging the states of groups which had been spilled multiple times.
+     * Memory accounted for a previously loaded partition is released first.
+     */
+    @SuppressWarnings("unchecked")
+    Map<K, Object[]> load(SpillFile partition,
+                          Supplier<Map<K, Object[]>> mapSupplier,
+                          BiConsumer<Map<K, Object[]>, K> accountForNewEntry,
+                          AggregationFunction[] aggregations) {
+        ramAccounting.release();
+        Map<K, Object[]> statesByKey = mapSupplier.get();
+        try (StreamInput in = partition.input()) {
+            for (long i = 0; i < partition.numRecords(); i++) {
+                K key = keyStreamer.readValueFrom(in);
+                Object[] spilledStates = new Object[stateStreamers.length];
+                for (int s = 0; s < stateStreamers.length; s++) {
+                    spilledStates[s] = stateStreamers[s].readValueFrom(in);
+                }
+                Object[] states = statesByKey.get(key);
+                if (states == null) {
+                    accountForNewEntry.accept(statesByKey, key);
+                    statesByKey.put(key, spilledStates);
+                } else {
+                    for (int s = 0; s < states.length; s++) {
+                        states[s] = aggregations[s].reduce(ramAccounting, states[s], spilledStates[s]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return statesByKey;
+    }
+
+    @Override
+    public void close() {
+        try {
+            IOUtils.close(partitions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Streamer<List<Object>> keysStreamer(List<? extends DataType> keyTypes) {
+        Streamer<Object>[] streamers = new Streamer[keyTypes.size()];
+        for (int i = 0; i < streamers.length; i++) {
+            streamers[i] = (Streamer<Object>) keyTypes.get(i).streamer();
+        }
+        return new Streamer<>() {
+
+            @Override
+            public List<Object> readValueFrom(StreamInput in) throws IOException {
+                List<Object> key = new ArrayList<>(streamers.length);
+                for (Streamer<Object> streamer : streamers) {
+                    key.add(streamer.readValueFrom(in));
+                }
+                return key;
+            }
+
+            @Override
+            public void writeValueTo(StreamOutput out, List<Object> key) throws IOException {
+                for (int i = 0; i < streamers.length; i++) {
+                    streamers[i].writeValueTo(out, key.get(i));
+                }
+            }
+        };
+    }
+}
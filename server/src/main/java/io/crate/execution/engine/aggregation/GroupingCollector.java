@@ -21,37 +21,51 @@
 
 package io.crate.execution.engine.aggregation;
 
+import io.crate.Streamer;
 import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.data.RowN;
 import io.crate.data.breaker.RamAccounting;
 import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.spill.SpillFile;
+import io.crate.execution.engine.spill.SpillRamAccounting;
 import io.crate.expression.InputCondition;
 import io.crate.expression.symbol.AggregateMode;
 import io.crate.memory.MemoryManager;
 import io.crate.types.DataType;
 import org.elasticsearch.Version;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Iterator;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collector;
 
 /**
  * Collector implementation which uses {@link AggregateMode}s and {@code keyInputs}
  * to group rows by key and aggregate the grouped values.
  *
+ * <p>
+ * If spilling is enabled (numSpillPartitions &gt; 0) and the circuit breaker rejects a new group, the groups
+ * collected so far are moved to disk (see {@link GroupStatesSpiller}) and merged once all rows have been consumed.
+ * The collector must be closed to remove the spill files.
+ * </p>
+ *
  * @param <K> type of the key
  */
-public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, Iterable<Row>> {
+public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, Iterable<Row>>, Closeable {
 
     private final CollectExpression<Row, ?>[] expressions;
     private final AggregationFunction[] aggregations;
@@ -64,10 +78,13 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
     private final int numKeyColumns;
     private final BiConsumer<Map<K, Object[]>, K> accountForNewEntry;
     private final Function<Row, K> keyExtractor;
+    private final UnaryOperator<K> keyForNewEntry;
     private final Version indexVersionCreated;
     private final BiConsumer<Map<K, Object[]>, Row> accumulator;
     private final Supplier<Map<K, Object[]>> supplier;
     private final Version minNodeVersion;
+    @Nullable
+    private final GroupStatesSpiller<K> spiller;
 
     static GroupingCollector<Object> singleKey(CollectExpression<Row, ?>[] expressions,
                                                AggregateMode mode,
@@ -79,51 +96,113 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                                                Version minNodeVersion,
                                                Input<?> keyInput,
                                                DataType keyType,
-                                               Version indexVersionCreated) {
+                                               Version indexVersionCreated,
+                                               int numSpillPartitions) {
+        RamAccounting accounting = ramAccounting;
+        GroupStatesSpiller<Object> spiller = null;
+        if (numSpillPartitions > 0) {
+            SpillRamAccounting spillRamAccounting = new SpillRamAccounting(ramAccounting);
+            //noinspection unchecked
+            spiller = new GroupStatesSpiller<>(
+                (Streamer<Object>) keyType.streamer(),
+                aggregations,
+                spillRamAccounting,
+                numSpillPartitions
+            );
+            accounting = spillRamAccounting;
+        }
         return new GroupingCollector<>(
             expressions,
             aggregations,
             mode,
             inputs,
             filters,
-            ramAccounting,
+            accounting,
             memoryManager,
             minNodeVersion,
             (key, cells) -> cells[0] = key,
             1,
-            GroupByMaps.accountForNewEntry(ramAccounting, keyType),
+            GroupByMaps.accountForNewEntry(accounting, keyType),
             row -> keyInput.value(),
+            UnaryOperator.identity(),
             indexVersionCreated,
-            GroupByMaps.mapForType(keyType)
+            GroupByMaps.mapForType(keyType),
+            spiller
         );
     }
 
-    static GroupingCollector<List<Object>> manyKeys(CollectExpression<Row, ?>[] expressions,
-                                                    AggregateMode mode,
-                                                    AggregationFunction[] aggregations,
-                                                    Input[][] inputs,
-                                                    Input<Boolean>[] filters,
-                                                    RamAccounting ramAccountingContext,
-                                                    MemoryManager memoryManager,
-                                                    Version minNodeVersion,
-                                                    List<Input<?>> keyInputs,
-                                                    List<? extends DataType> keyTypes,
-                                                    Version indexVersionCreated) {
+    /**
+     * Creates a collector for multiple key columns. Up to {@link GroupKeyPacker#MAX_KEYS} the keys are
+     * packed into {@link PackedGroupKey}s, otherwise a {@code List} is used per key.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static GroupingCollector<?> manyKeys(CollectExpression<Row, ?>[] expressions,
+                                         AggregateMode mode,
+                                         AggregationFunction[] aggregations,
+                                         Input[][] inputs,
+                                         Input<Boolean>[] filters,
+                                         RamAccounting ramAccountingContext,
+                                         MemoryManager memoryManager,
+                                         Version minNodeVersion,
+                                         List<Input<?>> keyInputs,
+                                         List<? extends DataType> keyTypes,
+                                         Version indexVersionCreated,
+                                         int numSpillPartitions) {
+        RamAccounting accounting = ramAccountingContext;
+        SpillRamAccounting spillRamAccounting = null;
+        if (numSpillPartitions > 0) {
+            spillRamAccounting = new SpillRamAccounting(ramAccountingContext);
+            accounting = spillRamAccounting;
+        }
+        if (keyTypes.size() <= GroupKeyPacker.MAX_KEYS) {
+            GroupKeyPacker packer = new GroupKeyPacker((List) keyTypes);
+            GroupStatesSpiller<PackedGroupKey> spiller = spillRamAccounting == null
+                ? null
+                : new GroupStatesSpiller<>(packer.streamer(), aggregations, spillRamAccounting, numSpillPartitions);
+            return new GroupingCollector<>(
+                expressions,
+                aggregations,
+                mode,
+                inputs,
+                filters,
+                accounting,
+                memoryManager,
+                minNodeVersion,
+                packer::unpack,
+                keyInputs.size(),
+                GroupByMaps.accountForNewEntry(accounting, packer),
+                row -> packer.pack(keyInputs),
+                packer::copy,
+                indexVersionCreated,
+                HashMap::new,
+                spiller
+            );
+        }
+        GroupStatesSpiller<List<Object>> spiller = spillRamAccounting == null
+            ? null
+            : new GroupStatesSpiller<>(
+                GroupStatesSpiller.keysStreamer(keyTypes),
+                aggregations,
+                spillRamAccounting,
+                numSpillPartitions
+            );
         return new GroupingCollector<>(
             expressions,
             aggregations,
             mode,
             inputs,
             filters,
-            ramAccountingContext,
+            accounting,
             memoryManager,
             minNodeVersion,
             GroupingCollector::applyKeysToCells,
             keyInputs.size(),
-            GroupByMaps.accountForNewEntry(ramAccountingContext, keyTypes),
+            GroupByMaps.accountForNewEntry(accounting, keyTypes),
             row -> evalKeyInputs(keyInputs),
+            UnaryOperator.identity(),
             indexVersionCreated,
-            HashMap::new
+            HashMap::new,
+            spiller
         );
     }
 
@@ -153,8 +232,10 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                               int numKeyColumns,
                               BiConsumer<Map<K, Object[]>, K> accountForNewEntry,
                               Function<Row, K> keyExtractor,
+                              UnaryOperator<K> keyForNewEntry,
                               Version indexVersionCreated,
-                              Supplier<Map<K, Object[]>> supplier) {
+                              Supplier<Map<K, Object[]>> supplier,
+                              @Nullable GroupStatesSpiller<K> spiller) {
         this.expressions = expressions;
         this.aggregations = aggregations;
         this.mode = mode;
@@ -166,10 +247,12 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
         this.numKeyColumns = numKeyColumns;
         this.accountForNewEntry = accountForNewEntry;
         this.keyExtractor = keyExtractor;
+        this.keyForNewEntry = keyForNewEntry;
         this.indexVersionCreated = indexVersionCreated;
         this.accumulator = mode == AggregateMode.PARTIAL_FINAL ? this::reduce : this::iter;
         this.supplier = supplier;
         this.minNodeVersion = minNodeVersion;
+        this.spiller = spiller;
     }
 
     @Override
@@ -210,7 +293,16 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
             for (int i = 0; i < aggregations.length; i++) {
                 states[i] = inputs[i][0].value();
             }
-            addWithAccounting(statesByKey, key, states);
+            if (spiller == null) {
+                addWithAccounting(statesByKey, key, states);
+            } else {
+                try {
+                    addWithAccounting(statesByKey, key, states);
+                } catch (CircuitBreakingException e) {
+                    spiller.spill(statesByKey, e);
+                    addWithAccounting(statesByKey, key, states);
+                }
+            }
         } else {
             for (int i = 0; i < aggregations.length; i++) {
                 states[i] = aggregations[i].reduce(ramAccounting, states[i], inputs[i][0].value());
@@ -220,7 +312,7 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
 
     private void addWithAccounting(Map<K, Object[]> statesByKey, K key, Object[] states) {
         accountForNewEntry.accept(statesByKey, key);
-        statesByKey.put(key, states);
+        statesByKey.put(keyForNewEntry.apply(key), states);
     }
 
     private void iter(Map<K, Object[]> statesByKey, Row row) {
@@ -230,7 +322,17 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
         K key = keyExtractor.apply(row);
         Object[] states = statesByKey.get(key);
         if (states == null) {
-            addNewEntry(statesByKey, key);
+            if (spiller == null) {
+                addNewEntry(statesByKey, key);
+            } else {
+                try {
+                    addNewEntry(statesByKey, key);
+                } catch (CircuitBreakingException e) {
+                    // The states created for the rejected group are discarded; they are re-created after the spill
+                    spiller.spill(statesByKey, e);
+                    addNewEntry(statesByKey, key);
+                }
+            }
         } else {
             for (int i = 0; i < aggregations.length; i++) {
                 if (InputCondition.matches(filters[i])) {
@@ -259,8 +361,40 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
     }
 
     private Iterable<Row> mapToRows(Map<K, Object[]> statesByKey) {
-
+        if (spiller == null || !spiller.hasSpilled()) {
+            return () -> rowsIterator(statesByKey);
+        }
+        spiller.finish(statesByKey);
+        List<SpillFile> partitions = spiller.partitions();
         return () -> new Iterator<>() {
+
+            final Iterator<SpillFile> partitionsIt = partitions.iterator();
+            Iterator<Row> rowsIt = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!rowsIt.hasNext()) {
+                    if (!partitionsIt.hasNext()) {
+                        return false;
+                    }
+                    SpillFile partition = partitionsIt.next();
+                    rowsIt = rowsIterator(spiller.load(partition, supplier, accountForNewEntry, aggregations));
+                }
+                return true;
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("Iterator is exhausted");
+                }
+                return rowsIt.next();
+            }
+        };
+    }
+
+    private Iterator<Row> rowsIterator(Map<K, Object[]> statesByKey) {
+        return new Iterator<>() {
             final Iterator<Map.Entry<K, Object[]>> iterator = statesByKey.entrySet().iterator();
             final RowN row = new RowN(numKeyColumns + aggregations.length);
             final Object[] cells = new Object[row.numColumns()];
@@ -289,4 +423,11 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
             }
         };
     }
+
+    @Override
+    public void close() {
+        if (spiller != null) {
+            spiller.close();
+        }
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Key of a group with multiple key columns, created by a {@link GroupKeyPacker}.
+ *
+ * <p>
+ * Fixed-width values (integral numbers, timestamps, booleans and floating point numbers) are packed into
+ * {@code words}, other values (e.g. strings) are held by reference in {@code refs}.
+ * The first word is a bit-set of the columns which are null.
+ * </p>
+ */
+public final class PackedGroupKey {
+
+    final long[] words;
+
+    @Nullable
+    final Object[] refs;
+
+    int hash;
+
+    PackedGroupKey(long[] words, @Nullable Object[] refs) {
+        this.words = words;
+        this.refs = refs;
+    }
+
+    void updateHash() {
+        int h = 1;
+        for (long word : words) {
+            h = 31 * h + Long.hashCode(word);
+        }
+        if (refs != null) {
+            for (Object ref : refs) {
+                h = 31 * h + (ref == null ? 0 : ref.hashCode());
+            }
+        }
+        hash = h;
+    }
+
+    PackedGroupKey copy() {
+        PackedGroupKey copy = new PackedGroupKey(words.clone(), refs == null ? null : refs.clone());
+        copy.hash = hash;
+        return copy;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof PackedGroupKey other
+            && hash == other.hash
+            && Arrays.equals(words, other.words)
+            && Arrays.equals(refs, other.refs);
+    }
+
+    @Override
+    public String toString() {
+        return "PackedGroupKey{words=" + Arrays.toString(words) + ", refs=" + Arrays.toString(refs) + '}';
+    }
+}
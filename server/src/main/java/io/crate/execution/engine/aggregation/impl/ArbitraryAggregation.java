@@ -112,6 +112,11 @@ public class ArbitraryAggregation extends AggregationFunction<Object, Object> {
         return partialType;
     }
 
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
     @Nullable
     @Override
     public Object newState(RamAccounting ramAccounting,
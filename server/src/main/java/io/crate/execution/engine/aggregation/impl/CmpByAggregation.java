@@ -258,6 +258,11 @@ public final class CmpByAggregation extends AggregationFunction<CmpByAggregation
         return partialType;
     }
 
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
 
     static class CmpByLongState {
 
@@ -330,6 +330,11 @@ public abstract class MaximumAggregation extends AggregationFunction<Object, Obj
         return boundSignature.returnType();
     }
 
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
     @Override
     public Object iterate(RamAccounting ramAccounting,
                           MemoryManager memoryManager,
@@ -327,6 +327,11 @@ public abstract class MinimumAggregation extends AggregationFunction<Object, Obj
         return boundSignature.returnType();
     }
 
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
     @Override
     public Object terminatePartial(RamAccounting ramAccounting, Object state) {
         return state;
@@ -267,6 +267,21 @@ public class SumAggregation<T extends Number> extends AggregationFunction<T, T>
             }
         }
 
+        @Override
+        public void apply(RamAccounting ramAccounting, int[] docs, int numDocs, MutableLong state) throws IOException {
+            long sum = state.value();
+            boolean hasValue = false;
+            for (int i = 0; i < numDocs; i++) {
+                if (values.advanceExact(docs[i]) && values.docValueCount() == 1) {
+                    sum = Math.addExact(sum, values.nextValue());
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                state.setValue(sum);
+            }
+        }
+
         @Override
         public Long partialResult(RamAccounting ramAccounting, MutableLong state) {
             return state.hasValue() ? state.value() : null;
@@ -305,6 +320,21 @@ public class SumAggregation<T extends Number> extends AggregationFunction<T, T>
             }
         }
 
+        @Override
+        public void apply(RamAccounting ramAccounting, int[] docs, int numDocs, MutableDouble state) throws IOException {
+            double sum = state.value();
+            boolean hasValue = false;
+            for (int i = 0; i < numDocs; i++) {
+                if (values.advanceExact(docs[i]) && values.docValueCount() == 1) {
+                    sum = kahanSummation.sum(sum, NumericUtils.sortableLongToDouble(values.nextValue()));
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                state.setValue(sum);
+            }
+        }
+
         @Override
         public Object partialResult(RamAccounting ramAccounting, MutableDouble state) {
             return state.hasValue() ? state.value() : null;
@@ -343,6 +373,21 @@ public class SumAggregation<T extends Number> extends AggregationFunction<T, T>
             }
         }
 
+        @Override
+        public void apply(RamAccounting ramAccounting, int[] docs, int numDocs, MutableFloat state) throws IOException {
+            float sum = state.value();
+            boolean hasValue = false;
+            for (int i = 0; i < numDocs; i++) {
+                if (values.advanceExact(docs[i]) && values.docValueCount() == 1) {
+                    sum = kahanSummation.sum(sum, NumericUtils.sortableIntToFloat((int) values.nextValue()));
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                state.setValue(sum);
+            }
+        }
+
         @Override
         public Object partialResult(RamAccounting ramAccounting, MutableFloat state) {
             return state.hasValue() ? state.value() : null;
@@ -41,6 +41,7 @@ import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.ShardId;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
 
 import io.crate.common.exceptions.Exceptions;
 import io.crate.data.BatchIterator;
@@ -73,6 +74,12 @@ import io.crate.types.DataTypes;
 
 public final class DocValuesAggregates {
 
+    /**
+     * Number of matching doc ids collected before they're passed to the aggregators in one go
+     */
+    @VisibleForTesting
+    static final int DOC_BATCH_SIZE = 1024;
+
     private DocValuesAggregates() {}
 
     @Nullable
@@ -224,7 +231,8 @@ public final class DocValuesAggregates {
     }
 
     @SuppressWarnings("rawtypes")
-    private static Iterable<Row> getRow(RamAccounting ramAccounting,
+    @VisibleForTesting
+    static Iterable<Row> getRow(RamAccounting ramAccounting,
                                         MemoryManager memoryManager,
                                         Version minNodeVersion,
                                         AtomicReference<Throwable> killed,
@@ -237,6 +245,7 @@ public final class DocValuesAggregates {
         for (int i = 0; i < aggregators.size(); i++) {
             cells[i] = aggregators.get(i).initialState(ramAccounting, memoryManager, minNodeVersion);
         }
+        int[] docBuffer = new int[DOC_BATCH_SIZE];
         for (var leaf : leaves) {
             Scorer scorer = weight.scorer(leaf);
             if (scorer == null) {
@@ -247,16 +256,20 @@ public final class DocValuesAggregates {
             }
             DocIdSetIterator docs = scorer.iterator();
             Bits liveDocs = leaf.reader().getLiveDocs();
-            for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
-                if (liveDocs != null && !liveDocs.get(doc)) {
-                    continue;
+            int doc = docs.nextDoc();
+            while (doc != DocIdSetIterator.NO_MORE_DOCS) {
+                int numDocs = 0;
+                for (; doc != DocIdSetIterator.NO_MORE_DOCS && numDocs < docBuffer.length; doc = docs.nextDoc()) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        docBuffer[numDocs++] = doc;
+                    }
                 }
                 Throwable killCause = killed.get();
                 if (killCause != null) {
                     Exceptions.rethrowUnchecked(killCause);
                 }
                 for (int i = 0; i < aggregators.size(); i++) {
-                    aggregators.get(i).apply(ramAccounting, doc, cells[i]);
+                    aggregators.get(i).apply(ramAccounting, docBuffer, numDocs, cells[i]);
                 }
             }
         }
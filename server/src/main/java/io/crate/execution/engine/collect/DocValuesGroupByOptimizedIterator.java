@@ -34,6 +34,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.DocIdSetIterator;
@@ -62,6 +63,7 @@ import io.crate.execution.dsl.projection.GroupProjection;
 import io.crate.execution.dsl.projection.Projection;
 import io.crate.execution.engine.aggregation.DocValueAggregator;
 import io.crate.execution.engine.aggregation.GroupByMaps;
+import io.crate.execution.engine.aggregation.GroupKeyPacker;
 import io.crate.execution.engine.fetch.ReaderContext;
 import io.crate.execution.jobs.SharedShardContext;
 import io.crate.expression.InputFactory;
@@ -99,7 +101,7 @@ final class DocValuesGroupByOptimizedIterator {
 
         Collection<? extends Projection> shardProjections = shardProjections(collectPhase.projections());
         GroupProjection groupProjection = getSinglePartialGroupProjection(shardProjections);
-        if (groupProjection == null) {
+        if (groupProjection == null || groupProjection.keys().size() > GroupKeyPacker.MAX_KEYS) {
             return null;
         }
 
@@ -202,6 +204,7 @@ final class DocValuesGroupByOptimizedIterator {
                 minNodeVersion,
                 GroupByMaps.accountForNewEntry(ramAccounting, valueType),
                 (expressions) -> expressions.get(0).value(),
+                UnaryOperator.identity(),
                 (key, cells) -> cells[0] = key,
                 query,
                 collectorContext
@@ -219,29 +222,20 @@ final class DocValuesGroupByOptimizedIterator {
                                               Version minNodeVersion,
                                               Query query,
                                               CollectorContext collectorContext) {
+            List<DataType<?>> keyTypes = Lists.map(keyColumnRefs, Reference::valueType);
+            GroupKeyPacker packer = new GroupKeyPacker(keyTypes);
+            DocValuesGroupKeyExtractor keyExtractor = new DocValuesGroupKeyExtractor(packer, keyTypes, keyExpressions);
             return GroupByIterator.getIterator(
                 aggregators,
                 indexSearcher,
-                keyExpressions,
+                keyExtractor.keyExpressions(),
                 ramAccounting,
                 memoryManager,
                 minNodeVersion,
-                GroupByMaps.accountForNewEntry(
-                    ramAccounting,
-                    Lists.map(keyColumnRefs, Reference::valueType)
-                ),
-                (expressions) -> {
-                    ArrayList<Object> key = new ArrayList<>(keyColumnRefs.size());
-                    for (int i = 0; i < expressions.size(); i++) {
-                        key.add(expressions.get(i).value());
-                    }
-                    return key;
-                },
-                (List<Object> keys, Object[] cells) -> {
-                    for (int i = 0; i < keys.size(); i++) {
-                        cells[i] = keys.get(i);
-                    }
-                },
+                GroupByMaps.accountForNewEntry(ramAccounting, packer),
+                keyExtractor,
+                packer::copy,
+                packer::unpack,
                 query,
                 collectorContext
             );
@@ -257,6 +251,7 @@ final class DocValuesGroupByOptimizedIterator {
                                                   Version minNodeVersion,
                                                   BiConsumer<Map<K, Object[]>, K> accountForNewKeyEntry,
                                                   Function<List<? extends LuceneCollectorExpression<?>>, K> keyExtractor,
+                                                  UnaryOperator<K> keyForNewEntry,
                                                   BiConsumer<K, Object[]> applyKeyToCells,
                                                   Query query,
                                                   CollectorContext collectorContext) {
@@ -278,6 +273,7 @@ final class DocValuesGroupByOptimizedIterator {
                                     keyExpressions,
                                     accountForNewKeyEntry,
                                     keyExtractor,
+                                    keyForNewEntry,
                                     ramAccounting,
                                     memoryManager,
                                     minNodeVersion,
@@ -331,6 +327,7 @@ final class DocValuesGroupByOptimizedIterator {
             List<? extends LuceneCollectorExpression<?>> keyExpressions,
             BiConsumer<Map<K, Object[]>, K> accountForNewKeyEntry,
             Function<List<? extends LuceneCollectorExpression<?>>, K> keyExtractor,
+            UnaryOperator<K> keyForNewEntry,
             RamAccounting ramAccounting,
             MemoryManager memoryManager,
             Version minNodeVersion,
@@ -381,7 +378,7 @@ final class DocValuesGroupByOptimizedIterator {
                             aggregator.apply(ramAccounting, doc, states[i]);
                         }
                         accountForNewKeyEntry.accept(statesByKey, key);
-                        statesByKey.put(key, states);
+                        statesByKey.put(keyForNewEntry.apply(key), states);
                     } else {
                         for (int i = 0; i < aggregators.size(); i++) {
                             //noinspection unchecked
@@ -0,0 +1,154 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import io.crate.execution.engine.aggregation.GroupKeyPacker;
+import io.crate.execution.engine.aggregation.PackedGroupKey;
+import io.crate.execution.engine.fetch.ReaderContext;
+import io.crate.expression.reference.doc.lucene.BytesRefColumnReference;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.expression.reference.doc.lucene.NumericDocValuesExpression;
+import io.crate.types.DataType;
+import io.netty.util.collection.LongObjectHashMap;
+
+/**
+ * Reads the keys of a GROUP BY on multiple columns from doc values into {@link PackedGroupKey}s.
+ *
+ * <ul>
+ * <li>Integral and timestamp columns are packed from the raw doc values without boxing them.</li>
+ * <li>Keyword columns are decoded once per segment ordinal instead of once per document.</li>
+ * <li>Other columns are evaluated using their expression.</li>
+ * </ul>
+ *
+ * The expressions returned by {@link #keyExpressions()} must be used to iterate the documents.
+ */
+final class DocValuesGroupKeyExtractor implements Function<List<? extends LuceneCollectorExpression<?>>, PackedGroupKey> {
+
+    /**
+     * Limits the number of decoded terms cached per segment.
+     * Beyond that the terms are decoded per document.
+     */
+    private static final int MAX_CACHED_ORDS = 16_384;
+
+    private final GroupKeyPacker packer;
+    private final List<LuceneCollectorExpression<?>> keyExpressions;
+    private final NumericDocValuesExpression[] numericKeys;
+
+    DocValuesGroupKeyExtractor(GroupKeyPacker packer,
+                               List<? extends DataType<?>> keyTypes,
+                               List<? extends LuceneCollectorExpression<?>> keyExpressions) {
+        this.packer = packer;
+        this.keyExpressions = new ArrayList<>(keyExpressions.size());
+        this.numericKeys = new NumericDocValuesExpression[keyExpressions.size()];
+        for (int i = 0; i < keyExpressions.size(); i++) {
+            LuceneCollectorExpression<?> expression = keyExpressions.get(i);
+            if (expression instanceof NumericDocValuesExpression numeric && GroupKeyPacker.supportsLong(keyTypes.get(i))) {
+                numericKeys[i] = numeric;
+                this.keyExpressions.add(expression);
+            } else if (expression instanceof BytesRefColumnReference keyword) {
+                this.keyExpressions.add(new CachedOrdinalsExpression(keyword));
+            } else {
+                this.keyExpressions.add(expression);
+            }
+        }
+    }
+
+    List<LuceneCollectorExpression<?>> keyExpressions() {
+        return keyExpressions;
+    }
+
+    @Override
+    public PackedGroupKey apply(List<? extends LuceneCollectorExpression<?>> expressions) {
+        try {
+            for (int i = 0; i < numericKeys.length; i++) {
+                NumericDocValuesExpression numeric = numericKeys[i];
+                if (numeric == null) {
+                    packer.setValue(i, expressions.get(i).value());
+                } else if (numeric.advanceExact()) {
+                    packer.setLong(i, numeric.longValue());
+                } else {
+                    packer.setValue(i, null);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return packer.probe();
+    }
+
+    /**
+     * Decodes the terms of a keyword column once per ordinal of the current segment.
+     * The decoded strings are shared between the groups, so caching them only adds the references.
+     */
+    private static final class CachedOrdinalsExpression extends LuceneCollectorExpression<String> {
+
+        private final BytesRefColumnReference delegate;
+        private final LongObjectHashMap<String> termsByOrd = new LongObjectHashMap<>();
+
+        CachedOrdinalsExpression(BytesRefColumnReference delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void startCollect(CollectorContext context) {
+            delegate.startCollect(context);
+        }
+
+        @Override
+        public void setNextReader(ReaderContext context) throws IOException {
+            termsByOrd.clear();
+            delegate.setNextReader(context);
+        }
+
+        @Override
+        public void setNextDocId(int doc) {
+            delegate.setNextDocId(doc);
+        }
+
+        @Override
+        public String value() {
+            try {
+                long ord = delegate.ord();
+                if (ord == -1) {
+                    return null;
+                }
+                String term = termsByOrd.get(ord);
+                if (term == null) {
+                    term = delegate.lookupOrd(ord);
+                    if (termsByOrd.size() < MAX_CACHED_ORDS) {
+                        termsByOrd.put(ord, term);
+                    }
+                }
+                return term;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
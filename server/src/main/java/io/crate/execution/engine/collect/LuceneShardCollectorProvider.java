@@ -21,11 +21,14 @@
 
 package io.crate.execution.engine.collect;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.LeafReaderContext;
 import org.elasticsearch.client.ElasticsearchClient;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
@@ -66,6 +69,12 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
 
     private static final Logger LOGGER = LogManager.getLogger(LuceneShardCollectorProvider.class);
 
+    /**
+     * Splitting a shard into slices which are collected concurrently only pays off for larger segments.
+     * Same as the default of Lucene's {@code IndexSearcher} slices.
+     */
+    private static final int MIN_DOCS_PER_SLICE = 250_000;
+
     private final Supplier<String> localNodeId;
     private final LuceneQueryBuilder luceneQueryBuilder;
     private final NodeContext nodeCtx;
@@ -85,7 +94,8 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
                                         ElasticsearchClient elasticsearchClient,
                                         IndexShard indexShard,
                                         BigArrays bigArrays,
-                                        Map<String, FileOutputFactory> fileOutputFactoryMap) {
+                                        Map<String, FileOutputFactory> fileOutputFactoryMap,
+                                        ShardResultCache resultCache) {
         super(
             clusterService,
             circuitBreakerService,
@@ -96,7 +106,8 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             elasticsearchClient,
             indexShard,
             new ShardRowContext(indexShard, clusterService),
-            fileOutputFactoryMap
+            fileOutputFactoryMap,
+            resultCache
         );
         this.luceneQueryBuilder = luceneQueryBuilder;
         this.nodeCtx = nodeCtx;
@@ -115,6 +126,14 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
     protected BatchIterator<Row> getUnorderedIterator(RoutedCollectPhase collectPhase,
                                                       boolean requiresScroll,
                                                       CollectTask collectTask) {
+        return getUnorderedIterators(collectPhase, requiresScroll, collectTask, 1).get(0);
+    }
+
+    @Override
+    protected List<BatchIterator<Row>> getUnorderedIterators(RoutedCollectPhase collectPhase,
+                                                             boolean requiresScroll,
+                                                             CollectTask collectTask,
+                                                             int maxSlices) {
         ShardId shardId = indexShard.shardId();
         SharedShardContext sharedShardContext = collectTask.sharedShardContexts().getOrCreateContext(shardId);
         var searcher = sharedShardContext.acquireSearcher("unordered-iterator: " + formatSource(collectPhase));
@@ -122,30 +141,41 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         // A closed shard has no mapper service and cannot be queried with lucene,
         // therefore skip it
         if (indexShard.isClosed()) {
-            return InMemoryBatchIterator.empty(SentinelRow.SENTINEL);
+            return List.of(InMemoryBatchIterator.empty(SentinelRow.SENTINEL));
         }
         IndexService indexService = sharedShardContext.indexService();
         DocTableInfo table = nodeCtx.schemas().getTableInfo(relationName);
-        LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
-            collectPhase.where(),
-            collectTask.txnCtx(),
-            indexShard.shardId().getIndexName(),
-            indexService.indexAnalyzers(),
-            table,
-            indexService.cache()
-        );
-        InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx =
-            docInputFactory.extractImplementations(collectTask.txnCtx(), collectPhase);
-
-        return new LuceneBatchIterator(
-            searcher.item(),
-            queryContext.query(),
-            queryContext.minScore(),
-            Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE),
-            new CollectorContext(sharedShardContext.readerId(), table.droppedColumns(), table.lookupNameBySourceKey()),
-            docCtx.topLevelInputs(),
-            docCtx.expressions()
+        List<List<LeafReaderContext>> slices = LuceneBatchIterator.slices(
+            searcher.item().getTopReaderContext().leaves(),
+            maxSlices,
+            MIN_DOCS_PER_SLICE
         );
+        List<BatchIterator<Row>> iterators = new ArrayList<>(slices.size());
+        for (List<LeafReaderContext> slice : slices) {
+            // The expressions and the query (e.g. a GenericFunctionQuery) hold the state of the current
+            // document, each slice needs its own
+            LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
+                collectPhase.where(),
+                collectTask.txnCtx(),
+                indexShard.shardId().getIndexName(),
+                indexService.indexAnalyzers(),
+                table,
+                indexService.cache()
+            );
+            InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx =
+                docInputFactory.extractImplementations(collectTask.txnCtx(), collectPhase);
+            iterators.add(new LuceneBatchIterator(
+                searcher.item(),
+                slice,
+                queryContext.query(),
+                queryContext.minScore(),
+                Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE),
+                new CollectorContext(sharedShardContext.readerId(), table.droppedColumns(), table.lookupNameBySourceKey()),
+                docCtx.topLevelInputs(),
+                docCtx.expressions()
+            ));
+        }
+        return iterators;
     }
 
     @Nullable
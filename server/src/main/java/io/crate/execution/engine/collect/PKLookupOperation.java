@@ -27,8 +27,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -36,6 +37,7 @@ import java.util.stream.Stream;
 
 import org.apache.lucene.index.StoredFields;
 import org.apache.lucene.index.Term;
+import org.elasticsearch.common.lucene.uid.VersionsAndSeqNoResolver.DocIdAndVersion;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.VersionType;
@@ -47,6 +49,7 @@ import org.elasticsearch.index.shard.ShardNotFoundException;
 import org.elasticsearch.indices.IndicesService;
 import org.jetbrains.annotations.Nullable;
 
+import io.crate.common.collections.Lists;
 import io.crate.data.BatchIterator;
 import io.crate.data.CompositeBatchIterator;
 import io.crate.data.InMemoryBatchIterator;
@@ -59,6 +62,7 @@ import io.crate.execution.engine.collect.sources.ShardCollectSource;
 import io.crate.execution.engine.pipeline.ProjectorFactory;
 import io.crate.execution.engine.pipeline.Projectors;
 import io.crate.expression.reference.Doc;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.expression.reference.doc.lucene.SourceFieldVisitor;
 import io.crate.expression.reference.doc.lucene.SourceParser;
 import io.crate.memory.MemoryManager;
@@ -70,10 +74,12 @@ public final class PKLookupOperation {
 
     private final IndicesService indicesService;
     private final ShardCollectSource shardCollectSource;
+    private final Executor executor;
 
-    public PKLookupOperation(IndicesService indicesService, ShardCollectSource shardCollectSource) {
+    public PKLookupOperation(IndicesService indicesService, ShardCollectSource shardCollectSource, Executor executor) {
         this.indicesService = indicesService;
         this.shardCollectSource = shardCollectSource;
+        this.executor = executor;
     }
 
     @Nullable
@@ -84,55 +90,109 @@ public final class PKLookupOperation {
                                 long seqNo,
                                 long primaryTerm,
                                 @Nullable SourceParser sourceParser) {
-        Term uidTerm = new Term(DocSysColumns.Names.ID, Uid.encodeId(id));
-        Engine.Get get = new Engine.Get(id, uidTerm)
-            .version(version)
-            .versionType(versionType)
-            .setIfSeqNo(seqNo)
-            .setIfPrimaryTerm(primaryTerm);
-
+        Engine.Get get = newGet(id, version, versionType, seqNo, primaryTerm);
         try (Engine.GetResult getResult = shard.get(get)) {
             var docIdAndVersion = getResult.docIdAndVersion();
             if (docIdAndVersion == null) {
                 return null;
             }
-            SourceFieldVisitor visitor = new SourceFieldVisitor();
-            try {
-                StoredFields storedFields = docIdAndVersion.reader.storedFields();
-                storedFields.document(docIdAndVersion.docId, visitor);
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-            Map<String, Object> sourceMap;
-            if (sourceParser == null) {
-                sourceMap = Map.of();
-            } else {
-                sourceMap = sourceParser.parse(visitor.source());
+            return toDoc(shard, id, docIdAndVersion, sourceParser);
+        }
+    }
+
+    /**
+     * Looks up the documents of multiple primary keys of a shard as a single batch.
+     * See {@link IndexShard#multiGet(List)}
+     *
+     * @return the found documents in the order of {@code pkAndVersions}, missing documents are skipped.
+     */
+    public static List<Doc> lookupDocs(IndexShard shard,
+                                       List<PKAndVersion> pkAndVersions,
+                                       VersionType versionType,
+                                       @Nullable SourceParser sourceParser) {
+        List<Engine.Get> gets = Lists.map(
+            pkAndVersions,
+            pkAndVersion -> newGet(
+                pkAndVersion.id(),
+                pkAndVersion.version(),
+                versionType,
+                pkAndVersion.seqNo(),
+                pkAndVersion.primaryTerm()
+            )
+        );
+        ArrayList<Doc> docs = new ArrayList<>(gets.size());
+        try (Engine.MultiGetResult multiGetResult = shard.multiGet(gets)) {
+            for (int i = 0; i < multiGetResult.size(); i++) {
+                var docIdAndVersion = multiGetResult.get(i).docIdAndVersion();
+                if (docIdAndVersion != null) {
+                    docs.add(toDoc(shard, gets.get(i).id(), docIdAndVersion, sourceParser));
+                }
             }
-            return new Doc(
-                docIdAndVersion.docId,
-                shard.shardId().getIndexName(),
-                id,
-                docIdAndVersion.version,
-                docIdAndVersion.seqNo,
-                docIdAndVersion.primaryTerm,
-                sourceMap,
-                () -> visitor.source().utf8ToString()
-            );
         }
+        return docs;
+    }
+
+    private static Engine.Get newGet(String id, long version, VersionType versionType, long seqNo, long primaryTerm) {
+        Term uidTerm = new Term(DocSysColumns.Names.ID, Uid.encodeId(id));
+        return new Engine.Get(id, uidTerm)
+            .version(version)
+            .versionType(versionType)
+            .setIfSeqNo(seqNo)
+            .setIfPrimaryTerm(primaryTerm);
+    }
+
+    private static Doc toDoc(IndexShard shard,
+                             String id,
+                             DocIdAndVersion docIdAndVersion,
+                             @Nullable SourceParser sourceParser) {
+        SourceFieldVisitor visitor = new SourceFieldVisitor();
+        try {
+            StoredFields storedFields = docIdAndVersion.reader.storedFields();
+            storedFields.document(docIdAndVersion.docId, visitor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, Object> sourceMap;
+        if (sourceParser == null) {
+            sourceMap = Map.of();
+        } else {
+            sourceMap = sourceParser.parse(visitor.source());
+        }
+        return new Doc(
+            docIdAndVersion.docId,
+            shard.shardId().getIndexName(),
+            id,
+            docIdAndVersion.version,
+            docIdAndVersion.seqNo,
+            docIdAndVersion.primaryTerm,
+            sourceMap,
+            () -> {
+                try {
+                    return BinarySource.asJson(visitor.source()).utf8ToString();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
     }
 
-    public BatchIterator<Row> lookup(UUID jobId,
-                                     TransactionContext txnCtx,
-                                     Supplier<RamAccounting> ramAccountingSupplier,
-                                     Supplier<MemoryManager> memoryManagerSupplier,
-                                     boolean ignoreMissing,
-                                     Map<ShardId, List<PKAndVersion>> idsByShard,
-                                     Collection<? extends Projection> projections,
-                                     boolean requiresScroll,
-                                     Function<Doc, Row> resultToRow,
-                                     SourceParser sourceParser) {
-        ArrayList<BatchIterator<Row>> iterators = new ArrayList<>(idsByShard.size());
+    /**
+     * Looks up the documents of all shards. Each shard is read as a single batch and the shards are read
+     * concurrently.
+     *
+     * @return future completed with a BatchIterator over the found documents of all shards
+     */
+    public CompletableFuture<BatchIterator<Row>> lookup(UUID jobId,
+                                                        TransactionContext txnCtx,
+                                                        Supplier<RamAccounting> ramAccountingSupplier,
+                                                        Supplier<MemoryManager> memoryManagerSupplier,
+                                                        boolean ignoreMissing,
+                                                        Map<ShardId, List<PKAndVersion>> idsByShard,
+                                                        Collection<? extends Projection> projections,
+                                                        boolean requiresScroll,
+                                                        Function<Doc, Row> resultToRow,
+                                                        SourceParser sourceParser) {
+        ArrayList<ShardLookup> shardLookups = new ArrayList<>(idsByShard.size());
         for (Map.Entry<ShardId, List<PKAndVersion>> idsByShardEntry : idsByShard.entrySet()) {
             ShardId shardId = idsByShardEntry.getKey();
             IndexService indexService = indicesService.indexService(shardId.getIndex());
@@ -149,26 +209,8 @@ public final class PKLookupOperation {
                 }
                 throw new ShardNotFoundException(shardId);
             }
-            Stream<Row> rowStream = idsByShardEntry.getValue().stream()
-                .map(pkAndVersion -> lookupDoc(
-                    shard,
-                    pkAndVersion.id(),
-                    pkAndVersion.version(),
-                    VersionType.EXTERNAL,
-                    pkAndVersion.seqNo(),
-                    pkAndVersion.primaryTerm(),
-                    sourceParser
-                ))
-                .filter(Objects::nonNull)
-                .map(resultToRow);
-
-            if (projections.isEmpty()) {
-                final Iterable<Row> rowIterable = requiresScroll
-                    ? rowStream.map(row -> new RowN(row.materialize())).collect(Collectors.toList())
-                    : rowStream::iterator;
-                iterators.add(InMemoryBatchIterator.of(rowIterable, SentinelRow.SENTINEL, true));
-            } else {
-                ProjectorFactory projectorFactory;
+            ProjectorFactory projectorFactory = null;
+            if (!projections.isEmpty()) {
                 try {
                     projectorFactory = shardCollectSource.getProjectorFactory(shardId);
                 } catch (ShardNotFoundException e) {
@@ -177,19 +219,57 @@ public final class PKLookupOperation {
                     }
                     throw e;
                 }
-                Projectors projectors = new Projectors(
-                    projections,
-                    jobId,
-                    txnCtx,
-                    ramAccountingSupplier.get(),
-                    memoryManagerSupplier.get(),
-                    projectorFactory);
-                final Iterable<Row> rowIterable = requiresScroll && !projectors.providesIndependentScroll()
-                    ? rowStream.map(row -> new RowN(row.materialize())).collect(Collectors.toList())
-                    : rowStream::iterator;
-                iterators.add(projectors.wrap(InMemoryBatchIterator.of(rowIterable, SentinelRow.SENTINEL, true)));
             }
+            shardLookups.add(new ShardLookup(shard, idsByShardEntry.getValue(), projectorFactory));
         }
-        return CompositeBatchIterator.seqComposite(iterators);
+
+        ArrayList<CompletableFuture<List<Doc>>> docsByShard = new ArrayList<>(shardLookups.size());
+        for (int i = 0; i < shardLookups.size(); i++) {
+            ShardLookup shardLookup = shardLookups.get(i);
+            Supplier<List<Doc>> lookupDocs = () -> lookupDocs(
+                shardLookup.shard,
+                shardLookup.pkAndVersions,
+                VersionType.EXTERNAL,
+                sourceParser
+            );
+            if (i == shardLookups.size() - 1) {
+                // Run the last one on the current thread, it would only wait for the others otherwise
+                docsByShard.add(CompletableFuture.completedFuture(null).thenApply(ignored -> lookupDocs.get()));
+            } else {
+                docsByShard.add(CompletableFuture.supplyAsync(lookupDocs, executor));
+            }
+        }
+        return CompletableFuture.allOf(docsByShard.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            ArrayList<BatchIterator<Row>> iterators = new ArrayList<>(shardLookups.size());
+            for (int i = 0; i < shardLookups.size(); i++) {
+                ShardLookup shardLookup = shardLookups.get(i);
+                List<Doc> docs = docsByShard.get(i).join();
+                Stream<Row> rowStream = docs.stream().map(resultToRow);
+                if (shardLookup.projectorFactory == null) {
+                    final Iterable<Row> rowIterable = requiresScroll
+                        ? rowStream.map(row -> new RowN(row.materialize())).collect(Collectors.toList())
+                        : rowStream::iterator;
+                    iterators.add(InMemoryBatchIterator.of(rowIterable, SentinelRow.SENTINEL, true));
+                } else {
+                    Projectors projectors = new Projectors(
+                        projections,
+                        jobId,
+                        txnCtx,
+                        ramAccountingSupplier.get(),
+                        memoryManagerSupplier.get(),
+                        shardLookup.projectorFactory);
+                    final Iterable<Row> rowIterable = requiresScroll && !projectors.providesIndependentScroll()
+                        ? rowStream.map(row -> new RowN(row.materialize())).collect(Collectors.toList())
+                        : rowStream::iterator;
+                    iterators.add(projectors.wrap(InMemoryBatchIterator.of(rowIterable, SentinelRow.SENTINEL, true)));
+                }
+            }
+            return CompositeBatchIterator.seqComposite(iterators);
+        });
+    }
+
+    private record ShardLookup(IndexShard shard,
+                               List<PKAndVersion> pkAndVersions,
+                               @Nullable ProjectorFactory projectorFactory) {
     }
 }
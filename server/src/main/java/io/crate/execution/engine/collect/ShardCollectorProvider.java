@@ -21,6 +21,8 @@
 
 package io.crate.execution.engine.collect;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -32,12 +34,18 @@ import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.jetbrains.annotations.Nullable;
 
+import io.crate.Streamer;
 import io.crate.analyze.WhereClause;
+import io.crate.common.collections.Iterables;
+import io.crate.common.collections.Lists;
 import io.crate.data.BatchIterator;
 import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Row;
 import io.crate.data.SentinelRow;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.AggregationProjection;
+import io.crate.execution.dsl.projection.GroupProjection;
+import io.crate.execution.dsl.projection.Projection;
 import io.crate.execution.dsl.projection.Projections;
 import io.crate.execution.engine.collect.collectors.OrderedDocCollector;
 import io.crate.execution.engine.export.FileOutputFactory;
@@ -49,6 +57,8 @@ import io.crate.execution.jobs.SharedShardContext;
 import io.crate.expression.InputFactory;
 import io.crate.expression.eval.EvaluatingNormalizer;
 import io.crate.expression.reference.sys.shard.ShardRowContext;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Symbols;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.shard.ShardReferenceResolver;
@@ -60,6 +70,8 @@ public abstract class ShardCollectorProvider {
     protected final IndexShard indexShard;
     final EvaluatingNormalizer shardNormalizer;
     private final BatchIteratorFactory batchIteratorFactory;
+    @Nullable
+    private final ShardResultCache resultCache;
 
     ShardCollectorProvider(ClusterService clusterService,
                            CircuitBreakerService circuitBreakerService,
@@ -70,9 +82,11 @@ public abstract class ShardCollectorProvider {
                            ElasticsearchClient elasticsearchClient,
                            IndexShard indexShard,
                            ShardRowContext shardRowContext,
-                           Map<String, FileOutputFactory> fileOutputFactoryMap) {
+                           Map<String, FileOutputFactory> fileOutputFactoryMap,
+                           @Nullable ShardResultCache resultCache) {
         this.indexShard = indexShard;
         this.shardRowContext = shardRowContext;
+        this.resultCache = resultCache;
         shardNormalizer = new EvaluatingNormalizer(
             nodeCtx,
             RowGranularity.SHARD,
@@ -103,6 +117,19 @@ public abstract class ShardCollectorProvider {
         public BatchIterator<Row> getIterator(RoutedCollectPhase collectPhase,
                                               boolean requiresScroll,
                                               CollectTask collectTask) {
+            return getIterators(collectPhase, requiresScroll, collectTask, 1).get(0);
+        }
+
+        /**
+         * Like {@link #getIterator(RoutedCollectPhase, boolean, CollectTask)}, but splits the shard into up to
+         * {@code maxSlices} iterators over disjoint sets of segments if the shard projections output partial
+         * aggregations. The iterators can be consumed concurrently, their results are merged like the results of
+         * different shards.
+         */
+        public List<BatchIterator<Row>> getIterators(RoutedCollectPhase collectPhase,
+                                                     boolean requiresScroll,
+                                                     CollectTask collectTask,
+                                                     int maxSlices) {
             assert collectPhase.orderBy() == null
                 : "getDocCollector shouldn't be called if there is an orderBy on the collectPhase";
             assert collectPhase.maxRowGranularity() == RowGranularity.DOC :
@@ -110,27 +137,57 @@ public abstract class ShardCollectorProvider {
 
             boolean isOpenIndex = !indexShard.isClosed();
             RoutedCollectPhase normalizedCollectNode = collectPhase.normalize(shardNormalizer, collectTask.txnCtx());
+            Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
+            ShardResultCache.Key cacheKey = isOpenIndex && resultCache != null
+                ? resultCache.key(indexShard, normalizedCollectNode, shardProjections)
+                : null;
+            if (cacheKey == null) {
+                return getUncachedIterators(
+                    normalizedCollectNode, shardProjections, isOpenIndex, requiresScroll, collectTask, maxSlices);
+            }
+            Streamer<?>[] streamers = Symbols.streamerArray(Iterables.getLast(shardProjections).outputs());
+            BatchIterator<Row> cachedIterator = resultCache.get(indexShard, cacheKey, streamers);
+            if (cachedIterator != null) {
+                return List.of(cachedIterator);
+            }
+            return resultCache.record(
+                indexShard,
+                cacheKey,
+                streamers,
+                getUncachedIterators(
+                    normalizedCollectNode, shardProjections, true, requiresScroll, collectTask, maxSlices)
+            );
+        }
+
+        private List<BatchIterator<Row>> getUncachedIterators(RoutedCollectPhase normalizedCollectNode,
+                                                              Collection<? extends Projection> shardProjections,
+                                                              boolean isOpenIndex,
+                                                              boolean requiresScroll,
+                                                              CollectTask collectTask,
+                                                              int maxSlices) {
             if (isOpenIndex) {
                 BatchIterator<Row> fusedIterator = getProjectionFusedIterator(normalizedCollectNode, collectTask);
                 if (fusedIterator != null) {
-                    return fusedIterator;
+                    return List.of(fusedIterator);
                 }
             }
-            final BatchIterator<Row> iterator;
+            final List<BatchIterator<Row>> iterators;
             if (isOpenIndex && WhereClause.canMatch(normalizedCollectNode.where())) {
-                iterator = getUnorderedIterator(normalizedCollectNode, requiresScroll, collectTask);
+                iterators = maxSlices > 1 && outputsPartialAggregates(shardProjections)
+                    ? getUnorderedIterators(normalizedCollectNode, requiresScroll, collectTask, maxSlices)
+                    : List.of(getUnorderedIterator(normalizedCollectNode, requiresScroll, collectTask));
             } else {
-                iterator = InMemoryBatchIterator.empty(SentinelRow.SENTINEL);
+                iterators = List.of(InMemoryBatchIterator.empty(SentinelRow.SENTINEL));
             }
-            return Projectors.wrap(
-                Projections.shardProjections(collectPhase.projections()),
-                collectPhase.jobId(),
+            return Lists.map(iterators, iterator -> Projectors.wrap(
+                shardProjections,
+                normalizedCollectNode.jobId(),
                 collectTask.txnCtx(),
                 collectTask.getRamAccounting(),
                 collectTask.memoryManager(),
                 projectorFactory,
                 iterator
-            );
+            ));
         }
 
         public OrderedDocCollector getOrderedCollector(RoutedCollectPhase collectPhase,
@@ -167,6 +224,36 @@ public abstract class ShardCollectorProvider {
                                                                boolean requiresScroll,
                                                                CollectTask collectTask);
 
+    /**
+     * @return up to {@code maxSlices} BatchIterators which together return the same rows as
+     *         {@link #getUnorderedIterator(RoutedCollectPhase, boolean, CollectTask)} and are safe to be consumed
+     *         concurrently.
+     */
+    protected List<BatchIterator<Row>> getUnorderedIterators(RoutedCollectPhase collectPhase,
+                                                             boolean requiresScroll,
+                                                             CollectTask collectTask,
+                                                             int maxSlices) {
+        return List.of(getUnorderedIterator(collectPhase, requiresScroll, collectTask));
+    }
+
+    /**
+     * Aggregations with a partial output are merged in a later phase,
+     * so they can also be computed per slice of a shard instead of per shard.
+     */
+    private static boolean outputsPartialAggregates(Collection<? extends Projection> shardProjections) {
+        if (shardProjections.isEmpty()) {
+            return false;
+        }
+        Projection first = shardProjections.iterator().next();
+        if (first instanceof GroupProjection groupProjection) {
+            return groupProjection.mode() == AggregateMode.ITER_PARTIAL;
+        }
+        if (first instanceof AggregationProjection aggregationProjection) {
+            return aggregationProjection.mode() == AggregateMode.ITER_PARTIAL;
+        }
+        return false;
+    }
+
     protected abstract OrderedDocCollector getOrderedCollector(RoutedCollectPhase collectPhase,
                                                                SharedShardContext sharedShardContext,
                                                                CollectTask collectTask,
@@ -0,0 +1,382 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.search.ReferenceManager;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.cache.result.ShardResultCacheStats;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardId;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.crate.Streamer;
+import io.crate.common.collections.Iterables;
+import io.crate.common.collections.Lists;
+import io.crate.data.BatchIterator;
+import io.crate.data.ForwardingBatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.SentinelRow;
+import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.AggregationProjection;
+import io.crate.execution.dsl.projection.GroupProjection;
+import io.crate.execution.dsl.projection.Projection;
+import io.crate.execution.engine.distribution.StreamBucket;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
+
+/**
+ * Node level cache for the results of aggregations on shard level.
+ *
+ * <p>
+ * If {@link #INDEX_RESULT_CACHE_ENABLED_SETTING} is enabled for a table, the rows emitted by the shard projections
+ * of a collect phase ending in an aggregation are kept in serialized form. For aggregations which are merged on
+ * the handler these are the partial aggregation states.
+ * </p>
+ * <p>
+ * Entries are keyed by a fingerprint of the collect phase and the version of the shard's reader.
+ * Any change to the shard which becomes visible to searches results in a new reader version. The entries of the
+ * shard are then evicted by the refresh listener added in {@link #register(IndexShard)}.
+ * This makes the cache mostly useful for shards which don't receive writes, like old partitions of a time series
+ * table.
+ * </p>
+ */
+@Singleton
+public class ShardResultCache {
+
+    public static final Setting<Boolean> INDEX_RESULT_CACHE_ENABLED_SETTING = Setting.boolSetting(
+        "index.result_cache.enabled",
+        false,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+
+    public static final Setting<ByteSizeValue> RESULT_CACHE_SIZE_SETTING = Setting.memorySizeSetting(
+        "indices.result_cache.size",
+        "1%",
+        Property.NodeScope
+    );
+
+    /**
+     * A single entry may use at most 1/MAX_ENTRY_FRACTION of the cache.
+     * Larger results are not recorded to avoid serializing rows which would be evicted right away.
+     */
+    private static final int MAX_ENTRY_FRACTION = 20;
+
+    record Key(ShardId shardId, long readerVersion, BytesReference fingerprint) {
+    }
+
+    private record Entry(BytesReference bucket, ShardResultCacheStats stats) {
+    }
+
+    @Nullable
+    private final Cache<Key, Entry> cache;
+    private final long maxEntryBytes;
+
+    @Inject
+    public ShardResultCache(Settings settings) {
+        long maxBytes = RESULT_CACHE_SIZE_SETTING.get(settings).getBytes();
+        this.maxEntryBytes = maxBytes / MAX_ENTRY_FRACTION;
+        this.cache = maxBytes <= 0
+            ? null
+            : Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> weight(key, entry))
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (key != null && entry != null) {
+                        entry.stats.onRemoval(weight(key, entry), cause.wasEvicted());
+                    }
+                })
+                .build();
+    }
+
+    private static int weight(Key key, Entry entry) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) key.fingerprint.length() + entry.bucket.length());
+    }
+
+    /**
+     * @param normalizedPhase the collect phase, normalized on shard level
+     * @param shardProjections the shard projections of the collect phase
+     * @return the key of the result of the shard projections or null if the result cannot be cached.
+     */
+    @Nullable
+    public Key key(IndexShard indexShard,
+                   RoutedCollectPhase normalizedPhase,
+                   Collection<? extends Projection> shardProjections) {
+        if (cache == null
+            || shardProjections.isEmpty()
+            || !indexShard.indexSettings().getValue(INDEX_RESULT_CACHE_ENABLED_SETTING)) {
+            return null;
+        }
+        Projection last = Iterables.getLast(shardProjections, null);
+        if (!(last instanceof AggregationProjection || last instanceof GroupProjection)) {
+            return null;
+        }
+        if (!Symbols.isDeterministic(normalizedPhase.where())) {
+            return null;
+        }
+        for (Symbol symbol : normalizedPhase.toCollect()) {
+            if (!Symbols.isDeterministic(symbol)) {
+                return null;
+            }
+        }
+        long readerVersion;
+        try {
+            readerVersion = readerVersion(indexShard);
+        } catch (RuntimeException e) {
+            // Shard isn't ready to be searched, the regular collect path takes care of the failure handling
+            return null;
+        }
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            Symbols.toStream(normalizedPhase.toCollect(), out);
+            Symbols.toStream(normalizedPhase.where(), out);
+            out.writeVInt(shardProjections.size());
+            for (Projection projection : shardProjections) {
+                Projection.toStream(projection, out);
+            }
+            return new Key(indexShard.shardId(), readerVersion, out.bytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return a BatchIterator over the cached rows or null if there is no entry for the key.
+     */
+    @Nullable
+    public BatchIterator<Row> get(IndexShard indexShard, Key key, Streamer<?>[] streamers) {
+        assert cache != null : "Must only be called with a key created by the cache";
+        Entry entry = cache.getIfPresent(key);
+        ShardResultCacheStats stats = indexShard.resultCacheStats();
+        if (entry == null) {
+            stats.onMiss();
+            return null;
+        }
+        stats.onHit();
+        try {
+            StreamBucket bucket = new StreamBucket(entry.bucket.streamInput(), streamers);
+            return InMemoryBatchIterator.of(bucket, SentinelRow.SENTINEL, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Wraps the iterators which compute the result for the key.
+     * Once all of them have been consumed the rows they emitted are added to the cache.
+     */
+    public List<BatchIterator<Row>> record(IndexShard indexShard,
+                                           Key key,
+                                           Streamer<?>[] streamers,
+                                           List<BatchIterator<Row>> iterators) {
+        Recording recording = new Recording(indexShard, key, iterators.size());
+        return Lists.map(iterators, it -> new RecordingBatchIterator(it, streamers, recording));
+    }
+
+    /**
+     * Removes the entries of the shard once a refresh opens a new reader for searches.
+     * The entries couldn't be hit anymore as their keys contain the version of the previous reader.
+     */
+    public void register(IndexShard indexShard) {
+        if (cache == null) {
+            return;
+        }
+        ShardId shardId = indexShard.shardId();
+        ShardResultCacheStats stats = indexShard.resultCacheStats();
+        indexShard.addExternalRefreshListener(new ReferenceManager.RefreshListener() {
+
+            @Override
+            public void beforeRefresh() {
+            }
+
+            @Override
+            public void afterRefresh(boolean didRefresh) {
+                if (didRefresh && stats.sizeInBytes() > 0) {
+                    invalidate(shardId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes all entries of the shard
+     */
+    public void invalidate(ShardId shardId) {
+        if (cache != null) {
+            cache.asMap().keySet().removeIf(key -> key.shardId.equals(shardId));
+        }
+    }
+
+    private static long readerVersion(IndexShard indexShard) {
+        try (Engine.Searcher searcher = indexShard.acquireSearcher("result-cache")) {
+            return searcher.getDirectoryReader().getVersion();
+        }
+    }
+
+    private void put(IndexShard indexShard, Key key, List<RecordingBatchIterator> slices) {
+        assert cache != null : "Must only be called with a key created by the cache";
+        long readerVersion;
+        try {
+            readerVersion = readerVersion(indexShard);
+        } catch (RuntimeException e) {
+            return;
+        }
+        // The iterators acquire their searcher after the key was created.
+        // Versions only increase, if it is unchanged the rows were computed on the reader of the key.
+        if (readerVersion != key.readerVersion) {
+            return;
+        }
+        int numRows = 0;
+        long numBytes = 0;
+        for (RecordingBatchIterator slice : slices) {
+            numRows += slice.numRows;
+            numBytes += slice.out.size();
+        }
+        if (numBytes > maxEntryBytes) {
+            return;
+        }
+        try (BytesStreamOutput out = new BytesStreamOutput((int) numBytes + 5)) {
+            // Same layout as StreamBucket#writeTo for the current version
+            out.writeVInt(numRows);
+            if (numRows > 0) {
+                out.writeEnum(StreamBucket.Format.ROWS);
+                out.writeVInt((int) numBytes);
+                for (RecordingBatchIterator slice : slices) {
+                    slice.out.bytes().writeTo(out);
+                }
+            }
+            ShardResultCacheStats stats = indexShard.resultCacheStats();
+            Entry entry = new Entry(out.bytes(), stats);
+            ShardId shardId = key.shardId;
+            cache.asMap().keySet().removeIf(k -> k.shardId.equals(shardId) && k.readerVersion < readerVersion);
+            if (cache.asMap().putIfAbsent(key, entry) == null) {
+                stats.onCached(weight(key, entry));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class Recording {
+
+        private final IndexShard indexShard;
+        private final Key key;
+        private final AtomicInteger pending;
+        private final List<RecordingBatchIterator> slices;
+
+        Recording(IndexShard indexShard, Key key, int numSlices) {
+            this.indexShard = indexShard;
+            this.key = key;
+            this.pending = new AtomicInteger(numSlices);
+            this.slices = new ArrayList<>(numSlices);
+        }
+
+        void onSliceCompleted(RecordingBatchIterator slice) {
+            synchronized (slices) {
+                slices.add(slice);
+            }
+            if (pending.decrementAndGet() == 0) {
+                put(indexShard, key, slices);
+            }
+        }
+    }
+
+    private final class RecordingBatchIterator extends ForwardingBatchIterator<Row> {
+
+        private final BatchIterator<Row> delegate;
+        private final Streamer<?>[] streamers;
+        private final Recording recording;
+
+        private BytesStreamOutput out = new BytesStreamOutput();
+        private int numRows = 0;
+        private boolean aborted = false;
+        private boolean completed = false;
+
+        RecordingBatchIterator(BatchIterator<Row> delegate, Streamer<?>[] streamers, Recording recording) {
+            this.delegate = delegate;
+            this.streamers = streamers;
+            this.recording = recording;
+        }
+
+        @Override
+        protected BatchIterator<Row> delegate() {
+            return delegate;
+        }
+
+        @Override
+        public void moveToStart() {
+            super.moveToStart();
+            if (!completed) {
+                out = new BytesStreamOutput();
+                numRows = 0;
+            }
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public boolean moveNext() {
+            if (delegate.moveNext()) {
+                if (!aborted && !completed) {
+                    Row row = delegate.currentElement();
+                    try {
+                        for (int i = 0; i < streamers.length; i++) {
+                            ((Streamer) streamers[i]).writeValueTo(out, row.get(i));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    numRows++;
+                    if (out.size() > maxEntryBytes) {
+                        aborted = true;
+                        out = null;
+                    }
+                }
+                return true;
+            }
+            if (delegate.allLoaded() && !aborted && !completed) {
+                completed = true;
+                recording.onSliceCompleted(this);
+            }
+            return false;
+        }
+    }
+}
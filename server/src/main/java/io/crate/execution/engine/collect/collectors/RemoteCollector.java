@@ -190,7 +190,8 @@ public class RemoteCollector {
             DataTypes.getStreamers(collectPhase.outputTypes()),
             consumer,
             pagingIterator,
-            1);
+            1,
+            ramAccounting);
 
         builder.addTask(new DistResultRXTask(
             RECEIVER_PHASE_ID,
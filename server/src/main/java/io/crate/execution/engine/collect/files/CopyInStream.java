@@ -0,0 +1,217 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Pipe between the data a client streams via the PostgreSQL COPY sub-protocol
+ * ({@code CopyData} messages) and the {@link FileReadingIterator} of a {@code COPY FROM STDIN} job.
+ *
+ * <p>
+ * {@link #write(byte[])} must never block because it is called from a network thread.
+ * Instead, once more than {@link #PAUSE_THRESHOLD_BYTES} are buffered the {@code autoRead} callback
+ * registered via {@link #flowControl(Consumer)} is called with {@code false} to stop reading from the
+ * client connection and it is called with {@code true} as soon as the reader drained the buffer
+ * down to {@link #RESUME_THRESHOLD_BYTES}.
+ * </p>
+ *
+ * <p>
+ * The reader waits for data in intervals of {@link #POLL_INTERVAL_MS} and stops waiting if the job got
+ * killed ({@link #kill(Throwable)}) or the stream got closed, e.g. because the client connection was closed.
+ * </p>
+ */
+public final class CopyInStream extends InputStream {
+
+    static final long PAUSE_THRESHOLD_BYTES = 4L * 1024 * 1024;
+    static final long RESUME_THRESHOLD_BYTES = 1024L * 1024;
+    static final long POLL_INTERVAL_MS = 500;
+
+    private static final byte[] EOF = new byte[0];
+
+    private final LinkedBlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+
+    private long bufferedBytes = 0;
+    private boolean paused = false;
+    private volatile boolean closed = false;
+
+    @Nullable
+    private Consumer<Boolean> autoRead;
+
+    @Nullable
+    private volatile String failure;
+
+    @Nullable
+    private volatile Throwable killed;
+
+    private byte[] current = null;
+    private int position = 0;
+
+    /**
+     * @param autoRead called with false if the producer should stop sending data and with true once it can resume.
+     */
+    public synchronized void flowControl(Consumer<Boolean> autoRead) {
+        this.autoRead = autoRead;
+    }
+
+    /**
+     * Adds a chunk of data received from the client.
+     * Data written after the stream got closed is discarded.
+     */
+    public synchronized void write(byte[] bytes) {
+        if (closed) {
+            return;
+        }
+        chunks.add(bytes);
+        bufferedBytes += bytes.length;
+        if (!paused && bufferedBytes > PAUSE_THRESHOLD_BYTES && autoRead != null) {
+            paused = true;
+            autoRead.accept(false);
+        }
+    }
+
+    /**
+     * Signals that the client sent all data ({@code CopyDone})
+     */
+    public synchronized void finish() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        chunks.add(EOF);
+        resume();
+    }
+
+    /**
+     * Signals that the client aborted the copy ({@code CopyFail}).
+     * The reader receives an {@link IOException} once it consumed the data buffered so far.
+     */
+    public synchronized void fail(String message) {
+        if (closed) {
+            return;
+        }
+        failure = message;
+        finish();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int read = read(b, 0, 1);
+        return read == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (current == null || position == current.length) {
+            raiseIfKilled();
+            if (current == EOF) {
+                String message = failure;
+                if (message != null) {
+                    throw new IOException("COPY FROM STDIN failed: " + message);
+                }
+                return -1;
+            }
+            byte[] chunk;
+            try {
+                chunk = chunks.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for COPY data");
+            }
+            if (chunk == null) {
+                if (closed && chunks.isEmpty()) {
+                    current = EOF;
+                }
+                continue;
+            }
+            current = chunk;
+            position = 0;
+            consumed(current.length);
+        }
+        int numBytes = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, numBytes);
+        position += numBytes;
+        return numBytes;
+    }
+
+    @Override
+    public int available() {
+        return current == null || current == EOF ? 0 : current.length - position;
+    }
+
+    /**
+     * Aborts reading: A waiting or subsequent read fails with an {@link InterruptedIOException}
+     * caused by the given throwable. Called if the job reading the stream got killed.
+     */
+    public void kill(Throwable throwable) {
+        killed = throwable;
+        close();
+    }
+
+    /**
+     * Discards all buffered data and unblocks a waiting reader.
+     * Called if the job finished or the client connection was closed.
+     */
+    @Override
+    public synchronized void close() {
+        chunks.clear();
+        bufferedBytes = 0;
+        closed = true;
+        chunks.add(EOF);
+        resume();
+    }
+
+    private void raiseIfKilled() throws InterruptedIOException {
+        Throwable t = killed;
+        if (t != null) {
+            InterruptedIOException e = new InterruptedIOException("COPY FROM STDIN was killed");
+            e.initCause(t);
+            throw e;
+        }
+    }
+
+    private synchronized void consumed(int numBytes) {
+        bufferedBytes -= numBytes;
+        if (bufferedBytes <= RESUME_THRESHOLD_BYTES) {
+            resume();
+        }
+    }
+
+    private void resume() {
+        assert Thread.holdsLock(this) : "Must hold the lock to change the flow control state";
+        if (paused && autoRead != null) {
+            paused = false;
+            autoRead.accept(true);
+        }
+    }
+}
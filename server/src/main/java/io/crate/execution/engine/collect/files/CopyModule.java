@@ -43,6 +43,9 @@ public class CopyModule extends AbstractModule {
         MapBinder<String, FileOutputFactory> fileOutputFactoryMapBinder = MapBinder.newMapBinder(binder(), String.class, FileOutputFactory.class);
 
         fileInputFactoryMapBinder.addBinding(LocalFsFileInputFactory.NAME).to(LocalFsFileInputFactory.class).asEagerSingleton();
+        // Bound as singleton on its own, it is also used to register the streams of COPY FROM STDIN statements
+        bind(StdinFileInputFactory.class).asEagerSingleton();
+        fileInputFactoryMapBinder.addBinding(StdinFileInputFactory.NAME).to(StdinFileInputFactory.class);
         fileOutputFactoryMapBinder.addBinding(LocalFsFileOutputFactory.NAME).to(LocalFsFileOutputFactory.class).asEagerSingleton();
 
         for (var copyPlugin : copyPlugins) {
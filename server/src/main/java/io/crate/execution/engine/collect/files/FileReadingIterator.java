@@ -100,6 +100,12 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
     private Iterator<URI> currentInputUriIterator = null;
     private BufferedReader currentReader = null;
 
+    /**
+     * Set while reading from a {@code COPY FROM STDIN} stream, to unblock a waiting read on kill.
+     */
+    @Nullable
+    private volatile CopyInStream currentCopyInStream = null;
+
     @VisibleForTesting
     long watermark;
 
@@ -207,6 +213,10 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
     @Override
     public void kill(@NotNull Throwable throwable) {
         killed = throwable;
+        CopyInStream copyInStream = currentCopyInStream;
+        if (copyInStream != null) {
+            copyInStream.kill(throwable);
+        }
     }
 
     @Override
@@ -291,6 +301,7 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
         cursor.uri = uri;
         cursor.lineNumber = 0;
         InputStream stream = fileInput.getStream(uri);
+        currentCopyInStream = stream instanceof CopyInStream copyInStream ? copyInStream : null;
         currentReader = createBufferedReader(stream);
     }
 
@@ -302,6 +313,7 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
                 LOGGER.error("Unable to close reader for " + cursor.uri, e);
             }
             currentReader = null;
+            currentCopyInStream = null;
         }
     }
 
@@ -38,6 +38,7 @@ import io.crate.execution.engine.collect.files.FileReadingIterator.LineCursor;
 import io.crate.expression.InputRow;
 import io.crate.expression.reference.file.LineContext;
 import io.crate.operation.collect.files.CSVLineParser;
+import io.crate.operation.collect.files.TextLineParser;
 
 public final class LineProcessor extends MappedForwardingBatchIterator<LineCursor, Row> {
 
@@ -49,6 +50,7 @@ public final class LineProcessor extends MappedForwardingBatchIterator<LineCurso
 
     private InputFormat inputFormat;
     private CSVLineParser csvLineParser;
+    private TextLineParser textLineParser;
     private boolean firstLine = true;
 
     public LineProcessor(BatchIterator<LineCursor> source,
@@ -75,7 +77,11 @@ public final class LineProcessor extends MappedForwardingBatchIterator<LineCurso
     }
 
     private boolean readFirstLine(URI currentUri, String line) throws IOException {
-        if (isCSV(inputFormat, currentUri)) {
+        if (inputFormat == InputFormat.TEXT) {
+            textLineParser = new TextLineParser(parserProperties.columnSeparator(), targetColumns);
+            // Like in PostgreSQL the header line of the text format is ignored
+            return parserProperties.fileHeader();
+        } else if (isCSV(inputFormat, currentUri)) {
             csvLineParser = new CSVLineParser(parserProperties, targetColumns);
             inputFormat = InputFormat.CSV;
             if (parserProperties.fileHeader()) {
@@ -92,6 +98,8 @@ public final class LineProcessor extends MappedForwardingBatchIterator<LineCurso
         if (inputFormat == InputFormat.CSV) {
             return parserProperties.fileHeader() ?
                 csvLineParser.parse(line, rowNumber) : csvLineParser.parseWithoutHeader(line, rowNumber);
+        } else if (inputFormat == InputFormat.TEXT) {
+            return textLineParser.parse(line, rowNumber);
         } else {
             return line.getBytes(StandardCharsets.UTF_8);
         }
@@ -117,6 +125,9 @@ public final class LineProcessor extends MappedForwardingBatchIterator<LineCurso
                         continue;
                     }
                 }
+                if (inputFormat == InputFormat.TEXT && line.equals(TextLineParser.END_OF_DATA)) {
+                    continue;
+                }
                 try {
                     byte[] json = getByteArray(line, cursor.lineNumber());
                     lineContext.resetCurrentParsingFailure();
@@ -0,0 +1,74 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+class StdinFileInput implements FileInput {
+
+    private final URI uri;
+    private final StdinFileInputFactory factory;
+
+    StdinFileInput(URI uri, StdinFileInputFactory factory) {
+        this.uri = uri;
+        this.factory = factory;
+    }
+
+    @Override
+    public List<URI> expandUri() throws IOException {
+        return List.of(uri);
+    }
+
+    @Override
+    public InputStream getStream(URI uri) throws IOException {
+        UUID jobId;
+        try {
+            jobId = UUID.fromString(uri.getPath().substring(1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Invalid STDIN URI: " + uri, e);
+        }
+        CopyInStream stream = factory.get(jobId);
+        if (stream == null) {
+            throw new IOException("No COPY FROM STDIN in progress for job " + jobId);
+        }
+        return stream;
+    }
+
+    @Override
+    public boolean isGlobbed() {
+        return false;
+    }
+
+    @Override
+    public URI uri() {
+        return uri;
+    }
+
+    @Override
+    public boolean sharedStorageDefault() {
+        return false;
+    }
+}
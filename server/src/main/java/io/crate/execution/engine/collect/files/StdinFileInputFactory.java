@@ -0,0 +1,78 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.elasticsearch.common.settings.Settings;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Provides the data of {@code COPY FROM STDIN} statements.
+ *
+ * <p>
+ * The coordinator registers a {@link CopyInStream} per job before the job is launched.
+ * The protocol layer looks the stream up using the job id and feeds it with the data sent by the client
+ * while the collect phase of the job reads it via a {@code stdin:///<jobId>} URI.
+ * Because the stream only exists on the coordinator, the collect phase must run on the handler node.
+ * </p>
+ */
+public class StdinFileInputFactory implements FileInputFactory {
+
+    public static final String NAME = "stdin";
+
+    private final Map<UUID, CopyInStream> streams = new ConcurrentHashMap<>();
+
+    public static String uri(UUID jobId) {
+        return NAME + ":///" + jobId;
+    }
+
+    public CopyInStream register(UUID jobId) {
+        CopyInStream stream = new CopyInStream();
+        CopyInStream previous = streams.putIfAbsent(jobId, stream);
+        if (previous != null) {
+            throw new IllegalStateException("A COPY FROM STDIN stream is already registered for job " + jobId);
+        }
+        return stream;
+    }
+
+    public void unregister(UUID jobId) {
+        CopyInStream stream = streams.remove(jobId);
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @Nullable
+    public CopyInStream get(UUID jobId) {
+        return streams.get(jobId);
+    }
+
+    @Override
+    public FileInput create(URI uri, Settings withClauseOptions) throws IOException {
+        return new StdinFileInput(uri, this);
+    }
+}
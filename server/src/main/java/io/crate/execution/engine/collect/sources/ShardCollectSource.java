@@ -215,12 +215,14 @@ public class ShardCollectSource implements CollectSource, IndexEventListener {
          */
         Supplier<ShardCollectorProvider> providerSupplier = Suppliers.memoize(() -> shardCollectorProviderFactory.create(indexShard));
         shards.put(indexShard.shardId(), providerSupplier);
+        shardCollectorProviderFactory.resultCache().register(indexShard);
     }
 
     @Override
     public void beforeIndexShardClosed(ShardId shardId, @Nullable IndexShard indexShard, Settings indexSettings) {
         LOGGER.debug("removing shard upon close in {} shard={} numShards={}", ShardCollectSource.this, shardId, shards.size());
         shards.remove(shardId);
+        shardCollectorProviderFactory.resultCache().invalidate(shardId);
     }
 
     @Override
@@ -270,7 +272,7 @@ public class ShardCollectSource implements CollectSource, IndexEventListener {
         Map<String, IntIndexedContainer> indexShards = collectPhase.routing().locations().get(localNodeId);
         List<CompletableFuture<BatchIterator<Row>>> iterators = indexShards == null
             ? Collections.emptyList()
-            : getIterators(collectTask, collectPhase, requireMoveToStartSupport, indexShards);
+            : getIterators(collectTask, collectPhase, requireMoveToStartSupport, indexShards, hasShardProjections);
 
         final CompletableFuture<BatchIterator<Row>> result;
         switch (iterators.size()) {
@@ -414,9 +416,22 @@ public class ShardCollectSource implements CollectSource, IndexEventListener {
     private List<CompletableFuture<BatchIterator<Row>>> getIterators(CollectTask collectTask,
                                                                      RoutedCollectPhase collectPhase,
                                                                      boolean requiresScroll,
-                                                                     Map<String, IntIndexedContainer> indexShards) {
+                                                                     Map<String, IntIndexedContainer> indexShards,
+                                                                     boolean hasShardProjections) {
 
         Metadata metadata = clusterService.state().metadata();
+        // Shard projections can be processed concurrently (see below). If there are fewer shards than idle threads
+        // a shard can be split into slices of segments to make use of the remaining threads.
+        final int maxSlicesPerShard;
+        if (hasShardProjections) {
+            int numShards = 0;
+            for (IntIndexedContainer shards : indexShards.values()) {
+                numShards += shards.size();
+            }
+            maxSlicesPerShard = Math.max(1, availableThreads.getAsInt() / Math.max(1, numShards));
+        } else {
+            maxSlicesPerShard = 1;
+        }
         List<CompletableFuture<BatchIterator<Row>>> iterators = new ArrayList<>();
         for (Map.Entry<String, IntIndexedContainer> entry : indexShards.entrySet()) {
             String indexName = entry.getKey();
@@ -434,10 +449,10 @@ public class ShardCollectSource implements CollectSource, IndexEventListener {
                     ShardCollectorProvider shardCollectorProvider = getCollectorProviderSafe(shardId);
                     CompletableFuture<BatchIterator<Row>> iterator = shardCollectorProvider
                         .awaitShardSearchActive()
-                        .thenApply(batchIteratorFactory -> batchIteratorFactory.getIterator(
-                            collectPhase,
-                            requiresScroll,
-                            collectTask
+                        .thenApply(batchIteratorFactory -> CompositeBatchIterator.asyncComposite(
+                            executor,
+                            availableThreads,
+                            batchIteratorFactory.getIterators(collectPhase, requiresScroll, collectTask, maxSlicesPerShard)
                         ))
                         .exceptionallyCompose(err -> shardFailureFallbackOrRaise(err, shardId, collectPhase, collectTask, requiresScroll));
                     iterators.add(iterator);
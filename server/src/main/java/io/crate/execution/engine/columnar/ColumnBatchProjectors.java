@@ -0,0 +1,184 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.columnar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.Projector;
+import io.crate.data.Row;
+import io.crate.data.columnar.ColumnBatch;
+import io.crate.data.columnar.ColumnBatchIterators;
+import io.crate.data.columnar.VectorPredicate;
+import io.crate.execution.dsl.projection.EvalProjection;
+import io.crate.execution.dsl.projection.FilterProjection;
+import io.crate.execution.dsl.projection.Projection;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Symbol;
+import io.crate.types.DataType;
+
+/**
+ * Applies projections on {@link ColumnBatch}es instead of single rows.
+ *
+ * <p>
+ * This is opt-in via {@link #COLUMNAR_EXECUTION_ENABLED_SETTING}: only filters which can be compiled via
+ * {@link VectorPredicates} and evaluations which only select or re-order columns are supported.
+ * Callers must fall back to the row based projectors if {@code null} is returned.
+ * </p>
+ */
+public final class ColumnBatchProjectors {
+
+    public static final Setting<Boolean> COLUMNAR_EXECUTION_ENABLED_SETTING = Setting.boolSetting(
+        "columnar_execution.enabled",
+        false,
+        Property.NodeScope
+    );
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private ColumnBatchProjectors() {
+    }
+
+    /**
+     * Creates a projector which applies the filter on column batches if the filter and the types of the
+     * input columns are supported and which uses {@code rowProjector} otherwise.
+     */
+    public static Projector filterProjector(FilterProjection projection, Projector rowProjector) {
+        List<DataType<?>> inputTypes = identityInputTypes(projection.outputs());
+        if (inputTypes == null
+            || !ColumnVectors.supports(inputTypes)
+            || VectorPredicates.compile(projection.query(), inputTypes) == null) {
+            return rowProjector;
+        }
+        List<FilterProjection> projections = List.of(projection);
+        return source -> {
+            BatchIterator<Row> projected = tryWrap(projections, inputTypes, source, DEFAULT_BATCH_SIZE);
+            return projected == null ? rowProjector.apply(source) : projected;
+        };
+    }
+
+    /**
+     * Converts the rows of {@code source} into batches, applies the projections on the batches and converts
+     * the result back into rows.
+     *
+     * @return the projected rows or null if any of the projections or column types is not supported.
+     */
+    @Nullable
+    public static BatchIterator<Row> tryWrap(Collection<? extends Projection> projections,
+                                             List<? extends DataType<?>> inputTypes,
+                                             BatchIterator<Row> source,
+                                             int batchSize) {
+        ColumnBatch batch = ColumnVectors.createBatch(inputTypes, batchSize);
+        if (batch == null) {
+            return null;
+        }
+        BatchIterator<ColumnBatch> batches = ColumnBatchIterators.toBatches(source, batch);
+        BatchIterator<ColumnBatch> projected = wrap(projections, inputTypes, batches);
+        if (projected == null) {
+            return null;
+        }
+        return ColumnBatchIterators.toRows(projected);
+    }
+
+    /**
+     * @return the projected batches or null if any of the projections is not supported.
+     */
+    @Nullable
+    public static BatchIterator<ColumnBatch> wrap(Collection<? extends Projection> projections,
+                                                  List<? extends DataType<?>> inputTypes,
+                                                  BatchIterator<ColumnBatch> source) {
+        List<? extends DataType<?>> columnTypes = inputTypes;
+        for (Projection projection : projections) {
+            if (projection instanceof FilterProjection filter) {
+                VectorPredicate predicate = VectorPredicates.compile(filter.query(), columnTypes);
+                if (predicate == null) {
+                    return null;
+                }
+                source = ColumnBatchIterators.filter(source, predicate);
+            } else if (!(projection instanceof EvalProjection)) {
+                return null;
+            }
+            List<? extends Symbol> outputs = projection.outputs();
+            int[] columnIndices = columnIndices(outputs);
+            if (columnIndices == null) {
+                return null;
+            }
+            if (!isIdentity(columnIndices, columnTypes.size())) {
+                source = ColumnBatchIterators.project(source, columnIndices);
+                List<DataType<?>> outputTypes = new ArrayList<>(columnIndices.length);
+                for (int idx : columnIndices) {
+                    outputTypes.add(columnTypes.get(idx));
+                }
+                columnTypes = outputTypes;
+            }
+        }
+        return source;
+    }
+
+    @Nullable
+    private static int[] columnIndices(List<? extends Symbol> outputs) {
+        if (outputs.isEmpty()) {
+            return null;
+        }
+        int[] indices = new int[outputs.size()];
+        for (int i = 0; i < indices.length; i++) {
+            if (!(outputs.get(i) instanceof InputColumn inputColumn)) {
+                return null;
+            }
+            indices[i] = inputColumn.index();
+        }
+        return indices;
+    }
+
+    /**
+     * @return the types of the input columns if the outputs select all input columns in order, otherwise null.
+     */
+    @Nullable
+    private static List<DataType<?>> identityInputTypes(List<? extends Symbol> outputs) {
+        List<DataType<?>> types = new ArrayList<>(outputs.size());
+        for (int i = 0; i < outputs.size(); i++) {
+            if (!(outputs.get(i) instanceof InputColumn inputColumn) || inputColumn.index() != i) {
+                return null;
+            }
+            types.add(inputColumn.valueType());
+        }
+        return types.isEmpty() ? null : types;
+    }
+
+    private static boolean isIdentity(int[] columnIndices, int numColumns) {
+        if (columnIndices.length != numColumns) {
+            return false;
+        }
+        for (int i = 0; i < columnIndices.length; i++) {
+            if (columnIndices[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.columnar;
+
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.columnar.BytesVector;
+import io.crate.data.columnar.ColumnBatch;
+import io.crate.data.columnar.ColumnVector;
+import io.crate.data.columnar.DoubleVector;
+import io.crate.data.columnar.IntVector;
+import io.crate.data.columnar.LongVector;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+
+public final class ColumnVectors {
+
+    private ColumnVectors() {
+    }
+
+    /**
+     * @return a vector for values of the given type or null if the type has no columnar representation.
+     */
+    @Nullable
+    public static ColumnVector create(DataType<?> type, int capacity) {
+        return switch (type.id()) {
+            case LongType.ID, TimestampType.ID_WITH_TZ, TimestampType.ID_WITHOUT_TZ -> new LongVector(capacity);
+            case IntegerType.ID -> new IntVector(capacity);
+            case DoubleType.ID -> new DoubleVector(capacity);
+            case StringType.ID -> new BytesVector(capacity);
+            default -> null;
+        };
+    }
+
+    /**
+     * @return true if all types have a columnar representation.
+     */
+    public static boolean supports(List<? extends DataType<?>> types) {
+        if (types.isEmpty()) {
+            return false;
+        }
+        for (DataType<?> type : types) {
+            if (!supports(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean supports(DataType<?> type) {
+        return switch (type.id()) {
+            case LongType.ID, TimestampType.ID_WITH_TZ, TimestampType.ID_WITHOUT_TZ,
+                 IntegerType.ID, DoubleType.ID, StringType.ID -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return a batch with one vector per type or null if any of the types has no columnar representation.
+     */
+    @Nullable
+    public static ColumnBatch createBatch(List<? extends DataType<?>> types, int capacity) {
+        if (types.isEmpty()) {
+            return null;
+        }
+        ColumnVector[] columns = new ColumnVector[types.size()];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnVector column = create(types.get(i), capacity);
+            if (column == null) {
+                return null;
+            }
+            columns[i] = column;
+        }
+        return new ColumnBatch(columns);
+    }
+}
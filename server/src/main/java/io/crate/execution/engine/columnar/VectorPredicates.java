@@ -0,0 +1,169 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.columnar;
+
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.columnar.ColumnBatch;
+import io.crate.data.columnar.DoubleVector;
+import io.crate.data.columnar.IntVector;
+import io.crate.data.columnar.LongVector;
+import io.crate.data.columnar.VectorPredicate;
+import io.crate.expression.compiler.Comparison;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.TimestampType;
+
+/**
+ * Compiles filter conditions into {@link VectorPredicate}s which evaluate a condition on a whole batch.
+ *
+ * <p>
+ * Supported are conjunctions of comparisons between a numeric column and a literal.
+ * A comparison against a null value never matches, like in the row based evaluation where a null
+ * result is treated as false.
+ * </p>
+ */
+public final class VectorPredicates {
+
+    private VectorPredicates() {
+    }
+
+    /**
+     * @param condition a condition referring to the columns via {@link InputColumn}s
+     * @param columnTypes the types of the columns of the batches the predicate is evaluated on
+     * @return the compiled predicate or null if the condition isn't supported
+     */
+    @Nullable
+    public static VectorPredicate compile(Symbol condition, List<? extends DataType<?>> columnTypes) {
+        if (!(condition instanceof Function function)) {
+            return null;
+        }
+        List<Symbol> args = function.arguments();
+        if (function.name().equals(AndOperator.NAME)) {
+            VectorPredicate left = compile(args.get(0), columnTypes);
+            VectorPredicate right = left == null ? null : compile(args.get(1), columnTypes);
+            return right == null ? null : left.and(right);
+        }
+        Comparison comparison = Comparison.of(function.name());
+        if (comparison == null || args.size() != 2) {
+            return null;
+        }
+        if (args.get(0) instanceof InputColumn column && args.get(1) instanceof Literal<?> literal) {
+            return compare(column.index(), columnTypes, comparison, literal.value());
+        }
+        if (args.get(0) instanceof Literal<?> literal && args.get(1) instanceof InputColumn column) {
+            return compare(column.index(), columnTypes, comparison.flip(), literal.value());
+        }
+        return null;
+    }
+
+    @Nullable
+    private static VectorPredicate compare(int column,
+                                           List<? extends DataType<?>> columnTypes,
+                                           Comparison comparison,
+                                           @Nullable Object value) {
+        if (!(value instanceof Number number)) {
+            return null;
+        }
+        return switch (columnTypes.get(column).id()) {
+            case LongType.ID, TimestampType.ID_WITH_TZ, TimestampType.ID_WITHOUT_TZ ->
+                number instanceof Long || number instanceof Integer
+                    ? compareLong(column, comparison, number.longValue())
+                    : null;
+            case IntegerType.ID -> number instanceof Integer
+                ? compareInt(column, comparison, number.intValue())
+                : null;
+            case DoubleType.ID -> number instanceof Double
+                ? compareDouble(column, comparison, number.doubleValue())
+                : null;
+            default -> null;
+        };
+    }
+
+    private static VectorPredicate compareLong(int column, Comparison comparison, long value) {
+        return batch -> {
+            LongVector vector = (LongVector) batch.column(column);
+            long[] values = vector.values();
+            boolean[] nulls = vector.nulls();
+            int[] selection = batch.selection();
+            int numSelected = batch.numSelected();
+            int matches = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!nulls[position] && comparison.matches(Long.compare(values[position], value))) {
+                    selection[matches++] = position;
+                }
+            }
+            return select(batch, matches);
+        };
+    }
+
+    private static VectorPredicate compareInt(int column, Comparison comparison, int value) {
+        return batch -> {
+            IntVector vector = (IntVector) batch.column(column);
+            int[] values = vector.values();
+            boolean[] nulls = vector.nulls();
+            int[] selection = batch.selection();
+            int numSelected = batch.numSelected();
+            int matches = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!nulls[position] && comparison.matches(Integer.compare(values[position], value))) {
+                    selection[matches++] = position;
+                }
+            }
+            return select(batch, matches);
+        };
+    }
+
+    private static VectorPredicate compareDouble(int column, Comparison comparison, double value) {
+        return batch -> {
+            DoubleVector vector = (DoubleVector) batch.column(column);
+            double[] values = vector.values();
+            boolean[] nulls = vector.nulls();
+            int[] selection = batch.selection();
+            int numSelected = batch.numSelected();
+            int matches = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!nulls[position] && comparison.matches(Double.compare(values[position], value))) {
+                    selection[matches++] = position;
+                }
+            }
+            return select(batch, matches);
+        };
+    }
+
+    private static int select(ColumnBatch batch, int matches) {
+        batch.numSelected(matches);
+        return matches;
+    }
+}
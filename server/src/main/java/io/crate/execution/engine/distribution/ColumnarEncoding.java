@@ -0,0 +1,517 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.distribution;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.Streamer;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+
+/**
+ * Column by column encoding of the rows of a {@link StreamBucket}.
+ *
+ * <p>
+ * The encoded columns are preceded by their lengths in bytes, so that the rows can be decoded lazily by reading
+ * each column from its own slice.
+ * Each column starts with a byte identifying its encoding:
+ * </p>
+ * <ul>
+ *  <li>{@link #GENERIC}: every value written with the {@link Streamer} of the column</li>
+ *  <li>{@link #ALL_NULL}: no payload</li>
+ *  <li>{@link #DICTIONARY}: strings with few distinct values, written as bit-packed indexes into a dictionary</li>
+ *  <li>{@link #PACKED}: integral values, bit-packed as offsets to the minimum value</li>
+ *  <li>{@link #DELTA_PACKED}: non-decreasing integral values, bit-packed as deltas to the previous value</li>
+ *  <li>{@link #BOOLEAN}: booleans, one bit per value</li>
+ * </ul>
+ * All encodings except {@link #GENERIC} and {@link #ALL_NULL} start with a bitmap of the null values and only
+ * encode the non-null values.
+ */
+final class ColumnarEncoding {
+
+    private static final byte GENERIC = 0;
+    private static final byte ALL_NULL = 1;
+    private static final byte DICTIONARY = 2;
+    private static final byte PACKED = 3;
+    private static final byte DELTA_PACKED = 4;
+    private static final byte BOOLEAN = 5;
+
+    private enum Integral {
+        LONG,
+        INT,
+        SHORT,
+        BYTE
+    }
+
+    private ColumnarEncoding() {
+    }
+
+    /**
+     * @param columns values by column, each column has at least {@code numRows} values
+     */
+    static void write(StreamOutput out, Streamer<?>[] streamers, Object[][] columns, int numRows) throws IOException {
+        BytesReference[] encodedColumns = new BytesReference[streamers.length];
+        for (int c = 0; c < streamers.length; c++) {
+            BytesStreamOutput columnOut = new BytesStreamOutput();
+            columnOut.setVersion(out.getVersion());
+            writeColumn(columnOut, streamers[c], columns[c], numRows);
+            encodedColumns[c] = columnOut.bytes();
+            out.writeInt(encodedColumns[c].length());
+        }
+        for (BytesReference encodedColumn : encodedColumns) {
+            encodedColumn.writeTo(out);
+        }
+    }
+
+    /**
+     * Decodes the rows lazily, only the values of the current row are materialized.
+     * Each call creates a new iterator starting at the first row.
+     *
+     * @param bytes the rows encoded with {@link #write(StreamOutput, Streamer[], Object[][], int)}
+     */
+    static Iterator<Row> rows(BytesReference bytes, Streamer<?>[] streamers, int numRows) throws IOException {
+        ColumnReader[] readers = new ColumnReader[streamers.length];
+        StreamInput lengths = bytes.streamInput();
+        int offset = Integer.BYTES * streamers.length;
+        for (int c = 0; c < streamers.length; c++) {
+            int length = lengths.readInt();
+            readers[c] = readColumn(bytes.slice(offset, length).streamInput(), streamers[c], numRows);
+            offset += length;
+        }
+        return new RowIterator(readers, numRows);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void writeColumn(StreamOutput out,
+                                    Streamer<?> streamer,
+                                    Object[] values,
+                                    int numRows) throws IOException {
+        int numNulls = 0;
+        for (int r = 0; r < numRows; r++) {
+            if (values[r] == null) {
+                numNulls++;
+            }
+        }
+        if (numNulls == numRows) {
+            out.writeByte(ALL_NULL);
+            return;
+        }
+        if (streamer instanceof StringType && writeDictionary(out, values, numRows, numNulls)) {
+            return;
+        }
+        if (integral(streamer) != null) {
+            writeIntegral(out, values, numRows, numNulls);
+            return;
+        }
+        if (streamer instanceof BooleanType) {
+            out.writeByte(BOOLEAN);
+            writeNulls(out, values, numRows, numNulls);
+            BitWriter writer = new BitWriter(out, 1);
+            for (int r = 0; r < numRows; r++) {
+                if (values[r] != null) {
+                    writer.add((Boolean) values[r] ? 1 : 0);
+                }
+            }
+            writer.finish();
+            return;
+        }
+        out.writeByte(GENERIC);
+        for (int r = 0; r < numRows; r++) {
+            ((Streamer) streamer).writeValueTo(out, values[r]);
+        }
+    }
+
+    /**
+     * Dictionary encoding is only used if it is likely smaller than writing each value:
+     * The number of distinct values must not exceed half of the non-null values.
+     *
+     * @return false if the column has too many distinct values and nothing was written
+     */
+    private static boolean writeDictionary(StreamOutput out,
+                                           Object[] values,
+                                           int numRows,
+                                           int numNulls) throws IOException {
+        int maxDistinct = (numRows - numNulls) / 2;
+        Map<String, Integer> dictionary = new HashMap<>();
+        int[] ids = new int[numRows];
+        for (int r = 0; r < numRows; r++) {
+            String value = (String) values[r];
+            if (value == null) {
+                continue;
+            }
+            Integer id = dictionary.get(value);
+            if (id == null) {
+                if (dictionary.size() == maxDistinct) {
+                    return false;
+                }
+                id = dictionary.size();
+                dictionary.put(value, id);
+            }
+            ids[r] = id;
+        }
+        out.writeByte(DICTIONARY);
+        writeNulls(out, values, numRows, numNulls);
+        String[] entries = new String[dictionary.size()];
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            entries[entry.getValue()] = entry.getKey();
+        }
+        out.writeVInt(entries.length);
+        for (String entry : entries) {
+            out.writeString(entry);
+        }
+        int bitsPerValue = bitsRequired(entries.length - 1);
+        out.writeByte((byte) bitsPerValue);
+        BitWriter writer = new BitWriter(out, bitsPerValue);
+        for (int r = 0; r < numRows; r++) {
+            if (values[r] != null) {
+                writer.add(ids[r]);
+            }
+        }
+        writer.finish();
+        return true;
+    }
+
+    private static void writeIntegral(StreamOutput out, Object[] values, int numRows, int numNulls) throws IOException {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long maxDelta = 0;
+        boolean nonDecreasing = true;
+        Long first = null;
+        long prev = 0;
+        for (int r = 0; r < numRows; r++) {
+            if (values[r] == null) {
+                continue;
+            }
+            long value = ((Number) values[r]).longValue();
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            if (first == null) {
+                first = value;
+            } else if (value < prev) {
+                nonDecreasing = false;
+            } else if (Long.compareUnsigned(value - prev, maxDelta) > 0) {
+                // compared unsigned as the delta may exceed Long.MAX_VALUE
+                maxDelta = value - prev;
+            }
+            prev = value;
+        }
+        assert first != null : "Column must have at least one non-null value";
+        int packedBits = bitsRequired(max - min);
+        int deltaBits = bitsRequired(maxDelta);
+        boolean useDelta = nonDecreasing && deltaBits < packedBits;
+        int bitsPerValue = useDelta ? deltaBits : packedBits;
+
+        out.writeByte(useDelta ? DELTA_PACKED : PACKED);
+        writeNulls(out, values, numRows, numNulls);
+        out.writeZLong(useDelta ? first : min);
+        out.writeByte((byte) bitsPerValue);
+        BitWriter writer = new BitWriter(out, bitsPerValue);
+        prev = first;
+        for (int r = 0; r < numRows; r++) {
+            if (values[r] == null) {
+                continue;
+            }
+            long value = ((Number) values[r]).longValue();
+            if (useDelta) {
+                // the first value is the base and has a delta of 0
+                writer.add(value - prev);
+                prev = value;
+            } else {
+                writer.add(value - min);
+            }
+        }
+        writer.finish();
+    }
+
+    private static void writeNulls(StreamOutput out, Object[] values, int numRows, int numNulls) throws IOException {
+        out.writeVInt(numNulls);
+        if (numNulls == 0) {
+            return;
+        }
+        BitWriter writer = new BitWriter(out, 1);
+        for (int r = 0; r < numRows; r++) {
+            writer.add(values[r] == null ? 1 : 0);
+        }
+        writer.finish();
+    }
+
+    @Nullable
+    private static BitSet readNulls(StreamInput in, int numRows) throws IOException {
+        int numNulls = in.readVInt();
+        if (numNulls == 0) {
+            return null;
+        }
+        BitSet nulls = new BitSet(numRows);
+        BitReader reader = new BitReader(in, 1);
+        for (int r = 0; r < numRows; r++) {
+            if (reader.next() == 1) {
+                nulls.set(r);
+            }
+        }
+        return nulls;
+    }
+
+    /**
+     * Reads the header of the column, the dictionary and the null bitmap if there are any.
+     * The values are decoded by the returned reader one by one.
+     */
+    private static ColumnReader readColumn(StreamInput in, Streamer<?> streamer, int numRows) throws IOException {
+        byte encoding = in.readByte();
+        return switch (encoding) {
+            case GENERIC -> new ColumnReader(null) {
+
+                @Override
+                Object readValue() throws IOException {
+                    return streamer.readValueFrom(in);
+                }
+            };
+            case ALL_NULL -> new ColumnReader(null) {
+
+                @Override
+                Object readValue() {
+                    return null;
+                }
+            };
+            case DICTIONARY -> {
+                BitSet nulls = readNulls(in, numRows);
+                String[] dictionary = new String[in.readVInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = in.readString();
+                }
+                BitReader reader = new BitReader(in, in.readByte());
+                yield new ColumnReader(nulls) {
+
+                    @Override
+                    Object readValue() throws IOException {
+                        return dictionary[(int) reader.next()];
+                    }
+                };
+            }
+            case PACKED, DELTA_PACKED -> {
+                Integral integral = integral(streamer);
+                if (integral == null) {
+                    throw new IOException("Integral encoding used for column with streamer " + streamer);
+                }
+                BitSet nulls = readNulls(in, numRows);
+                long base = in.readZLong();
+                BitReader reader = new BitReader(in, in.readByte());
+                boolean delta = encoding == DELTA_PACKED;
+                yield new ColumnReader(nulls) {
+
+                    private long prev = base;
+
+                    @Override
+                    Object readValue() throws IOException {
+                        long value = prev + reader.next();
+                        if (delta) {
+                            prev = value;
+                        }
+                        return box(integral, value);
+                    }
+                };
+            }
+            case BOOLEAN -> {
+                BitSet nulls = readNulls(in, numRows);
+                BitReader reader = new BitReader(in, 1);
+                yield new ColumnReader(nulls) {
+
+                    @Override
+                    Object readValue() throws IOException {
+                        return reader.next() == 1;
+                    }
+                };
+            }
+            default -> throw new IOException("Unknown column encoding: " + encoding);
+        };
+    }
+
+    private abstract static class ColumnReader {
+
+        @Nullable
+        private final BitSet nulls;
+        private int row = 0;
+
+        ColumnReader(@Nullable BitSet nulls) {
+            this.nulls = nulls;
+        }
+
+        final Object next() throws IOException {
+            int r = row++;
+            if (nulls != null && nulls.get(r)) {
+                return null;
+            }
+            return readValue();
+        }
+
+        abstract Object readValue() throws IOException;
+    }
+
+    private static final class RowIterator implements Iterator<Row> {
+
+        private final ColumnReader[] readers;
+        private final int numRows;
+        private final Object[] current;
+        private final RowN row;
+        private int pos = 0;
+
+        private RowIterator(ColumnReader[] readers, int numRows) {
+            this.readers = readers;
+            this.numRows = numRows;
+            current = new Object[readers.length];
+            row = new RowN(current);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < numRows;
+        }
+
+        @Override
+        public Row next() {
+            for (int c = 0; c < readers.length; c++) {
+                try {
+                    current[c] = readers[c].next();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            pos++;
+            return row;
+        }
+    }
+
+    @Nullable
+    private static Integral integral(Streamer<?> streamer) {
+        if (streamer instanceof LongType || streamer instanceof TimestampType) {
+            return Integral.LONG;
+        } else if (streamer instanceof IntegerType) {
+            return Integral.INT;
+        } else if (streamer instanceof ShortType) {
+            return Integral.SHORT;
+        } else if (streamer instanceof ByteType) {
+            return Integral.BYTE;
+        }
+        return null;
+    }
+
+    private static Object box(Integral integral, long value) {
+        return switch (integral) {
+            case LONG -> value;
+            case INT -> (int) value;
+            case SHORT -> (short) value;
+            case BYTE -> (byte) value;
+        };
+    }
+
+    /**
+     * Number of bits required to represent {@code value} interpreted as unsigned
+     */
+    private static int bitsRequired(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Writes the lowest {@code bitsPerValue} bits of values, least significant bits first.
+     */
+    private static final class BitWriter {
+
+        private final StreamOutput out;
+        private final int bitsPerValue;
+        private int current = 0;
+        private int numBits = 0;
+
+        BitWriter(StreamOutput out, int bitsPerValue) {
+            this.out = out;
+            this.bitsPerValue = bitsPerValue;
+        }
+
+        void add(long value) throws IOException {
+            int written = 0;
+            while (written < bitsPerValue) {
+                int n = Math.min(8 - numBits, bitsPerValue - written);
+                current |= (int) ((value >>> written) & ((1 << n) - 1)) << numBits;
+                numBits += n;
+                written += n;
+                if (numBits == 8) {
+                    out.writeByte((byte) current);
+                    current = 0;
+                    numBits = 0;
+                }
+            }
+        }
+
+        void finish() throws IOException {
+            if (numBits > 0) {
+                out.writeByte((byte) current);
+                current = 0;
+                numBits = 0;
+            }
+        }
+    }
+
+    private static final class BitReader {
+
+        private final StreamInput in;
+        private final int bitsPerValue;
+        private int current = 0;
+        private int numBits = 0;
+
+        BitReader(StreamInput in, int bitsPerValue) {
+            this.in = in;
+            this.bitsPerValue = bitsPerValue;
+        }
+
+        long next() throws IOException {
+            long value = 0;
+            int read = 0;
+            while (read < bitsPerValue) {
+                if (numBits == 0) {
+                    current = in.readByte() & 0xFF;
+                    numBits = 8;
+                }
+                int n = Math.min(numBits, bitsPerValue - read);
+                value |= ((long) ((current >>> (8 - numBits)) & ((1 << n) - 1))) << read;
+                numBits -= n;
+                read += n;
+            }
+            return value;
+        }
+    }
+}
@@ -26,15 +26,23 @@ import java.util.UUID;
 
 import org.jetbrains.annotations.Nullable;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.transport.CompressiblePayload;
 import org.elasticsearch.transport.TransportRequest;
 
 import io.crate.Streamer;
 import io.crate.data.Bucket;
 import io.crate.execution.support.NodeRequest;
 
-public class DistributedResultRequest extends TransportRequest {
+public class DistributedResultRequest extends TransportRequest implements CompressiblePayload {
+
+    /**
+     * pageIdx of requests sent by nodes which don't pipeline pages.
+     * These nodes wait for a response before sending the next page, so the pages arrive in order.
+     */
+    public static final int UNSEQUENCED = -1;
 
     public static class Builder {
 
@@ -56,15 +64,31 @@ public class DistributedResultRequest extends TransportRequest {
                                                            int bucketIdx,
                                                            StreamBucket rows,
                                                            boolean isLast) {
+        return of(nodeId, jobId, executionPhaseId, inputId, bucketIdx, UNSEQUENCED, rows, isLast);
+    }
+
+    /**
+     * @param pageIdx sequence number of the page within the bucket. Used by the receiver to restore the order of
+     *                pages if an upstream has more than one page in flight.
+     */
+    public static NodeRequest<DistributedResultRequest> of(String nodeId,
+                                                           UUID jobId,
+                                                           int executionPhaseId,
+                                                           byte inputId,
+                                                           int bucketIdx,
+                                                           int pageIdx,
+                                                           StreamBucket rows,
+                                                           boolean isLast) {
         return new NodeRequest<>(
             nodeId,
-            new DistributedResultRequest(jobId, executionPhaseId, inputId, bucketIdx, rows, isLast)
+            new DistributedResultRequest(jobId, executionPhaseId, inputId, bucketIdx, pageIdx, rows, isLast)
         );
     }
 
     private final byte inputId;
     private final int executionPhaseId;
     private final int bucketIdx;
+    private int pageIdx = UNSEQUENCED;
 
     private StreamBucket rows;
     private final UUID jobId;
@@ -84,9 +108,11 @@ public class DistributedResultRequest extends TransportRequest {
                                      int executionPhaseId,
                                      byte inputId,
                                      int bucketIdx,
+                                     int pageIdx,
                                      StreamBucket rows,
                                      boolean isLast) {
         this(jobId, inputId, executionPhaseId, bucketIdx);
+        this.pageIdx = pageIdx;
         this.rows = rows;
         this.isLast = isLast;
     }
@@ -118,6 +144,10 @@ public class DistributedResultRequest extends TransportRequest {
         return bucketIdx;
     }
 
+    public int pageIdx() {
+        return pageIdx;
+    }
+
     public Bucket readRows(Streamer<?>[] streamers) {
         rows.streamers(streamers);
         return rows;
@@ -143,6 +173,9 @@ public class DistributedResultRequest extends TransportRequest {
         bucketIdx = in.readVInt();
         isLast = in.readBoolean();
         inputId = in.readByte();
+        if (in.getVersion().onOrAfter(Version.V_5_8_0)) {
+            pageIdx = in.readInt();
+        }
 
         boolean failure = in.readBoolean();
         if (failure) {
@@ -162,6 +195,9 @@ public class DistributedResultRequest extends TransportRequest {
         out.writeVInt(bucketIdx);
         out.writeBoolean(isLast);
         out.writeByte(inputId);
+        if (out.getVersion().onOrAfter(Version.V_5_8_0)) {
+            out.writeInt(pageIdx);
+        }
 
         boolean failure = throwable != null;
         out.writeBoolean(failure);
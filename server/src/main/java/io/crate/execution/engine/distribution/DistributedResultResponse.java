@@ -21,30 +21,52 @@
 
 package io.crate.execution.engine.distribution;
 
+import java.io.IOException;
+
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.transport.TransportResponse;
 
-import java.io.IOException;
-
 public class DistributedResultResponse extends TransportResponse {
 
     private final boolean needMore;
+    private final int credits;
 
     public DistributedResultResponse(boolean needMore) {
+        this(needMore, 1);
+    }
+
+    /**
+     * @param credits number of pages the upstream may have in flight to the receiver without waiting for a response.
+     */
+    public DistributedResultResponse(boolean needMore, int credits) {
         this.needMore = needMore;
+        this.credits = credits;
     }
 
     public boolean needMore() {
         return needMore;
     }
 
+    public int credits() {
+        return credits;
+    }
+
     public DistributedResultResponse(StreamInput in) throws IOException {
         needMore = in.readBoolean();
+        if (in.getVersion().onOrAfter(Version.V_5_8_0)) {
+            credits = in.readVInt();
+        } else {
+            credits = 1;
+        }
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeBoolean(needMore);
+        if (out.getVersion().onOrAfter(Version.V_5_8_0)) {
+            out.writeVInt(credits);
+        }
     }
 }
@@ -36,6 +36,7 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 
 import org.jetbrains.annotations.VisibleForTesting;
+import io.crate.common.annotations.GuardedBy;
 import io.crate.data.BatchIterator;
 import io.crate.data.Paging;
 import io.crate.data.Row;
@@ -50,8 +51,12 @@ import io.crate.execution.support.NodeRequest;
  * The rows from the source {@link BatchIterator} are "bucketed" using a {@link MultiBucketBuilder}. So a downstream
  * can either receive a part of the data or all data.
  *
- * Every time requests to the downstreams are made consumption of the source BatchIterator is stopped until a response
- * from all downstreams is received.
+ * Each downstream grants credits with its responses: the number of pages which may be in flight to it without having
+ * received a response. The first page is sent with a single credit, so downstreams which don't support pipelining
+ * (nodes on an older version) are sent one page at a time.
+ *
+ * Consumption of the source BatchIterator continues as long as every downstream which needs more data has a credit
+ * left. Otherwise it is stopped until enough responses are received.
  */
 public class DistributingConsumer implements RowConsumer {
 
@@ -73,6 +78,15 @@ public class DistributingConsumer implements RowConsumer {
 
     private volatile Throwable failure;
 
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private int numInFlight = 0;
+    @GuardedBy("lock")
+    private boolean paused = false;
+    @GuardedBy("lock")
+    private boolean lastPageSent = false;
+    private int nextPageIdx = 0;
+
     public DistributingConsumer(Executor responseExecutor,
                                 UUID jobId,
                                 MultiBucketBuilder multiBucketBuilder,
@@ -120,22 +134,119 @@ public class DistributingConsumer implements RowConsumer {
                 multiBucketBuilder.add(it.currentElement());
                 if (multiBucketBuilder.size() >= pageSize || multiBucketBuilder.ramBytesUsed() >= Paging.MAX_PAGE_BYTES) {
                     forwardResults(it, false);
-                    return;
+                    if (!continueOrPause(it)) {
+                        return;
+                    }
                 }
             }
             if (it.allLoaded()) {
                 forwardResults(it, true);
+                continueOrPause(it);
             } else {
                 it.loadNextBatch().whenComplete((r, t) -> {
                     if (t == null) {
                         consumeIt(it);
                     } else {
-                        forwardFailure(it, t);
+                        fail(it, t);
                     }
                 });
             }
         } catch (Throwable t) {
-            forwardFailure(it, t);
+            fail(it, t);
+        }
+    }
+
+    private enum Action {
+        NONE,
+        CONTINUE,
+        FORWARD_FAILURE,
+        FINISH
+    }
+
+    /**
+     * Decides how to continue once consumption is paused
+     */
+    @GuardedBy("lock")
+    private Action nextAction() {
+        assert paused : "nextAction must only be called while the consumption is paused";
+        if (!lastPageSent && failure == null && downstreams.stream().anyMatch(Downstream::needsMoreData)) {
+            if (downstreams.stream().allMatch(Downstream::canReceivePage)) {
+                paused = false;
+                return Action.CONTINUE;
+            }
+            return Action.NONE;
+        }
+        // Wait for the responses of all pages in flight before completing
+        if (numInFlight > 0) {
+            return Action.NONE;
+        }
+        paused = false;
+        if (failure != null && downstreams.stream().anyMatch(Downstream::needsMoreData)) {
+            return Action.FORWARD_FAILURE;
+        }
+        return Action.FINISH;
+    }
+
+    /**
+     * Called by the consumer after a page was sent.
+     *
+     * @return true if the consumer can continue with the next page,
+     *         false if it has to stop because it ran out of credits or is done.
+     */
+    private boolean continueOrPause(BatchIterator<Row> it) {
+        Action action;
+        synchronized (lock) {
+            paused = true;
+            action = nextAction();
+        }
+        if (action == Action.CONTINUE) {
+            return true;
+        }
+        execute(action, it);
+        return false;
+    }
+
+    private void fail(BatchIterator<Row> it, Throwable t) {
+        Action action;
+        synchronized (lock) {
+            failure = t;
+            paused = true;
+            action = nextAction();
+        }
+        execute(action, it);
+    }
+
+    private void execute(Action action, BatchIterator<Row> it) {
+        switch (action) {
+            case NONE:
+                break;
+
+            case CONTINUE:
+                // try to dispatch to different executor, if it fails, forward the error in the same thread
+                try {
+                    responseExecutor.execute(() -> consumeIt(it));
+                } catch (EsRejectedExecutionException e) {
+                    fail(it, e);
+                }
+                break;
+
+            case FORWARD_FAILURE:
+                forwardFailure(it, failure);
+                break;
+
+            case FINISH:
+                // If we've a failure we either communicated it to the other downstreams already,
+                // or were able to send results to all downstreams. In either case, *this* operation succeeded and the
+                // downstreams need to deal with failures.
+
+                // The NodeDisconnectJobMonitorService takes care of node disconnects, so we don't have to manage
+                // that scenario.
+                it.close();
+                completionFuture.complete(null);
+                break;
+
+            default:
+                throw new AssertionError("Unexpected action: " + action);
         }
     }
 
@@ -190,16 +301,19 @@ public class DistributingConsumer implements RowConsumer {
 
     private void forwardResults(BatchIterator<Row> it, boolean isLast) {
         multiBucketBuilder.build(buckets);
-        AtomicInteger numActiveRequests = new AtomicInteger(downstreams.size());
+        int pageIdx = nextPageIdx++;
         for (int i = 0; i < downstreams.size(); i++) {
             Downstream downstream = downstreams.get(i);
-            if (downstream.needsMoreData == false) {
-                countdownAndMaybeContinue(it, numActiveRequests, true);
-                continue;
+            synchronized (lock) {
+                if (downstream.needsMoreData == false) {
+                    continue;
+                }
+                downstream.inFlight++;
+                numInFlight++;
             }
             if (traceEnabled) {
-                LOGGER.trace("forwardResults targetNode={} jobId={} targetPhase={}/{} bucket={} isLast={}",
-                             downstream.nodeId, jobId, targetPhaseId, inputId, bucketIdx, isLast);
+                LOGGER.trace("forwardResults targetNode={} jobId={} targetPhase={}/{} bucket={} page={} isLast={}",
+                             downstream.nodeId, jobId, targetPhaseId, inputId, bucketIdx, pageIdx, isLast);
             }
             distributedResultAction
                 .execute(
@@ -209,67 +323,54 @@ public class DistributingConsumer implements RowConsumer {
                         targetPhaseId,
                         inputId,
                         bucketIdx,
+                        pageIdx,
                         buckets[i],
                         isLast))
-                .whenComplete(
-                    (resp, t) -> {
-                        if (t == null) {
-                            downstream.needsMoreData = resp.needMore();
-                            countdownAndMaybeContinue(it, numActiveRequests, false);
-                        } else {
-                            LOGGER.trace(
-                                "Failure from downstream while sending result. job={} targetNode={} failure={}",
-                                jobId,
-                                downstream.nodeId,
-                                t
-                            );
-                            failure = t;
-                            downstream.needsMoreData = false;
-                            // continue because it's necessary to send something to downstreams still waiting for data
-                            countdownAndMaybeContinue(it, numActiveRequests, false);
-                        }
-                    }
-                );
+                .whenComplete((resp, t) -> onResponse(it, downstream, resp, t));
+        }
+        if (isLast) {
+            synchronized (lock) {
+                lastPageSent = true;
+            }
         }
     }
 
-    private void countdownAndMaybeContinue(BatchIterator<Row> it,
-                                           AtomicInteger numActiveRequests,
-                                           boolean sameExecutor) {
-        if (numActiveRequests.decrementAndGet() == 0) {
-            if (downstreams.stream().anyMatch(Downstream::needsMoreData)) {
-                if (failure == null) {
-                    if (sameExecutor) {
-                        consumeIt(it);
-                    } else {
-                        // try to dispatch to different executor, if it fails, forward the error in the same thread
-                        try {
-                            responseExecutor.execute(() -> consumeIt(it));
-                        } catch (EsRejectedExecutionException e) {
-                            failure = e;
-                            forwardFailure(it, failure);
-                        }
-                    }
-                } else {
-                    forwardFailure(it, failure);
-                }
+    private void onResponse(BatchIterator<Row> it,
+                            Downstream downstream,
+                            @Nullable DistributedResultResponse resp,
+                            @Nullable Throwable t) {
+        Action action = Action.NONE;
+        synchronized (lock) {
+            downstream.inFlight--;
+            numInFlight--;
+            if (t == null) {
+                downstream.needsMoreData = resp.needMore();
+                downstream.credits = Math.max(1, resp.credits());
             } else {
-                // If we've a failure we either communicated it to the other downstreams already,
-                // or were able to send results to all downstreams. In either case, *this* operation succeeded and the
-                // downstreams need to deal with failures.
-
-                // The NodeDisconnectJobMonitorService takes care of node disconnects, so we don't have to manage
-                // that scenario.
-                it.close();
-                completionFuture.complete(null);
+                LOGGER.trace(
+                    "Failure from downstream while sending result. job={} targetNode={} failure={}",
+                    jobId,
+                    downstream.nodeId,
+                    t
+                );
+                failure = t;
+                // continue because it's necessary to send something to downstreams still waiting for data
+                downstream.needsMoreData = false;
+            }
+            // If the consumer is still active it will check for credits itself once the current page is sent
+            if (paused) {
+                action = nextAction();
             }
         }
+        execute(action, it);
     }
 
     private static class Downstream {
 
         private final String nodeId;
         private boolean needsMoreData = true;
+        private int inFlight = 0;
+        private int credits = 1;
 
         Downstream(String nodeId) {
             this.nodeId = nodeId;
@@ -279,11 +380,16 @@ public class DistributingConsumer implements RowConsumer {
             return needsMoreData;
         }
 
+        boolean canReceivePage() {
+            return needsMoreData == false || inFlight < credits;
+        }
+
         @Override
         public String toString() {
             return "Downstream{" +
                    nodeId + '\'' +
                    ", needsMoreData=" + needsMoreData +
+                   ", inFlight=" + inFlight +
                    '}';
         }
     }
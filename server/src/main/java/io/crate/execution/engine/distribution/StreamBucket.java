@@ -29,6 +29,7 @@ import java.util.Collections;
 import java.util.Iterator;
 
 import org.apache.lucene.util.Accountable;
+import org.elasticsearch.Version;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
@@ -43,12 +44,44 @@ import io.crate.data.Row;
 import io.crate.data.RowN;
 import io.crate.data.breaker.RamAccounting;
 
-public class StreamBucket implements Bucket, Writeable {
+public class StreamBucket implements Bucket, Writeable, Accountable {
+
+    /**
+     * Nodes before this version only understand the {@link Format#ROWS} format
+     */
+    static final Version COLUMNAR_VERSION = Version.V_5_8_0;
+
+    /**
+     * Serialization format of the rows of a bucket
+     */
+    public enum Format {
+        /**
+         * Rows are written one after another, cell by cell using the streamers.
+         * This is the format used by the {@link Builder}.
+         */
+        ROWS,
+
+        /**
+         * Rows are written column by column, see {@link ColumnarEncoding}.
+         * Used to send buckets to nodes on or after {@link #COLUMNAR_VERSION}.
+         */
+        COLUMNAR
+    }
 
     private Streamer<?>[] streamers;
     private int size = -1;
+    private Format format = Format.ROWS;
     private BytesReference bytes;
 
+    /**
+     * Bytes re-encoded by {@link #writeTo(StreamOutput)}, kept as the same bucket may be sent to several nodes.
+     */
+    @Nullable
+    private volatile Encoded encoded;
+
+    private record Encoded(Version version, Format format, BytesReference bytes) {
+    }
+
     public static class Builder implements Accountable {
 
         private static final int INITIAL_PAGE_SIZE = 1024;
@@ -114,6 +147,14 @@ public class StreamBucket implements Bucket, Writeable {
         return size;
     }
 
+    /**
+     * Size of the serialized rows; this is what a received bucket holds on to until it is consumed.
+     */
+    @Override
+    public long ramBytesUsed() {
+        return bytes == null ? 0L : bytes.length();
+    }
+
     public void streamers(Streamer<?>[] streamers) {
         assert validStreamers(streamers) : "streamers must not be null and they shouldn't be of undefinedType";
         this.streamers = streamers;
@@ -179,6 +220,9 @@ public class StreamBucket implements Bucket, Writeable {
         }
         assert streamers != null : "streamers must not be null";
         try {
+            if (format == Format.COLUMNAR) {
+                return ColumnarEncoding.rows(bytes, streamers, size);
+            }
             return new RowIterator(bytes.streamInput(), streamers, size);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -201,6 +245,9 @@ public class StreamBucket implements Bucket, Writeable {
     public StreamBucket(StreamInput in) throws IOException {
         size = in.readVInt();
         if (size > 0) {
+            if (in.getVersion().onOrAfter(COLUMNAR_VERSION)) {
+                format = in.readEnum(Format.class);
+            }
             bytes = in.readBytesReference();
         }
     }
@@ -217,7 +264,51 @@ public class StreamBucket implements Bucket, Writeable {
         assert size > -1 : "size must be > -1";
         out.writeVInt(size);
         if (size > 0) {
-            out.writeBytesReference(bytes);
+            Version version = out.getVersion();
+            // without streamers the bytes can't be re-encoded
+            Format targetFormat = version.before(COLUMNAR_VERSION) || (streamers == null && format == Format.ROWS)
+                ? Format.ROWS
+                : Format.COLUMNAR;
+            if (version.onOrAfter(COLUMNAR_VERSION)) {
+                out.writeEnum(targetFormat);
+            }
+            if (targetFormat == format) {
+                out.writeBytesReference(bytes);
+            } else {
+                Encoded current = encoded;
+                if (current == null || current.format != targetFormat || current.version.equals(version) == false) {
+                    current = new Encoded(version, targetFormat, encode(targetFormat, version));
+                    encoded = current;
+                }
+                out.writeBytesReference(current.bytes);
+            }
+        }
+    }
+
+    private BytesReference encode(Format targetFormat, Version version) throws IOException {
+        if (streamers == null) {
+            throw new IllegalStateException("streamers are required to encode bucket in format " + targetFormat);
+        }
+        BytesStreamOutput out = new BytesStreamOutput(bytes.length());
+        out.setVersion(version);
+        if (targetFormat == Format.COLUMNAR) {
+            Object[][] values = new Object[streamers.length][size];
+            int r = 0;
+            for (Row row : this) {
+                for (int c = 0; c < values.length; c++) {
+                    values[c][r] = row.get(c);
+                }
+                r++;
+            }
+            ColumnarEncoding.write(out, streamers, values, size);
+        } else {
+            for (Row row : this) {
+                for (int c = 0; c < streamers.length; c++) {
+                    //noinspection unchecked
+                    ((Streamer) streamers[c]).writeValueTo(out, row.get(c));
+                }
+            }
         }
+        return out.bytes();
     }
 }
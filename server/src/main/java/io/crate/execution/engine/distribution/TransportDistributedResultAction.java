@@ -171,9 +171,10 @@ public class TransportDistributedResultAction extends TransportAction<NodeReques
 
         Throwable throwable = request.throwable();
         if (throwable == null) {
-            SendResponsePageResultListener pageResultListener = new SendResponsePageResultListener();
+            var pageResultListener = new SendResponsePageResultListener(pageBucketReceiver.credits());
             pageBucketReceiver.setBucket(
                 request.bucketIdx(),
+                request.pageIdx(),
                 request.readRows(pageBucketReceiver.streamers()),
                 request.isLast(),
                 pageResultListener
@@ -233,11 +234,16 @@ public class TransportDistributedResultAction extends TransportAction<NodeReques
 
     private static class SendResponsePageResultListener implements PageResultListener {
         private final CompletableFuture<DistributedResultResponse> future = new CompletableFuture<>();
+        private final int credits;
+
+        SendResponsePageResultListener(int credits) {
+            this.credits = credits;
+        }
 
         @Override
         public void needMore(boolean needMore) {
             LOGGER.trace("sending needMore response, need more? {}", needMore);
-            future.complete(new DistributedResultResponse(needMore));
+            future.complete(new DistributedResultResponse(needMore, credits));
         }
     }
 
@@ -26,6 +26,7 @@ import java.util.Objects;
 
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.transport.CompressiblePayload;
 import org.elasticsearch.transport.TransportResponse;
 import org.jetbrains.annotations.Nullable;
 
@@ -38,7 +39,7 @@ import io.crate.data.Bucket;
 import io.crate.data.breaker.RamAccounting;
 import io.crate.execution.engine.distribution.StreamBucket;
 
-public class NodeFetchResponse extends TransportResponse {
+public class NodeFetchResponse extends TransportResponse implements CompressiblePayload {
 
     @Nullable
     private final IntObjectMap<StreamBucket> fetched;
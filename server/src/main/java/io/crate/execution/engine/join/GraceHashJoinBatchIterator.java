@@ -0,0 +1,342 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import io.crate.Streamer;
+import io.crate.common.exceptions.Exceptions;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.UnsafeArrayRow;
+import io.crate.data.breaker.RowAccounting;
+import io.crate.data.join.CombinedRow;
+import io.crate.data.join.JoinBatchIterator;
+import io.crate.execution.engine.spill.SpillFile;
+import io.netty.util.collection.IntObjectHashMap;
+
+/**
+ * Hash join which partitions both sides to local disk before joining them (grace hash join).
+ *
+ * <pre>
+ *     Partition Phase:
+ *     for (leftRow in left) {
+ *         write leftRow to leftPartitions[hash(leftRow) % numPartitions]
+ *     }
+ *     for (rightRow in right) {
+ *         write rightRow to rightPartitions[hash(rightRow) % numPartitions]
+ *     }
+ *
+ *     Join Phase:
+ *     for (partition in partitions) {
+ *         build Buffer (HashMap) from leftPartitions[partition] until the circuit breaker trips
+ *         for (rightRow in rightPartitions[partition]) {
+ *             emit matching rows, see {@link HashJoinBatchIterator}
+ *         }
+ *         repeat if leftPartitions[partition] has remaining rows
+ *     }
+ * </pre>
+ * <p>
+ * Unlike {@link HashJoinBatchIterator}, which has to re-scan the whole right side for each block of the left side,
+ * each row is written to disk once and read back once, as long as a partition of the left side fits into memory.
+ * Only partitions which don't fit into memory have their right partition read more than once.
+ * <p>
+ * Both sides are consumed completely before the first row is emitted. This also means that every parallel executed
+ * join of a distributed hash join switches from left to right at the same point.
+ */
+public class GraceHashJoinBatchIterator extends JoinBatchIterator<Row, Row, Row> {
+
+    private enum Phase {
+        PARTITION_LEFT,
+        PARTITION_RIGHT,
+        JOIN
+    }
+
+    private final RowAccounting<Object[]> leftRowAccounting;
+    private final Predicate<Row> joinCondition;
+    private final ToIntFunction<Row> hashBuilderForLeft;
+    private final ToIntFunction<Row> hashBuilderForRight;
+    private final Streamer<?>[] leftStreamers;
+    private final Streamer<?>[] rightStreamers;
+    private final SpillFile[] leftPartitions;
+    private final SpillFile[] rightPartitions;
+    private final IntObjectHashMap<List<Object[]>> buffer = new IntObjectHashMap<>();
+
+    private final UnsafeArrayRow leftRow = new UnsafeArrayRow();
+    private final UnsafeArrayRow rightRow = new UnsafeArrayRow();
+
+    private volatile Throwable killed;
+    private Phase phase = Phase.PARTITION_LEFT;
+    private int partition = -1;
+    private int numberOfRowsInBuffer = 0;
+
+    @Nullable
+    private Iterator<Object[]> leftPartitionRows;
+
+    /**
+     * Row of the current left partition which didn't fit into the buffer anymore.
+     */
+    @Nullable
+    private Object[] pendingLeftRow;
+
+    @Nullable
+    private Iterator<Object[]> rightPartitionRows;
+
+    @Nullable
+    private Iterator<Object[]> leftMatchingRowsIterator;
+
+    public GraceHashJoinBatchIterator(BatchIterator<Row> left,
+                                      BatchIterator<Row> right,
+                                      RowAccounting<Object[]> leftRowAccounting,
+                                      CombinedRow combiner,
+                                      Predicate<Row> joinCondition,
+                                      ToIntFunction<Row> hashBuilderForLeft,
+                                      ToIntFunction<Row> hashBuilderForRight,
+                                      Streamer<?>[] leftStreamers,
+                                      Streamer<?>[] rightStreamers,
+                                      int numPartitions) {
+        super(left, right, combiner);
+        assert numPartitions > 0 : "numPartitions must be greater than 0";
+        this.leftRowAccounting = leftRowAccounting;
+        this.joinCondition = joinCondition;
+        this.hashBuilderForLeft = hashBuilderForLeft;
+        this.hashBuilderForRight = hashBuilderForRight;
+        this.leftStreamers = leftStreamers;
+        this.rightStreamers = rightStreamers;
+        this.leftPartitions = new SpillFile[numPartitions];
+        this.rightPartitions = new SpillFile[numPartitions];
+    }
+
+    @Override
+    public void moveToStart() {
+        raiseIfKilled();
+        if (phase == Phase.JOIN) {
+            // Both sides are on disk, the join phase can be replayed from the partitions
+            partition = -1;
+            leftPartitionRows = null;
+            rightPartitionRows = null;
+            pendingLeftRow = null;
+            leftMatchingRowsIterator = null;
+            resetBuffer();
+        } else {
+            closePartitions();
+            super.moveToStart();
+            phase = Phase.PARTITION_LEFT;
+        }
+    }
+
+    @Override
+    public boolean moveNext() {
+        raiseIfKilled();
+        if (phase == Phase.PARTITION_LEFT) {
+            if (partition(left, leftPartitions, leftStreamers, hashBuilderForLeft) == false) {
+                return false;
+            }
+            phase = Phase.PARTITION_RIGHT;
+            activeIt = right;
+        }
+        if (phase == Phase.PARTITION_RIGHT) {
+            if (partition(right, rightPartitions, rightStreamers, hashBuilderForRight) == false) {
+                return false;
+            }
+            finishPartitions(leftPartitions);
+            finishPartitions(rightPartitions);
+            phase = Phase.JOIN;
+        }
+        return joinPartitions();
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            closePartitions();
+            leftRowAccounting.release();
+            killed = BatchIterator.CLOSED;
+        }
+    }
+
+    @Override
+    public void kill(@NotNull Throwable throwable) {
+        super.kill(throwable);
+        killed = throwable;
+    }
+
+    private void raiseIfKilled() {
+        if (killed != null) {
+            Exceptions.rethrowUnchecked(killed);
+        }
+    }
+
+    /**
+     * @return true if the source is fully consumed, false if the next batch must be loaded.
+     */
+    private static boolean partition(BatchIterator<Row> source,
+                                     SpillFile[] partitions,
+                                     Streamer<?>[] streamers,
+                                     ToIntFunction<Row> hashBuilder) {
+        while (source.moveNext()) {
+            Row row = source.currentElement();
+            int idx = partitionIndex(hashBuilder.applyAsInt(row), partitions.length);
+            SpillFile spillFile = partitions[idx];
+            if (spillFile == null) {
+                spillFile = SpillFile.create();
+                partitions[idx] = spillFile;
+            }
+            spillFile.writeRow(streamers, row);
+        }
+        return source.allLoaded();
+    }
+
+    private static int partitionIndex(int hash, int numPartitions) {
+        // The hash is also used for the lookup within a partition,
+        // mix it to avoid that all rows of a partition end up in the same buckets of the buffer.
+        return Math.floorMod(BitMixer.mix32(hash), numPartitions);
+    }
+
+    private boolean joinPartitions() {
+        while (true) {
+            // In case of multiple matches on the left side (duplicate values or hash collisions)
+            if (leftMatchingRowsIterator != null && findMatchingRows()) {
+                return true;
+            }
+            leftMatchingRowsIterator = null;
+            if (rightPartitionRows != null) {
+                while (rightPartitionRows.hasNext()) {
+                    rightRow.cells(rightPartitionRows.next());
+                    List<Object[]> leftMatchingRows = buffer.get(hashBuilderForRight.applyAsInt(rightRow));
+                    if (leftMatchingRows != null) {
+                        leftMatchingRowsIterator = leftMatchingRows.iterator();
+                        combiner.setRight(rightRow);
+                        if (findMatchingRows()) {
+                            return true;
+                        }
+                    }
+                }
+                rightPartitionRows = null;
+            }
+            if (buildBuffer() == false) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Fills the buffer with the next rows of the current left partition, or of the next partition
+     * if the current one is exhausted, and starts a new pass over the matching right partition.
+     *
+     * @return false if all partitions have been processed.
+     */
+    private boolean buildBuffer() {
+        resetBuffer();
+        while (pendingLeftRow == null && (leftPartitionRows == null || leftPartitionRows.hasNext() == false)) {
+            partition++;
+            if (partition >= leftPartitions.length) {
+                leftPartitionRows = null;
+                return false;
+            }
+            SpillFile leftPartition = leftPartitions[partition];
+            SpillFile rightPartition = rightPartitions[partition];
+            // Partitions where one side is empty cannot produce any matches
+            leftPartitionRows = leftPartition == null || rightPartition == null
+                ? Collections.emptyIterator()
+                : leftPartition.readRows(leftStreamers);
+        }
+        while (pendingLeftRow != null || leftPartitionRows.hasNext()) {
+            Object[] row = pendingLeftRow == null ? leftPartitionRows.next() : pendingLeftRow;
+            pendingLeftRow = null;
+            try {
+                leftRowAccounting.accountForAndMaybeBreak(row);
+            } catch (CircuitBreakingException e) {
+                if (numberOfRowsInBuffer == 0) {
+                    throw e;
+                }
+                // Probe with what we have and continue with this row on the next pass
+                pendingLeftRow = row;
+                break;
+            }
+            addToBuffer(row, hashBuilderForLeft.applyAsInt(leftRow.cells(row)));
+        }
+        rightPartitionRows = rightPartitions[partition].readRows(rightStreamers);
+        return true;
+    }
+
+    private void resetBuffer() {
+        buffer.clear();
+        numberOfRowsInBuffer = 0;
+        leftRowAccounting.release();
+    }
+
+    private void addToBuffer(Object[] currentRow, int hash) {
+        List<Object[]> existingRows = buffer.get(hash);
+        if (existingRows == null) {
+            existingRows = new ArrayList<>();
+            buffer.put(hash, existingRows);
+        }
+        existingRows.add(currentRow);
+        numberOfRowsInBuffer++;
+    }
+
+    private boolean findMatchingRows() {
+        while (leftMatchingRowsIterator.hasNext()) {
+            leftRow.cells(leftMatchingRowsIterator.next());
+            combiner.setLeft(leftRow);
+            if (joinCondition.test(combiner.currentElement())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void finishPartitions(SpillFile[] partitions) {
+        for (SpillFile partition : partitions) {
+            if (partition != null) {
+                partition.finishWriting();
+            }
+        }
+    }
+
+    private void closePartitions() {
+        for (int i = 0; i < leftPartitions.length; i++) {
+            if (leftPartitions[i] != null) {
+                leftPartitions[i].close();
+                leftPartitions[i] = null;
+            }
+            if (rightPartitions[i] != null) {
+                rightPartitions[i].close();
+                rightPartitions[i] = null;
+            }
+        }
+    }
+}
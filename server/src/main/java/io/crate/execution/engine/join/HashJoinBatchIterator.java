@@ -21,28 +21,27 @@
 
 package io.crate.execution.engine.join;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.BitSet;
 import java.util.concurrent.CompletionStage;
 import java.util.function.LongToIntFunction;
 import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 
+import org.jetbrains.annotations.Nullable;
+
 import io.crate.data.BatchIterator;
 import io.crate.data.Paging;
 import io.crate.data.Row;
 import io.crate.data.UnsafeArrayRow;
-import io.crate.data.breaker.RowAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.data.join.JoinBatchIterator;
-import io.netty.util.collection.IntObjectHashMap;
+import io.crate.sql.tree.JoinType;
 
 /**
  * <pre>
  *     Build Phase:
  *     for (leftRow in left) {
- *         calculate hash and put in Buffer (HashMap) until the blockSize is reached
+ *         calculate hash, serialize and put in Buffer (PagedRowHashTable) until the blockSize is reached
  *     }
  *
  *     Probe Phase:
@@ -56,29 +55,48 @@ import io.netty.util.collection.IntObjectHashMap;
  *                    //
  *                    // Row-lookup-by-hash-code can only work by the EQ operators of a join condition,
  *                    // all other possible operators must be checked afterwards.
+ *                    markMatched(row, rightRow)
  *                    emmit(combinedRow)
  *                }
  *            }
  *         }
  *     }
  *
+ *     for (row in Buffer) { // LEFT and FULL joins only
+ *         if (row not matched) {
+ *             emmit(combinedRow) // with right side null
+ *         }
+ *     }
+ *
  *     When the right side is all loaded, we reset the right iterator to start, clear the buffer and switch back to
  *     iterate the next elements in the left side and re-build the buffer based on the next items in the left until we
  *     reach the blockSize again.
  *
  *     Repeat until both sides are all loaded and processed.
+ *
+ *     for (rightRow in right) { // RIGHT and FULL joins only
+ *         if (rightRow not matched in any block) {
+ *             emmit(combinedRow) // with left side null
+ *         }
+ *     }
  * </pre>
  * <p>
+ * The rows of the left side are stored in serialized form in a {@link PagedRowHashTable} and only deserialized if the
+ * hash of a row of the right side matches.
+ * <p>
+ * Matches of the rows of the left side are tracked per block, matches of the right side by their position within the
+ * right side.
+ * <p>
  * The caller of the constructor needs to pass two functions {@link #hashBuilderForLeft} and {@link #hashBuilderForRight}.
  * Those functions are called on each row of the left and right side respectively and they return the hash value of
  * the relevant columns of the row.
  * <p>
- * This information is not available for the {@link HashInnerJoinBatchIterator}, so it's the responsibility of the
+ * This information is not available for the {@link HashJoinBatchIterator}, so it's the responsibility of the
  * caller to provide those two functions that operate on the left and right rows accordingly and return the hash values.
  */
-public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row> {
+public class HashJoinBatchIterator extends JoinBatchIterator<Row, Row, Row> {
 
-    private final RowAccounting<Object[]> leftRowAccounting;
+    private final PagedRowHashTable leftRows;
     private final Predicate<Row> joinCondition;
 
     /**
@@ -88,51 +106,85 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
     private final ToIntFunction<Row> hashBuilderForLeft;
     private final ToIntFunction<Row> hashBuilderForRight;
     private final LongToIntFunction calculateBlockSize;
-    private final IntObjectHashMap<List<Object[]>> buffer;
 
-    private final UnsafeArrayRow unsafeArrayRow = new UnsafeArrayRow();
+    /**
+     * Positions of the rows in {@link #leftRows} which matched a row of the right side.
+     * Only available for LEFT and FULL joins.
+     */
+    @Nullable
+    private final BitSet matchedLeftRows;
+
+    /**
+     * Positions of the rows of the right side which matched a row of the left side in any block.
+     * Only available for RIGHT and FULL joins.
+     */
+    @Nullable
+    private final BitSet matchedRightRows;
+    private final boolean emitUnmatchedLeftRows;
 
     private int leftAverageRowSize = -1;
     private int blockSize;
-    private int numberOfRowsInBuffer = 0;
     private boolean leftBatchHasItems = false;
     private int numberOfLeftBatchesForBlock;
     private int numberOfLeftBatchesLoadedForBlock;
-    private Iterator<Object[]> leftMatchingRowsIterator;
+    private int rightPosition = -1;
 
-    public HashInnerJoinBatchIterator(BatchIterator<Row> left,
-                                      BatchIterator<Row> right,
-                                      RowAccounting<Object[]> leftRowAccounting,
-                                      CombinedRow combiner,
-                                      Predicate<Row> joinCondition,
-                                      ToIntFunction<Row> hashBuilderForLeft,
-                                      ToIntFunction<Row> hashBuilderForRight,
-                                      LongToIntFunction calculateBlockSize) {
+    /**
+     * Position within {@link #leftRows} of the next row with the hash of the current row of the right side,
+     * -1 otherwise
+     */
+    private int leftMatchingPosition = -1;
+
+    /**
+     * Position within {@link #leftRows} while emitting the unmatched rows of the left side, -1 otherwise
+     */
+    private int unmatchedLeftPosition = -1;
+    private boolean leftProcessed = false;
+
+    public HashJoinBatchIterator(BatchIterator<Row> left,
+                                 BatchIterator<Row> right,
+                                 PagedRowHashTable leftRows,
+                                 CombinedRow combiner,
+                                 JoinType joinType,
+                                 Predicate<Row> joinCondition,
+                                 ToIntFunction<Row> hashBuilderForLeft,
+                                 ToIntFunction<Row> hashBuilderForRight,
+                                 LongToIntFunction calculateBlockSize) {
         super(left, right, combiner);
-        this.leftRowAccounting = leftRowAccounting;
+        assert joinType == JoinType.INNER || joinType.isOuter()
+            : joinType + " joins cannot be executed as hash join";
+        this.leftRows = leftRows;
         this.joinCondition = joinCondition;
         this.hashBuilderForLeft = hashBuilderForLeft;
         this.hashBuilderForRight = hashBuilderForRight;
         this.calculateBlockSize = calculateBlockSize;
-        // resized upon block size calculation
-        this.buffer = new IntObjectHashMap<>();
+        this.emitUnmatchedLeftRows = joinType == JoinType.LEFT || joinType == JoinType.FULL;
+        this.matchedLeftRows = emitUnmatchedLeftRows ? new BitSet() : null;
+        this.matchedRightRows = joinType == JoinType.RIGHT || joinType == JoinType.FULL ? new BitSet() : null;
         resetBuffer();
         numberOfLeftBatchesLoadedForBlock = 0;
         this.activeIt = left;
     }
 
-    @Override
-    public Row currentElement() {
-        return combiner.currentElement();
-    }
-
     @Override
     public void moveToStart() {
         left.moveToStart();
         right.moveToStart();
         activeIt = left;
         resetBuffer();
-        leftMatchingRowsIterator = null;
+        leftMatchingPosition = -1;
+        unmatchedLeftPosition = -1;
+        leftProcessed = false;
+        rightPosition = -1;
+        if (matchedRightRows != null) {
+            matchedRightRows.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        leftRows.close();
     }
 
     @Override
@@ -145,31 +197,86 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
 
     @Override
     public boolean moveNext() {
-        while (buildBufferAndMatchRight() == false) {
-            if (right.allLoaded() && leftBatchHasItems == false && left.allLoaded()) {
-                // both sides are fully loaded, we're done here
-                return false;
-            } else if (activeIt == left) {
-                // left needs the next batch loaded
+        while (true) {
+            if (leftProcessed) {
+                return moveNextUnmatchedRight();
+            }
+            if (unmatchedLeftPosition >= 0) {
+                if (moveNextUnmatchedLeft()) {
+                    return true;
+                }
+                unmatchedLeftPosition = -1;
+                finishBlock();
+            } else if (buildBufferAndMatchRight()) {
+                // match found
+                return true;
+            } else if (activeIt == left || right.allLoaded() == false) {
+                // left or right needs the next batch loaded
                 return false;
-            } else if (right.allLoaded()) {
-                right.moveToStart();
-                activeIt = left;
-                resetBuffer();
+            } else if (emitUnmatchedLeftRows) {
+                // the right side is processed for this block, emit the left rows without a match
+                unmatchedLeftPosition = 0;
+                combiner.nullRight();
             } else {
-                return false;
+                finishBlock();
+            }
+        }
+    }
+
+    /**
+     * Called once the right side is processed for the current block.
+     * Either switches back to the left side to build the next block or, if both sides are processed,
+     * prepares to emit the rows of the right side which didn't match any row.
+     */
+    private void finishBlock() {
+        if (leftBatchHasItems == false && left.allLoaded()) {
+            // both sides are fully loaded, we're done here
+            leftProcessed = true;
+            if (matchedRightRows != null) {
+                right.moveToStart();
+                rightPosition = -1;
+                combiner.nullLeft();
+            }
+        } else {
+            right.moveToStart();
+            rightPosition = -1;
+            activeIt = left;
+            resetBuffer();
+        }
+    }
+
+    private boolean moveNextUnmatchedLeft() {
+        while (unmatchedLeftPosition < leftRows.size()) {
+            int position = unmatchedLeftPosition++;
+            if (matchedLeftRows.get(position) == false) {
+                leftRow.cells(leftRows.get(position));
+                combiner.setLeft(leftRow);
+                return true;
             }
         }
+        return false;
+    }
 
-        // match found
-        return true;
+    private boolean moveNextUnmatchedRight() {
+        if (matchedRightRows == null) {
+            return false;
+        }
+        while (right.moveNext()) {
+            rightPosition++;
+            if (matchedRightRows.get(rightPosition) == false) {
+                combiner.setRight(right.currentElement());
+                return true;
+            }
+        }
+        return false;
     }
 
     private void resetBuffer() {
         blockSize = calculateBlockSize.applyAsInt(leftAverageRowSize);
-        buffer.clear();
-        numberOfRowsInBuffer = 0;
-        leftRowAccounting.release();
+        leftRows.clear();
+        if (matchedLeftRows != null) {
+            matchedLeftRows.clear();
+        }
 
         // A batch is not guaranteed to deliver PAGE_SIZE number of rows. It could be more or less.
         // So we cannot rely on that to decide if processing 1 block is done, we must also know and track how much
@@ -183,13 +290,11 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
             long numItems = 0;
             long sum = 0;
             while (leftBatchHasItems = left.moveNext()) {
-                Object[] leftRow = left.currentElement().materialize();
-                long leftRowSize = leftRowAccounting.accountForAndMaybeBreak(leftRow);
-                sum += leftRowSize;
+                Row row = left.currentElement();
+                int hash = hashBuilderForLeft.applyAsInt(row);
+                sum += leftRows.add(row, hash);
                 numItems++;
-                int hash = hashBuilderForLeft.applyAsInt(unsafeArrayRow.cells(leftRow));
-                addToBuffer(leftRow, hash);
-                if (numberOfRowsInBuffer == blockSize) {
+                if (leftRows.size() == blockSize) {
                     break;
                 }
             }
@@ -206,15 +311,15 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
         }
 
         // In case of multiple matches on the left side (duplicate values or hash collisions)
-        if (leftMatchingRowsIterator != null && findMatchingRows()) {
+        if (leftMatchingPosition != -1 && findMatchingRows()) {
             return true;
         }
-        leftMatchingRowsIterator = null;
         while (right.moveNext()) {
+            rightPosition++;
             int rightHash = hashBuilderForRight.applyAsInt(right.currentElement());
-            List<Object[]> leftMatchingRows = buffer.get(rightHash);
-            if (leftMatchingRows != null) {
-                leftMatchingRowsIterator = leftMatchingRows.iterator();
+            int position = leftRows.first(rightHash);
+            if (position != -1) {
+                leftMatchingPosition = position;
                 combiner.setRight(right.currentElement());
                 if (findMatchingRows()) {
                     return true;
@@ -226,21 +331,19 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
         return false;
     }
 
-    private void addToBuffer(Object[] currentRow, int hash) {
-        List<Object[]> existingRows = buffer.get(hash);
-        if (existingRows == null) {
-            existingRows = new ArrayList<>();
-            buffer.put(hash, existingRows);
-        }
-        existingRows.add(currentRow);
-        numberOfRowsInBuffer++;
-    }
-
     private boolean findMatchingRows() {
-        while (leftMatchingRowsIterator.hasNext()) {
-            leftRow.cells(leftMatchingRowsIterator.next());
+        while (leftMatchingPosition != -1) {
+            int position = leftMatchingPosition;
+            leftMatchingPosition = leftRows.next(position);
+            leftRow.cells(leftRows.get(position));
             combiner.setLeft(leftRow);
             if (joinCondition.test(combiner.currentElement())) {
+                if (matchedLeftRows != null) {
+                    matchedLeftRows.set(position);
+                }
+                if (matchedRightRows != null) {
+                    matchedRightRows.set(rightPosition);
+                }
                 return true;
             }
         }
@@ -249,14 +352,14 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
 
     private boolean mustSwitchToRight() {
         return left.allLoaded()
-               || numberOfRowsInBuffer == blockSize
+               || leftRows.size() == blockSize
                || (leftBatchHasItems == false && numberOfLeftBatchesLoadedForBlock == numberOfLeftBatchesForBlock);
     }
 
     private boolean mustLoadLeftNextBatch() {
         return leftBatchHasItems == false
                && left.allLoaded() == false
-               && numberOfRowsInBuffer < blockSize
+               && leftRows.size() < blockSize
                && numberOfLeftBatchesLoadedForBlock < numberOfLeftBatchesForBlock;
     }
 }
@@ -27,19 +27,25 @@ import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.jetbrains.annotations.VisibleForTesting;
 
+import io.crate.breaker.TypedCellsAccounting;
 import io.crate.concurrent.CompletionListenable;
 import io.crate.data.BatchIterator;
 import io.crate.data.CapturingRowConsumer;
 import io.crate.data.Paging;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
-import io.crate.data.breaker.RowAccounting;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.expression.InputFactory;
 import io.crate.expression.symbol.Symbol;
+import io.crate.memory.MemoryManager;
 import io.crate.metadata.TransactionContext;
+import io.crate.sql.tree.JoinType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
 
 public class HashJoinOperation implements CompletionListenable {
 
@@ -50,14 +56,20 @@ public class HashJoinOperation implements CompletionListenable {
     public HashJoinOperation(int numLeftCols,
                              int numRightCols,
                              RowConsumer nlResultConsumer,
+                             JoinType joinType,
                              Predicate<Row> joinPredicate,
                              List<Symbol> joinLeftInputs,
                              List<Symbol> joinRightInputs,
-                             RowAccounting<Object[]> rowAccounting,
+                             RamAccounting leftRowsRamAccounting,
+                             MemoryManager memoryManager,
                              TransactionContext txnCtx,
                              InputFactory inputFactory,
                              CircuitBreaker circuitBreaker,
-                             long estimatedRowSizeForLeft) {
+                             long estimatedRowSizeForLeft,
+                             long estimatedNumRowsForLeft,
+                             List<DataType<?>> leftTypes,
+                             List<DataType<?>> rightTypes,
+                             int maxSpillPartitions) {
 
         this.resultConsumer = nlResultConsumer;
         this.leftConsumer = new CapturingRowConsumer(nlResultConsumer.requiresScroll(), nlResultConsumer.completionFuture());
@@ -67,20 +79,35 @@ public class HashJoinOperation implements CompletionListenable {
                 if (failure == null) {
                     BatchIterator<Row> joinIterator;
                     try {
+                        var blockSizeCalculator = new RamBlockSizeCalculator(
+                            Paging.PAGE_SIZE,
+                            circuitBreaker,
+                            estimatedRowSizeForLeft
+                        );
+                        // Only inner joins can be executed as grace hash join
+                        int numPartitions = joinType == JoinType.INNER && rightTypes.size() == numRightCols
+                            ? numGracePartitions(
+                                blockSizeCalculator,
+                                circuitBreaker,
+                                estimatedRowSizeForLeft,
+                                estimatedNumRowsForLeft,
+                                maxSpillPartitions)
+                            : 0;
                         joinIterator = createHashJoinIterator(
                             leftConsumer.capturedBatchIterator().join(),
                             numLeftCols,
                             rightConsumer.capturedBatchIterator().join(),
                             numRightCols,
+                            joinType,
                             joinPredicate,
                             getHashBuilderFromSymbols(txnCtx, inputFactory, joinLeftInputs),
                             getHashBuilderFromSymbols(txnCtx, inputFactory, joinRightInputs),
-                            rowAccounting,
-                            new RamBlockSizeCalculator(
-                                Paging.PAGE_SIZE,
-                                circuitBreaker,
-                                estimatedRowSizeForLeft
-                            )
+                            leftRowsRamAccounting,
+                            memoryManager,
+                            blockSizeCalculator,
+                            numPartitions,
+                            leftTypes,
+                            rightTypes
                         );
                         nlResultConsumer.accept(joinIterator, null);
                     } catch (Exception e) {
@@ -124,21 +151,75 @@ public class HashJoinOperation implements CompletionListenable {
         };
     }
 
+    /**
+     * Calculates the number of partitions for a {@link GraceHashJoinBatchIterator} based on the
+     * estimated size of the left side and the available memory.
+     *
+     * @return 0 if the left side is expected to fit into a single block of the {@link HashJoinBatchIterator},
+     *         or if there are not enough stats to decide, in which case the {@link HashJoinBatchIterator} is used.
+     */
+    @VisibleForTesting
+    static int numGracePartitions(RamBlockSizeCalculator blockSizeCalculator,
+                                  CircuitBreaker circuitBreaker,
+                                  long estimatedRowSizeForLeft,
+                                  long estimatedNumRowsForLeft,
+                                  int maxSpillPartitions) {
+        if (maxSpillPartitions < 2
+            || estimatedRowSizeForLeft <= 0
+            || estimatedNumRowsForLeft <= 0
+            || circuitBreaker.getLimit() == -1) {
+            return 0;
+        }
+        if (estimatedNumRowsForLeft <= blockSizeCalculator.applyAsInt(-1)) {
+            // A single pass over the right side is sufficient
+            return 0;
+        }
+        // Aim for left partitions using half of the available memory to leave room for estimation errors.
+        // A partition exceeding it is still processed, but requires more than one pass over its right partition.
+        long bytesPerPartition = Math.max(1, (circuitBreaker.getLimit() - circuitBreaker.getUsed()) / 2);
+        long estimatedBytesForLeft = estimatedRowSizeForLeft * estimatedNumRowsForLeft;
+        long numPartitions = (estimatedBytesForLeft + bytesPerPartition - 1) / bytesPerPartition;
+        return (int) Math.min(maxSpillPartitions, Math.max(2, numPartitions));
+    }
+
     private static BatchIterator<Row> createHashJoinIterator(BatchIterator<Row> left,
                                                              int leftNumCols,
                                                              BatchIterator<Row> right,
                                                              int rightNumCols,
+                                                             JoinType joinType,
                                                              Predicate<Row> joinCondition,
                                                              ToIntFunction<Row> hashBuilderForLeft,
                                                              ToIntFunction<Row> hashBuilderForRight,
-                                                             RowAccounting<Object[]> rowAccounting,
-                                                             RamBlockSizeCalculator blockSizeCalculator) {
+                                                             RamAccounting leftRowsRamAccounting,
+                                                             MemoryManager memoryManager,
+                                                             RamBlockSizeCalculator blockSizeCalculator,
+                                                             int numPartitions,
+                                                             List<DataType<?>> leftTypes,
+                                                             List<DataType<?>> rightTypes) {
         CombinedRow combiner = new CombinedRow(leftNumCols, rightNumCols);
-        return new HashInnerJoinBatchIterator(
+        if (numPartitions > 0) {
+            return new GraceHashJoinBatchIterator(
+                left,
+                right,
+                // 110 extra bytes per row =
+                //    96 bytes for each ArrayList +
+                //    7 bytes per key for the IntHashObjectHashMap  (should be 4 but the map pre-allocates more)
+                //    7 bytes perv value (pointer from the map to the list) (should be 4 but the map pre-allocates more)
+                new TypedCellsAccounting(leftTypes, leftRowsRamAccounting, 110),
+                combiner,
+                joinCondition,
+                hashBuilderForLeft,
+                hashBuilderForRight,
+                DataTypes.getStreamers(leftTypes),
+                DataTypes.getStreamers(rightTypes),
+                numPartitions);
+        }
+        return new HashJoinBatchIterator(
             left,
             right,
-            rowAccounting,
+            new PagedRowHashTable(leftTypes, memoryManager, leftRowsRamAccounting),
             combiner,
+            joinType,
             joinCondition,
             hashBuilderForLeft,
             hashBuilderForRight,
@@ -0,0 +1,295 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.ByteBufferStreamInput;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import io.crate.Streamer;
+import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.memory.MemoryManager;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Stores the rows of the build side of a hash join in a compact, serialized form.
+ *
+ * <ul>
+ *     <li>Rows are serialized using the {@link Streamer} of the column types into fixed size pages allocated by a
+ *     {@link MemoryManager}. Depending on the memory allocation type these pages live on- or off-heap.</li>
+ *     <li>An open-addressing hash table maps the hash of a row to the first of the rows with that hash,
+ *     rows with the same hash are chained in insertion order. Both only hold primitive positions and offsets.</li>
+ *     <li>Rows are only deserialized on access, so only the rows of the build side which are candidates for a
+ *     match are materialized.</li>
+ * </ul>
+ *
+ * The pages are reused after {@link #clear()}. The memory is accounted per page (and per row for the positions) once
+ * a page is used and is released on {@link #clear()} and {@link #close()}.
+ *
+ * This class is not thread-safe.
+ */
+public final class PagedRowHashTable implements AutoCloseable {
+
+    @VisibleForTesting
+    static final int PAGE_SIZE = 32 * 1024;
+
+    /**
+     * Bytes per row used for the position of the row, the chaining of rows with the same hash and a slot of the hash
+     * table (with the load factor of 0.5)
+     */
+    @VisibleForTesting
+    static final int BYTES_PER_ROW_IN_INDEX = Long.BYTES + Integer.BYTES + 2 * 3 * Integer.BYTES;
+
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Streamer[] streamers;
+    private final MemoryManager memoryManager;
+    private final RamAccounting ramAccounting;
+    private final BytesStreamOutput scratch = new BytesStreamOutput();
+    private final Object[] cells;
+
+    private final List<ByteBuf> pages = new ArrayList<>();
+    private int currentPage = -1;
+
+    /**
+     * Location of each row: page index in the upper, offset within the page in the lower 32 bits
+     */
+    private long[] rowLocations = new long[INITIAL_CAPACITY];
+
+    /**
+     * Position of the next row with the same hash, or {@link #EMPTY}
+     */
+    private int[] nextRows = new int[INITIAL_CAPACITY];
+    private int numRows = 0;
+
+    private int[] slotHashes = new int[INITIAL_CAPACITY];
+    private int[] slotHeads = new int[INITIAL_CAPACITY];
+    private int[] slotTails = new int[INITIAL_CAPACITY];
+    private int numSlotsUsed = 0;
+
+    public PagedRowHashTable(List<? extends DataType<?>> columnTypes,
+                             MemoryManager memoryManager,
+                             RamAccounting ramAccounting) {
+        this.streamers = DataTypes.getStreamers(columnTypes);
+        this.memoryManager = memoryManager;
+        this.ramAccounting = ramAccounting;
+        this.cells = new Object[streamers.length];
+        Arrays.fill(slotHeads, EMPTY);
+    }
+
+    /**
+     * Serializes and adds the row.
+     *
+     * @return the number of bytes used by the row
+     * @throws org.elasticsearch.common.breaker.CircuitBreakingException if the row doesn't fit into the available
+     *         memory. The row is not added in that case.
+     */
+    public long add(Row row, int hash) {
+        scratch.reset();
+        try {
+            for (int i = 0; i < streamers.length; i++) {
+                streamers[i].writeValueTo(scratch, row.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int rowSize = scratch.size();
+        int requiredBytes = Integer.BYTES + rowSize;
+        ByteBuf page = pageFor(requiredBytes);
+        // Accounted once the page is available, so a failed allocation doesn't leave the index bytes accounted
+        ramAccounting.addBytes(BYTES_PER_ROW_IN_INDEX);
+
+        if (numRows == rowLocations.length) {
+            int newLength = numRows << 1;
+            rowLocations = Arrays.copyOf(rowLocations, newLength);
+            nextRows = Arrays.copyOf(nextRows, newLength);
+        }
+        int position = numRows++;
+        rowLocations[position] = ((long) currentPage << 32) | page.writerIndex();
+        nextRows[position] = EMPTY;
+        page.writeInt(rowSize);
+        BytesRef bytes = scratch.bytes().toBytesRef();
+        page.writeBytes(bytes.bytes, bytes.offset, bytes.length);
+
+        insert(position, hash);
+        return requiredBytes + BYTES_PER_ROW_IN_INDEX;
+    }
+
+    /**
+     * @return the position of the first row added with the given hash or -1 if there is none
+     */
+    public int first(int hash) {
+        int mask = slotHashes.length - 1;
+        int slot = BitMixer.mix32(hash) & mask;
+        while (slotHeads[slot] != EMPTY) {
+            if (slotHashes[slot] == hash) {
+                return slotHeads[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * @return the position of the row added after the row at the given position with the same hash or -1
+     */
+    public int next(int position) {
+        return nextRows[position];
+    }
+
+    /**
+     * Deserializes the row at the given position.
+     * The returned array is re-used for subsequent calls.
+     */
+    public Object[] get(int position) {
+        long location = rowLocations[position];
+        ByteBuf page = pages.get((int) (location >>> 32));
+        int offset = (int) location;
+        int rowSize = page.getInt(offset);
+        StreamInput in = new ByteBufferStreamInput(page.nioBuffer(offset + Integer.BYTES, rowSize));
+        try {
+            for (int i = 0; i < streamers.length; i++) {
+                cells[i] = streamers[i].readValueFrom(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return cells;
+    }
+
+    public int size() {
+        return numRows;
+    }
+
+    /**
+     * Removes all rows and releases the accounted memory. The pages are kept and re-used for the next rows.
+     */
+    public void clear() {
+        for (int i = 0; i <= currentPage; i++) {
+            pages.get(i).clear();
+        }
+        currentPage = -1;
+        numRows = 0;
+        if (numSlotsUsed > 0) {
+            Arrays.fill(slotHeads, EMPTY);
+            numSlotsUsed = 0;
+        }
+        ramAccounting.release();
+    }
+
+    /**
+     * Releases the accounted memory. The pages are released once the {@link MemoryManager} is closed.
+     */
+    @Override
+    public void close() {
+        pages.clear();
+        currentPage = -1;
+        numRows = 0;
+        ramAccounting.release();
+    }
+
+    private ByteBuf pageFor(int requiredBytes) {
+        if (currentPage >= 0) {
+            ByteBuf page = pages.get(currentPage);
+            if (page.writableBytes() >= requiredBytes) {
+                return page;
+            }
+        }
+        int nextPage = currentPage + 1;
+        ByteBuf page;
+        if (nextPage < pages.size() && pages.get(nextPage).capacity() >= requiredBytes) {
+            page = pages.get(nextPage);
+            ramAccounting.addBytes(page.capacity());
+        } else {
+            // Rows larger than a page get a page on their own
+            int capacity = Math.max(PAGE_SIZE, requiredBytes);
+            ramAccounting.addBytes(capacity);
+            try {
+                page = memoryManager.allocate(capacity);
+            } catch (Throwable t) {
+                ramAccounting.addBytes(-capacity);
+                throw t;
+            }
+            // Pages after the current one are unused until the next clear, so their order doesn't matter
+            pages.add(nextPage, page);
+        }
+        currentPage = nextPage;
+        return page;
+    }
+
+    private void insert(int position, int hash) {
+        int mask = slotHashes.length - 1;
+        int slot = BitMixer.mix32(hash) & mask;
+        while (slotHeads[slot] != EMPTY) {
+            if (slotHashes[slot] == hash) {
+                nextRows[slotTails[slot]] = position;
+                slotTails[slot] = position;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slotHashes[slot] = hash;
+        slotHeads[slot] = position;
+        slotTails[slot] = position;
+        numSlotsUsed++;
+        if (numSlotsUsed > (slotHashes.length >> 1)) {
+            rehash(slotHashes.length << 1);
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldHashes = slotHashes;
+        int[] oldHeads = slotHeads;
+        int[] oldTails = slotTails;
+        slotHashes = new int[newCapacity];
+        slotHeads = new int[newCapacity];
+        slotTails = new int[newCapacity];
+        Arrays.fill(slotHeads, EMPTY);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldHeads.length; i++) {
+            if (oldHeads[i] == EMPTY) {
+                continue;
+            }
+            int slot = BitMixer.mix32(oldHashes[i]) & mask;
+            while (slotHeads[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slotHashes[slot] = oldHashes[i];
+            slotHeads[slot] = oldHeads[i];
+            slotTails[slot] = oldTails[i];
+        }
+    }
+}
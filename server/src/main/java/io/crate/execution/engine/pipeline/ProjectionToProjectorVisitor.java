@@ -98,6 +98,7 @@ import io.crate.execution.engine.aggregation.AggregationPipe;
 import io.crate.execution.engine.aggregation.GroupingProjector;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.collect.NestableCollectExpression;
+import io.crate.execution.engine.columnar.ColumnBatchProjectors;
 import io.crate.execution.engine.export.FileOutputFactory;
 import io.crate.execution.engine.export.FileWriterProjector;
 import io.crate.execution.engine.fetch.FetchNodeAction;
@@ -114,6 +115,8 @@ import io.crate.execution.engine.sort.OrderingByPosition;
 import io.crate.execution.engine.sort.SortingLimitAndOffsetProjector;
 import io.crate.execution.engine.sort.SortingProjector;
 import io.crate.execution.engine.sort.UnboundedSortingLimitAndOffsetCollector;
+import io.crate.execution.engine.spill.SpillRamAccounting;
+import io.crate.execution.engine.spill.SpillSettings;
 import io.crate.execution.engine.window.WindowProjector;
 import io.crate.execution.jobs.NodeLimits;
 import io.crate.execution.support.ThreadPools;
@@ -174,6 +177,7 @@ public class ProjectionToProjectorVisitor
     private final ShardId shardId;
     private final int numProcessors;
     private final Map<String, FileOutputFactory> fileOutputFactoryMap;
+    private final boolean columnarExecution;
 
     public ProjectionToProjectorVisitor(ClusterService clusterService,
                                         NodeLimits nodeJobsCounter,
@@ -204,6 +208,7 @@ public class ProjectionToProjectorVisitor
         this.shardId = shardId;
         this.numProcessors = EsExecutors.numberOfProcessors(settings);
         this.fileOutputFactoryMap = fileOutputFactoryMap;
+        this.columnarExecution = ColumnBatchProjectors.COLUMNAR_EXECUTION_ENABLED_SETTING.get(settings);
     }
 
     public ProjectionToProjectorVisitor(ClusterService clusterService,
@@ -285,6 +290,17 @@ public class ProjectionToProjectorVisitor
                 UNBOUNDED_COLLECTOR_THRESHOLD
             );
         }
+        if (spillEnabled()) {
+            return new SortingProjector(
+                new TypedCellsAccounting(rowTypes, new SpillRamAccounting(context.ramAccounting), rowMemoryOverhead),
+                inputs,
+                ctx.expressions(),
+                numOutputs,
+                OrderingByPosition.arrayOrdering(rowTypes, orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
+                projection.offset(),
+                DataTypes.getStreamers(rowTypes)
+            );
+        }
         return new SortingProjector(
             rowAccounting,
             inputs,
@@ -340,10 +356,25 @@ public class ProjectionToProjectorVisitor
             context.ramAccounting,
             context.memoryManager,
             clusterService.state().nodes().getMinNodeVersion(),
-            indexVersionCreated
+            indexVersionCreated,
+            numSpillPartitions()
         );
     }
 
+    /**
+     * @return the number of partitions operators should use to spill to disk or 0 if spilling is disabled.
+     */
+    private int numSpillPartitions() {
+        if (spillEnabled()) {
+            return clusterService.getClusterSettings().get(SpillSettings.SPILL_PARTITIONS);
+        }
+        return 0;
+    }
+
+    private boolean spillEnabled() {
+        return clusterService.getClusterSettings().get(SpillSettings.SPILL_ENABLED);
+    }
+
     @Override
     public Projector visitMergeCountProjection(MergeCountProjection projection, Context context) {
         return new MergeCountProjector();
@@ -553,7 +584,11 @@ public class ProjectionToProjectorVisitor
     @Override
     public Projector visitFilterProjection(FilterProjection projection, Context context) {
         Predicate<Row> rowFilter = RowFilter.create(context.txnCtx, inputFactory, projection.query());
-        return new FilterProjector(rowFilter);
+        FilterProjector filterProjector = new FilterProjector(rowFilter);
+        if (columnarExecution) {
+            return ColumnBatchProjectors.filterProjector(projection, filterProjector);
+        }
+        return filterProjector;
     }
 
     @Override
@@ -739,7 +774,8 @@ public class ProjectionToProjectorVisitor
             clusterService.state().nodes().getMinNodeVersion(),
             indexVersionCreated,
             ThreadPools.numIdleThreads(searchThreadPool, numProcessors),
-            searchThreadPool
+            searchThreadPool,
+            spillEnabled()
         );
     }
 
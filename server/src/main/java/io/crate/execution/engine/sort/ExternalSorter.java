@@ -0,0 +1,162 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.sort;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+import io.crate.data.breaker.RowAccounting;
+import io.crate.execution.engine.distribution.merge.KeyIterable;
+import io.crate.execution.engine.distribution.merge.PagingIterator;
+import io.crate.execution.engine.spill.SpillFile;
+
+/**
+ * Sorts rows which may not fit into memory.
+ *
+ * <p>
+ * Rows are buffered in memory until the {@link RowAccounting} rejects a row. The buffered rows are then sorted and
+ * written to disk as a sorted run and the memory accounted for them is released.
+ * The result is a k-way merge of all runs and the remaining in-memory rows.
+ * If there are more than {@link #MAX_MERGE_FAN_IN} runs, runs are merged into larger runs first
+ * to bound the number of concurrently open files.
+ * </p>
+ *
+ * The {@link RowAccounting} must only account for the rows of this sorter, as it gets released on each spill.
+ */
+public final class ExternalSorter implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(ExternalSorter.class);
+
+    static final int MAX_MERGE_FAN_IN = 64;
+
+    private final RowAccounting<Object[]> rowAccounting;
+    private final Comparator<Object[]> comparator;
+    private final Streamer<?>[] streamers;
+    private final List<SpillFile> runs = new ArrayList<>();
+    private List<Object[]> rows = new ArrayList<>();
+
+    /**
+     * @param streamers streamers for all cells of the rows
+     */
+    public ExternalSorter(RowAccounting<Object[]> rowAccounting,
+                          Comparator<Object[]> comparator,
+                          Streamer<?>[] streamers) {
+        this.rowAccounting = rowAccounting;
+        this.comparator = comparator;
+        this.streamers = streamers;
+    }
+
+    public void add(Object[] row) {
+        try {
+            rowAccounting.accountForAndMaybeBreak(row);
+        } catch (CircuitBreakingException e) {
+            if (rows.isEmpty()) {
+                throw e;
+            }
+            spillRun();
+            rowAccounting.accountForAndMaybeBreak(row);
+        }
+        rows.add(row);
+    }
+
+    private void spillRun() {
+        LOGGER.debug("Spilling sorted run of {} rows to disk", rows.size());
+        rows.sort(comparator);
+        SpillFile run = SpillFile.create();
+        runs.add(run);
+        for (Object[] row : rows) {
+            run.writeRow(streamers, row);
+        }
+        run.finishWriting();
+        rows = new ArrayList<>();
+        rowAccounting.release();
+    }
+
+    public int numRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Sorts the remaining rows in memory and returns all rows in order.
+     * The result can be iterated multiple times until the sorter is closed.
+     */
+    public Iterable<Object[]> finish() {
+        rows.sort(comparator);
+        if (runs.isEmpty()) {
+            return rows;
+        }
+        while (runs.size() + 1 > MAX_MERGE_FAN_IN) {
+            List<SpillFile> toMerge = new ArrayList<>(runs.subList(0, MAX_MERGE_FAN_IN));
+            runs.subList(0, MAX_MERGE_FAN_IN).clear();
+            SpillFile mergedRun = SpillFile.create();
+            runs.add(mergedRun);
+            var it = merge(toMerge, List.of());
+            while (it.hasNext()) {
+                mergedRun.writeRow(streamers, it.next());
+            }
+            mergedRun.finishWriting();
+            try {
+                IOUtils.close(toMerge);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        List<Object[]> inMemoryRows = rows;
+        return () -> merge(runs, inMemoryRows);
+    }
+
+    private PagingIterator<Integer, Object[]> merge(List<SpillFile> spilledRuns, List<Object[]> inMemoryRows) {
+        PagingIterator<Integer, Object[]> it = PagingIterator.createSorted(comparator, false);
+        List<KeyIterable<Integer, Object[]>> iterables = new ArrayList<>(spilledRuns.size() + 1);
+        for (int i = 0; i < spilledRuns.size(); i++) {
+            SpillFile run = spilledRuns.get(i);
+            iterables.add(new KeyIterable<>(i, () -> run.readRows(streamers)));
+        }
+        if (!inMemoryRows.isEmpty()) {
+            iterables.add(new KeyIterable<>(spilledRuns.size(), inMemoryRows));
+        }
+        it.merge(iterables);
+        it.finish();
+        return it;
+    }
+
+    @Override
+    public void close() {
+        try {
+            IOUtils.close(runs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            runs.clear();
+        }
+    }
+}
@@ -166,9 +166,22 @@ public class LuceneSort extends SymbolVisitor<LuceneSort.SortSymbolContext, Sort
     static SortField mappedSortField(Reference symbol,
                                      boolean reverse,
                                      NullValueOrder nullValueOrder) {
-        String fieldName = symbol.storageIdent();
+        return mappedSortField(symbol.storageIdent(), symbol.valueType(), reverse, nullValueOrder);
+    }
+
+    /**
+     * Creates the SortField for a column with doc values.
+     * The same SortField is used for the index sort (See {@link org.elasticsearch.index.IndexSortConfig}) so that
+     * Lucene can terminate the collection early if the ORDER BY of a query matches the index sort.
+     *
+     * @param fieldName the storage identifier of the column
+     */
+    public static SortField mappedSortField(String fieldName,
+                                            DataType<?> valueType,
+                                            boolean reverse,
+                                            NullValueOrder nullValueOrder) {
         MultiValueMode sortMode = reverse ? MultiValueMode.MAX : MultiValueMode.MIN;
-        switch (symbol.valueType().id()) {
+        switch (valueType.id()) {
             case StringType.ID, CharacterType.ID -> {
                 SortField sortField = new SortedSetSortField(
                     fieldName,
@@ -224,7 +237,7 @@ public class LuceneSort extends SymbolVisitor<LuceneSort.SortSymbolContext, Sort
             }
             case GeoPointType.ID -> throw new IllegalArgumentException(
                 "can't sort on geo_point field without using specific sorting feature, like geo_distance");
-            default -> throw new UnsupportedOperationException("Cannot order on " + symbol + "::" + symbol.valueType());
+            default -> throw new UnsupportedOperationException("Cannot order on " + fieldName + "::" + valueType);
         }
     }
 
@@ -21,8 +21,11 @@
 
 package io.crate.execution.engine.sort;
 
+import io.crate.Streamer;
+import io.crate.common.collections.Iterators;
 import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
+import io.crate.data.Buckets;
 import io.crate.data.CollectingBatchIterator;
 import io.crate.data.CollectionBucket;
 import io.crate.data.Input;
@@ -30,9 +33,11 @@ import io.crate.data.Projector;
 import io.crate.data.Row;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.execution.engine.collect.CollectExpression;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -52,6 +57,8 @@ public class SortingProjector implements Projector {
     private final int offset;
     private final int numOutputs;
     private final RowAccounting<Object[]> rowAccounting;
+    @Nullable
+    private final Streamer<?>[] spillStreamers;
 
     /**
      * @param rowAccounting               sorting is a pipeline breaker so account for the used memory
@@ -67,6 +74,21 @@ public class SortingProjector implements Projector {
                             int numOutputs,
                             Comparator<Object[]> comparator,
                             int offset) {
+        this(rowAccounting, inputs, collectExpressions, numOutputs, comparator, offset, null);
+    }
+
+    /**
+     * @param spillStreamers     streamers for all <code>inputs</code>. If not null, sorted runs are written to disk
+     *                           if <code>rowAccounting</code> trips. See {@link ExternalSorter}.
+     *                           <code>rowAccounting</code> must then only account for the rows of this projector.
+     */
+    public SortingProjector(RowAccounting<Object[]> rowAccounting,
+                            Collection<? extends Input<?>> inputs,
+                            Iterable<? extends CollectExpression<Row, ?>> collectExpressions,
+                            int numOutputs,
+                            Comparator<Object[]> comparator,
+                            int offset,
+                            @Nullable Streamer<?>[] spillStreamers) {
         if (offset < 0) {
             throw new IllegalArgumentException("invalid offset " + offset);
         }
@@ -76,11 +98,35 @@ public class SortingProjector implements Projector {
         this.collectExpressions = collectExpressions;
         this.comparator = comparator;
         this.offset = offset;
+        this.spillStreamers = spillStreamers;
     }
 
 
     @Override
     public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
+        if (spillStreamers != null) {
+            ExternalSorter sorter = new ExternalSorter(rowAccounting, comparator, spillStreamers);
+            Collector<Row, ExternalSorter, Iterable<Row>> collector = Collector.of(
+                () -> sorter,
+                (s, row) -> s.add(getCells(row)),
+                (s1, s2) -> {
+                    throw new UnsupportedOperationException("combine not supported");
+                },
+                this::finishExternalSort
+            );
+            return CollectingBatchIterator.newInstance(
+                () -> {
+                    try {
+                        batchIterator.close();
+                    } finally {
+                        sorter.close();
+                    }
+                },
+                batchIterator::kill,
+                () -> batchIterator.collect(collector),
+                batchIterator.hasLazyResultSet()
+            );
+        }
         Collector<Row, ?, Bucket> collector = Collectors.mapping(
             this::getCells,
             Collectors.collectingAndThen(Collectors.toList(), this::sortAndCreateBucket));
@@ -101,10 +147,24 @@ public class SortingProjector implements Projector {
         for (Input<?> input : inputs) {
             newRow[i++] = input.value();
         }
-        rowAccounting.accountForAndMaybeBreak(newRow);
+        if (spillStreamers == null) {
+            rowAccounting.accountForAndMaybeBreak(newRow);
+        }
         return newRow;
     }
 
+    private Iterable<Row> finishExternalSort(ExternalSorter sorter) {
+        Iterable<Object[]> rows = sorter.finish();
+        var arrayToSharedRow = Buckets.arrayToSharedRow(numOutputs);
+        return () -> {
+            Iterator<Object[]> it = rows.iterator();
+            for (int i = 0; i < offset && it.hasNext(); i++) {
+                it.next();
+            }
+            return Iterators.transform(it, arrayToSharedRow);
+        };
+    }
+
     private Bucket sortAndCreateBucket(List<Object[]> rows) {
         rows.sort(comparator);
         if (offset == 0) {
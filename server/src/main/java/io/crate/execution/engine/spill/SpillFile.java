@@ -0,0 +1,208 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.Streamer;
+import io.crate.data.Row;
+
+/**
+ * A temporary file used to move intermediate state of an operation out of the heap.
+ *
+ * <p>
+ * Records are appended using {@link #writeRow(Streamer[], Object[])}, {@link #writeRow(Streamer[], Row)}
+ * or via {@link #output()} for custom formats.
+ * Once {@link #finishWriting()} has been called the records can be read back (possibly multiple times).
+ * The file is deleted on {@link #close()}.
+ * </p>
+ *
+ * This class is not thread-safe.
+ */
+public final class SpillFile implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+
+    @Nullable
+    private StreamOutput out;
+    private long numRecords = 0;
+
+    public static SpillFile create() {
+        try {
+            return new SpillFile(Files.createTempFile("crate-spill-", ".bin"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SpillFile(Path path) throws IOException {
+        this.path = path;
+        this.out = new OutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    }
+
+    /**
+     * @return the output to write custom records to. Callers must use {@link #recordWritten()} for every record.
+     */
+    public StreamOutput output() {
+        if (out == null) {
+            throw new IllegalStateException("SpillFile " + path + " is already closed for writing");
+        }
+        return out;
+    }
+
+    public void recordWritten() {
+        numRecords++;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void writeRow(Streamer[] streamers, Object[] cells) {
+        StreamOutput output = output();
+        try {
+            for (int i = 0; i < streamers.length; i++) {
+                streamers[i].writeValueTo(output, cells[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        numRecords++;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void writeRow(Streamer[] streamers, Row row) {
+        StreamOutput output = output();
+        try {
+            for (int i = 0; i < streamers.length; i++) {
+                streamers[i].writeValueTo(output, row.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        numRecords++;
+    }
+
+    public long numRecords() {
+        return numRecords;
+    }
+
+    public void finishWriting() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            out = null;
+        }
+    }
+
+    /**
+     * Opens a new input to read the records of this file. The caller is responsible to close it.
+     */
+    public StreamInput input() {
+        if (out != null) {
+            throw new IllegalStateException("SpillFile " + path + " must be finished before it can be read");
+        }
+        try {
+            return new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a iterator over all rows written via {@link #writeRow(Streamer[], Object[])}.
+     * The input is closed once the iterator is exhausted.
+     * Each call to {@link Iterator#next()} returns a new array.
+     */
+    public Iterator<Object[]> readRows(Streamer<?>[] streamers) {
+        if (numRecords == 0) {
+            return Collections.emptyIterator();
+        }
+        StreamInput in = input();
+        return new Iterator<>() {
+
+            long remaining = numRecords;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Object[] next() {
+                if (remaining <= 0) {
+                    throw new NoSuchElementException("SpillFile has no more rows");
+                }
+                Object[] cells = new Object[streamers.length];
+                try {
+                    for (int i = 0; i < streamers.length; i++) {
+                        cells[i] = streamers[i].readValueFrom(in);
+                    }
+                    remaining--;
+                    if (remaining == 0) {
+                        in.close();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return cells;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            finishWriting();
+        } finally {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile{path=" + path + ", numRecords=" + numRecords + '}';
+    }
+}
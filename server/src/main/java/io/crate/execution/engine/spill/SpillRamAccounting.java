@@ -0,0 +1,70 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import io.crate.data.breaker.RamAccounting;
+
+/**
+ * A RamAccounting that forwards to a parent but keeps track of the bytes it added.
+ * {@link #release()} hands only those bytes back to the parent, which allows an operation to release the memory of
+ * state it moved to disk without affecting other operations sharing the parent.
+ *
+ * This implementation should be used from a single thread only.
+ */
+public final class SpillRamAccounting implements RamAccounting {
+
+    private final RamAccounting parent;
+    private long usedBytes = 0;
+
+    public SpillRamAccounting(RamAccounting parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public void addBytes(long bytes) {
+        parent.addBytes(bytes);
+        usedBytes += bytes;
+    }
+
+    @Override
+    public long totalBytes() {
+        return usedBytes;
+    }
+
+    @Override
+    public void release() {
+        if (usedBytes != 0) {
+            parent.addBytes(- usedBytes);
+            usedBytes = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    @Override
+    public String toString() {
+        return "SpillRamAccounting{usedBytes=" + usedBytes + '}';
+    }
+}
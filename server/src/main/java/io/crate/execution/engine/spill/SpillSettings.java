@@ -0,0 +1,57 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+
+public final class SpillSettings {
+
+    /**
+     * If enabled, operations which keep an unbounded amount of state in memory (e.g. GROUP BY) write parts of that
+     * state to temporary files once the circuit breaker rejects further allocations, instead of failing the query.
+     */
+    public static final Setting<Boolean> SPILL_ENABLED = Setting.boolSetting(
+        "memory.spill.enabled",
+        false,
+        Property.NodeScope,
+        Property.Dynamic,
+        Property.Exposed
+    );
+
+    /**
+     * Number of partitions used by hash-partitioning spill strategies.
+     * Each partition must fit into memory when it is read back.
+     */
+    public static final Setting<Integer> SPILL_PARTITIONS = Setting.intSetting(
+        "memory.spill.partitions",
+        32,
+        2,
+        1024,
+        Property.NodeScope,
+        Property.Dynamic,
+        Property.Exposed
+    );
+
+    private SpillSettings() {
+    }
+}
@@ -58,6 +58,12 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
     private int seenFrameUpperBound = -1;
     private Object resultForCurrentFrame;
 
+    /**
+     * Used for sliding frames of {@link AggregationFunction#isMergeable()} functions; built once per partition.
+     */
+    @Nullable
+    private SegmentTree segmentTree;
+
     AggregateToWindowFunctionAdapter(AggregationFunction aggregationFunction,
                                      ExpressionsInput<Row, Boolean> filter,
                                      Version indexVersionCreated,
@@ -102,7 +108,12 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
                           Input<?> ... args) {
         assert ignoreNulls == null;
         if (idxInPartition == 0) {
+            segmentTree = null;
             recomputeFunction(frame, expressions, args);
+        } else if (segmentTree != null) {
+            if (frame.lowerBound() != seenFrameLowerBound || frame.upperBoundExclusive() != seenFrameUpperBound) {
+                executeAggregateForFrameUsingSegmentTree(frame);
+            }
         } else if (isLowerBoundIncreasing(frame, seenFrameLowerBound)) {
             if (aggregationFunction.isRemovableCumulative()) {
                 removeSeenRowsFromAccumulatedState(frame, expressions, args);
@@ -113,6 +124,10 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
                 }
                 seenFrameLowerBound = frame.lowerBound();
                 seenFrameUpperBound = frame.upperBoundExclusive();
+            } else if (aggregationFunction.isMergeable()) {
+                // Sliding frame: re-aggregating each frame would be O(frame size) per row
+                segmentTree = buildSegmentTree(frame, expressions, args);
+                executeAggregateForFrameUsingSegmentTree(frame);
             } else {
                 recomputeFunction(frame, expressions, args);
             }
@@ -122,6 +137,49 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
         return resultForCurrentFrame;
     }
 
+    @SuppressWarnings("unchecked")
+    private SegmentTree buildSegmentTree(WindowFrameState frame,
+                                         List<? extends CollectExpression<Row, ?>> expressions,
+                                         Input<?> ... args) {
+        int numRows = frame.partitionSize();
+        ramAccounting.addBytes(SegmentTree.shallowSize(numRows));
+        Object[] leafStates = new Object[numRows];
+        var row = new ArrayRow();
+        for (int i = 0; i < numRows; i++) {
+            Object[] cells = frame.getRowInPartitionAtIndexOrNull(i);
+            assert cells != null : "No row at idx=" + i + " in current partition=" + frame;
+            row.cells(cells);
+            for (int j = 0, expressionsSize = expressions.size(); j < expressionsSize; j++) {
+                expressions.get(j).setNextRow(row);
+            }
+            Object state = aggregationFunction.newState(
+                ramAccounting,
+                indexVersionCreated,
+                minNodeVersion,
+                memoryManager
+            );
+            if (filter.value(row)) {
+                state = aggregationFunction.iterate(ramAccounting, memoryManager, state, args);
+            }
+            leafStates[i] = state;
+        }
+        Object emptyState = aggregationFunction.newState(
+            RamAccounting.NO_ACCOUNTING,
+            indexVersionCreated,
+            minNodeVersion,
+            memoryManager
+        );
+        return new SegmentTree(aggregationFunction, emptyState, leafStates);
+    }
+
+    private void executeAggregateForFrameUsingSegmentTree(WindowFrameState frame) {
+        Object state = segmentTree.query(frame.lowerBound(), frame.upperBoundExclusive());
+        //noinspection unchecked
+        resultForCurrentFrame = aggregationFunction.terminatePartial(ramAccounting, state);
+        seenFrameLowerBound = frame.lowerBound();
+        seenFrameUpperBound = frame.upperBoundExclusive();
+    }
+
     private void removeSeenRowsFromAccumulatedState(WindowFrameState frame,
                                                     List<? extends CollectExpression<Row, ?>> expressions,
                                                     Input<?> ... args) {
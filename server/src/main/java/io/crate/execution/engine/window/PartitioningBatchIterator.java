@@ -0,0 +1,133 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.window;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.MappedForwardingBatchIterator;
+import io.crate.data.breaker.RowAccounting;
+
+/**
+ * Groups rows which arrive ordered by the PARTITION BY keys into partitions.
+ *
+ * <p>
+ * A partition is emitted as soon as the first row of the next partition arrives, or once the source is exhausted.
+ * Only the partition being emitted and the partition being filled are held in memory.
+ * The memory accounted for a partition is released once the next partition is emitted.
+ * </p>
+ *
+ * <pre>
+ *     source (ordered by p):  [p=1, a], [p=1, b], [p=2, c], [p=3, d]
+ *     output:                 [[p=1, a], [p=1, b]], [[p=2, c]], [[p=3, d]]
+ * </pre>
+ */
+final class PartitioningBatchIterator extends MappedForwardingBatchIterator<Object[], List<Object[]>> {
+
+    private final BatchIterator<Object[]> source;
+    @Nullable
+    private final Comparator<Object[]> cmpPartitionBy;
+    private final RowAccounting<Object[]> rowAccounting;
+    private final LongConsumer allocateBytes;
+
+    private List<Object[]> pending = new ArrayList<>();
+    private long pendingBytes = 0;
+    private List<Object[]> current = null;
+    private long currentBytes = 0;
+
+    /**
+     * @param cmpPartitionBy comparator on the PARTITION BY keys; if null all rows belong to the same partition.
+     * @param allocateBytes used to release the bytes accounted via {@code rowAccounting} with a negative value.
+     */
+    PartitioningBatchIterator(BatchIterator<Object[]> source,
+                              @Nullable Comparator<Object[]> cmpPartitionBy,
+                              RowAccounting<Object[]> rowAccounting,
+                              LongConsumer allocateBytes) {
+        this.source = source;
+        this.cmpPartitionBy = cmpPartitionBy;
+        this.rowAccounting = rowAccounting;
+        this.allocateBytes = allocateBytes;
+    }
+
+    @Override
+    protected BatchIterator<Object[]> delegate() {
+        return source;
+    }
+
+    @Override
+    public List<Object[]> currentElement() {
+        return current;
+    }
+
+    @Override
+    public void moveToStart() {
+        releaseCurrent();
+        allocateBytes.accept(-pendingBytes);
+        pending = new ArrayList<>();
+        pendingBytes = 0;
+        source.moveToStart();
+    }
+
+    @Override
+    public boolean moveNext() {
+        while (source.moveNext()) {
+            Object[] row = source.currentElement();
+            long bytes = rowAccounting.accountForAndMaybeBreak(row);
+            if (pending.isEmpty() || cmpPartitionBy == null || cmpPartitionBy.compare(pending.get(0), row) == 0) {
+                pending.add(row);
+                pendingBytes += bytes;
+            } else {
+                emitPending();
+                pending.add(row);
+                pendingBytes = bytes;
+                return true;
+            }
+        }
+        if (source.allLoaded() && !pending.isEmpty()) {
+            emitPending();
+            return true;
+        }
+        releaseCurrent();
+        return false;
+    }
+
+    private void emitPending() {
+        releaseCurrent();
+        current = pending;
+        currentBytes = pendingBytes;
+        pending = new ArrayList<>();
+        pendingBytes = 0;
+    }
+
+    private void releaseCurrent() {
+        if (currentBytes != 0) {
+            allocateBytes.accept(-currentBytes);
+            currentBytes = 0;
+        }
+        current = null;
+    }
+}
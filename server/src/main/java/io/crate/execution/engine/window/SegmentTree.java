@@ -0,0 +1,90 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.window;
+
+import org.apache.lucene.util.RamUsageEstimator;
+
+import io.crate.data.breaker.RamAccounting;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+
+/**
+ * A segment tree of the partial states of an aggregation for all rows of a partition.
+ * The state of any frame within the partition is computed with O(log n) calls to
+ * {@link AggregationFunction#reduce(RamAccounting, Object, Object)}.
+ *
+ * <p>
+ * Only usable for {@link AggregationFunction#isMergeable()} functions as the nodes are
+ * combined again for every frame.
+ * </p>
+ *
+ * See "Efficient Processing of Window Functions in Analytical SQL Queries" http://www.vldb.org/pvldb/vol8/p1058-leis.pdf
+ */
+final class SegmentTree {
+
+    private final AggregationFunction<Object, ?> aggregationFunction;
+    private final Object emptyState;
+    private final int numLeaves;
+
+    /**
+     * The node {@code i} holds the state of {@code 2 * i} and {@code 2 * i + 1}; the leaves start at {@code numLeaves}.
+     */
+    private final Object[] nodes;
+
+    SegmentTree(AggregationFunction<Object, ?> aggregationFunction, Object emptyState, Object[] leafStates) {
+        this.aggregationFunction = aggregationFunction;
+        this.emptyState = emptyState;
+        this.numLeaves = leafStates.length;
+        this.nodes = new Object[2 * numLeaves];
+        System.arraycopy(leafStates, 0, nodes, numLeaves, numLeaves);
+        for (int i = numLeaves - 1; i > 0; i--) {
+            nodes[i] = aggregationFunction.reduce(RamAccounting.NO_ACCOUNTING, nodes[2 * i], nodes[2 * i + 1]);
+        }
+    }
+
+    static long shallowSize(int numLeaves) {
+        return RamUsageEstimator.alignObjectSize(
+            RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + 2L * numLeaves * RamUsageEstimator.NUM_BYTES_OBJECT_REF);
+    }
+
+    /**
+     * Returns the state of the rows from {@code lowerBound} to {@code upperBoundExclusive}.
+     * The states are combined in the order of the rows.
+     */
+    Object query(int lowerBound, int upperBoundExclusive) {
+        assert lowerBound >= 0 && upperBoundExclusive <= numLeaves : "Bounds must be within the partition";
+        Object left = emptyState;
+        Object right = emptyState;
+        int lo = lowerBound + numLeaves;
+        int hi = upperBoundExclusive + numLeaves;
+        while (lo < hi) {
+            if ((lo & 1) == 1) {
+                left = aggregationFunction.reduce(RamAccounting.NO_ACCOUNTING, left, nodes[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                right = aggregationFunction.reduce(RamAccounting.NO_ACCOUNTING, nodes[--hi], right);
+            }
+            lo >>= 1;
+            hi >>= 1;
+        }
+        return aggregationFunction.reduce(RamAccounting.NO_ACCOUNTING, left, right);
+    }
+}
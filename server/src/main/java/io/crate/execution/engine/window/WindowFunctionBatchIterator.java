@@ -33,19 +33,24 @@ import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.IntSupplier;
 import java.util.function.LongConsumer;
+import java.util.stream.Collector;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 
+import io.crate.Streamer;
 import io.crate.common.collections.Iterables;
+import io.crate.common.collections.Iterators;
 import io.crate.data.BatchIterator;
 import io.crate.data.Buckets;
 import io.crate.data.CollectingBatchIterator;
+import io.crate.data.FlatMapBatchIterator;
 import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.sort.ExternalSorter;
 import io.crate.execution.engine.sort.Sort;
 
 /**
@@ -70,6 +75,13 @@ import io.crate.execution.engine.sort.Sort;
  *                      - Determine window frame
  *                      - Compute window function over the frame and output tuple
  * </pre>
+ *
+ * <p>
+ * If the source is already ordered by the PARTITION BY and ORDER BY keys, {@link #ofSorted} streams the result
+ * instead: Each partition is computed and emitted once the first row of the next partition arrives.
+ * {@link #ofExternalSort} first sorts the source using an {@link ExternalSorter}, which writes sorted runs to disk if
+ * the memory limit is reached, and then streams partitions the same way.
+ * </p>
  */
 public final class WindowFunctionBatchIterator {
 
@@ -120,6 +132,137 @@ public final class WindowFunctionBatchIterator {
         );
     }
 
+    /**
+     * Like {@link #of} but requires the {@code source} to be ordered by the PARTITION BY keys followed by the
+     * ORDER BY keys. Only one partition at a time is held in memory.
+     */
+    public static BatchIterator<Row> ofSorted(BatchIterator<Row> source,
+                                              LongConsumer allocateBytes,
+                                              RowAccounting<Object[]> rowAccounting,
+                                              ComputeFrameBoundary<Object[]> computeFrameStart,
+                                              ComputeFrameBoundary<Object[]> computeFrameEnd,
+                                              @Nullable Comparator<Object[]> cmpPartitionBy,
+                                              int numCellsInSourceRow,
+                                              List<WindowFunction> windowFunctions,
+                                              List<? extends CollectExpression<Row, ?>> argsExpressions,
+                                              Boolean[] ignoreNulls,
+                                              Input<?>[]... args) {
+        assert windowFunctions.size() == args.length : "arguments must be defined for each window function";
+        assert args.length == ignoreNulls.length : "ignore-nulls option must be defined for each window function";
+        return computeWindowFunctionsPerPartition(
+            source.map(row -> materializeWithSpare(row, windowFunctions.size())),
+            allocateBytes,
+            rowAccounting,
+            computeFrameStart,
+            computeFrameEnd,
+            cmpPartitionBy,
+            numCellsInSourceRow,
+            windowFunctions,
+            argsExpressions,
+            ignoreNulls,
+            args
+        );
+    }
+
+    /**
+     * Like {@link #of} but sorts the source with an {@link ExternalSorter} and then computes one partition at a time.
+     * Sorted runs are spilled to disk if {@code spillAccounting} trips, so only a single partition must fit into memory.
+     *
+     * @param spillAccounting accounting for the rows buffered by the sorter. Must only account for these rows.
+     * @param spillStreamers streamers for all cells of the source rows followed by the window function results.
+     */
+    public static BatchIterator<Row> ofExternalSort(BatchIterator<Row> source,
+                                                    LongConsumer allocateBytes,
+                                                    RowAccounting<Object[]> rowAccounting,
+                                                    RowAccounting<Object[]> spillAccounting,
+                                                    Streamer<?>[] spillStreamers,
+                                                    ComputeFrameBoundary<Object[]> computeFrameStart,
+                                                    ComputeFrameBoundary<Object[]> computeFrameEnd,
+                                                    Comparator<Object[]> cmpPartitionBy,
+                                                    @Nullable Comparator<Object[]> cmpOrderBy,
+                                                    int numCellsInSourceRow,
+                                                    List<WindowFunction> windowFunctions,
+                                                    List<? extends CollectExpression<Row, ?>> argsExpressions,
+                                                    Boolean[] ignoreNulls,
+                                                    Input<?>[]... args) {
+        assert windowFunctions.size() == args.length : "arguments must be defined for each window function";
+        assert args.length == ignoreNulls.length : "ignore-nulls option must be defined for each window function";
+        ExternalSorter sorter = new ExternalSorter(spillAccounting, joinCmp(cmpPartitionBy, cmpOrderBy), spillStreamers);
+        Collector<Row, ExternalSorter, Iterable<Object[]>> collector = Collector.of(
+            () -> sorter,
+            (s, row) -> s.add(materializeWithSpare(row, windowFunctions.size())),
+            (s1, s2) -> {
+                throw new UnsupportedOperationException("combine not supported");
+            },
+            s -> {
+                Iterable<Object[]> sortedRows = s.finish();
+                // The rows still in memory are accounted again by `rowAccounting` while partitions are built up.
+                spillAccounting.release();
+                return sortedRows;
+            }
+        );
+        BatchIterator<Object[]> sortedRows = CollectingBatchIterator.newInstance(
+            () -> {
+                try {
+                    source.close();
+                } finally {
+                    sorter.close();
+                }
+            },
+            source::kill,
+            () -> source.collect(collector),
+            source.hasLazyResultSet()
+        );
+        return computeWindowFunctionsPerPartition(
+            sortedRows,
+            allocateBytes,
+            rowAccounting,
+            computeFrameStart,
+            computeFrameEnd,
+            cmpPartitionBy,
+            numCellsInSourceRow,
+            windowFunctions,
+            argsExpressions,
+            ignoreNulls,
+            args
+        );
+    }
+
+    private static BatchIterator<Row> computeWindowFunctionsPerPartition(
+        BatchIterator<Object[]> sortedRows,
+        LongConsumer allocateBytes,
+        RowAccounting<Object[]> rowAccounting,
+        ComputeFrameBoundary<Object[]> computeFrameStart,
+        ComputeFrameBoundary<Object[]> computeFrameEnd,
+        @Nullable Comparator<Object[]> cmpPartitionBy,
+        int numCellsInSourceRow,
+        List<WindowFunction> windowFunctions,
+        List<? extends CollectExpression<Row, ?>> argsExpressions,
+        Boolean[] ignoreNulls,
+        Input<?>[]... args) {
+
+        var partitions = new PartitioningBatchIterator(sortedRows, cmpPartitionBy, rowAccounting, allocateBytes);
+        Function<Object[], Row> arrayToSharedRow = Buckets.arrayToSharedRow();
+        return new FlatMapBatchIterator<>(
+            partitions,
+            partition -> Iterators.transform(
+                computeWindowFunctions(
+                    partition,
+                    allocateBytes,
+                    computeFrameStart,
+                    computeFrameEnd,
+                    null,
+                    numCellsInSourceRow,
+                    windowFunctions,
+                    argsExpressions,
+                    ignoreNulls,
+                    args
+                ).iterator(),
+                arrayToSharedRow
+            )
+        );
+    }
+
     private static Object[] materializeWithSpare(Row row, int numWindowFunctions) {
         Object[] cells = new Object[row.numColumns() + numWindowFunctions];
         for (int i = 0; i < row.numColumns(); i++) {
@@ -35,8 +35,10 @@ import java.util.function.Supplier;
 import org.elasticsearch.Version;
 import org.jetbrains.annotations.Nullable;
 
+import io.crate.Streamer;
 import io.crate.analyze.OrderBy;
 import io.crate.analyze.WindowDefinition;
+import io.crate.breaker.TypedCellsAccounting;
 import io.crate.breaker.TypedRowAccounting;
 import io.crate.data.Input;
 import io.crate.data.Projector;
@@ -45,6 +47,7 @@ import io.crate.data.breaker.RamAccounting;
 import io.crate.execution.dsl.projection.WindowAggProjection;
 import io.crate.execution.engine.aggregation.AggregationFunction;
 import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.spill.SpillRamAccounting;
 import io.crate.expression.ExpressionsInput;
 import io.crate.expression.InputFactory;
 import io.crate.expression.symbol.InputColumn;
@@ -58,6 +61,7 @@ import io.crate.metadata.NodeContext;
 import io.crate.metadata.TransactionContext;
 import io.crate.sql.tree.WindowFrame;
 import io.crate.types.DataType;
+import io.crate.types.DataTypes;
 import io.crate.types.IntervalType;
 
 public class WindowProjector {
@@ -71,7 +75,8 @@ public class WindowProjector {
                                            Version minNodeVersion,
                                            Version indexVersionCreated,
                                            IntSupplier numThreads,
-                                           Executor executor) {
+                                           Executor executor,
+                                           boolean spillEnabled) {
         var windowFunctionSymbols = projection.windowFunctions();
         var numWindowFunctions = windowFunctionSymbols.size();
         assert numWindowFunctions > 0 : "WindowAggProjection must have at least 1 window function.";
@@ -152,6 +157,49 @@ public class WindowProjector {
             windowDefinition,
             cmpOrderBy
         );
+        if (projection.sourceSorted()) {
+            TypedCellsAccounting partitionAccounting = new TypedCellsAccounting(
+                rowTypes, ramAccounting, arrayListElementOverHead);
+            return sourceRows -> WindowFunctionBatchIterator.ofSorted(
+                sourceRows,
+                ramAccounting::addBytes,
+                partitionAccounting,
+                computeFrameStart,
+                computeFrameEnd,
+                cmpPartitionBy,
+                numCellsInSourceRow,
+                windowFunctions,
+                windowFuncArgsExpressions,
+                ignoreNulls,
+                windowFuncArgsInputs
+            );
+        }
+        // Spilling only helps if there are partitions; a single partition must be fully held in memory.
+        if (spillEnabled && cmpPartitionBy != null) {
+            TypedCellsAccounting partitionAccounting = new TypedCellsAccounting(
+                rowTypes, ramAccounting, arrayListElementOverHead);
+            TypedCellsAccounting spillAccounting = new TypedCellsAccounting(
+                rowTypes, new SpillRamAccounting(ramAccounting), arrayListElementOverHead);
+            List<DataType<?>> spillTypes = new ArrayList<>(rowTypes);
+            spillTypes.addAll(Symbols.typeView(windowFunctionSymbols));
+            Streamer<?>[] spillStreamers = DataTypes.getStreamers(spillTypes);
+            return sourceRows -> WindowFunctionBatchIterator.ofExternalSort(
+                sourceRows,
+                ramAccounting::addBytes,
+                partitionAccounting,
+                spillAccounting,
+                spillStreamers,
+                computeFrameStart,
+                computeFrameEnd,
+                cmpPartitionBy,
+                cmpOrderBy,
+                numCellsInSourceRow,
+                windowFunctions,
+                windowFuncArgsExpressions,
+                ignoreNulls,
+                windowFuncArgsInputs
+            );
+        }
         return sourceRows -> WindowFunctionBatchIterator.of(
             sourceRows,
             ramAccounting::addBytes,
@@ -26,14 +26,17 @@ import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.execution.engine.distribution.merge.BatchPagingIterator;
 import io.crate.execution.engine.distribution.merge.KeyIterable;
 import io.crate.execution.engine.distribution.merge.PagingIterator;
 import io.netty.util.collection.IntObjectHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.Accountable;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import io.crate.common.annotations.GuardedBy;
 import io.crate.common.concurrent.KillableCompletionStage;
 
@@ -52,11 +55,17 @@ import java.util.concurrent.RejectedExecutionException;
  * A {@link PageBucketReceiver} which receives buckets from upstreams, wait to receive the page from all upstreams
  * and forwards the merged bucket results to the consumers for further processing. It then continues to receive
  * the buckets from the next page from all upstreams.
+ *
+ * Upstreams may send up to {@link #MAX_PAGES_IN_FLIGHT} pages per bucket before they have to wait for a response.
+ * Pages which arrive before the consumer needs them are buffered (and accounted) per bucket, ordered by their pageIdx.
+ * The response for a page is sent once the consumer requests the next page, which grants the upstream a new credit.
  */
 public class CumulativePageBucketReceiver implements PageBucketReceiver {
 
     private static final Logger LOGGER = LogManager.getLogger(CumulativePageBucketReceiver.class);
 
+    public static final int MAX_PAGES_IN_FLIGHT = 2;
+
     private final Object lock = new Object();
     private final String nodeName;
     private final boolean traceEnabled;
@@ -64,11 +73,15 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
     private final Executor executor;
     private final Streamer<?>[] streamers;
     private final int numBuckets;
+    private final RamAccounting ramAccounting;
     @GuardedBy("lock")
     private final Set<Integer> exhausted;
+    @GuardedBy("lock")
     private final Map<Integer, PageResultListener> listenersByBucketIdx;
     @GuardedBy("lock")
     private final Map<Integer, Bucket> bucketsByIdx;
+    @GuardedBy("lock")
+    private final Map<Integer, BufferedPages> bufferedPagesByBucketIdx;
     private final RowConsumer consumer;
     private final PagingIterator<Integer, Row> pagingIterator;
     private final BatchIterator<Row> batchPagingIterator;
@@ -78,13 +91,21 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
     private volatile CompletableFuture<List<KeyIterable<Integer, Row>>> currentPage = new CompletableFuture<>();
     private volatile boolean receivingFirstPage = true;
 
+    /**
+     * Set if the consumer waits for the next page (or the first one).
+     * Buffered pages are only moved into {@link #bucketsByIdx} while a page is requested.
+     */
+    @GuardedBy("lock")
+    private boolean pageRequested = true;
+
     public CumulativePageBucketReceiver(String nodeName,
                                         int phaseId,
                                         Executor executor,
                                         Streamer<?>[] streamers,
                                         RowConsumer rowConsumer,
                                         PagingIterator<Integer, Row> pagingIterator,
-                                        int numBuckets) {
+                                        int numBuckets,
+                                        RamAccounting ramAccounting) {
         this.nodeName = nodeName;
         this.phaseId = phaseId;
         this.executor = executor;
@@ -92,16 +113,29 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
         this.consumer = rowConsumer;
         this.pagingIterator = pagingIterator;
         this.numBuckets = numBuckets;
+        this.ramAccounting = ramAccounting;
 
         this.exhausted = Collections.newSetFromMap(new IntObjectHashMap<>(numBuckets));
         this.bucketsByIdx = new IntObjectHashMap<>(numBuckets);
         this.listenersByBucketIdx = new IntObjectHashMap<>(numBuckets);
+        this.bufferedPagesByBucketIdx = new IntObjectHashMap<>(numBuckets);
         processingFuture.whenComplete((result, ex) -> {
-            synchronized (listenersByBucketIdx) {
-                for (PageResultListener resultListener : listenersByBucketIdx.values()) {
-                    resultListener.needMore(false);
-                }
+            List<PageResultListener> listeners = new ArrayList<>();
+            synchronized (lock) {
+                listeners.addAll(listenersByBucketIdx.values());
                 listenersByBucketIdx.clear();
+                for (BufferedPages bufferedPages : bufferedPagesByBucketIdx.values()) {
+                    for (BufferedPage page : bufferedPages.pages.values()) {
+                        if (page.listener != null) {
+                            listeners.add(page.listener);
+                        }
+                    }
+                    // The bytes of the buffered pages are released together with the ramAccounting of the phase
+                    bufferedPages.pages.clear();
+                }
+            }
+            for (PageResultListener resultListener : listeners) {
+                resultListener.needMore(false);
             }
         });
         batchPagingIterator = new BatchPagingIterator<>(
@@ -120,38 +154,109 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
     }
 
     @Override
-    public void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener) {
-        final boolean isLastOrHasError;
-        synchronized (listenersByBucketIdx) {
-            isLastOrHasError = isLast || lastThrowable != null;
-            if (!isLastOrHasError) {
-                listenersByBucketIdx.put(bucketIdx, pageResultListener);
-            }
-        }
-        if (isLastOrHasError) {
-            pageResultListener.needMore(false);
-        }
+    public void setBucket(int bucketIdx,
+                          int pageIdx,
+                          Bucket rows,
+                          boolean isLast,
+                          PageResultListener pageResultListener) {
+        boolean isLastOrHasError;
         final boolean allBucketsOfPageReceived;
+        Throwable failure = null;
         synchronized (lock) {
             if (traceEnabled) {
-                LOGGER.trace("method=setBucket phaseId={} bucket={} istLast={}", phaseId, bucketIdx, isLast);
-            }
-
-            if (bucketsByIdx.putIfAbsent(bucketIdx, rows) != null) {
-                processingFuture.completeExceptionally(new IllegalStateException(String.format(Locale.ENGLISH,
-                    "Same bucket of a page set more than once. node=%s method=setBucket phaseId=%d bucket=%d",
-                    nodeName, phaseId, bucketIdx)));
+                LOGGER.trace("method=setBucket phaseId={} bucket={} page={} istLast={}",
+                             phaseId, bucketIdx, pageIdx, isLast);
             }
-            if (isLast) {
-                exhausted.add(bucketIdx);
+            isLastOrHasError = isLast || lastThrowable != null || processingFuture.isDone();
+            if (lastThrowable != null || processingFuture.isDone()) {
+                allBucketsOfPageReceived = false;
+            } else {
+                BufferedPages bufferedPages = bufferedPagesByBucketIdx.computeIfAbsent(
+                    bucketIdx,
+                    k -> new BufferedPages()
+                );
+                final int seqNo;
+                final boolean duplicate;
+                if (pageIdx < 0) {
+                    // Unsequenced upstreams must not send another page before they got a response
+                    seqNo = bufferedPages.numUnsequenced++;
+                    duplicate = bucketsByIdx.containsKey(bucketIdx) || !bufferedPages.pages.isEmpty();
+                } else {
+                    seqNo = pageIdx;
+                    duplicate = seqNo < bufferedPages.nextPageIdx || bufferedPages.pages.containsKey(seqNo);
+                }
+                if (duplicate) {
+                    processingFuture.completeExceptionally(new IllegalStateException(String.format(Locale.ENGLISH,
+                        "Same bucket of a page set more than once. node=%s method=setBucket phaseId=%d bucket=%d",
+                        nodeName, phaseId, bucketIdx)));
+                    isLastOrHasError = true;
+                    allBucketsOfPageReceived = false;
+                } else {
+                    long bytes = rows instanceof Accountable accountable ? accountable.ramBytesUsed() : 0L;
+                    try {
+                        ramAccounting.addBytes(bytes);
+                        bufferedPages.pages.put(
+                            seqNo,
+                            new BufferedPage(rows, isLast, bytes, isLastOrHasError ? null : pageResultListener)
+                        );
+                    } catch (Throwable t) {
+                        failure = t;
+                    }
+                    allBucketsOfPageReceived = failure == null && pageRequested && fillBucket(bucketIdx)
+                        && receivedAllBucketsOfPage();
+                }
             }
-            allBucketsOfPageReceived = bucketsByIdx.size() == numBuckets;
         }
-        if (allBucketsOfPageReceived) {
+        if (isLastOrHasError || failure != null) {
+            pageResultListener.needMore(false);
+        }
+        if (failure != null) {
+            kill(failure);
+        } else if (allBucketsOfPageReceived) {
             processPage();
         }
     }
 
+    /**
+     * Moves the next buffered page of the bucket into {@link #bucketsByIdx} if the bucket of the current page is
+     * still missing.
+     *
+     * @return true if a page was moved.
+     */
+    @GuardedBy("lock")
+    private boolean fillBucket(int bucketIdx) {
+        BufferedPages bufferedPages = bufferedPagesByBucketIdx.get(bucketIdx);
+        if (bufferedPages == null || bucketsByIdx.containsKey(bucketIdx)) {
+            return false;
+        }
+        BufferedPage page = bufferedPages.pages.remove(bufferedPages.nextPageIdx);
+        if (page == null) {
+            return false;
+        }
+        bufferedPages.nextPageIdx++;
+        ramAccounting.addBytes(- page.bytes);
+        bucketsByIdx.put(bucketIdx, page.rows);
+        if (page.isLast) {
+            exhausted.add(bucketIdx);
+        } else if (page.listener != null) {
+            listenersByBucketIdx.put(bucketIdx, page.listener);
+        }
+        return true;
+    }
+
+    /**
+     * Completes the requested page if all buckets of it are present.
+     * The caller must process the page if this returns true.
+     */
+    @GuardedBy("lock")
+    private boolean receivedAllBucketsOfPage() {
+        if (pageRequested && bucketsByIdx.size() == numBuckets) {
+            pageRequested = false;
+            return true;
+        }
+        return false;
+    }
+
     private void triggerConsumerOrPageFuture(List<KeyIterable<Integer, Row>> buckets) {
         boolean invokeConsumer = false;
         Throwable throwable;
@@ -235,34 +340,47 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
             return KillableCompletionStage.failed(new IllegalStateException("Source is exhausted"));
         }
         currentPage = new CompletableFuture<>();
-        if (exhaustedBucket == null || exhausted.contains(exhaustedBucket)) {
-            fetchFromUnExhausted();
-        } else {
-            fetchExhausted(exhaustedBucket);
+        List<PageResultListener> listeners;
+        boolean allBucketsOfPageReceived;
+        synchronized (lock) {
+            if (exhaustedBucket == null || exhausted.contains(exhaustedBucket)) {
+                listeners = fetchFromUnExhausted();
+            } else {
+                listeners = fetchExhausted(exhaustedBucket);
+            }
+            pageRequested = true;
+            // Upstreams with credits left may already have sent the buckets of the next page
+            for (Integer bucketIdx : bufferedPagesByBucketIdx.keySet()) {
+                fillBucket(bucketIdx);
+            }
+            allBucketsOfPageReceived = receivedAllBucketsOfPage();
+        }
+        for (PageResultListener listener : listeners) {
+            listener.needMore(true);
+        }
+        if (allBucketsOfPageReceived) {
+            processPage();
         }
         return KillableCompletionStage.whenKilled(currentPage, t -> currentPage.completeExceptionally(t));
     }
 
-    private void fetchExhausted(Integer exhaustedBucket) {
-        synchronized (listenersByBucketIdx) {
-            // We're only requesting data for 1 specific bucket,
-            // so we need to fill in other buckets to meet the
-            // "receivedAllBucketsOfPage" condition once we get the data for this bucket
-            PageResultListener pageResultListener = listenersByBucketIdx.remove(exhaustedBucket);
-            for (Integer bucketIdx : listenersByBucketIdx.keySet()) {
-                bucketsByIdx.putIfAbsent(bucketIdx, Bucket.EMPTY);
-            }
-            pageResultListener.needMore(true);
+    @GuardedBy("lock")
+    private List<PageResultListener> fetchExhausted(Integer exhaustedBucket) {
+        // We're only requesting data for 1 specific bucket,
+        // so we need to fill in other buckets to meet the
+        // "receivedAllBucketsOfPage" condition once we get the data for this bucket
+        PageResultListener pageResultListener = listenersByBucketIdx.remove(exhaustedBucket);
+        for (Integer bucketIdx : listenersByBucketIdx.keySet()) {
+            bucketsByIdx.putIfAbsent(bucketIdx, Bucket.EMPTY);
         }
+        return pageResultListener == null ? List.of() : List.of(pageResultListener);
     }
 
-    private void fetchFromUnExhausted() {
-        synchronized (listenersByBucketIdx) {
-            for (PageResultListener listener : listenersByBucketIdx.values()) {
-                listener.needMore(true);
-            }
-            listenersByBucketIdx.clear();
-        }
+    @GuardedBy("lock")
+    private List<PageResultListener> fetchFromUnExhausted() {
+        List<PageResultListener> listeners = new ArrayList<>(listenersByBucketIdx.values());
+        listenersByBucketIdx.clear();
+        return listeners;
     }
 
     @Override
@@ -298,6 +416,11 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
         }
     }
 
+    @Override
+    public int credits() {
+        return MAX_PAGES_IN_FLIGHT;
+    }
+
     @Override
     public String toString() {
         return "CumulativePageBucketReceiver{" +
@@ -307,4 +430,17 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
                ", consumer=" + consumer +
                '}';
     }
+
+    /**
+     * Pages of a bucket which were received but not yet merged, keyed by their pageIdx.
+     */
+    private static final class BufferedPages {
+
+        private final Map<Integer, BufferedPage> pages = new IntObjectHashMap<>();
+        private int nextPageIdx = 0;
+        private int numUnsequenced = 0;
+    }
+
+    private record BufferedPage(Bucket rows, boolean isLast, long bytes, @Nullable PageResultListener listener) {
+    }
 }
@@ -67,7 +67,6 @@ import com.carrotsearch.hppc.procedures.ObjectProcedure;
 
 import io.crate.Streamer;
 import io.crate.breaker.ConcurrentRamAccounting;
-import io.crate.breaker.TypedCellsAccounting;
 import io.crate.breaker.TypedRowAccounting;
 import io.crate.data.Paging;
 import io.crate.data.Row;
@@ -110,8 +109,11 @@ import io.crate.execution.engine.join.NestedLoopOperation;
 import io.crate.execution.engine.pipeline.ProjectingRowConsumer;
 import io.crate.execution.engine.pipeline.ProjectionToProjectorVisitor;
 import io.crate.execution.engine.pipeline.ProjectorFactory;
+import io.crate.execution.engine.spill.SpillRamAccounting;
+import io.crate.execution.engine.spill.SpillSettings;
 import io.crate.expression.InputFactory;
 import io.crate.expression.RowFilter;
+import io.crate.expression.compiler.ScalarCompiler;
 import io.crate.expression.eval.EvaluatingNormalizer;
 import io.crate.memory.MemoryManager;
 import io.crate.memory.MemoryManagerFactory;
@@ -165,10 +167,14 @@ public class JobSetup {
         this.circuitBreakerService = circuitBreakerService;
         this.countOperation = countOperation;
         this.memoryManagerFactory = memoryManagerFactory;
-        this.pkLookupOperation = new PKLookupOperation(indicesService, shardCollectSource);
+        this.pkLookupOperation = new PKLookupOperation(
+            indicesService,
+            shardCollectSource,
+            threadPool.executor(ThreadPool.Names.GET)
+        );
         this.distributingConsumerFactory = distributingConsumerFactory;
         innerPreparer = new InnerPreparer();
-        inputFactory = new InputFactory(nodeCtx);
+        inputFactory = new InputFactory(nodeCtx, ScalarCompiler.SCALAR_COMPILER_ENABLED_SETTING.get(settings));
         searchTp = threadPool.executor(ThreadPool.Names.SEARCH);
         EvaluatingNormalizer normalizer = EvaluatingNormalizer.functionOnlyNormalizer(nodeCtx);
         this.projectorFactory = new ProjectionToProjectorVisitor(
@@ -731,7 +737,8 @@ public class JobSetup {
                         () -> new TypedRowAccounting(
                             phase.inputTypes(),
                             new BlockBasedRamAccounting(ramAccounting::addBytes, ramAccountingBlockSizeInBytes))),
-                    phase.numUpstreams());
+                    phase.numUpstreams(),
+                    ramAccounting);
             } else {
                 pageBucketReceiver = new IncrementalPageBucketReceiver<>(
                     collector,
@@ -880,6 +887,7 @@ public class JobSetup {
                 phase.leftMergePhase(),
                 joinOperation.leftConsumer(),
                 new BlockBasedRamAccounting(concurrentRamAccounting::addBytes, ramAccountingBlockSizeInBytes),
+                concurrentRamAccounting,
                 memoryManager
             );
 
@@ -894,6 +902,7 @@ public class JobSetup {
                 phase.rightMergePhase(),
                 joinOperation.rightConsumer(),
                 new BlockBasedRamAccounting(concurrentRamAccounting::addBytes, ramAccountingBlockSizeInBytes),
+                concurrentRamAccounting,
                 memoryManager
             );
             if (right != null) {
@@ -934,22 +943,31 @@ public class JobSetup {
             );
             Predicate<Row> joinCondition = RowFilter.create(context.transactionContext, inputFactory, phase.joinCondition());
 
+            // The memory of the left rows is released per block or partition,
+            // which must not release the memory accounted by the projections
+            boolean spillEnabled = clusterService.getClusterSettings().get(SpillSettings.SPILL_ENABLED);
+            RamAccounting leftRowsRamAccounting = new SpillRamAccounting(ramAccountingOfOperation);
+            // The rows of the left side account for the memory themselves, the manager must not account again
+            var leftRowsMemoryManager = memoryManagerFactory.getMemoryManager(RamAccounting.NO_ACCOUNTING);
+            lastConsumer.completionFuture().whenComplete((result, error) -> leftRowsMemoryManager.close());
             HashJoinOperation joinOperation = new HashJoinOperation(
                 phase.numLeftOutputs(),
                 phase.numRightOutputs(),
                 firstConsumer,
+                phase.joinType(),
                 joinCondition,
                 phase.leftJoinConditionInputs(),
                 phase.rightJoinConditionInputs(),
-                // 110 extra bytes per row =
-                //    96 bytes for each ArrayList +
-                //    7 bytes per key for the IntHashObjectHashMap  (should be 4 but the map pre-allocates more)
-                //    7 bytes perv value (pointer from the map to the list) (should be 4 but the map pre-allocates more)
-                new TypedCellsAccounting(phase.leftOutputTypes(), ramAccountingOfOperation, 110),
+                leftRowsRamAccounting,
+                leftRowsMemoryManager,
                 context.transactionContext,
                 inputFactory,
                 breaker(),
-                phase.estimatedRowSizeForLeft()
+                phase.estimatedRowSizeForLeft(),
+                phase.estimatedNumRowsForLeft(),
+                phase.leftOutputTypes(),
+                phase.rightOutputTypes(),
+                spillEnabled ? clusterService.getClusterSettings().get(SpillSettings.SPILL_PARTITIONS) : 0
             );
             DistResultRXTask left = pageDownstreamContextForNestedLoop(
                 phase.phaseId(),
@@ -958,6 +976,7 @@ public class JobSetup {
                 phase.leftMergePhase(),
                 joinOperation.leftConsumer(),
                 new BlockBasedRamAccounting(ramAccounting::addBytes, ramAccountingBlockSizeInBytes),
+                ramAccounting,
                 memoryManager
             );
             if (left != null) {
@@ -970,6 +989,7 @@ public class JobSetup {
                 phase.rightMergePhase(),
                 joinOperation.rightConsumer(),
                 new BlockBasedRamAccounting(ramAccounting::addBytes, ramAccountingBlockSizeInBytes),
+                ramAccounting,
                 memoryManager
             );
             if (right != null) {
@@ -991,6 +1011,7 @@ public class JobSetup {
                                                                     @Nullable MergePhase mergePhase,
                                                                     RowConsumer rowConsumer,
                                                                     RamAccounting ramAccounting,
+                                                                    RamAccounting bufferedPagesRamAccounting,
                                                                     MemoryManager memoryManager) {
             if (mergePhase == null) {
                 ctx.consumersByPhaseInputId.put(toKey(nlPhaseId, inputId), rowConsumer);
@@ -1025,7 +1046,8 @@ public class JobSetup {
                     () -> new TypedRowAccounting(
                         mergePhase.inputTypes(),
                         ramAccounting)),
-                mergePhase.numUpstreams());
+                mergePhase.numUpstreams(),
+                bufferedPagesRamAccounting);
 
             return new DistResultRXTask(
                 mergePhase.phaseId(),
@@ -30,6 +30,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import org.elasticsearch.index.shard.ShardId;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import io.crate.data.BatchIterator;
@@ -37,6 +38,7 @@ import io.crate.data.Row;
 import io.crate.data.RowConsumer;
 import io.crate.data.breaker.BlockBasedRamAccounting;
 import io.crate.data.breaker.RamAccounting;
+import io.crate.exceptions.SQLExceptions;
 import io.crate.execution.dsl.projection.Projection;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.collect.PKLookupOperation;
@@ -70,8 +72,15 @@ public final class PKLookupTask extends AbstractTask {
     private final Function<RamAccounting, MemoryManager> memoryManagerFactory;
     private final int ramAccountingBlockSizeInBytes;
     private final ArrayList<MemoryManager> memoryManagers = new ArrayList<>();
+    private boolean releasedMemoryManagers = false;
     private long totalBytes = -1;
 
+    @Nullable
+    private CompletableFuture<BatchIterator<Row>> lookup;
+
+    @Nullable
+    private volatile Throwable killReason;
+
     @Nullable
     private final SourceParser sourceParser;
 
@@ -123,8 +132,8 @@ public final class PKLookupTask extends AbstractTask {
     }
 
     @Override
-    protected CompletableFuture<Void> innerStart() {
-        BatchIterator<Row> rowBatchIterator = pkLookupOperation.lookup(
+    protected synchronized CompletableFuture<Void> innerStart() {
+        lookup = pkLookupOperation.lookup(
             jobId,
             txnCtx,
             this::getRamAccounting,
@@ -136,11 +145,39 @@ public final class PKLookupTask extends AbstractTask {
             this::resultToRow,
             sourceParser
         );
-        consumer.accept(rowBatchIterator, null);
-        close();
+        lookup.whenComplete((rowBatchIterator, err) -> {
+            Throwable killed = killReason;  // 1 volatile read
+            if (killed != null) {
+                // Killed while the lookup was pending
+                if (rowBatchIterator != null) {
+                    rowBatchIterator.close();
+                }
+                consumer.accept(null, killed);
+                return;
+            }
+            if (err == null) {
+                consumer.accept(rowBatchIterator, null);
+                close();
+            } else {
+                Throwable t = SQLExceptions.unwrap(err);
+                consumer.accept(null, t);
+                kill(t);
+            }
+        });
         return null;
     }
 
+    @Override
+    protected synchronized void innerKill(@NotNull Throwable t) {
+        releaseMemoryManagers();
+        if (lookup == null) {
+            consumer.accept(null, t);
+        } else {
+            killReason = t;
+            lookup.cancel(false);
+        }
+    }
+
     private Row resultToRow(Doc getResult) {
         for (int i = 0; i < expressions.size(); i++) {
             expressions.get(i).setNextRow(getResult);
@@ -155,8 +192,13 @@ public final class PKLookupTask extends AbstractTask {
 
     @Override
     protected void innerClose() {
+        releaseMemoryManagers();
+    }
+
+    private void releaseMemoryManagers() {
         totalBytes = ramAccounting.totalBytes();
         synchronized (memoryManagers) {
+            releasedMemoryManagers = true;
             for (MemoryManager memoryManager : memoryManagers) {
                 memoryManager.close();
             }
@@ -180,10 +222,14 @@ public final class PKLookupTask extends AbstractTask {
     }
 
     public MemoryManager getMemoryManager() {
-        MemoryManager memoryManager = memoryManagerFactory.apply(ramAccounting);
+        // synchronized to not add a memory manager right after another thread released them
         synchronized (memoryManagers) {
+            if (releasedMemoryManagers) {
+                throw new IllegalStateException("PKLookupTask " + name + " is already closed, can't create a MemoryManager");
+            }
+            MemoryManager memoryManager = memoryManagerFactory.apply(ramAccounting);
             memoryManagers.add(memoryManager);
+            return memoryManager;
         }
-        return memoryManager;
     }
 }
@@ -29,6 +29,7 @@ import io.crate.common.concurrent.Killable;
 import io.crate.concurrent.CompletionListenable;
 import io.crate.data.Bucket;
 import io.crate.execution.dsl.phases.MergePhase;
+import io.crate.execution.engine.distribution.DistributedResultRequest;
 import io.crate.execution.engine.distribution.DistributingConsumerFactory;
 
 /**
@@ -69,7 +70,27 @@ public interface PageBucketReceiver extends CompletionListenable, Killable {
      * @param isLast Indicates whether this is the last bucket with this id.
      * @param pageResultListener The ResultListener which is informed if more data is needed (for an additional page).
      */
-    void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener);
+    default void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener) {
+        setBucket(bucketIdx, DistributedResultRequest.UNSEQUENCED, rows, isLast, pageResultListener);
+    }
+
+    /**
+     * Like {@link #setBucket(int, Bucket, boolean, PageResultListener)} but for upstreams which may have
+     * multiple pages in flight (See {@link #credits()}). These pages can arrive out of order, {@code pageIdx} is
+     * the sequence number of the page within the bucket.
+     *
+     * @param pageIdx sequence number of the page, starting at 0, or {@link DistributedResultRequest#UNSEQUENCED}
+     *                if the upstream only sends the next page once it received a response.
+     */
+    void setBucket(int bucketIdx, int pageIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener);
+
+    /**
+     * Number of pages an upstream may send for a bucket without having received a response for the previous ones.
+     * Granted to the upstreams with each response.
+     */
+    default int credits() {
+        return 1;
+    }
 
     Streamer<?>[] streamers();
 
@@ -27,6 +27,7 @@ import java.util.Locale;
 import io.crate.common.collections.Lists;
 import io.crate.data.Input;
 import io.crate.exceptions.UnsupportedFeatureException;
+import io.crate.expression.compiler.ScalarCompiler;
 import io.crate.expression.symbol.AliasSymbol;
 import io.crate.expression.symbol.DynamicReference;
 import io.crate.expression.symbol.Function;
@@ -44,14 +45,30 @@ public class BaseImplementationSymbolVisitor<C> extends SymbolVisitor<C, Input<?
 
     protected final TransactionContext txnCtx;
     protected final NodeContext nodeCtx;
+    private final boolean compileScalars;
 
     public BaseImplementationSymbolVisitor(TransactionContext txnCtx, NodeContext nodeCtx) {
+        this(txnCtx, nodeCtx, false);
+    }
+
+    /**
+     * @param compileScalars if true, supported scalar functions are evaluated by a {@link ScalarCompiler}
+     *                       tree instead of a {@link FunctionExpression} per function.
+     */
+    public BaseImplementationSymbolVisitor(TransactionContext txnCtx, NodeContext nodeCtx, boolean compileScalars) {
         this.txnCtx = txnCtx;
         this.nodeCtx = nodeCtx;
+        this.compileScalars = compileScalars;
     }
 
     @Override
     public Input<?> visitFunction(Function function, C context) {
+        if (compileScalars) {
+            Input<?> compiled = ScalarCompiler.compile(function, arg -> arg.accept(this, context));
+            if (compiled != null) {
+                return compiled;
+            }
+        }
         Signature signature = function.signature();
         FunctionImplementation functionImplementation = nodeCtx.functions().getQualified(function);
         assert functionImplementation != null : "Function implementation not found using full qualified lookup";
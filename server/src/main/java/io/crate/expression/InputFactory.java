@@ -73,9 +73,18 @@ import io.crate.metadata.TransactionContext;
 public class InputFactory {
 
     private final NodeContext nodeCtx;
+    private final boolean compileScalars;
 
     public InputFactory(NodeContext nodeCtx) {
+        this(nodeCtx, false);
+    }
+
+    /**
+     * @param compileScalars see {@link BaseImplementationSymbolVisitor#BaseImplementationSymbolVisitor(TransactionContext, NodeContext, boolean)}
+     */
+    public InputFactory(NodeContext nodeCtx, boolean compileScalars) {
         this.nodeCtx = nodeCtx;
+        this.compileScalars = compileScalars;
     }
 
     public <T extends Input<?>> Context<T> ctxForRefs(TransactionContext txnCtx, ReferenceResolver<? extends T> referenceResolver) {
@@ -85,12 +94,13 @@ public class InputFactory {
             new RefVisitor<>(
                 txnCtx,
                 nodeCtx,
+                compileScalars,
                 new GatheringRefResolver<>(expressions::add, referenceResolver)));
     }
 
     public Context<CollectExpression<Row, ?>> ctxForInputColumns(TransactionContext txnCtx) {
         List<CollectExpression<Row, ?>> expressions = new ArrayList<>();
-        return new Context<>(expressions, new InputColumnVisitor(txnCtx, nodeCtx, expressions));
+        return new Context<>(expressions, new InputColumnVisitor(txnCtx, nodeCtx, compileScalars, expressions));
     }
 
     public Context<CollectExpression<Row, ?>> ctxForInputColumns(TransactionContext txnCtx, Iterable<? extends Symbol> symbols) {
@@ -105,7 +115,7 @@ public class InputFactory {
         return new Context<>(
             expressions,
             aggregationContexts,
-            new AggregationVisitor(txnCtx, nodeCtx, expressions, aggregationContexts));
+            new AggregationVisitor(txnCtx, nodeCtx, compileScalars, expressions, aggregationContexts));
     }
 
     public static class Context<T extends Input<?>> {
@@ -169,8 +179,11 @@ public class InputFactory {
         private final List<CollectExpression<Row, ?>> expressions;
         private final IntObjectMap<RowCollectExpression> inputCollectExpressions = new IntObjectHashMap<>();
 
-        InputColumnVisitor(TransactionContext txnCtx, NodeContext nodeCtx, List<CollectExpression<Row, ?>> expressions) {
-            super(txnCtx, nodeCtx);
+        InputColumnVisitor(TransactionContext txnCtx,
+                           NodeContext nodeCtx,
+                           boolean compileScalars,
+                           List<CollectExpression<Row, ?>> expressions) {
+            super(txnCtx, nodeCtx, compileScalars);
             this.expressions = expressions;
         }
 
@@ -193,9 +206,10 @@ public class InputFactory {
 
         AggregationVisitor(TransactionContext txnCtx,
                            NodeContext nodeCtx,
+                           boolean compileScalars,
                            List<CollectExpression<Row, ?>> expressions,
                            List<AggregationContext> aggregationContexts) {
-            super(txnCtx, nodeCtx, expressions);
+            super(txnCtx, nodeCtx, compileScalars, expressions);
             this.aggregationContexts = aggregationContexts;
         }
 
@@ -224,8 +238,11 @@ public class InputFactory {
         private final ReferenceResolver<T> referenceResolver;
         private final Map<Reference, T> referenceMap;
 
-        RefVisitor(TransactionContext txnCtx, NodeContext nodeCtx, ReferenceResolver<T> referenceResolver) {
-            super(txnCtx, nodeCtx);
+        RefVisitor(TransactionContext txnCtx,
+                   NodeContext nodeCtx,
+                   boolean compileScalars,
+                   ReferenceResolver<T> referenceResolver) {
+            super(txnCtx, nodeCtx, compileScalars);
             this.referenceResolver = referenceResolver;
             this.referenceMap = new HashMap<>();
         }
@@ -0,0 +1,88 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.expression.scalar.arithmetic.ArithmeticFunctions;
+
+/**
+ * The arithmetic operators of {@link ArithmeticFunctions} with the semantics of their
+ * integer, long and double implementations.
+ */
+enum Arithmetic {
+    ADD,
+    SUBTRACT,
+    MULTIPLY,
+    DIVIDE,
+    MODULUS;
+
+    int apply(int left, int right) {
+        try {
+            return switch (this) {
+                case ADD -> Math.addExact(left, right);
+                case SUBTRACT -> Math.subtractExact(left, right);
+                case MULTIPLY -> Math.multiplyExact(left, right);
+                case DIVIDE -> left / right;
+                case MODULUS -> left % right;
+            };
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    long apply(long left, long right) {
+        try {
+            return switch (this) {
+                case ADD -> Math.addExact(left, right);
+                case SUBTRACT -> Math.subtractExact(left, right);
+                case MULTIPLY -> Math.multiplyExact(left, right);
+                case DIVIDE -> left / right;
+                case MODULUS -> left % right;
+            };
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    double apply(double left, double right) {
+        return switch (this) {
+            case ADD -> left + right;
+            case SUBTRACT -> left - right;
+            case MULTIPLY -> left * right;
+            case DIVIDE -> left / right;
+            case MODULUS -> left % right;
+        };
+    }
+
+    @Nullable
+    static Arithmetic of(String functionName) {
+        return switch (functionName) {
+            case ArithmeticFunctions.Names.ADD -> ADD;
+            case ArithmeticFunctions.Names.SUBTRACT -> SUBTRACT;
+            case ArithmeticFunctions.Names.MULTIPLY -> MULTIPLY;
+            case ArithmeticFunctions.Names.DIVIDE -> DIVIDE;
+            case ArithmeticFunctions.Names.MODULUS, ArithmeticFunctions.Names.MOD -> MODULUS;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.Input;
+
+/**
+ * A compiled expression evaluating to a boolean using three valued logic.
+ * {@link #eval()} returns one of {@link #TRUE}, {@link #FALSE} or {@link #NULL}.
+ */
+abstract class BoolNode {
+
+    static final int FALSE = 0;
+    static final int TRUE = 1;
+    static final int NULL = 2;
+
+    abstract int eval();
+
+    static int of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    @Nullable
+    static Boolean toBoolean(int value) {
+        return switch (value) {
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    static final class FromInput extends BoolNode {
+
+        private final Input<?> input;
+
+        FromInput(Input<?> input) {
+            this.input = input;
+        }
+
+        @Override
+        int eval() {
+            Object value = input.value();
+            if (value == null) {
+                return NULL;
+            }
+            return of((Boolean) value);
+        }
+    }
+
+    static final class Constant extends BoolNode {
+
+        private final int value;
+
+        Constant(@Nullable Boolean value) {
+            this.value = value == null ? NULL : of(value);
+        }
+
+        @Override
+        int eval() {
+            return value;
+        }
+    }
+
+    static final class And extends BoolNode {
+
+        private final BoolNode left;
+        private final BoolNode right;
+
+        And(BoolNode left, BoolNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int eval() {
+            int leftValue = left.eval();
+            int rightValue = right.eval();
+            if (leftValue == FALSE || rightValue == FALSE) {
+                return FALSE;
+            }
+            if (leftValue == NULL || rightValue == NULL) {
+                return NULL;
+            }
+            return TRUE;
+        }
+    }
+
+    static final class Or extends BoolNode {
+
+        private final BoolNode left;
+        private final BoolNode right;
+
+        Or(BoolNode left, BoolNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int eval() {
+            int leftValue = left.eval();
+            int rightValue = right.eval();
+            if (leftValue == TRUE || rightValue == TRUE) {
+                return TRUE;
+            }
+            if (leftValue == NULL || rightValue == NULL) {
+                return NULL;
+            }
+            return FALSE;
+        }
+    }
+
+    static final class Not extends BoolNode {
+
+        private final BoolNode source;
+
+        Not(BoolNode source) {
+            this.source = source;
+        }
+
+        @Override
+        int eval() {
+            return switch (source.eval()) {
+                case TRUE -> FALSE;
+                case FALSE -> TRUE;
+                default -> NULL;
+            };
+        }
+    }
+
+    static final class IsNull extends BoolNode {
+
+        private final Input<?> input;
+
+        IsNull(Input<?> input) {
+            this.input = input;
+        }
+
+        @Override
+        int eval() {
+            return of(input.value() == null);
+        }
+    }
+
+    static final class CompareInt extends BoolNode {
+
+        private final Comparison comparison;
+        private final IntNode left;
+        private final IntNode right;
+
+        CompareInt(Comparison comparison, IntNode left, IntNode right) {
+            this.comparison = comparison;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int eval() {
+            int leftValue = left.eval();
+            if (left.wasNull) {
+                return NULL;
+            }
+            int rightValue = right.eval();
+            if (right.wasNull) {
+                return NULL;
+            }
+            return of(comparison.matches(Integer.compare(leftValue, rightValue)));
+        }
+    }
+
+    static final class CompareLong extends BoolNode {
+
+        private final Comparison comparison;
+        private final LongNode left;
+        private final LongNode right;
+
+        CompareLong(Comparison comparison, LongNode left, LongNode right) {
+            this.comparison = comparison;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int eval() {
+            long leftValue = left.eval();
+            if (left.wasNull) {
+                return NULL;
+            }
+            long rightValue = right.eval();
+            if (right.wasNull) {
+                return NULL;
+            }
+            return of(comparison.matches(Long.compare(leftValue, rightValue)));
+        }
+    }
+
+    static final class CompareDouble extends BoolNode {
+
+        private final Comparison comparison;
+        private final DoubleNode left;
+        private final DoubleNode right;
+
+        CompareDouble(Comparison comparison, DoubleNode left, DoubleNode right) {
+            this.comparison = comparison;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int eval() {
+            double leftValue = left.eval();
+            if (left.wasNull) {
+                return NULL;
+            }
+            double rightValue = right.eval();
+            if (right.wasNull) {
+                return NULL;
+            }
+            return of(comparison.matches(Double.compare(leftValue, rightValue)));
+        }
+    }
+
+    static final class Case extends BoolNode {
+
+        private final BoolNode[] conditions;
+        private final BoolNode[] results;
+        private final BoolNode defaultResult;
+
+        Case(BoolNode[] conditions, BoolNode[] results, BoolNode defaultResult) {
+            assert conditions.length == results.length : "Must have one result per condition";
+            this.conditions = conditions;
+            this.results = results;
+            this.defaultResult = defaultResult;
+        }
+
+        @Override
+        int eval() {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].eval() == TRUE) {
+                    return results[i].eval();
+                }
+            }
+            return defaultResult.eval();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.LteOperator;
+
+/**
+ * The comparison operators, evaluated on the result of a {@code compare(left, right)} call.
+ */
+public enum Comparison {
+    EQ,
+    LT,
+    LTE,
+    GT,
+    GTE;
+
+    public boolean matches(int cmp) {
+        return switch (this) {
+            case EQ -> cmp == 0;
+            case LT -> cmp < 0;
+            case LTE -> cmp <= 0;
+            case GT -> cmp > 0;
+            case GTE -> cmp >= 0;
+        };
+    }
+
+    /**
+     * @return the comparison to use if the operands are swapped
+     */
+    public Comparison flip() {
+        return switch (this) {
+            case EQ -> EQ;
+            case LT -> GT;
+            case LTE -> GTE;
+            case GT -> LT;
+            case GTE -> LTE;
+        };
+    }
+
+    @Nullable
+    public static Comparison of(String functionName) {
+        return switch (functionName) {
+            case EqOperator.NAME -> EQ;
+            case LtOperator.NAME -> LT;
+            case LteOperator.NAME -> LTE;
+            case GtOperator.NAME -> GT;
+            case GteOperator.NAME -> GTE;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.Input;
+
+/**
+ * A compiled expression evaluating to a {@code double}.
+ * Each {@link #eval()} call sets {@link #wasNull}; the returned value is undefined if the result is null.
+ */
+abstract class DoubleNode {
+
+    boolean wasNull;
+
+    abstract double eval();
+
+    static final class FromInput extends DoubleNode {
+
+        private final Input<?> input;
+
+        FromInput(Input<?> input) {
+            this.input = input;
+        }
+
+        @Override
+        double eval() {
+            Object value = input.value();
+            if (value == null) {
+                wasNull = true;
+                return 0.0d;
+            }
+            wasNull = false;
+            return ((Number) value).doubleValue();
+        }
+    }
+
+    static final class Constant extends DoubleNode {
+
+        private final double value;
+
+        Constant(@Nullable Number value) {
+            this.wasNull = value == null;
+            this.value = value == null ? 0.0d : value.doubleValue();
+        }
+
+        @Override
+        double eval() {
+            return value;
+        }
+    }
+
+    static final class Binary extends DoubleNode {
+
+        private final Arithmetic op;
+        private final DoubleNode left;
+        private final DoubleNode right;
+
+        Binary(Arithmetic op, DoubleNode left, DoubleNode right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double eval() {
+            double leftValue = left.eval();
+            double rightValue = right.eval();
+            if (left.wasNull || right.wasNull) {
+                wasNull = true;
+                return 0.0d;
+            }
+            wasNull = false;
+            return op.apply(leftValue, rightValue);
+        }
+    }
+
+    static final class FromInt extends DoubleNode {
+
+        private final IntNode source;
+
+        FromInt(IntNode source) {
+            this.source = source;
+        }
+
+        @Override
+        double eval() {
+            int value = source.eval();
+            wasNull = source.wasNull;
+            return value;
+        }
+    }
+
+    static final class FromLong extends DoubleNode {
+
+        private final LongNode source;
+
+        FromLong(LongNode source) {
+            this.source = source;
+        }
+
+        @Override
+        double eval() {
+            long value = source.eval();
+            wasNull = source.wasNull;
+            return value;
+        }
+    }
+
+    static final class Case extends DoubleNode {
+
+        private final BoolNode[] conditions;
+        private final DoubleNode[] results;
+        private final DoubleNode defaultResult;
+
+        Case(BoolNode[] conditions, DoubleNode[] results, DoubleNode defaultResult) {
+            assert conditions.length == results.length : "Must have one result per condition";
+            this.conditions = conditions;
+            this.results = results;
+            this.defaultResult = defaultResult;
+        }
+
+        @Override
+        double eval() {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].eval() == BoolNode.TRUE) {
+                    DoubleNode result = results[i];
+                    double value = result.eval();
+                    wasNull = result.wasNull;
+                    return value;
+                }
+            }
+            double value = defaultResult.eval();
+            wasNull = defaultResult.wasNull;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.Input;
+
+/**
+ * A compiled expression evaluating to a {@code int}.
+ * Each {@link #eval()} call sets {@link #wasNull}; the returned value is undefined if the result is null.
+ */
+abstract class IntNode {
+
+    boolean wasNull;
+
+    abstract int eval();
+
+    static final class FromInput extends IntNode {
+
+        private final Input<?> input;
+
+        FromInput(Input<?> input) {
+            this.input = input;
+        }
+
+        @Override
+        int eval() {
+            Object value = input.value();
+            if (value == null) {
+                wasNull = true;
+                return 0;
+            }
+            wasNull = false;
+            return ((Number) value).intValue();
+        }
+    }
+
+    static final class Constant extends IntNode {
+
+        private final int value;
+
+        Constant(@Nullable Number value) {
+            this.wasNull = value == null;
+            this.value = value == null ? 0 : value.intValue();
+        }
+
+        @Override
+        int eval() {
+            return value;
+        }
+    }
+
+    static final class Binary extends IntNode {
+
+        private final Arithmetic op;
+        private final IntNode left;
+        private final IntNode right;
+
+        Binary(Arithmetic op, IntNode left, IntNode right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int eval() {
+            int leftValue = left.eval();
+            int rightValue = right.eval();
+            if (left.wasNull || right.wasNull) {
+                wasNull = true;
+                return 0;
+            }
+            wasNull = false;
+            return op.apply(leftValue, rightValue);
+        }
+    }
+
+    static final class Case extends IntNode {
+
+        private final BoolNode[] conditions;
+        private final IntNode[] results;
+        private final IntNode defaultResult;
+
+        Case(BoolNode[] conditions, IntNode[] results, IntNode defaultResult) {
+            assert conditions.length == results.length : "Must have one result per condition";
+            this.conditions = conditions;
+            this.results = results;
+            this.defaultResult = defaultResult;
+        }
+
+        @Override
+        int eval() {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].eval() == BoolNode.TRUE) {
+                    IntNode result = results[i];
+                    int value = result.eval();
+                    wasNull = result.wasNull;
+                    return value;
+                }
+            }
+            int value = defaultResult.eval();
+            wasNull = defaultResult.wasNull;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.Input;
+
+/**
+ * A compiled expression evaluating to a {@code long}.
+ * Each {@link #eval()} call sets {@link #wasNull}; the returned value is undefined if the result is null.
+ */
+abstract class LongNode {
+
+    boolean wasNull;
+
+    abstract long eval();
+
+    static final class FromInput extends LongNode {
+
+        private final Input<?> input;
+
+        FromInput(Input<?> input) {
+            this.input = input;
+        }
+
+        @Override
+        long eval() {
+            Object value = input.value();
+            if (value == null) {
+                wasNull = true;
+                return 0L;
+            }
+            wasNull = false;
+            return ((Number) value).longValue();
+        }
+    }
+
+    static final class Constant extends LongNode {
+
+        private final long value;
+
+        Constant(@Nullable Number value) {
+            this.wasNull = value == null;
+            this.value = value == null ? 0L : value.longValue();
+        }
+
+        @Override
+        long eval() {
+            return value;
+        }
+    }
+
+    static final class Binary extends LongNode {
+
+        private final Arithmetic op;
+        private final LongNode left;
+        private final LongNode right;
+
+        Binary(Arithmetic op, LongNode left, LongNode right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        long eval() {
+            long leftValue = left.eval();
+            long rightValue = right.eval();
+            if (left.wasNull || right.wasNull) {
+                wasNull = true;
+                return 0L;
+            }
+            wasNull = false;
+            return op.apply(leftValue, rightValue);
+        }
+    }
+
+    static final class FromInt extends LongNode {
+
+        private final IntNode source;
+
+        FromInt(IntNode source) {
+            this.source = source;
+        }
+
+        @Override
+        long eval() {
+            int value = source.eval();
+            wasNull = source.wasNull;
+            return value;
+        }
+    }
+
+    static final class Case extends LongNode {
+
+        private final BoolNode[] conditions;
+        private final LongNode[] results;
+        private final LongNode defaultResult;
+
+        Case(BoolNode[] conditions, LongNode[] results, LongNode defaultResult) {
+            assert conditions.length == results.length : "Must have one result per condition";
+            this.conditions = conditions;
+            this.results = results;
+            this.defaultResult = defaultResult;
+        }
+
+        @Override
+        long eval() {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].eval() == BoolNode.TRUE) {
+                    LongNode result = results[i];
+                    long value = result.eval();
+                    wasNull = result.wasNull;
+                    return value;
+                }
+            }
+            long value = defaultResult.eval();
+            wasNull = defaultResult.wasNull;
+            return value;
+        }
+    }
+}
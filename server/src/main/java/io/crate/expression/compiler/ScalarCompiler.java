@@ -0,0 +1,353 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import java.util.List;
+
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.Input;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.OrOperator;
+import io.crate.expression.predicate.IsNullPredicate;
+import io.crate.expression.predicate.NotPredicate;
+import io.crate.expression.scalar.cast.ExplicitCastFunction;
+import io.crate.expression.scalar.cast.ImplicitCastFunction;
+import io.crate.expression.scalar.conditional.CaseFunction;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.types.BooleanType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.TimestampType;
+
+/**
+ * Compiles a tree of scalar functions into nodes which operate on primitive values.
+ *
+ * <p>
+ * Supported are arithmetic, comparisons, {@code AND}, {@code OR}, {@code NOT}, {@code IS NULL},
+ * widening casts and {@code CASE} on boolean, integer, long, timestamp and double values.
+ * Arguments which aren't supported are evaluated by the interpreter and their result
+ * becomes an input of the compiled tree.
+ * </p>
+ *
+ * <p>
+ * Compared to the {@link io.crate.expression.FunctionExpression} tree created by the interpreter
+ * this avoids boxing the intermediate results and the per row argument arrays of
+ * {@link io.crate.metadata.Scalar#evaluate}.
+ * </p>
+ *
+ * <p>
+ * This is opt-in via {@link #SCALAR_COMPILER_ENABLED_SETTING}, which is applied to the
+ * {@link io.crate.expression.InputFactory} of the {@link io.crate.execution.jobs.JobSetup}.
+ * </p>
+ */
+public final class ScalarCompiler {
+
+    public static final Setting<Boolean> SCALAR_COMPILER_ENABLED_SETTING = Setting.boolSetting(
+        "scalar_compiler.enabled",
+        false,
+        Property.NodeScope
+    );
+
+    private enum Kind {
+        BOOLEAN,
+        INT,
+        LONG,
+        DOUBLE
+    }
+
+    private final java.util.function.Function<Symbol, Input<?>> interpreter;
+
+    private ScalarCompiler(java.util.function.Function<Symbol, Input<?>> interpreter) {
+        this.interpreter = interpreter;
+    }
+
+    /**
+     * @param interpreter creates the inputs for arguments which cannot be compiled.
+     * @return an input evaluating the function or null if the function cannot be compiled.
+     */
+    @Nullable
+    public static Input<?> compile(Function function, java.util.function.Function<Symbol, Input<?>> interpreter) {
+        if (!isSupported(function)) {
+            return null;
+        }
+        ScalarCompiler compiler = new ScalarCompiler(interpreter);
+        Kind kind = kindOf(function.valueType());
+        assert kind != null : "Supported function must have a supported return type";
+        return switch (kind) {
+            case BOOLEAN -> toInput(compiler.boolNode(function));
+            case INT -> toInput(compiler.intNode(function));
+            case LONG -> toInput(compiler.longNode(function));
+            case DOUBLE -> toInput(compiler.doubleNode(function));
+        };
+    }
+
+    private static Input<Boolean> toInput(BoolNode node) {
+        return () -> BoolNode.toBoolean(node.eval());
+    }
+
+    private static Input<Integer> toInput(IntNode node) {
+        return () -> {
+            int value = node.eval();
+            return node.wasNull ? null : value;
+        };
+    }
+
+    private static Input<Long> toInput(LongNode node) {
+        return () -> {
+            long value = node.eval();
+            return node.wasNull ? null : value;
+        };
+    }
+
+    private static Input<Double> toInput(DoubleNode node) {
+        return () -> {
+            double value = node.eval();
+            return node.wasNull ? null : value;
+        };
+    }
+
+    @Nullable
+    private static Kind kindOf(DataType<?> type) {
+        return switch (type.id()) {
+            case BooleanType.ID -> Kind.BOOLEAN;
+            case IntegerType.ID -> Kind.INT;
+            case LongType.ID, TimestampType.ID_WITH_TZ, TimestampType.ID_WITHOUT_TZ -> Kind.LONG;
+            case DoubleType.ID -> Kind.DOUBLE;
+            default -> null;
+        };
+    }
+
+    private static boolean isSupported(Function function) {
+        if (function.filter() != null || !function.signature().getName().isBuiltin()) {
+            return false;
+        }
+        Kind kind = kindOf(function.valueType());
+        if (kind == null) {
+            return false;
+        }
+        List<Symbol> args = function.arguments();
+        String name = function.name();
+        switch (name) {
+            case AndOperator.NAME:
+            case OrOperator.NAME:
+                return args.size() == 2;
+            case NotPredicate.NAME:
+                return args.size() == 1 && kindOf(args.get(0).valueType()) == Kind.BOOLEAN;
+            case IsNullPredicate.NAME:
+                return args.size() == 1;
+            case CaseFunction.NAME:
+                for (int i = 1; i < args.size(); i += 2) {
+                    if (!args.get(i).valueType().equals(function.valueType())) {
+                        return false;
+                    }
+                }
+                return true;
+            case ImplicitCastFunction.NAME:
+            case ExplicitCastFunction.NAME:
+                return isWideningCast(args.get(0).valueType(), function.valueType());
+            default:
+                if (Comparison.of(name) != null) {
+                    Kind argKind = kindOf(args.get(0).valueType());
+                    return argKind != null
+                        && argKind != Kind.BOOLEAN
+                        && args.get(0).valueType().id() == args.get(1).valueType().id();
+                }
+                if (Arithmetic.of(name) != null) {
+                    return kind != Kind.BOOLEAN
+                        && args.get(0).valueType().id() == function.valueType().id()
+                        && args.get(1).valueType().id() == function.valueType().id();
+                }
+                return false;
+        }
+    }
+
+    private static boolean isWideningCast(DataType<?> source, DataType<?> target) {
+        return switch (target.id()) {
+            case LongType.ID -> source.id() == LongType.ID || source.id() == IntegerType.ID;
+            case DoubleType.ID -> source.id() == DoubleType.ID || source.id() == LongType.ID || source.id() == IntegerType.ID;
+            default -> source.id() == target.id();
+        };
+    }
+
+    /**
+     * @return the function if it can be compiled into a node of the given kind, otherwise null.
+     */
+    @Nullable
+    private static Function compilable(Symbol symbol, Kind kind) {
+        if (symbol instanceof Function function
+            && kindOf(function.valueType()) == kind
+            && isSupported(function)) {
+            return function;
+        }
+        return null;
+    }
+
+    private static boolean isCast(Function function) {
+        return function.name().equals(ImplicitCastFunction.NAME) || function.name().equals(ExplicitCastFunction.NAME);
+    }
+
+    private BoolNode boolNode(Symbol symbol) {
+        if (symbol instanceof Literal<?> literal) {
+            return new BoolNode.Constant((Boolean) literal.value());
+        }
+        Function function = compilable(symbol, Kind.BOOLEAN);
+        if (function == null) {
+            return new BoolNode.FromInput(interpreter.apply(symbol));
+        }
+        List<Symbol> args = function.arguments();
+        switch (function.name()) {
+            case AndOperator.NAME:
+                return new BoolNode.And(boolNode(args.get(0)), boolNode(args.get(1)));
+            case OrOperator.NAME:
+                return new BoolNode.Or(boolNode(args.get(0)), boolNode(args.get(1)));
+            case NotPredicate.NAME:
+                return new BoolNode.Not(boolNode(args.get(0)));
+            case IsNullPredicate.NAME:
+                return new BoolNode.IsNull(interpreter.apply(args.get(0)));
+            case CaseFunction.NAME:
+                BoolNode[] results = new BoolNode[numCases(args)];
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = boolNode(args.get(3 + i * 2));
+                }
+                return new BoolNode.Case(conditions(args), results, boolNode(args.get(1)));
+            default:
+                if (isCast(function)) {
+                    return boolNode(args.get(0));
+                }
+                Comparison comparison = Comparison.of(function.name());
+                assert comparison != null : "Supported boolean function must be a comparison";
+                Symbol left = args.get(0);
+                Symbol right = args.get(1);
+                Kind argKind = kindOf(left.valueType());
+                assert argKind != null : "Supported comparison must have a supported argument type";
+                return switch (argKind) {
+                    case INT -> new BoolNode.CompareInt(comparison, intNode(left), intNode(right));
+                    case LONG -> new BoolNode.CompareLong(comparison, longNode(left), longNode(right));
+                    case DOUBLE -> new BoolNode.CompareDouble(comparison, doubleNode(left), doubleNode(right));
+                    case BOOLEAN -> throw new AssertionError("Comparison of booleans is not supported");
+                };
+        }
+    }
+
+    private IntNode intNode(Symbol symbol) {
+        if (symbol instanceof Literal<?> literal) {
+            return new IntNode.Constant((Number) literal.value());
+        }
+        Function function = compilable(symbol, Kind.INT);
+        if (function == null) {
+            return new IntNode.FromInput(interpreter.apply(symbol));
+        }
+        List<Symbol> args = function.arguments();
+        if (function.name().equals(CaseFunction.NAME)) {
+            IntNode[] results = new IntNode[numCases(args)];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = intNode(args.get(3 + i * 2));
+            }
+            return new IntNode.Case(conditions(args), results, intNode(args.get(1)));
+        }
+        if (isCast(function)) {
+            return intNode(args.get(0));
+        }
+        Arithmetic op = Arithmetic.of(function.name());
+        assert op != null : "Supported integer function must be an arithmetic function";
+        return new IntNode.Binary(op, intNode(args.get(0)), intNode(args.get(1)));
+    }
+
+    private LongNode longNode(Symbol symbol) {
+        if (symbol instanceof Literal<?> literal) {
+            return new LongNode.Constant((Number) literal.value());
+        }
+        Function function = compilable(symbol, Kind.LONG);
+        if (function == null) {
+            return new LongNode.FromInput(interpreter.apply(symbol));
+        }
+        List<Symbol> args = function.arguments();
+        if (function.name().equals(CaseFunction.NAME)) {
+            LongNode[] results = new LongNode[numCases(args)];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = longNode(args.get(3 + i * 2));
+            }
+            return new LongNode.Case(conditions(args), results, longNode(args.get(1)));
+        }
+        if (isCast(function)) {
+            Symbol source = args.get(0);
+            if (source.valueType().id() == IntegerType.ID) {
+                return new LongNode.FromInt(intNode(source));
+            }
+            return longNode(source);
+        }
+        Arithmetic op = Arithmetic.of(function.name());
+        assert op != null : "Supported long function must be an arithmetic function";
+        return new LongNode.Binary(op, longNode(args.get(0)), longNode(args.get(1)));
+    }
+
+    private DoubleNode doubleNode(Symbol symbol) {
+        if (symbol instanceof Literal<?> literal) {
+            return new DoubleNode.Constant((Number) literal.value());
+        }
+        Function function = compilable(symbol, Kind.DOUBLE);
+        if (function == null) {
+            return new DoubleNode.FromInput(interpreter.apply(symbol));
+        }
+        List<Symbol> args = function.arguments();
+        if (function.name().equals(CaseFunction.NAME)) {
+            DoubleNode[] results = new DoubleNode[numCases(args)];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = doubleNode(args.get(3 + i * 2));
+            }
+            return new DoubleNode.Case(conditions(args), results, doubleNode(args.get(1)));
+        }
+        if (isCast(function)) {
+            Symbol source = args.get(0);
+            return switch (source.valueType().id()) {
+                case IntegerType.ID -> new DoubleNode.FromInt(intNode(source));
+                case LongType.ID -> new DoubleNode.FromLong(longNode(source));
+                default -> doubleNode(source);
+            };
+        }
+        Arithmetic op = Arithmetic.of(function.name());
+        assert op != null : "Supported double function must be an arithmetic function";
+        return new DoubleNode.Binary(op, doubleNode(args.get(0)), doubleNode(args.get(1)));
+    }
+
+    /**
+     * The arguments of a CASE are {@code [true, default, condition1, value1, condition2, value2, ...]}
+     */
+    private static int numCases(List<Symbol> caseArgs) {
+        return (caseArgs.size() - 2) / 2;
+    }
+
+    private BoolNode[] conditions(List<Symbol> caseArgs) {
+        BoolNode[] conditions = new BoolNode[numCases(caseArgs)];
+        for (int i = 0; i < conditions.length; i++) {
+            conditions[i] = boolNode(caseArgs.get(2 + i * 2));
+        }
+        return conditions;
+    }
+}
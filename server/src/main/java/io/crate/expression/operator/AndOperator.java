@@ -30,6 +30,7 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 
 import io.crate.data.Input;
+import io.crate.expression.scalar.KnnMatch;
 import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
@@ -133,6 +134,30 @@ public class AndOperator extends Operator<Boolean> {
 
     @Override
     public Query toQuery(Function function, Context context) {
+        List<Symbol> conjunctions = split(function);
+        Function knnMatch = null;
+        for (Symbol symbol : conjunctions) {
+            if (symbol instanceof Function fn && fn.name().equals(KnnMatch.NAME)) {
+                if (knnMatch != null) {
+                    knnMatch = null;
+                    break;
+                }
+                knnMatch = fn;
+            }
+        }
+        if (knnMatch != null) {
+            // Apply the other conjunctions as pre-filter of the nearest neighbour search
+            BooleanQuery.Builder filter = new BooleanQuery.Builder();
+            for (Symbol symbol : conjunctions) {
+                if (symbol != knnMatch) {
+                    filter.add(symbol.accept(context.visitor(), context), BooleanClause.Occur.FILTER);
+                }
+            }
+            Query knnQuery = KnnMatch.toQuery(knnMatch, filter.build());
+            if (knnQuery != null) {
+                return knnQuery;
+            }
+        }
         BooleanQuery.Builder query = new BooleanQuery.Builder();
         for (Symbol symbol : function.arguments()) {
             query.add(symbol.accept(context.visitor(), context), BooleanClause.Occur.MUST);
@@ -21,13 +21,17 @@
 
 package io.crate.expression.operator;
 
+import java.util.List;
 import java.util.function.IntPredicate;
 
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
 
 import io.crate.data.Input;
+import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.lucene.LuceneQueryBuilder;
 import io.crate.metadata.IndexType;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.Reference;
@@ -68,54 +72,60 @@ public final class CmpOperator extends Operator<Object> {
         return isMatch.test(type.compare(left, right));
     }
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
     public static Query toQuery(String functionName, Reference ref, Object value) {
+        return toQuery(functionName, ref, value, false);
+    }
+
+    /**
+     * @param indexSorted true if the index is sorted by {@code ref}, see {@link LuceneQueryBuilder.Context#isIndexSortColumn(Reference)}
+     */
+    public static Query toQuery(String functionName, Reference ref, Object value, boolean indexSorted) {
         StorageSupport<?> storageSupport = ref.valueType().storageSupport();
         if (storageSupport == null) {
             return null;
         }
-        EqQuery eqQuery = storageSupport.eqQuery();
+        EqQuery<?> eqQuery = storageSupport.eqQuery();
         if (eqQuery == null) {
             return new MatchNoDocsQuery("For types that do not support EqQuery, a `x [>, >=, <, <=] <value>` is always considered a no-match");
         }
-        String field = ref.storageIdent();
         return switch (functionName) {
-            case GtOperator.NAME -> eqQuery.rangeQuery(
-                field,
-                value,
-                null,
-                false,
-                false,
-                ref.hasDocValues(),
-                ref.indexType() != IndexType.NONE);
-            case GteOperator.NAME -> eqQuery.rangeQuery(
-                field,
-                value,
-                null,
-                true,
-                false,
-                ref.hasDocValues(),
-                ref.indexType() != IndexType.NONE);
-            case LtOperator.NAME -> eqQuery.rangeQuery(
-                field,
-                null,
-                value,
-                false,
-                false,
-                ref.hasDocValues(),
-                ref.indexType() != IndexType.NONE);
-            case LteOperator.NAME -> eqQuery.rangeQuery(
-                field,
-                null,
-                value,
-                false,
-                true,
-                ref.hasDocValues(),
-                ref.indexType() != IndexType.NONE);
+            case GtOperator.NAME -> rangeQuery(eqQuery, ref, value, null, false, false, indexSorted);
+            case GteOperator.NAME -> rangeQuery(eqQuery, ref, value, null, true, false, indexSorted);
+            case LtOperator.NAME -> rangeQuery(eqQuery, ref, null, value, false, false, indexSorted);
+            case LteOperator.NAME -> rangeQuery(eqQuery, ref, null, value, false, true, indexSorted);
             default -> throw new IllegalArgumentException(functionName + " is not a supported comparison operator");
         };
     }
 
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Query rangeQuery(EqQuery eqQuery,
+                                    Reference ref,
+                                    Object lowerTerm,
+                                    Object upperTerm,
+                                    boolean includeLower,
+                                    boolean includeUpper,
+                                    boolean indexSorted) {
+        String field = ref.storageIdent();
+        boolean isIndexed = ref.indexType() != IndexType.NONE;
+        if (indexSorted) {
+            return eqQuery.indexSortRangeQuery(
+                field, lowerTerm, upperTerm, includeLower, includeUpper, ref.hasDocValues(), isIndexed);
+        }
+        return eqQuery.rangeQuery(
+            field, lowerTerm, upperTerm, includeLower, includeUpper, ref.hasDocValues(), isIndexed);
+    }
+
+    @Override
+    public Query toQuery(Function function, LuceneQueryBuilder.Context context) {
+        List<Symbol> args = function.arguments();
+        if (args.size() == 2
+            && args.get(0) instanceof Reference ref
+            && args.get(1) instanceof Literal<?> literal) {
+            return CmpOperator.toQuery(signature.getName().name(), ref, literal.value(), context.isIndexSortColumn(ref));
+        }
+        return null;
+    }
+
     @Override
     public Query toQuery(Reference ref, Literal<?> literal) {
         return CmpOperator.toQuery(signature.getName().name(), ref, literal.value());
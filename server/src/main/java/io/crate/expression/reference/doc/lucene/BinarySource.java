@@ -0,0 +1,397 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.CompressorFactory;
+import org.elasticsearch.common.io.stream.ByteBufferStreamInput;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+
+/**
+ * Binary encoding of the `_source` of a document.
+ *
+ * <pre>
+ *  header   | 0x00 'C' 'R' 'S' | version (byte)
+ *  count    | vInt number of top level columns
+ *  entries  | flags (byte) | OID (vLong) or name (string) | offset (vInt)   ... one per column
+ *  values   | fixed width value, vInt length prefixed string or JSON object  ... one per column
+ * </pre>
+ *
+ * <p>
+ * The flags contain the value type and whether the column is keyed by OID or by name.
+ * Offsets are relative to the start of the values, so that a single column can be
+ * read without decoding any of the other columns.
+ * </p>
+ *
+ * <p>
+ * Primitive values are stored with a fixed width (or length prefixed for strings).
+ * Objects, arrays and all other types are stored as JSON object containing the
+ * column, as written by the ValueIndexer of the column.
+ * </p>
+ *
+ * <p>
+ * JSON sources can never start with the header, which allows to read segments
+ * containing both formats.
+ * </p>
+ */
+public final class BinarySource {
+
+    private static final byte[] HEADER = new byte[] { 0x00, 'C', 'R', 'S' };
+    private static final byte VERSION = 1;
+
+    private static final int NAMED = 0x80;
+    private static final int TYPE_MASK = 0x7F;
+
+    static final byte JSON = 0;
+    static final byte BOOLEAN = 1;
+    static final byte BYTE = 2;
+    static final byte SHORT = 3;
+    static final byte INT = 4;
+    static final byte LONG = 5;
+    static final byte FLOAT = 6;
+    static final byte DOUBLE = 7;
+    static final byte STRING = 8;
+
+    private BinarySource() {
+    }
+
+    public static boolean isBinary(BytesReference source) {
+        if (source.length() <= HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if (source.get(i) != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the source as uncompressed JSON, converting it if it is binary encoded.
+     */
+    public static BytesReference asJson(BytesReference source) throws IOException {
+        if (isBinary(source) == false) {
+            return CompressorFactory.uncompressIfNeeded(source);
+        }
+        Reader reader = new Reader(source);
+        try (XContentBuilder builder = JsonXContent.builder()) {
+            builder.startObject();
+            for (int i = 0; i < reader.numColumns(); i++) {
+                if (reader.isJson(i)) {
+                    try (XContentParser parser = reader.jsonParser(i)) {
+                        parser.nextToken();
+                        while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                            builder.field(parser.currentName());
+                            parser.nextToken();
+                            builder.copyCurrentStructure(parser);
+                        }
+                    }
+                } else {
+                    builder.field(reader.key(i));
+                    builder.value(reader.value(i, false));
+                }
+            }
+            builder.endObject();
+            return BytesReference.bytes(builder);
+        }
+    }
+
+    /**
+     * @return the type used to store values of the given data type.
+     *         {@link #JSON} if there is no fixed width encoding for it.
+     */
+    static byte valueType(DataType<?> type) {
+        return switch (type.id()) {
+            case BooleanType.ID -> BOOLEAN;
+            case ByteType.ID -> BYTE;
+            case ShortType.ID -> SHORT;
+            case IntegerType.ID -> INT;
+            case LongType.ID, TimestampType.ID_WITH_TZ, TimestampType.ID_WITHOUT_TZ -> LONG;
+            case FloatType.ID -> FLOAT;
+            case DoubleType.ID -> DOUBLE;
+            case StringType.ID -> STRING;
+            default -> JSON;
+        };
+    }
+
+    /**
+     * Returns the OID encoded in a source key or -1 if the key is a column name.
+     */
+    private static long oid(String key) {
+        int length = key.length();
+        if (length == 0 || length > 18 || key.charAt(0) == '0') {
+            return -1;
+        }
+        long oid = 0;
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            oid = oid * 10 + (c - '0');
+        }
+        return oid;
+    }
+
+    /**
+     * Builds binary sources. Instances are re-used across documents and are not thread-safe.
+     */
+    public static final class Writer {
+
+        private final BytesStreamOutput entries = new BytesStreamOutput();
+        private final BytesStreamOutput values = new BytesStreamOutput();
+        private final BytesStreamOutput json = new BytesStreamOutput();
+        private final XContentBuilder discard;
+        private int numColumns = 0;
+
+        public Writer() {
+            try {
+                discard = XContentFactory.json(OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void reset() {
+            entries.reset();
+            values.reset();
+            numColumns = 0;
+        }
+
+        /**
+         * Writes the value if there is a fixed width encoding for the type.
+         *
+         * @return false if the value must be written via {@link #startJson(String)} instead.
+         */
+        public boolean writeValue(String key, DataType<?> type, Object value) throws IOException {
+            byte valueType = valueType(type);
+            if (valueType == JSON) {
+                return false;
+            }
+            writeEntry(key, valueType);
+            switch (valueType) {
+                case BOOLEAN -> values.writeBoolean((Boolean) value);
+                case BYTE -> values.writeByte(((Number) value).byteValue());
+                case SHORT -> values.writeShort(((Number) value).shortValue());
+                case INT -> values.writeInt(((Number) value).intValue());
+                case LONG -> values.writeLong(((Number) value).longValue());
+                case FLOAT -> values.writeFloat(((Number) value).floatValue());
+                case DOUBLE -> values.writeDouble(((Number) value).doubleValue());
+                case STRING -> values.writeString((String) value);
+                default -> throw new AssertionError("Unexpected value type: " + valueType);
+            }
+            return true;
+        }
+
+        /**
+         * Builder to use for the ValueIndexer of values written with {@link #writeValue(String, DataType, Object)}.
+         * Anything written to it is dropped.
+         */
+        public XContentBuilder discard() {
+            return discard;
+        }
+
+        /**
+         * Starts a JSON object for the column. The caller must add the column to the
+         * returned builder and finish it with {@link #endJson(XContentBuilder)}
+         */
+        public XContentBuilder startJson(String key) throws IOException {
+            writeEntry(key, JSON);
+            json.reset();
+            XContentBuilder builder = XContentFactory.json(json);
+            builder.startObject();
+            return builder;
+        }
+
+        public void endJson(XContentBuilder builder) throws IOException {
+            builder.endObject();
+            builder.close();
+            values.writeVInt(json.size());
+            json.bytes().writeTo(values);
+        }
+
+        /**
+         * Writes the source into {@code out} and resets the writer.
+         */
+        public BytesReference finish(BytesStreamOutput out) throws IOException {
+            out.writeBytes(HEADER);
+            out.writeByte(VERSION);
+            out.writeVInt(numColumns);
+            entries.bytes().writeTo(out);
+            values.bytes().writeTo(out);
+            reset();
+            return out.bytes();
+        }
+
+        private void writeEntry(String key, byte valueType) throws IOException {
+            long oid = oid(key);
+            if (oid == -1) {
+                entries.writeByte((byte) (valueType | NAMED));
+                entries.writeString(key);
+            } else {
+                entries.writeByte(valueType);
+                entries.writeVLong(oid);
+            }
+            entries.writeVInt(values.size());
+            numColumns++;
+        }
+    }
+
+    /**
+     * Random access to the columns of a binary source.
+     * Only the entries are decoded on creation, values are decoded on access.
+     */
+    public static final class Reader {
+
+        private final ByteBuffer buffer;
+        private final ByteBufferStreamInput in;
+        private final String[] keys;
+        private final byte[] valueTypes;
+        private final int[] offsets;
+        private final int valuesStart;
+
+        public Reader(BytesReference source) throws IOException {
+            assert isBinary(source) : "source must be binary encoded";
+            BytesRef ref = source.toBytesRef();
+            buffer = ByteBuffer.wrap(ref.bytes, ref.offset, ref.length);
+            in = new ByteBufferStreamInput(buffer);
+            buffer.position(ref.offset + HEADER.length);
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported binary source version: " + version);
+            }
+            int numColumns = in.readVInt();
+            keys = new String[numColumns];
+            valueTypes = new byte[numColumns];
+            offsets = new int[numColumns];
+            for (int i = 0; i < numColumns; i++) {
+                int flags = in.readByte() & 0xFF;
+                keys[i] = (flags & NAMED) == 0 ? Long.toString(in.readVLong()) : in.readString();
+                valueTypes[i] = (byte) (flags & TYPE_MASK);
+                offsets[i] = in.readVInt();
+            }
+            valuesStart = buffer.position();
+        }
+
+        public int numColumns() {
+            return keys.length;
+        }
+
+        /**
+         * Key of the column in the source; The OID or the name of the column
+         */
+        public String key(int column) {
+            return keys[column];
+        }
+
+        /**
+         * @return true if the value must be read using {@link #jsonParser(int)}
+         */
+        public boolean isJson(int column) {
+            return valueTypes[column] == JSON;
+        }
+
+        /**
+         * Parser positioned before the START_OBJECT of the JSON object that contains the column.
+         */
+        public XContentParser jsonParser(int column) throws IOException {
+            assert isJson(column) : "column must be stored as JSON";
+            buffer.position(valuesStart + offsets[column]);
+            int length = in.readVInt();
+            return XContentType.JSON.xContent().createParser(
+                NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                buffer.array(),
+                buffer.position(),
+                length
+            );
+        }
+
+        /**
+         * @param asJsonTypes if true, numbers are returned using the types that
+         *                    parsing them from JSON without a data type would result in.
+         */
+        @Nullable
+        public Object value(int column, boolean asJsonTypes) throws IOException {
+            assert !isJson(column) : "column must not be stored as JSON";
+            buffer.position(valuesStart + offsets[column]);
+            switch (valueTypes[column]) {
+                case BOOLEAN:
+                    return in.readBoolean();
+                case BYTE: {
+                    byte value = in.readByte();
+                    return asJsonTypes ? (Object) (int) value : (Object) value;
+                }
+                case SHORT: {
+                    short value = in.readShort();
+                    return asJsonTypes ? (Object) (int) value : (Object) value;
+                }
+                case INT:
+                    return in.readInt();
+                case LONG: {
+                    long value = in.readLong();
+                    if (asJsonTypes && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                        return (int) value;
+                    }
+                    return value;
+                }
+                case FLOAT: {
+                    float value = in.readFloat();
+                    // JSON contains the shortest representation of the float, which is parsed as double
+                    return asJsonTypes ? (Object) Double.parseDouble(Float.toString(value)) : (Object) value;
+                }
+                case DOUBLE:
+                    return in.readDouble();
+                case STRING:
+                    return in.readString();
+                default:
+                    throw new IllegalStateException("Unsupported value type in binary source: " + valueTypes[column]);
+            }
+        }
+    }
+}
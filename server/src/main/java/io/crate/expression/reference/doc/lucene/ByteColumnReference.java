@@ -29,11 +29,12 @@ import org.apache.lucene.index.SortedNumericDocValues;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 
-public class ByteColumnReference extends LuceneCollectorExpression<Byte> {
+public class ByteColumnReference extends LuceneCollectorExpression<Byte> implements NumericDocValuesExpression {
 
     private final String columnName;
     private SortedNumericDocValues values;
     private int docId;
+    private long longValue;
 
     public ByteColumnReference(String columnName) {
         this.columnName = columnName;
@@ -59,6 +60,23 @@ public class ByteColumnReference extends LuceneCollectorExpression<Byte> {
         }
     }
 
+    @Override
+    public boolean advanceExact() throws IOException {
+        if (values.advanceExact(docId)) {
+            if (values.docValueCount() == 1) {
+                longValue = values.nextValue();
+                return true;
+            }
+            throw new ArrayViaDocValuesUnsupportedException(columnName);
+        }
+        return false;
+    }
+
+    @Override
+    public long longValue() {
+        return longValue;
+    }
+
     @Override
     public void setNextDocId(int docId) {
         this.docId = docId;
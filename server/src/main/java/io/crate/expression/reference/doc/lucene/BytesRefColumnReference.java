@@ -26,6 +26,7 @@ import java.io.UncheckedIOException;
 
 import io.crate.execution.engine.fetch.ReaderContext;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.SortedSetDocValues;
 import org.elasticsearch.index.fielddata.FieldData;
 import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
 
@@ -34,6 +35,7 @@ import io.crate.exceptions.ArrayViaDocValuesUnsupportedException;
 public class BytesRefColumnReference extends LuceneCollectorExpression<String> {
 
     private final String columnName;
+    private SortedSetDocValues ordinals;
     private SortedBinaryDocValues values;
     private int docId;
 
@@ -58,6 +60,24 @@ public class BytesRefColumnReference extends LuceneCollectorExpression<String> {
         }
     }
 
+    /**
+     * @return the ordinal of the value of the current document within the current reader,
+     *         or -1 if the document has no value. See {@link #lookupOrd(long)}
+     */
+    public long ord() throws IOException {
+        if (ordinals.advanceExact(docId)) {
+            if (ordinals.docValueCount() == 1) {
+                return ordinals.nextOrd();
+            }
+            throw new ArrayViaDocValuesUnsupportedException(columnName);
+        }
+        return -1;
+    }
+
+    public String lookupOrd(long ord) throws IOException {
+        return ordinals.lookupOrd(ord).utf8ToString();
+    }
+
     @Override
     public void setNextDocId(int docId) {
         this.docId = docId;
@@ -66,7 +86,8 @@ public class BytesRefColumnReference extends LuceneCollectorExpression<String> {
     @Override
     public void setNextReader(ReaderContext context) throws IOException {
         super.setNextReader(context);
-        values = FieldData.toString(DocValues.getSortedSet(context.reader(), columnName));
+        ordinals = DocValues.getSortedSet(context.reader(), columnName);
+        values = FieldData.toString(ordinals);
     }
 }
 
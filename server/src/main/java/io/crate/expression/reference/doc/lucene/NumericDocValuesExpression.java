@@ -0,0 +1,46 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import java.io.IOException;
+
+import io.crate.exceptions.ArrayViaDocValuesUnsupportedException;
+
+/**
+ * A {@link LuceneCollectorExpression} backed by single-valued numeric doc values
+ * which can provide the raw value of the current document without boxing it.
+ */
+public interface NumericDocValuesExpression {
+
+    /**
+     * Reads the value of the current document, making it available via {@link #longValue()}.
+     *
+     * @return false if the document has no value
+     * @throws ArrayViaDocValuesUnsupportedException if the document has more than one value
+     */
+    boolean advanceExact() throws IOException;
+
+    /**
+     * @return the value read by the last successful {@link #advanceExact()}
+     */
+    long longValue();
+}
@@ -22,7 +22,6 @@
 package io.crate.expression.reference.doc.lucene;
 
 import io.crate.execution.engine.fetch.ReaderContext;
-import org.elasticsearch.common.compress.CompressorFactory;
 
 import java.io.IOException;
 
@@ -49,9 +48,9 @@ public class RawCollectorExpression extends LuceneCollectorExpression<String> {
     @Override
     public String value() {
         try {
-            return CompressorFactory.uncompressIfNeeded(sourceLookup.rawSource()).utf8ToString();
+            return BinarySource.asJson(sourceLookup.rawSource()).utf8ToString();
         } catch (IOException e) {
-            throw new RuntimeException("Failed to uncompress source", e);
+            throw new RuntimeException("Failed to read source", e);
         }
     }
 }
@@ -29,11 +29,12 @@ import org.apache.lucene.index.SortedNumericDocValues;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 
-public class ShortColumnReference extends LuceneCollectorExpression<Short> {
+public class ShortColumnReference extends LuceneCollectorExpression<Short> implements NumericDocValuesExpression {
 
     private final String columnName;
     private SortedNumericDocValues values;
     private int docId;
+    private long longValue;
 
     public ShortColumnReference(String columnName) {
         this.columnName = columnName;
@@ -58,6 +59,23 @@ public class ShortColumnReference extends LuceneCollectorExpression<Short> {
         }
     }
 
+    @Override
+    public boolean advanceExact() throws IOException {
+        if (values.advanceExact(docId)) {
+            if (values.docValueCount() == 1) {
+                longValue = values.nextValue();
+                return true;
+            }
+            throw new ArrayViaDocValuesUnsupportedException(columnName);
+        }
+        return false;
+    }
+
+    @Override
+    public long longValue() {
+        return longValue;
+    }
+
     @Override
     public void setNextDocId(int docId) {
         this.docId = docId;
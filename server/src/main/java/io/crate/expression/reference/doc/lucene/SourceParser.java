@@ -137,6 +137,13 @@ public final class SourceParser {
     }
 
     public Map<String, Object> parse(BytesReference bytes, boolean includeUnknownCols) {
+        if (BinarySource.isBinary(bytes)) {
+            try {
+                return parseBinary(new BinarySource.Reader(bytes), includeUnknownCols);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         try (InputStream inputStream = XContentHelper.getUncompressedInputStream(bytes);
              XContentParser parser = XContentType.JSON.xContent().createParser(
                  NamedXContentRegistry.EMPTY,
@@ -164,6 +171,41 @@ public final class SourceParser {
         return parse(bytes, false);
     }
 
+    /**
+     * Like {@link #parseObject(XContentParser, Map, Set, UnaryOperator, StringBuilder, boolean)} for the top level
+     * columns, but columns which are not required are skipped without decoding them.
+     */
+    private Map<String, Object> parseBinary(BinarySource.Reader reader, boolean includeUnknown) throws IOException {
+        boolean parseAllFields = requiredColumns.isEmpty();
+        HashMap<String, Object> values = new HashMap<>();
+        StringBuilder colPath = new StringBuilder();
+        for (int i = 0; i < reader.numColumns(); i++) {
+            String fieldName = lookupNameBySourceKey.apply(reader.key(i));
+            Object required = requiredColumns.get(fieldName);
+            if ((parseAllFields == false && required == null && !includeUnknown) || droppedColumns.contains(fieldName)) {
+                continue;
+            }
+            if (reader.isJson(i)) {
+                try (XContentParser parser = reader.jsonParser(i)) {
+                    parser.nextToken();
+                    values.putAll(parseObject(
+                        parser,
+                        requiredColumns,
+                        droppedColumns,
+                        lookupNameBySourceKey,
+                        colPath,
+                        includeUnknown
+                    ));
+                }
+            } else if (required instanceof DataType<?> type && BinarySource.valueType(type) != BinarySource.JSON) {
+                values.put(fieldName, type.sanitizeValue(reader.value(i, false)));
+            } else {
+                values.put(fieldName, reader.value(i, true));
+            }
+        }
+        return values;
+    }
+
     private static Object parseArray(XContentParser parser,
                                      @Nullable DataType<?> type,
                                      @Nullable Map<String, Object> requiredColumns,
@@ -383,4 +383,20 @@ public class ShardRowContext {
     public long flushPeriodicCount() {
         return indexShard.periodicFlushCount();
     }
+
+    public long resultCacheHits() {
+        return indexShard.resultCacheStats().hits();
+    }
+
+    public long resultCacheMisses() {
+        return indexShard.resultCacheStats().misses();
+    }
+
+    public long resultCacheEvictions() {
+        return indexShard.resultCacheStats().evictions();
+    }
+
+    public long resultCacheSizeInBytes() {
+        return indexShard.resultCacheStats().sizeInBytes();
+    }
 }
@@ -46,10 +46,12 @@ import io.crate.types.TypeSignature;
 
 public class KnnMatch extends Scalar<Boolean, Object> {
 
+    public static final String NAME = "knn_match";
+
     public static void register(Functions.Builder module) {
         module.add(
             Signature.scalar(
-                "knn_match",
+                NAME,
                 TypeSignature.parse(FloatVectorType.NAME),
                 TypeSignature.parse(FloatVectorType.NAME),
                 DataTypes.INTEGER.getTypeSignature(),
@@ -74,6 +76,16 @@ public class KnnMatch extends Scalar<Boolean, Object> {
     @Override
     @Nullable
     public Query toQuery(Function function, Context context) {
+        return toQuery(function, null);
+    }
+
+    /**
+     * @param filter restricts the candidates of the nearest neighbour search.
+     *               The k nearest neighbours are searched among the documents matching the filter, instead of
+     *               filtering the k nearest neighbours of all documents.
+     */
+    @Nullable
+    public static Query toQuery(Function function, @Nullable Query filter) {
         List<Symbol> args = function.arguments();
         if (args.get(0) instanceof Reference ref
                 && args.get(1) instanceof Literal<?> targetLiteral
@@ -82,7 +94,7 @@ public class KnnMatch extends Scalar<Boolean, Object> {
             Object target = targetLiteral.value();
             Object k = kLiteral.value();
             if (target instanceof float[] && k instanceof Integer) {
-                return new KnnFloatVectorQuery(ref.storageIdent(), (float[]) target, (int) k);
+                return new KnnFloatVectorQuery(ref.storageIdent(), (float[]) target, (int) k, filter);
             }
             return null;
         }
@@ -32,6 +32,7 @@ import io.crate.metadata.GeneratedReference;
 import io.crate.metadata.GeoReference;
 import io.crate.metadata.IndexReference;
 import io.crate.metadata.SimpleReference;
+import io.crate.metadata.VectorReference;
 
 public enum SymbolType {
 
@@ -59,7 +60,9 @@ public enum SymbolType {
     FETCH_STUB(in -> {
         throw new UnsupportedEncodingException("FetchStub is not streamable");
     }),
-    VOID_REFERENCE(VoidReference::new);
+    VOID_REFERENCE(VoidReference::new),
+    // Added in 5.8
+    VECTOR_REFERENCE(VectorReference::new);
 
     public static final List<SymbolType> VALUES = List.of(values());
 
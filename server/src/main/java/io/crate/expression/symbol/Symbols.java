@@ -41,6 +41,7 @@ import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.FunctionType;
 import io.crate.metadata.GeneratedReference;
 import io.crate.metadata.Reference;
+import io.crate.metadata.VectorReference;
 import io.crate.sql.tree.ColumnDefinition;
 import io.crate.sql.tree.ColumnPolicy;
 import io.crate.sql.tree.Expression;
@@ -142,7 +143,7 @@ public final class Symbols {
             out.writeBoolean(false);
         } else {
             out.writeBoolean(true);
-            out.writeVInt(symbol.symbolType().ordinal());
+            out.writeVInt(VectorReference.symbolType(symbol, out.getVersion()).ordinal());
             symbol.writeTo(out);
         }
     }
@@ -151,7 +152,7 @@ public final class Symbols {
         if (out.getVersion().before(Version.V_4_2_0) && symbol instanceof AliasSymbol aliasSymbol) {
             toStream(aliasSymbol.symbol(), out);
         } else {
-            int ordinal = symbol.symbolType().ordinal();
+            int ordinal = VectorReference.symbolType(symbol, out.getVersion()).ordinal();
             out.writeVInt(ordinal);
             symbol.writeTo(out);
         }
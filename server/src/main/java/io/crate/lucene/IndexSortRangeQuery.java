@@ -0,0 +1,324 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.lucene;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.ConstantScoreScorer;
+import org.apache.lucene.search.ConstantScoreWeight;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.Weight;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Range query on a numeric column with doc values which takes advantage of the index sort of a segment.
+ *
+ * <p>
+ * If the segment is sorted by the column (See {@link org.elasticsearch.index.IndexSortConfig}), the matching
+ * documents form a contiguous block of doc ids. The bounds of that block are found with a binary search over the
+ * doc values, and only the documents within it are visited. All other documents are skipped without reading their
+ * values.
+ * </p>
+ *
+ * <p>
+ * On segments which are not sorted by the column, or if the column has multiple values per document, the
+ * {@code fallbackQuery} is used.
+ * </p>
+ */
+public final class IndexSortRangeQuery extends Query {
+
+    private final String field;
+    private final long lower;
+    private final long upper;
+    private final Query fallbackQuery;
+
+    /**
+     * @param lower inclusive lower bound
+     * @param upper inclusive upper bound
+     * @param fallbackQuery query matching the same documents, used for segments which are not sorted by the field.
+     */
+    public IndexSortRangeQuery(String field, long lower, long upper, Query fallbackQuery) {
+        this.field = field;
+        this.lower = lower;
+        this.upper = upper;
+        this.fallbackQuery = fallbackQuery;
+    }
+
+    public Query fallbackQuery() {
+        return fallbackQuery;
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+        if (lower > upper) {
+            return new MatchNoDocsQuery();
+        }
+        Query rewritten = fallbackQuery.rewrite(indexSearcher);
+        if (rewritten != fallbackQuery) {
+            return new IndexSortRangeQuery(field, lower, upper, rewritten);
+        }
+        return super.rewrite(indexSearcher);
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        fallbackQuery.visit(visitor.getSubVisitor(BooleanClause.Occur.MUST, this));
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        Weight fallbackWeight = fallbackQuery.createWeight(searcher, scoreMode, boost);
+        return new ConstantScoreWeight(this, boost) {
+
+            @Override
+            public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
+                LeafReader reader = context.reader();
+                SortedNumericSortField sortField = leadingSortField(reader);
+                if (sortField == null) {
+                    return fallbackWeight.scorerSupplier(context);
+                }
+                SortedNumericDocValues sortedValues = reader.getSortedNumericDocValues(field);
+                if (sortedValues == null) {
+                    return null;
+                }
+                if (DocValues.unwrapSingleton(sortedValues) == null) {
+                    // The sort key of a document is only one of its values; matches aren't contiguous
+                    return fallbackWeight.scorerSupplier(context);
+                }
+                Object missingValue = sortField.getMissingValue();
+                SortKeys sortKeys = new SortKeys(reader, field, missingValue == null ? 0L : (Long) missingValue);
+                int maxDoc = reader.maxDoc();
+                int first;
+                int last;
+                if (sortField.getReverse()) {
+                    first = firstDoc(sortKeys, maxDoc, upper, true);
+                    last = lower == Long.MIN_VALUE ? maxDoc : firstDoc(sortKeys, maxDoc, lower - 1, true);
+                } else {
+                    first = firstDoc(sortKeys, maxDoc, lower, false);
+                    last = upper == Long.MAX_VALUE ? maxDoc : firstDoc(sortKeys, maxDoc, upper + 1, false);
+                }
+                if (first >= last) {
+                    return null;
+                }
+                NumericDocValues values = DocValues.unwrapSingleton(reader.getSortedNumericDocValues(field));
+                RangeIterator iterator = new RangeIterator(values, first, last, lower, upper);
+                Scorer scorer = new ConstantScoreScorer(this, score(), scoreMode, iterator);
+                return new ScorerSupplier() {
+
+                    @Override
+                    public Scorer get(long leadCost) {
+                        return scorer;
+                    }
+
+                    @Override
+                    public long cost() {
+                        return iterator.cost();
+                    }
+                };
+            }
+
+            @Override
+            public Scorer scorer(LeafReaderContext context) throws IOException {
+                ScorerSupplier scorerSupplier = scorerSupplier(context);
+                if (scorerSupplier == null) {
+                    return null;
+                }
+                return scorerSupplier.get(Long.MAX_VALUE);
+            }
+
+            @Override
+            public int count(LeafReaderContext context) throws IOException {
+                return fallbackWeight.count(context);
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                return fallbackWeight.isCacheable(ctx);
+            }
+        };
+    }
+
+    /**
+     * @return the first sort field of the segment if it sorts by {@link #field}, otherwise null.
+     */
+    @Nullable
+    private SortedNumericSortField leadingSortField(LeafReader reader) {
+        Sort indexSort = reader.getMetaData().getSort();
+        if (indexSort == null) {
+            return null;
+        }
+        SortField sortField = indexSort.getSort()[0];
+        if (sortField instanceof SortedNumericSortField numericSortField
+            && numericSortField.getNumericType() == SortField.Type.LONG
+            && field.equals(numericSortField.getField())) {
+            return numericSortField;
+        }
+        return null;
+    }
+
+    /**
+     * Binary search for the first doc whose sort key is {@code >= value} (or {@code <= value} if the segment is sorted
+     * in descending order).
+     *
+     * @return the doc id or {@code maxDoc} if there is no such doc
+     */
+    private static int firstDoc(SortKeys sortKeys, int maxDoc, long value, boolean reverse) throws IOException {
+        int low = 0;
+        int high = maxDoc;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long key = sortKeys.get(mid);
+            boolean atOrPast = reverse ? key <= value : key >= value;
+            if (atOrPast) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Random access to the sort keys of a segment. Doc values iterators can only move forward, so a new iterator is
+     * pulled whenever a lower doc id is requested.
+     */
+    private static final class SortKeys {
+
+        private final LeafReader reader;
+        private final String field;
+        private final long missingValue;
+        private NumericDocValues values;
+
+        SortKeys(LeafReader reader, String field, long missingValue) {
+            this.reader = reader;
+            this.field = field;
+            this.missingValue = missingValue;
+        }
+
+        long get(int doc) throws IOException {
+            if (values == null || values.docID() > doc) {
+                values = DocValues.unwrapSingleton(reader.getSortedNumericDocValues(field));
+            }
+            if (values.advanceExact(doc)) {
+                return values.longValue();
+            }
+            return missingValue;
+        }
+    }
+
+    /**
+     * Iterates the docs within {@code [first, last)} which have a value within {@code [lower, upper]}.
+     */
+    private static final class RangeIterator extends DocIdSetIterator {
+
+        private final NumericDocValues values;
+        private final int first;
+        private final int last;
+        private final long lower;
+        private final long upper;
+        private int doc = -1;
+
+        RangeIterator(NumericDocValues values, int first, int last, long lower, long upper) {
+            this.values = values;
+            this.first = first;
+            this.last = last;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        @Override
+        public int docID() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return advance(doc + 1);
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            int candidate = Math.max(target, first);
+            while (candidate < last) {
+                candidate = values.advance(candidate);
+                if (candidate >= last) {
+                    break;
+                }
+                long value = values.longValue();
+                if (value >= lower && value <= upper) {
+                    doc = candidate;
+                    return doc;
+                }
+                candidate++;
+            }
+            doc = NO_MORE_DOCS;
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            return last - first;
+        }
+    }
+
+    @Override
+    public String toString(String field) {
+        return fallbackQuery.toString(field);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!sameClassAs(o)) {
+            return false;
+        }
+        IndexSortRangeQuery that = (IndexSortRangeQuery) o;
+        return lower == that.lower
+            && upper == that.upper
+            && field.equals(that.field)
+            && fallbackQuery.equals(that.fallbackQuery);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), field, lower, upper, fallbackQuery);
+    }
+}
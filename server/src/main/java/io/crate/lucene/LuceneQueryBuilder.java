@@ -38,6 +38,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryCache;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.index.IndexSortConfig;
 import org.elasticsearch.index.analysis.IndexAnalyzers;
 import org.elasticsearch.index.analysis.NamedAnalyzer;
 import org.jetbrains.annotations.Nullable;
@@ -170,6 +171,13 @@ public class LuceneQueryBuilder {
             return UNSUPPORTED_FIELDS.get(field);
         }
 
+        /**
+         * @return true if the table is sorted by the given column, see {@link IndexSortConfig#INDEX_SORT_COLUMNS_SETTING}
+         */
+        public boolean isIndexSortColumn(Reference ref) {
+            return table.isIndexSortColumn(ref.column());
+        }
+
         /**
          * These fields are ignored in the whereClause.
          * If a filtered field is encountered the value of the literal is written into filteredFieldValues
@@ -0,0 +1,107 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.lucene.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.MappingMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.common.collections.Maps;
+import io.crate.types.FloatVectorType;
+
+/**
+ * Resolves the {@link KnnVectorsFormat} of a field out of the {@link VectorIndexOptions} stored in the mapping of
+ * an index. Returns null for fields using the default options.
+ *
+ * <p>
+ * The formats are only used to write segments; segments are read with the format recorded in their field infos.
+ * </p>
+ */
+public final class MappedKnnVectorsFormats implements Function<String, KnnVectorsFormat> {
+
+    private final Supplier<IndexMetadata> indexMetadata;
+
+    @Nullable
+    private MappingMetadata mapping;
+    private Map<String, KnnVectorsFormat> formats = Map.of();
+
+    public MappedKnnVectorsFormats(Supplier<IndexMetadata> indexMetadata) {
+        this.indexMetadata = indexMetadata;
+    }
+
+    @Override
+    @Nullable
+    public synchronized KnnVectorsFormat apply(String field) {
+        MappingMetadata currentMapping = indexMetadata.get().mapping();
+        if (currentMapping != mapping) {
+            formats = currentMapping == null ? Map.of() : formatsByField(currentMapping.sourceAsMap());
+            mapping = currentMapping;
+        }
+        return formats.get(field);
+    }
+
+    static Map<String, KnnVectorsFormat> formatsByField(Map<String, Object> mappingSource) {
+        Map<String, Object> properties = Maps.get(mappingSource, "properties");
+        if (properties == null) {
+            return Map.of();
+        }
+        Map<String, KnnVectorsFormat> formats = new HashMap<>();
+        addFormats(null, properties, formats, new HashMap<>());
+        return formats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addFormats(@Nullable String parentPath,
+                                   Map<String, Object> properties,
+                                   Map<String, KnnVectorsFormat> formats,
+                                   Map<VectorIndexOptions, KnnVectorsFormat> formatsByOptions) {
+        for (var entry : properties.entrySet()) {
+            String path = parentPath == null ? entry.getKey() : parentPath + "." + entry.getKey();
+            Map<String, Object> columnProperties = (Map<String, Object>) entry.getValue();
+            if (FloatVectorType.NAME.equals(columnProperties.get("type"))) {
+                VectorIndexOptions indexOptions = VectorIndexOptions.fromMapping(columnProperties);
+                if (!indexOptions.equals(VectorIndexOptions.DEFAULT)) {
+                    Number oid = Maps.getOrDefault(columnProperties, "oid", Metadata.COLUMN_OID_UNASSIGNED);
+                    String storageIdent = oid.longValue() == Metadata.COLUMN_OID_UNASSIGNED
+                        ? path
+                        : Long.toString(oid.longValue());
+                    // Fields with the same options share a format and therefore the files of a segment
+                    formats.put(
+                        storageIdent,
+                        formatsByOptions.computeIfAbsent(indexOptions, VectorIndexOptions::knnVectorsFormat)
+                    );
+                }
+            }
+            Map<String, Object> childProperties = Maps.get(columnProperties, "properties");
+            if (childProperties != null) {
+                addFormats(path, childProperties, formats, formatsByOptions);
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.lucene.codec;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswScalarQuantizedVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import io.crate.types.FloatVectorType;
+
+/**
+ * Options of the HNSW graph of a {@link FloatVectorType} column.
+ *
+ * <pre>
+ *  v float_vector(768) INDEX USING hnsw WITH (
+ *      similarity = 'cosine',
+ *      quantization = 'int8',
+ *      m = 16,
+ *      ef_construction = 100
+ *  )
+ * </pre>
+ *
+ * Only options which differ from the defaults are stored in the mapping of the column.
+ */
+public record VectorIndexOptions(VectorSimilarityFunction similarity,
+                                 Quantization quantization,
+                                 int m,
+                                 int efConstruction) implements Writeable {
+
+    public static final String INDEX_METHOD = "hnsw";
+
+    public static final String SIMILARITY = "similarity";
+    public static final String QUANTIZATION = "quantization";
+    public static final String M = "m";
+    public static final String EF_CONSTRUCTION = "ef_construction";
+
+    private static final List<String> PROPERTIES = List.of(SIMILARITY, QUANTIZATION, M, EF_CONSTRUCTION);
+
+    public static final VectorIndexOptions DEFAULT = new VectorIndexOptions(
+        FloatVectorType.SIMILARITY_FUNC,
+        Quantization.NONE,
+        Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN,
+        Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH
+    );
+
+    public enum Quantization {
+        /**
+         * Vectors are stored as float32
+         */
+        NONE,
+        /**
+         * Vectors are scalar quantized to one byte per dimension
+         */
+        INT8,
+        /**
+         * Vectors are scalar quantized to half a byte per dimension
+         */
+        INT4;
+
+        private static final List<Quantization> VALUES = List.of(values());
+    }
+
+    public VectorIndexOptions {
+        if (m < 2 || m > 512) {
+            throw new IllegalArgumentException(
+                "Invalid value for HNSW option `m`: " + m + ". Must be between 2 and 512");
+        }
+        if (efConstruction < 1 || efConstruction > 3200) {
+            throw new IllegalArgumentException(
+                "Invalid value for HNSW option `ef_construction`: " + efConstruction + ". Must be between 1 and 3200");
+        }
+    }
+
+    public VectorIndexOptions(StreamInput in) throws IOException {
+        this(
+            VectorSimilarityFunction.values()[in.readVInt()],
+            Quantization.VALUES.get(in.readVInt()),
+            in.readVInt(),
+            in.readVInt()
+        );
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(similarity.ordinal());
+        out.writeVInt(quantization.ordinal());
+        out.writeVInt(m);
+        out.writeVInt(efConstruction);
+    }
+
+    /**
+     * Creates the options out of the properties of an {@code INDEX USING hnsw WITH (...)} clause or out of the
+     * mapping of a column.
+     *
+     * @throws IllegalArgumentException if there is an unknown property or a property has an invalid value
+     */
+    public static VectorIndexOptions of(Map<String, Object> properties) {
+        VectorSimilarityFunction similarity = DEFAULT.similarity;
+        Quantization quantization = DEFAULT.quantization;
+        int m = DEFAULT.m;
+        int efConstruction = DEFAULT.efConstruction;
+        for (var entry : properties.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            switch (key) {
+                case SIMILARITY -> similarity = parseEnum(VectorSimilarityFunction.class, key, value);
+                case QUANTIZATION -> quantization = parseEnum(Quantization.class, key, value);
+                case M -> m = parseInt(key, value);
+                case EF_CONSTRUCTION -> efConstruction = parseInt(key, value);
+                default -> throw new IllegalArgumentException(
+                    "Invalid HNSW option `" + key + "`. Supported options are: " + PROPERTIES);
+            }
+        }
+        return new VectorIndexOptions(similarity, quantization, m, efConstruction);
+    }
+
+    /**
+     * Extracts the options out of the mapping of a {@link FloatVectorType} column.
+     */
+    public static VectorIndexOptions fromMapping(Map<String, Object> columnProperties) {
+        Map<String, Object> properties = new HashMap<>();
+        for (String property : PROPERTIES) {
+            Object value = columnProperties.get(property);
+            if (value != null) {
+                properties.put(property, value);
+            }
+        }
+        return properties.isEmpty() ? DEFAULT : of(properties);
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> enumClass, String key, Object value) {
+        try {
+            return Enum.valueOf(enumClass, value.toString().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for HNSW option `" + key + "`: " + value);
+        }
+    }
+
+    private static int parseInt(String key, Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for HNSW option `" + key + "`: " + value);
+        }
+    }
+
+    /**
+     * Returns the options which differ from the defaults, keyed by property name.
+     * Used for the mapping and for {@code SHOW CREATE TABLE}.
+     */
+    public Map<String, Object> toProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        if (similarity != DEFAULT.similarity) {
+            properties.put(SIMILARITY, similarity.name().toLowerCase(Locale.ENGLISH));
+        }
+        if (quantization != DEFAULT.quantization) {
+            properties.put(QUANTIZATION, quantization.name().toLowerCase(Locale.ENGLISH));
+        }
+        if (m != DEFAULT.m) {
+            properties.put(M, m);
+        }
+        if (efConstruction != DEFAULT.efConstruction) {
+            properties.put(EF_CONSTRUCTION, efConstruction);
+        }
+        return properties;
+    }
+
+    /**
+     * @return the vectors format used to write the graph of the column.
+     */
+    public KnnVectorsFormat knnVectorsFormat() {
+        return switch (quantization) {
+            case NONE -> new Lucene99HnswVectorsFormat(m, efConstruction);
+            // Lucene uses 7 bits for "int8" to keep the dot product of two quantized vectors within an int
+            case INT8 -> new Lucene99HnswScalarQuantizedVectorsFormat(m, efConstruction, 1, 7, false, null, null);
+            case INT4 -> new Lucene99HnswScalarQuantizedVectorsFormat(m, efConstruction, 1, 4, true, null, null);
+        };
+    }
+}
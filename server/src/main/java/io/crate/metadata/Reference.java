@@ -123,7 +123,7 @@ public interface Reference extends Symbol {
     Map<String, Object> toMapping(int position);
 
     static void toStream(StreamOutput out, Reference ref) throws IOException {
-        out.writeVInt(ref.symbolType().ordinal());
+        out.writeVInt(VectorReference.symbolType(ref, out.getVersion()).ordinal());
         ref.writeTo(out);
     }
 
@@ -0,0 +1,226 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.metadata;
+
+import static org.elasticsearch.cluster.metadata.Metadata.COLUMN_OID_UNASSIGNED;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolType;
+import io.crate.lucene.codec.VectorIndexOptions;
+import io.crate.sql.tree.ColumnPolicy;
+import io.crate.types.DataType;
+
+/**
+ * Reference to a {@link io.crate.types.FloatVectorType} column with non-default {@link VectorIndexOptions}.
+ * Columns using the default options are represented by a {@link SimpleReference}.
+ */
+public class VectorReference extends SimpleReference {
+
+    private final VectorIndexOptions indexOptions;
+
+    public VectorReference(ReferenceIdent ident,
+                           RowGranularity granularity,
+                           DataType<?> type,
+                           ColumnPolicy columnPolicy,
+                           IndexType indexType,
+                           boolean nullable,
+                           boolean hasDocValues,
+                           int position,
+                           long oid,
+                           boolean isDropped,
+                           @Nullable Symbol defaultExpression,
+                           VectorIndexOptions indexOptions) {
+        super(ident,
+            granularity,
+            type,
+            columnPolicy,
+            indexType,
+            nullable,
+            hasDocValues,
+            position,
+            oid,
+            isDropped,
+            defaultExpression
+        );
+        this.indexOptions = indexOptions;
+    }
+
+    public VectorReference(StreamInput in) throws IOException {
+        super(in);
+        indexOptions = new VectorIndexOptions(in);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        // Nodes before 5.8 read the reference as SimpleReference, see #symbolType(Version)
+        if (out.getVersion().onOrAfter(Version.V_5_8_0)) {
+            indexOptions.writeTo(out);
+        }
+    }
+
+    /**
+     * Returns the options of the HNSW graph of a reference to a float_vector column.
+     */
+    public static VectorIndexOptions indexOptions(Reference ref) {
+        if (ref instanceof GeneratedReference generatedRef) {
+            ref = generatedRef.reference();
+        }
+        if (ref instanceof VectorReference vectorRef) {
+            return vectorRef.indexOptions;
+        }
+        return VectorIndexOptions.DEFAULT;
+    }
+
+    public VectorIndexOptions indexOptions() {
+        return indexOptions;
+    }
+
+    @Override
+    public SymbolType symbolType() {
+        return SymbolType.VECTOR_REFERENCE;
+    }
+
+    /**
+     * The symbol type to stream, older nodes don't know {@link SymbolType#VECTOR_REFERENCE}.
+     */
+    public static SymbolType symbolType(Symbol symbol, Version version) {
+        if (symbol instanceof VectorReference && version.before(Version.V_5_8_0)) {
+            return SymbolType.REFERENCE;
+        }
+        return symbol.symbolType();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        VectorReference that = (VectorReference) o;
+        return indexOptions.equals(that.indexOptions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + indexOptions.hashCode();
+    }
+
+    @Override
+    public Reference withReferenceIdent(ReferenceIdent newIdent) {
+        return new VectorReference(
+            newIdent,
+            granularity,
+            type,
+            columnPolicy,
+            indexType,
+            nullable,
+            hasDocValues,
+            position,
+            oid,
+            isDropped,
+            defaultExpression,
+            indexOptions
+        );
+    }
+
+    @Override
+    public Reference withOidAndPosition(LongSupplier acquireOid, IntSupplier acquirePosition) {
+        long newOid = oid == COLUMN_OID_UNASSIGNED ? acquireOid.getAsLong() : oid;
+        int newPosition = position < 0 ? acquirePosition.getAsInt() : position;
+        if (newOid == oid && newPosition == position) {
+            return this;
+        }
+        return new VectorReference(
+            ident,
+            granularity,
+            type,
+            columnPolicy,
+            indexType,
+            nullable,
+            hasDocValues,
+            newPosition,
+            newOid,
+            isDropped,
+            defaultExpression,
+            indexOptions
+        );
+    }
+
+    @Override
+    public Reference withDropped(boolean dropped) {
+        return new VectorReference(
+            ident,
+            granularity,
+            type,
+            columnPolicy,
+            indexType,
+            nullable,
+            hasDocValues,
+            position,
+            oid,
+            dropped,
+            defaultExpression,
+            indexOptions
+        );
+    }
+
+    @Override
+    public Reference withValueType(DataType<?> newType) {
+        return new VectorReference(
+            ident,
+            granularity,
+            newType,
+            columnPolicy,
+            indexType,
+            nullable,
+            hasDocValues,
+            position,
+            oid,
+            isDropped,
+            defaultExpression,
+            indexOptions
+        );
+    }
+
+    @Override
+    public Map<String, Object> toMapping(int position) {
+        Map<String, Object> mapping = super.toMapping(position);
+        mapping.putAll(indexOptions.toProperties());
+        return mapping;
+    }
+}
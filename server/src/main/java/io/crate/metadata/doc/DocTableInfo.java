@@ -56,6 +56,7 @@ import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.index.IndexNotFoundException;
+import org.elasticsearch.index.IndexSortConfig;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -683,6 +684,10 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
         for (int i = 0 ; i < dropColumns.size(); i++) {
             var refToDrop = dropColumns.get(i).ref();
             var colToDrop = refToDrop.column();
+            if (isIndexSortColumn(colToDrop)) {
+                throw new UnsupportedOperationException("Dropping column: " + colToDrop.sqlFqn() + " which " +
+                                                        "is used in 'sort.columns' is not allowed");
+            }
             for (var indexRef : indexColumns()) {
                 if (indexRef.columns().contains(refToDrop)) {
                     throw new UnsupportedOperationException("Dropping column: " + colToDrop.sqlFqn() + " which " +
@@ -870,6 +875,23 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
         if (getReference(newName) != null || indexColumn(newName) != null) {
             throw new IllegalArgumentException("Cannot rename column to a name that is in use");
         }
+        if (isIndexSortColumn(oldName)) {
+            throw new UnsupportedOperationException(
+                "Cannot rename column `" + oldName.sqlFqn() + "`. It's used in 'sort.columns'");
+        }
+    }
+
+    public boolean isIndexSortColumn(ColumnIdent column) {
+        if (!column.isRoot()) {
+            return false;
+        }
+        String sortColumns = IndexSortConfig.INDEX_SORT_COLUMNS_SETTING.get(tableParameters);
+        for (IndexSortConfig.SortColumn sortColumn : IndexSortConfig.parse(sortColumns)) {
+            if (sortColumn.name().equals(column.name())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public DocTableInfo renameColumn(Reference refToRename, ColumnIdent newName) {
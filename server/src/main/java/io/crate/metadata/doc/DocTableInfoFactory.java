@@ -56,6 +56,7 @@ import io.crate.common.Booleans;
 import io.crate.common.collections.Maps;
 import io.crate.exceptions.RelationUnknown;
 import io.crate.expression.symbol.Symbol;
+import io.crate.lucene.codec.VectorIndexOptions;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.CoordinatorTxnCtx;
 import io.crate.metadata.GeneratedReference;
@@ -70,6 +71,7 @@ import io.crate.metadata.ReferenceIdent;
 import io.crate.metadata.RelationName;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.SimpleReference;
+import io.crate.metadata.VectorReference;
 import io.crate.metadata.table.Operation;
 import io.crate.replication.logical.metadata.PublicationsMetadata;
 import io.crate.server.xcontent.XContentHelper;
@@ -518,7 +520,25 @@ public class DocTableInfoFactory {
                     }
                 } else {
                     Reference ref;
-                    if (analyzer == null) {
+                    VectorIndexOptions vectorIndexOptions = type.id() == FloatVectorType.ID
+                        ? VectorIndexOptions.fromMapping(columnProperties)
+                        : VectorIndexOptions.DEFAULT;
+                    if (!vectorIndexOptions.equals(VectorIndexOptions.DEFAULT)) {
+                        ref = new VectorReference(
+                            refIdent,
+                            granularity,
+                            type,
+                            ColumnPolicy.DYNAMIC,
+                            indexType,
+                            nullable,
+                            hasDocValues,
+                            position,
+                            oid,
+                            isDropped,
+                            defaultExpression,
+                            vectorIndexOptions
+                        );
+                    } else if (analyzer == null) {
                         ref = new SimpleReference(
                             refIdent,
                             granularity,
@@ -65,6 +65,7 @@ public class SysSchemaInfo implements SchemaInfo {
             Map.entry(SysAllocationsTableInfo.IDENT.name(), SysAllocationsTableInfo.INSTANCE),
             Map.entry(SysHealth.IDENT.name(), SysHealth.INSTANCE),
             Map.entry(SysMetricsTableInfo.NAME.name(), SysMetricsTableInfo.create(localNode)),
+            Map.entry(SysPlanCacheTableInfo.NAME.name(), SysPlanCacheTableInfo.create(localNode)),
             Map.entry(SysSegmentsTableInfo.IDENT.name(), SysSegmentsTableInfo.create(clusterService::localNode)),
             Map.entry(
                 SysUsersTableInfo.IDENT.name(),
@@ -24,6 +24,7 @@ package io.crate.metadata.sys;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -47,6 +48,7 @@ import io.crate.expression.reference.sys.shard.SysAllocations;
 import io.crate.expression.reference.sys.snapshot.SysSnapshots;
 import io.crate.metadata.RelationName;
 import io.crate.metadata.SystemTable;
+import io.crate.planner.PlanCache;
 import io.crate.role.Permission;
 import io.crate.role.Role;
 import io.crate.role.Roles;
@@ -63,6 +65,7 @@ public class SysTableDefinitions {
     public SysTableDefinitions(ClusterService clusterService,
                                Roles roles,
                                JobsLogs jobsLogs,
+                               PlanCache planCache,
                                SysSchemaInfo sysSchemaInfo,
                                Set<SysCheck> sysChecks,
                                SysNodeChecks sysNodeChecks,
@@ -214,6 +217,11 @@ public class SysTableDefinitions {
                 new StaticTableDefinition<>(
                     () -> completedFuture(jobsLogs.metrics()), SysMetricsTableInfo.create(localNode).expressions(), false)
             ),
+            Map.entry(
+                SysPlanCacheTableInfo.NAME,
+                new StaticTableDefinition<>(
+                    () -> completedFuture(List.of(planCache)), SysPlanCacheTableInfo.create(localNode).expressions(), false)
+            ),
             Map.entry(
                 SysSegmentsTableInfo.IDENT,
                 new StaticTableDefinition<>(
@@ -0,0 +1,140 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+
+/**
+ * Parses lines in the text format of PostgreSQL's COPY into JSON objects.
+ *
+ * <ul>
+ *  <li>Values are separated by the delimiter, by default a tab</li>
+ *  <li>{@code \N} represents NULL</li>
+ *  <li>A backslash escapes the next character; {@code \b}, {@code \f}, {@code \n}, {@code \r}, {@code \t}, {@code \v},
+ *  octal ({@code \123}) and hex ({@code \x1F}) escapes are decoded</li>
+ * </ul>
+ *
+ * See https://www.postgresql.org/docs/current/sql-copy.html
+ */
+public class TextLineParser {
+
+    /**
+     * Marks the end of the data, clients using the old COPY protocol send it as the last line
+     */
+    public static final String END_OF_DATA = "\\.";
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final StringBuilder value = new StringBuilder();
+    private final List<String> columns;
+    private final char delimiter;
+
+    public TextLineParser(char delimiter, List<String> columns) {
+        this.delimiter = delimiter;
+        this.columns = columns;
+    }
+
+    public byte[] parse(String line, long rowNumber) throws IOException {
+        out.reset();
+        XContentBuilder jsonBuilder = new XContentBuilder(JsonXContent.JSON_XCONTENT, out).startObject();
+        int numValues = 0;
+        int pos = 0;
+        int length = line.length();
+        while (true) {
+            if (numValues == columns.size()) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Number of values exceeds number of columns at line %d", rowNumber));
+            }
+            int start = pos;
+            boolean isNull = false;
+            value.setLength(0);
+            while (pos < length) {
+                char c = line.charAt(pos);
+                if (c == delimiter) {
+                    break;
+                }
+                pos++;
+                if (c != '\\' || pos == length) {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = line.charAt(pos);
+                pos++;
+                switch (escaped) {
+                    case 'N' -> {
+                        // Only a value consisting of just \N is NULL, otherwise it is a plain N
+                        isNull = pos - start == 2 && (pos == length || line.charAt(pos) == delimiter);
+                        value.append('N');
+                    }
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'v' -> value.append('\u000B');
+                    case 'x' -> {
+                        int end = pos;
+                        while (end < length && end - pos < 2 && Character.digit(line.charAt(end), 16) != -1) {
+                            end++;
+                        }
+                        if (end == pos) {
+                            value.append('x');
+                        } else {
+                            value.append((char) Integer.parseInt(line, pos, end, 16));
+                            pos = end;
+                        }
+                    }
+                    default -> {
+                        if (escaped >= '0' && escaped <= '7') {
+                            int end = pos;
+                            while (end < length && end - pos < 2 && line.charAt(end) >= '0' && line.charAt(end) <= '7') {
+                                end++;
+                            }
+                            value.append((char) Integer.parseInt(line, pos - 1, end, 8));
+                            pos = end;
+                        } else {
+                            value.append(escaped);
+                        }
+                    }
+                }
+            }
+            jsonBuilder.field(columns.get(numValues), isNull ? null : value.toString());
+            numValues++;
+            if (pos == length) {
+                break;
+            }
+            // skip the delimiter
+            pos++;
+        }
+        if (numValues < columns.size()) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Expected %d values, encountered %d at line %d", columns.size(), numValues, rowNumber));
+        }
+        jsonBuilder.endObject().close();
+        return out.toByteArray();
+    }
+}
@@ -44,6 +44,7 @@ import io.crate.execution.ddl.views.TransportCreateViewAction;
 import io.crate.execution.ddl.views.TransportDropViewAction;
 import io.crate.execution.dsl.projection.builder.ProjectionBuilder;
 import io.crate.execution.engine.PhasesTaskFactory;
+import io.crate.execution.engine.collect.files.StdinFileInputFactory;
 import io.crate.execution.jobs.NodeLimits;
 import io.crate.expression.udf.TransportCreateUserDefinedFunctionAction;
 import io.crate.expression.udf.TransportDropUserDefinedFunctionAction;
@@ -89,6 +90,7 @@ public class DependencyCarrier {
     private final TransportCreateSubscriptionAction createSubscriptionAction;
     private final LogicalReplicationService logicalReplicationService;
     private final ElasticsearchClient client;
+    private final StdinFileInputFactory stdinFileInputFactory;
     private CircuitBreakerService circuitBreakerService;
 
     @Inject
@@ -116,7 +118,8 @@ public class DependencyCarrier {
                              TransportDropPublicationAction dropPublicationAction,
                              TransportAlterPublicationAction alterPublicationAction,
                              TransportCreateSubscriptionAction createSubscriptionAction,
-                             LogicalReplicationService logicalReplicationService) {
+                             LogicalReplicationService logicalReplicationService,
+                             StdinFileInputFactory stdinFileInputFactory) {
         this.settings = settings;
         this.client = node.client();
         this.phasesTaskFactory = phasesTaskFactory;
@@ -144,6 +147,7 @@ public class DependencyCarrier {
         this.alterPublicationAction = alterPublicationAction;
         this.createSubscriptionAction = createSubscriptionAction;
         this.logicalReplicationService = logicalReplicationService;
+        this.stdinFileInputFactory = stdinFileInputFactory;
     }
 
     public Schemas schemas() {
@@ -190,6 +194,10 @@ public class DependencyCarrier {
         return phasesTaskFactory;
     }
 
+    public StdinFileInputFactory stdinFileInputFactory() {
+        return stdinFileInputFactory;
+    }
+
     public ThreadPool threadPool() {
         return threadPool;
     }
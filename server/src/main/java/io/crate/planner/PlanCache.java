@@ -0,0 +1,150 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.planner;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.crate.analyze.AnalyzedInsertStatement;
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.analyze.Relations;
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.expression.symbol.Symbols;
+import io.crate.metadata.SearchPath;
+import io.crate.planner.operators.LogicalPlan;
+import io.crate.types.DataType;
+
+/**
+ * Node level cache for the optimized plans of statements executed via the extended protocol.
+ * <p>
+ * Parameters are not part of the cached plan, they're bound when the plan is executed.
+ * This allows re-using the plan for the same statement with different parameters,
+ * skipping the logical planner and the optimizer rules.
+ * </p>
+ * <p>
+ * Only plans of SELECT and INSERT statements without non-deterministic functions are cached.
+ * A plan is only re-used if the statement, its parameter types, the session settings and the version of
+ * the cluster metadata match.
+ * </p>
+ */
+public final class PlanCache {
+
+    public static final Setting<Integer> PLAN_CACHE_SIZE_SETTING = Setting.intSetting(
+        "planner.plan_cache.size",
+        1000,
+        0,
+        Property.NodeScope
+    );
+
+    /**
+     * @param statement the raw statement
+     * @param analyzedMetadataVersion version of the cluster metadata used to analyze the statement
+     * @param metadataVersion version of the cluster metadata used to plan the statement
+     * @param sessionSettings values of all session settings
+     */
+    public record Key(String statement,
+                      List<DataType<?>> parameterTypes,
+                      String user,
+                      SearchPath searchPath,
+                      List<String> sessionSettings,
+                      int fetchSize,
+                      long analyzedMetadataVersion,
+                      long metadataVersion) {
+    }
+
+    @Nullable
+    private final Cache<Key, Plan> plans;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PlanCache(Settings settings) {
+        int size = PLAN_CACHE_SIZE_SETTING.get(settings);
+        this.plans = size == 0
+            ? null
+            : Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(size)
+                .build();
+    }
+
+    public boolean enabled() {
+        return plans != null;
+    }
+
+    /**
+     * @return true if the plan of the statement can be re-used for other executions of the same statement.
+     */
+    public static boolean isCacheable(AnalyzedStatement statement) {
+        if (!(statement instanceof AnalyzedRelation || statement instanceof AnalyzedInsertStatement)) {
+            return false;
+        }
+        boolean[] deterministic = new boolean[] { true };
+        Relations.traverseDeepSymbols(statement, symbol -> deterministic[0] &= Symbols.isDeterministic(symbol));
+        return deterministic[0];
+    }
+
+    /**
+     * Returns the cached plan for the key or creates a new plan.
+     * Only {@link LogicalPlan}s are cached, other plans may hold state of a single execution.
+     */
+    public Plan getOrCreate(Key key, Supplier<Plan> createPlan) {
+        assert plans != null : "Must only be used if the cache is enabled";
+        Plan plan = plans.getIfPresent(key);
+        if (plan != null) {
+            hits.increment();
+            return plan;
+        }
+        misses.increment();
+        plan = createPlan.get();
+        if (plan instanceof LogicalPlan) {
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long size() {
+        return plans == null ? 0L : plans.estimatedSize();
+    }
+
+    public void clear() {
+        if (plans != null) {
+            plans.invalidateAll();
+        }
+    }
+}
@@ -21,6 +21,7 @@
 
 package io.crate.planner;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -50,6 +51,7 @@ import io.crate.analyze.AnalyzedClose;
 import io.crate.analyze.AnalyzedCommit;
 import io.crate.analyze.AnalyzedCopyFrom;
 import io.crate.analyze.AnalyzedCopyTo;
+import io.crate.analyze.AnalyzedCopyToStdout;
 import io.crate.analyze.AnalyzedCreateAnalyzer;
 import io.crate.analyze.AnalyzedCreateBlobTable;
 import io.crate.analyze.AnalyzedCreateForeignTable;
@@ -108,6 +110,8 @@ import io.crate.fdw.ForeignDataWrappers;
 import io.crate.metadata.CoordinatorTxnCtx;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.RoutingProvider;
+import io.crate.metadata.settings.CoordinatorSessionSettings;
+import io.crate.metadata.settings.session.SessionSetting;
 import io.crate.metadata.settings.session.SessionSettingRegistry;
 import io.crate.planner.consumer.CreateTableAsPlan;
 import io.crate.planner.consumer.UpdatePlanner;
@@ -167,6 +171,7 @@ import io.crate.replication.logical.plan.DropSubscriptionPlan;
 import io.crate.role.RoleManager;
 import io.crate.sql.tree.SetSessionAuthorizationStatement;
 import io.crate.statistics.TableStats;
+import io.crate.types.DataType;
 
 @Singleton
 public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
@@ -182,6 +187,7 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
     private final ForeignDataWrappers foreignDataWrappers;
     private final SessionSettingRegistry sessionSettingRegistry;
     private final NodeContext nodeCtx;
+    private final PlanCache planCache;
 
     private List<String> awarenessAttributes;
 
@@ -194,7 +200,8 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
                    TableCreator tableCreator,
                    RoleManager roleManager,
                    ForeignDataWrappers foreignDataWrappers,
-                   SessionSettingRegistry sessionSettingRegistry) {
+                   SessionSettingRegistry sessionSettingRegistry,
+                   PlanCache planCache) {
         this.clusterService = clusterService;
         this.nodeCtx = nodeCtx;
         this.tableStats = tableStats;
@@ -208,6 +215,7 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
         this.roleManager = roleManager;
         this.foreignDataWrappers = foreignDataWrappers;
         this.sessionSettingRegistry = sessionSettingRegistry;
+        this.planCache = planCache;
         initAwarenessAttributes(settings);
     }
 
@@ -263,6 +271,44 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
         return analyzedStatement.accept(this, plannerContext);
     }
 
+    /**
+     * Like {@link #plan(AnalyzedStatement, PlannerContext)} but re-uses the plan of previous executions of the
+     * same statement if possible. See {@link PlanCache}
+     *
+     * @param statement the raw statement the analyzedStatement was created from
+     * @param parameterTypes the parameter types of the analyzed statement
+     * @param analyzedMetadataVersion version of the cluster metadata used to analyze the statement
+     */
+    public Plan plan(String statement,
+                     List<DataType<?>> parameterTypes,
+                     long analyzedMetadataVersion,
+                     AnalyzedStatement analyzedStatement,
+                     PlannerContext plannerContext) {
+        if (!planCache.enabled() || !PlanCache.isCacheable(analyzedStatement)) {
+            return plan(analyzedStatement, plannerContext);
+        }
+        CoordinatorSessionSettings sessionSettings = plannerContext.transactionContext().sessionSettings();
+        List<String> settingValues = new ArrayList<>(sessionSettingRegistry.settings().size());
+        for (SessionSetting<?> setting : sessionSettingRegistry.settings().values()) {
+            settingValues.add(setting.getValue(sessionSettings));
+        }
+        PlanCache.Key key = new PlanCache.Key(
+            statement,
+            parameterTypes,
+            sessionSettings.sessionUser().name(),
+            sessionSettings.searchPath(),
+            settingValues,
+            plannerContext.fetchSize(),
+            analyzedMetadataVersion,
+            plannerContext.clusterState().metadata().version()
+        );
+        return planCache.getOrCreate(key, () -> plan(analyzedStatement, plannerContext));
+    }
+
+    public PlanCache planCache() {
+        return planCache;
+    }
+
     @Override
     protected Plan visitAnalyzedStatement(AnalyzedStatement analyzedStatement, PlannerContext context) {
         throw new UnsupportedOperationException(String.format(Locale.ENGLISH,
@@ -334,6 +380,12 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
         return new CopyToPlan(analysis, tableStats);
     }
 
+    @Override
+    public Plan visitCopyToStdout(AnalyzedCopyToStdout copyToStdout, PlannerContext context) {
+        // The rows are produced like for the query; only the protocol layer encodes them differently
+        return copyToStdout.query().accept(this, context);
+    }
+
     @Override
     public Plan visitShowCreateTableAnalyzedStatement(AnalyzedShowCreateTable statement, PlannerContext context) {
         return new ShowCreateTablePlan(statement);
@@ -93,8 +93,8 @@ public class Collect implements LogicalPlan {
     final TableInfo tableInfo;
     final WhereClause immutableWhere;
 
-    WhereClause mutableBoundWhere;
-    DetailedQuery detailedQuery;
+    @Nullable
+    final DetailedQuery detailedQuery;
 
     public Collect(Collect collect, DetailedQuery detailedQuery) {
         assert detailedQuery.docKeys().isEmpty()
@@ -103,7 +103,6 @@ public class Collect implements LogicalPlan {
         this.outputs = collect.outputs();
         this.baseTables = collect.baseTables;
         this.relation = collect.relation;
-        this.mutableBoundWhere = collect.mutableBoundWhere;
         this.immutableWhere = collect.immutableWhere;
         this.tableInfo = collect.relation.tableInfo();
         this.detailedQuery = detailedQuery;
@@ -119,8 +118,8 @@ public class Collect implements LogicalPlan {
         }
         this.relation = relation;
         this.immutableWhere = where;
-        this.mutableBoundWhere = where;
         this.tableInfo = relation.tableInfo();
+        this.detailedQuery = null;
     }
 
     @Override
@@ -134,14 +133,7 @@ public class Collect implements LogicalPlan {
                                @Nullable Integer pageSizeHint,
                                Row params,
                                SubQueryResults subQueryResults) {
-        EvaluatingNormalizer normalizer = new EvaluatingNormalizer(
-            plannerContext.nodeContext(),
-            RowGranularity.CLUSTER,
-            null,
-            relation
-        );
-        var binder = new SubQueryAndParamBinder(params, subQueryResults)
-            .andThen(x -> normalizer.normalize(x, plannerContext.transactionContext()));
+        var binder = binder(plannerContext, params, subQueryResults);
         RoutedCollectPhase collectPhase = createPhase(plannerContext, hints, binder, params, subQueryResults);
         PositionalOrderBy positionalOrderBy = getPositionalOrderBy(order, outputs);
         if (positionalOrderBy != null) {
@@ -232,11 +224,34 @@ public class Collect implements LogicalPlan {
         }
     }
 
-    private RoutedCollectPhase createPhase(PlannerContext plannerContext,
-                                           Set<PlanHint> planHints,
-                                           java.util.function.Function<Symbol, Symbol> binder,
-                                           Row params,
-                                           SubQueryResults subQueryResults) {
+    private java.util.function.Function<Symbol, Symbol> binder(PlannerContext plannerContext,
+                                                               Row params,
+                                                               SubQueryResults subQueryResults) {
+        EvaluatingNormalizer normalizer = new EvaluatingNormalizer(
+            plannerContext.nodeContext(),
+            RowGranularity.CLUSTER,
+            null,
+            relation
+        );
+        return new SubQueryAndParamBinder(params, subQueryResults)
+            .andThen(x -> normalizer.normalize(x, plannerContext.transactionContext()));
+    }
+
+    /**
+     * Binds all parameters and possible subQuery values and re-analyzes the query
+     * (could result in a NO_MATCH, routing could've changed, etc).
+     * <p>
+     * The result is not stored on the instance, plans can be built concurrently for multiple executions.
+     * </p>
+     */
+    WhereClause boundWhere(PlannerContext plannerContext, Row params, SubQueryResults subQueryResults) {
+        return boundWhere(plannerContext, binder(plannerContext, params, subQueryResults), params, subQueryResults);
+    }
+
+    private WhereClause boundWhere(PlannerContext plannerContext,
+                                   java.util.function.Function<Symbol, Symbol> binder,
+                                   Row params,
+                                   SubQueryResults subQueryResults) {
         WhereClause boundWhere;
         if (tableInfo instanceof DocTableInfo docTable) {
             if (detailedQuery == null) {
@@ -263,20 +278,23 @@ public class Collect implements LogicalPlan {
         } else {
             boundWhere = immutableWhere.map(binder);
         }
-
-        // bind all parameters and possible subQuery values and re-analyze the query
-        // (could result in a NO_MATCH, routing could've changed, etc).
-        // the <p>where</p> instance variable must be overwritten as the plan creation of outer operators relies on it
-        // (e.g. GroupHashAggregate will build different plans based on the collect routing)
-        mutableBoundWhere = WhereClauseAnalyzer.resolvePartitions(
+        return WhereClauseAnalyzer.resolvePartitions(
             boundWhere,
             relation,
             plannerContext.transactionContext(),
             plannerContext.nodeContext(),
             plannerContext.clusterState().metadata());
-        if (mutableBoundWhere.hasVersions()) {
+    }
+
+    private RoutedCollectPhase createPhase(PlannerContext plannerContext,
+                                           Set<PlanHint> planHints,
+                                           java.util.function.Function<Symbol, Symbol> binder,
+                                           Row params,
+                                           SubQueryResults subQueryResults) {
+        WhereClause boundWhere = boundWhere(plannerContext, binder, params, subQueryResults);
+        if (boundWhere.hasVersions()) {
             throw VersioningValidationException.versionInvalidUsage();
-        } else if (mutableBoundWhere.hasSeqNoAndPrimaryTerm()) {
+        } else if (boundWhere.hasSeqNoAndPrimaryTerm()) {
             throw VersioningValidationException.seqNoAndPrimaryTermUsage();
         }
 
@@ -288,7 +306,7 @@ public class Collect implements LogicalPlan {
             COLLECT_PHASE_NAME,
             plannerContext.allocateRouting(
                 tableInfo,
-                mutableBoundWhere,
+                boundWhere,
                 RoutingProvider.ShardSelection.ANY,
                 sessionSettings),
             tableInfo.rowGranularity(),
@@ -296,7 +314,7 @@ public class Collect implements LogicalPlan {
                 ? Lists.map(boundOutputs, DocReferences::toSourceLookup)
                 : boundOutputs,
             Collections.emptyList(),
-            Optimizer.optimizeCasts(mutableBoundWhere.queryOrFallback(), plannerContext),
+            Optimizer.optimizeCasts(boundWhere.queryOrFallback(), plannerContext),
             DistributionInfo.DEFAULT_BROADCAST
         );
     }
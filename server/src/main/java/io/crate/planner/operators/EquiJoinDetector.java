@@ -41,7 +41,7 @@ import io.crate.sql.tree.JoinType;
  * <p>
  * Using hash join is possible under following assumptions:
  * <ul>
- * <li>it's a {@link JoinType#INNER} join type</li>
+ * <li>it's a {@link JoinType#INNER} or an outer join</li>
  * <li>the join condition contains no {@link OrOperator}</li>
  * <li>the join condition contains at least one {@link EqOperator}</li>
  * <li>at least one argument of the {@link EqOperator} must NOT contain fields to multiple tables</li>
@@ -52,7 +52,7 @@ public class EquiJoinDetector {
     private static final Visitor VISITOR = new Visitor();
 
     public static boolean isHashJoinPossible(JoinType joinType, Symbol joinCondition) {
-        if (joinType != JoinType.INNER) {
+        if ((joinType != JoinType.INNER && joinType.isOuter() == false) || joinCondition == null) {
             return false;
         }
         return isEquiJoin(joinCondition);
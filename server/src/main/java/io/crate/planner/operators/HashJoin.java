@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.SequencedCollection;
 import java.util.Set;
 
+import org.elasticsearch.Version;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
@@ -68,9 +69,12 @@ public class HashJoin extends AbstractJoinPlan {
 
     public HashJoin(LogicalPlan lhs,
                     LogicalPlan rhs,
+                    JoinType joinType,
                     Symbol joinCondition,
                     LookUpJoin lookUpJoin) {
-        super(lhs, rhs, joinCondition, JoinType.INNER, lookUpJoin);
+        super(lhs, rhs, joinCondition, joinType, lookUpJoin);
+        assert joinType == JoinType.INNER || joinType.isOuter()
+            : joinType + " joins cannot be executed as hash join";
     }
 
     @Override
@@ -84,6 +88,12 @@ public class HashJoin extends AbstractJoinPlan {
                                @Nullable Integer pageSizeHint,
                                Row params,
                                SubQueryResults subQueryResults) {
+        if (joinType != JoinType.INNER
+            && plannerContext.clusterState().nodes().getMinNodeVersion().before(Version.V_5_8_0)) {
+            // Nodes before 5.8.0 execute every hash join as inner join
+            return new NestedLoopJoin(lhs, rhs, joinType, joinCondition, false).build(
+                executor, plannerContext, hints, projectionBuilder, limit, offset, order, pageSizeHint, params, subQueryResults);
+        }
         ExecutionPlan leftExecutionPlan = lhs.build(
             executor, plannerContext, hints, projectionBuilder, NO_LIMIT, 0, null, null, params, subQueryResults);
         ExecutionPlan rightExecutionPlan = rhs.build(
@@ -153,11 +163,14 @@ public class HashJoin extends AbstractJoinPlan {
             leftOutputs.size(),
             rightOutputs.size(),
             joinExecutionNodes,
+            joinType,
             InputColumns.create(paramBinder.apply(joinCondition), joinOutputs),
             InputColumns.create(lhsHashSymbols, new InputColumns.SourceSymbols(leftOutputs)),
             InputColumns.create(rhsHashSymbols, new InputColumns.SourceSymbols(rightOutputs)),
             Symbols.typeView(leftOutputs),
-            lhStats.estimateSizeForColumns(leftOutputs)
+            Symbols.typeView(rightOutputs),
+            lhStats.estimateSizeForColumns(leftOutputs),
+            lhStats.numDocs()
         );
         return new Join(
             joinPhase,
@@ -175,6 +188,7 @@ public class HashJoin extends AbstractJoinPlan {
         return new HashJoin(
             sources.get(0),
             sources.get(1),
+            joinType,
             joinCondition,
             lookupJoin
         );
@@ -207,6 +221,7 @@ public class HashJoin extends AbstractJoinPlan {
             return new HashJoin(
                 newLhs,
                 newRhs,
+                joinType,
                 joinCondition,
                 lookupJoin
             );
@@ -237,6 +252,7 @@ public class HashJoin extends AbstractJoinPlan {
             new HashJoin(
                 lhsFetchRewrite == null ? lhs : lhsFetchRewrite.newPlan(),
                 rhsFetchRewrite == null ? rhs : rhsFetchRewrite.newPlan(),
+                joinType,
                 joinCondition,
                 lookupJoin
             )
@@ -250,8 +266,13 @@ public class HashJoin extends AbstractJoinPlan {
 
     @Override
     public void print(PrintContext printContext) {
+        printContext.text("HashJoin[");
+        if (joinType != JoinType.INNER) {
+            printContext
+                .text(joinType.toString())
+                .text(" | ");
+        }
         printContext
-            .text("HashJoin[")
             .text(joinCondition.toString())
             .text("]");
         printStats(printContext);
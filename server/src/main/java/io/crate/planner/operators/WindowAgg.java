@@ -53,7 +53,9 @@ import io.crate.planner.DependencyCarrier;
 import io.crate.planner.ExecutionPlan;
 import io.crate.planner.Merge;
 import io.crate.planner.PlannerContext;
+import io.crate.planner.PositionalOrderBy;
 import io.crate.planner.ResultDescription;
+import io.crate.planner.consumer.OrderByPositionVisitor;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.distribution.DistributionType;
 
@@ -155,13 +157,6 @@ public class WindowAgg extends ForwardingLogicalPlan {
         Function<Symbol, Symbol> toInputCols = binder.andThen(s -> InputColumns.create(s, sourceSymbols));
 
         List<WindowFunction> boundWindowFunctions = (List<WindowFunction>)(List<?>) Lists.map(windowFunctions, toInputCols);
-        List<Projection> projections = new ArrayList<>();
-        WindowAggProjection windowAggProjection = new WindowAggProjection(
-            windowDefinition.map(toInputCols),
-            boundWindowFunctions,
-            InputColumns.create(this.standalone, sourceSymbols)
-        );
-        projections.add(windowAggProjection);
         ExecutionPlan sourcePlan = source.build(
             executor,
             plannerContext,
@@ -179,12 +174,25 @@ public class WindowAgg extends ForwardingLogicalPlan {
         boolean nonDistExecution = windowDefinition.partitions().isEmpty()
                                    || resultDescription.hasRemainingLimitOrOffset()
                                    || executesOnHandler;
+        WindowDefinition boundWindowDefinition = windowDefinition.map(toInputCols);
+        List<Symbol> boundStandalone = InputColumns.create(this.standalone, sourceSymbols);
         if (nonDistExecution) {
             sourcePlan = Merge.ensureOnHandler(sourcePlan, plannerContext);
-            for (Projection projection : projections) {
-                sourcePlan.addProjection(projection);
-            }
+            boolean sourceSorted = isSortedByPartitionAndOrder(
+                sourcePlan.resultDescription().orderBy(),
+                windowDefinition,
+                source.outputs()
+            );
+            sourcePlan.addProjection(
+                new WindowAggProjection(boundWindowDefinition, boundWindowFunctions, boundStandalone, sourceSorted));
         } else {
+            WindowAggProjection windowAggProjection = new WindowAggProjection(
+                boundWindowDefinition,
+                boundWindowFunctions,
+                boundStandalone
+            );
+            List<Projection> projections = new ArrayList<>();
+            projections.add(windowAggProjection);
             sourcePlan.setDistributionInfo(new DistributionInfo(
                 DistributionType.MODULO,
                 source.outputs().indexOf(windowDefinition.partitions().iterator().next()))
@@ -214,6 +222,33 @@ public class WindowAgg extends ForwardingLogicalPlan {
         return sourcePlan;
     }
 
+    /**
+     * @return true if rows described by {@code sourceOrder} arrive ordered by the PARTITION BY keys followed by the
+     *         ORDER BY keys of the window definition. Additional trailing sort keys of the source are irrelevant.
+     */
+    static boolean isSortedByPartitionAndOrder(@Nullable PositionalOrderBy sourceOrder,
+                                               WindowDefinition windowDefinition,
+                                               List<Symbol> sourceOutputs) {
+        OrderBy required = createOrderByInclPartitionBy(windowDefinition);
+        if (sourceOrder == null || required == null) {
+            return false;
+        }
+        int[] requiredIndices = OrderByPositionVisitor.orderByPositionsOrNull(required.orderBySymbols(), sourceOutputs);
+        if (requiredIndices == null || requiredIndices.length > sourceOrder.indices().length) {
+            return false;
+        }
+        boolean[] reverseFlags = required.reverseFlags();
+        boolean[] nullsFirst = required.nullsFirst();
+        for (int i = 0; i < requiredIndices.length; i++) {
+            if (requiredIndices[i] != sourceOrder.indices()[i]
+                || reverseFlags[i] != sourceOrder.reverseFlags()[i]
+                || nullsFirst[i] != sourceOrder.nullsFirst()[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Nullable
     static OrderBy createOrderByInclPartitionBy(WindowDefinition windowDefinition) {
         var orderBy = windowDefinition.orderBy();
@@ -37,7 +37,8 @@ import io.crate.planner.optimizer.matcher.Pattern;
 
 public class ReorderHashJoin implements Rule<HashJoin> {
 
-    private final Pattern<HashJoin> pattern = typeOf(HashJoin.class);
+    private final Pattern<HashJoin> pattern = typeOf(HashJoin.class)
+        .with(j -> j.joinType().supportsInversion());
 
     @Override
     public Pattern<HashJoin> pattern() {
@@ -63,6 +64,7 @@ public class ReorderHashJoin implements Rule<HashJoin> {
                 new HashJoin(
                     plan.rhs(),
                     plan.lhs(),
+                    plan.joinType().invert(),
                     plan.joinCondition(),
                     plan.lookUpJoin().invert()
                 ),
@@ -66,6 +66,7 @@ public class RewriteJoinPlan implements Rule<JoinPlan> {
             return new HashJoin(
                 join.lhs(),
                 join.rhs(),
+                join.joinType(),
                 join.joinCondition(),
                 join.lookUpJoin()
             );
@@ -22,7 +22,11 @@
 package io.crate.planner.statement;
 
 import static io.crate.analyze.CopyStatementSettings.COMPRESSION_SETTING;
+import static io.crate.analyze.CopyStatementSettings.CSV_COLUMN_SEPARATOR;
 import static io.crate.analyze.CopyStatementSettings.INPUT_FORMAT_SETTING;
+import static io.crate.analyze.CopyStatementSettings.INPUT_HEADER_SETTINGS;
+import static io.crate.analyze.CopyStatementSettings.STDIO_FORMAT_SETTING;
+import static io.crate.analyze.CopyStatementSettings.TEXT_COLUMN_SEPARATOR;
 import static io.crate.analyze.CopyStatementSettings.settingAsEnum;
 
 import java.util.ArrayList;
@@ -32,6 +36,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -66,6 +71,7 @@ import io.crate.execution.dsl.projection.SourceIndexWriterReturnSummaryProjectio
 import io.crate.execution.dsl.projection.builder.InputColumns;
 import io.crate.execution.engine.JobLauncher;
 import io.crate.execution.engine.NodeOperationTreeGenerator;
+import io.crate.execution.engine.collect.files.StdinFileInputFactory;
 import io.crate.execution.engine.pipeline.LimitAndOffset;
 import io.crate.expression.reference.file.SourceLineNumberExpression;
 import io.crate.expression.reference.file.SourceParsingFailureExpression;
@@ -135,6 +141,15 @@ public final class CopyFromPlan implements Plan {
         NodeOperationTree nodeOpTree = NodeOperationTreeGenerator
             .fromPlan(plan, dependencies.localNodeId());
 
+        if (copyFrom.fromStdin()) {
+            // The stream must exist before the job starts reading from it.
+            // The protocol layer looks it up by the job id and feeds it with the data sent by the client.
+            UUID jobId = plannerContext.jobId();
+            StdinFileInputFactory stdinFileInputFactory = dependencies.stdinFileInputFactory();
+            stdinFileInputFactory.register(jobId);
+            consumer.completionFuture().whenComplete((result, err) -> stdinFileInputFactory.unregister(jobId));
+        }
+
         JobLauncher jobLauncher = dependencies.phasesTaskFactory()
             .create(plannerContext.jobId(), List.of(nodeOpTree));
 
@@ -164,7 +179,7 @@ public final class CopyFromPlan implements Plan {
         String partitionIdent = partitionName == null ? null : partitionName.ident();
         final var properties = copyFrom.properties().map(eval);
         final var nodeFiltersPredicate = discoveryNodePredicate(properties.get(NodeFilters.NAME, null));
-        final var settings = Settings.builder().put(properties).build();
+        var settings = Settings.builder().put(properties).build();
 
         if (properties.contains("validation")) {
             DEPRECATION_LOGGER.deprecatedAndMaybeLog(
@@ -177,16 +192,33 @@ public final class CopyFromPlan implements Plan {
             throw new UnsupportedOperationException(
                 "Cannot use RETURN SUMMARY with wait_for_completion=false. Either set wait_for_completion=true, or remove RETURN SUMMARY");
         }
+        if (!waitForCompletion && copyFrom.fromStdin()) {
+            throw new UnsupportedOperationException("Cannot use wait_for_completion=false with COPY FROM STDIN");
+        }
         var inputFormat = settingAsEnum(
             FileUriCollectPhase.InputFormat.class,
-            settings.get(INPUT_FORMAT_SETTING.getKey(), INPUT_FORMAT_SETTING.getDefault(Settings.EMPTY)));
+            copyFrom.fromStdin()
+                ? STDIO_FORMAT_SETTING.get(settings)
+                : settings.get(INPUT_FORMAT_SETTING.getKey(), INPUT_FORMAT_SETTING.getDefault(Settings.EMPTY)));
+        if (inputFormat == FileUriCollectPhase.InputFormat.TEXT) {
+            // The text format has no header by default and separates the values with a tab
+            settings = Settings.builder()
+                .put(INPUT_HEADER_SETTINGS.getKey(), false)
+                .put(CSV_COLUMN_SEPARATOR.getKey(), String.valueOf(TEXT_COLUMN_SEPARATOR))
+                .put(settings)
+                .build();
+        }
         // TODO make FileUriCollectPhase ctor accept an uri of the List<String>
         // instead of the Symbol type, such as the uri can be evaluated and converted
         // to the required type already at this stage, but not later on in FileCollectSource.
-        var boundedURI = validateAndConvertToLiteral(eval.apply(copyFrom.uri()));
+        // The URI of STDIN depends on the job and is set in planCopyFromExecution
+        var boundedURI = copyFrom.fromStdin()
+            ? copyFrom.uri()
+            : validateAndConvertToLiteral(eval.apply(copyFrom.uri()));
         var header = settings.getAsBoolean("header", true);
         var targetColumns = copyFrom.targetColumns();
-        if (!header && copyFrom.targetColumns().isEmpty()) {
+        boolean columnsFromHeader = header && inputFormat != FileUriCollectPhase.InputFormat.TEXT;
+        if (!columnsFromHeader && copyFrom.targetColumns().isEmpty()) {
             targetColumns = Lists.map(copyFrom.tableInfo().columns(), Reference::toString);
         }
 
@@ -315,15 +347,25 @@ public final class CopyFromPlan implements Plan {
             rewriteToCollectToUsePartitionValues(table.partitionedByColumns(), partitionValues, toCollect);
         }
 
+        Collection<String> executionNodes;
+        Symbol uri;
+        if (copyFrom.fromStdin()) {
+            // The data arrives on the connection of the client, only the handler can read it
+            executionNodes = List.of(context.handlerNode());
+            uri = Literal.of(StdinFileInputFactory.uri(context.jobId()));
+        } else {
+            executionNodes = getExecutionNodes(
+                allNodes,
+                boundedCopyFrom.settings().getAsInt("num_readers", allNodes.getSize()),
+                boundedCopyFrom.nodePredicate());
+            uri = boundedCopyFrom.uri();
+        }
         FileUriCollectPhase collectPhase = new FileUriCollectPhase(
             context.jobId(),
             context.nextExecutionPhaseId(),
             "copyFrom",
-            getExecutionNodes(
-                allNodes,
-                boundedCopyFrom.settings().getAsInt("num_readers", allNodes.getSize()),
-                boundedCopyFrom.nodePredicate()),
-            boundedCopyFrom.uri(),
+            executionNodes,
+            uri,
             boundedCopyFrom.targetColumns(),
             toCollect,
             Collections.emptyList(),
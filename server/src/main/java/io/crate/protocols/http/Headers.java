@@ -23,10 +23,10 @@ package io.crate.protocols.http;
 
 import io.crate.auth.Credentials;
 import io.netty.handler.codec.http.FullHttpRequest;
-import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpVersion;
 
 import org.jetbrains.annotations.Nullable;
@@ -58,7 +58,7 @@ public final class Headers {
                    && !HttpHeaderValues.KEEP_ALIVE.contentEqualsIgnoreCase(headers.get(HttpHeaderNames.CONNECTION)));
     }
 
-    public static void setKeepAlive(HttpVersion httpVersion, FullHttpResponse resp) {
+    public static void setKeepAlive(HttpVersion httpVersion, HttpResponse resp) {
         if (httpVersion.equals(HttpVersion.HTTP_1_0)) {
             resp.headers().add(HttpHeaderNames.CONNECTION, "Keep-Alive");
         }
@@ -0,0 +1,262 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.jetbrains.annotations.NotNull;
+
+import io.crate.action.sql.BaseResultReceiver;
+import io.crate.analyze.AnalyzedCopyToStdout;
+import io.crate.auth.AccessControl;
+import io.crate.common.collections.Lists;
+import io.crate.data.Row;
+import io.crate.exceptions.UnhandledServerException;
+import io.crate.execution.dsl.phases.FileUriCollectPhase;
+import io.crate.protocols.postgres.DelayableWriteChannel.DelayedWrites;
+import io.crate.protocols.postgres.types.PGType;
+import io.crate.protocols.postgres.types.PGTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+
+/**
+ * Sends the rows of a {@code COPY (query) TO STDOUT} statement using the COPY sub-protocol:
+ *
+ * <pre>
+ *  CopyOutResponse | CopyData (one per row) | CopyDone | CommandComplete
+ * </pre>
+ *
+ * Rows are encoded in the text format of PostgreSQL (default), as JSON objects or as CSV lines,
+ * the formats {@code COPY FROM STDIN} can read.
+ */
+class CopyOutReceiver extends BaseResultReceiver {
+
+    private static final byte NEW_LINE = (byte) '\n';
+    private static final byte BACKSLASH = (byte) '\\';
+
+    private final String query;
+    private final DelayableWriteChannel channel;
+    private final Channel directChannel;
+    private final DelayedWrites delayedWrites;
+    private final AccessControl accessControl;
+    private final List<String> columnNames;
+    private final List<PGType<?>> pgTypes;
+    private final FileUriCollectPhase.InputFormat format;
+    private final boolean header;
+    private final char delimiter;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteBuf textValue = Unpooled.buffer();
+
+    private boolean started = false;
+    private long rowCount = 0;
+
+    CopyOutReceiver(String query,
+                    DelayableWriteChannel channel,
+                    DelayedWrites delayedWrites,
+                    AccessControl accessControl,
+                    List<String> columnNames,
+                    AnalyzedCopyToStdout copyToStdout) {
+        this.query = query;
+        this.channel = channel;
+        this.directChannel = channel.bypassDelay();
+        this.delayedWrites = delayedWrites;
+        this.accessControl = accessControl;
+        this.columnNames = columnNames;
+        this.pgTypes = Lists.map(copyToStdout.query().outputs(), x -> PGTypes.get(x.valueType()));
+        this.format = copyToStdout.format();
+        this.header = copyToStdout.header();
+        this.delimiter = copyToStdout.delimiter();
+    }
+
+    @Override
+    public void setNextRow(Row row) {
+        start();
+        rowCount++;
+        try {
+            switch (format) {
+                case TEXT -> writeTextLine(row);
+                case CSV -> writeCsvLine(row);
+                case JSON -> writeJsonLine(row);
+                default -> throw new AssertionError("Unsupported format for COPY TO STDOUT: " + format);
+            }
+        } catch (IOException e) {
+            throw new UnhandledServerException("Failed to encode row for COPY TO STDOUT", e);
+        }
+        Messages.sendCopyData(directChannel, out.toByteArray());
+        out.reset();
+        if (rowCount % 1000 == 0) {
+            directChannel.flush();
+        }
+    }
+
+    @Override
+    public void allFinished() {
+        start();
+        releaseTextValue();
+        Messages.sendCopyDone(directChannel);
+        ChannelFuture sendCommandComplete = Messages.sendCommandComplete(directChannel, query, rowCount);
+        channel.writePendingMessages(delayedWrites);
+        channel.flush();
+        sendCommandComplete.addListener(f -> super.allFinished());
+    }
+
+    @Override
+    public void fail(@NotNull Throwable throwable) {
+        releaseTextValue();
+        // An ErrorResponse also ends the copy-out mode of the client
+        ChannelFuture sendErrorResponse = Messages.sendErrorResponse(directChannel, accessControl, throwable);
+        channel.writePendingMessages(delayedWrites);
+        channel.flush();
+        sendErrorResponse.addListener(f -> super.fail(throwable));
+    }
+
+    private void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        Messages.sendCopyOutResponse(directChannel, columnNames.size());
+        if (header && format == FileUriCollectPhase.InputFormat.CSV) {
+            for (int i = 0; i < columnNames.size(); i++) {
+                if (i > 0) {
+                    out.write(delimiter);
+                }
+                writeCsvValue(columnNames.get(i));
+            }
+            out.write(NEW_LINE);
+            Messages.sendCopyData(directChannel, out.toByteArray());
+            out.reset();
+        }
+    }
+
+    private void writeJsonLine(Row row) throws IOException {
+        try (XContentBuilder builder = XContentFactory.json(out)) {
+            builder.startObject();
+            for (int i = 0; i < columnNames.size(); i++) {
+                builder.field(columnNames.get(i), row.get(i));
+            }
+            builder.endObject();
+        }
+        out.write(NEW_LINE);
+    }
+
+    private void releaseTextValue() {
+        if (textValue.refCnt() > 0) {
+            textValue.release();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void writeTextLine(Row row) {
+        for (int i = 0; i < pgTypes.size(); i++) {
+            if (i > 0) {
+                out.write(delimiter);
+            }
+            Object value = row.get(i);
+            if (value == null) {
+                out.write(BACKSLASH);
+                out.write('N');
+                continue;
+            }
+            textValue.clear();
+            ((PGType) pgTypes.get(i)).writeAsText(textValue, value);
+            textValue.skipBytes(Integer.BYTES); // length prefix
+            while (textValue.isReadable()) {
+                writeTextByte(textValue.readByte());
+            }
+        }
+        out.write(NEW_LINE);
+    }
+
+    /**
+     * Escapes backslashes, line breaks and the delimiter.
+     * Bytes of multi-byte UTF-8 characters can't clash with them.
+     */
+    private void writeTextByte(byte b) {
+        switch (b) {
+            case '\\' -> {
+                out.write(BACKSLASH);
+                out.write(BACKSLASH);
+            }
+            case '\n' -> {
+                out.write(BACKSLASH);
+                out.write('n');
+            }
+            case '\r' -> {
+                out.write(BACKSLASH);
+                out.write('r');
+            }
+            case '\t' -> {
+                out.write(BACKSLASH);
+                out.write('t');
+            }
+            default -> {
+                if (b == delimiter) {
+                    out.write(BACKSLASH);
+                }
+                out.write(b);
+            }
+        }
+    }
+
+    private void writeCsvLine(Row row) throws IOException {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (i > 0) {
+                out.write(delimiter);
+            }
+            Object value = row.get(i);
+            if (value == null) {
+                // An empty unquoted field is read as null
+                continue;
+            }
+            if (value instanceof Map<?, ?> || value instanceof Collection<?>) {
+                writeCsvValue(Strings.toString(JsonXContent.builder().value(value)));
+            } else {
+                writeCsvValue(value.toString());
+            }
+        }
+        out.write(NEW_LINE);
+    }
+
+    private void writeCsvValue(String value) {
+        boolean quote = value.isEmpty()
+            || value.indexOf(delimiter) >= 0
+            || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0
+            || value.indexOf('\r') >= 0;
+        if (quote) {
+            value = '"' + value.replace("\"", "\"\"") + '"';
+        }
+        out.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -516,6 +516,67 @@ public class Messages {
         return sendShortMsg(channel, 's', "sentPortalSuspended");
     }
 
+    /**
+     * CopyInResponse
+     * | 'G' | int32 len | int8 format | int16 numColumns | int16 format (per column)
+     * <p>
+     * Only the textual format (0) is supported.
+     */
+    static ChannelFuture sendCopyInResponse(Channel channel, int numColumns) {
+        return sendCopyResponse(channel, 'G', numColumns, "sentCopyInResponse");
+    }
+
+    /**
+     * CopyOutResponse
+     * | 'H' | int32 len | int8 format | int16 numColumns | int16 format (per column)
+     * <p>
+     * Only the textual format (0) is supported.
+     */
+    static ChannelFuture sendCopyOutResponse(Channel channel, int numColumns) {
+        return sendCopyResponse(channel, 'H', numColumns, "sentCopyOutResponse");
+    }
+
+    private static ChannelFuture sendCopyResponse(Channel channel,
+                                                  char msgType,
+                                                  int numColumns,
+                                                  final String traceLogMsg) {
+        int length = 4 + 1 + 2 + numColumns * 2;
+        ByteBuf buffer = channel.alloc().buffer(length + 1);
+        buffer.writeByte(msgType);
+        buffer.writeInt(length);
+        buffer.writeByte(0);
+        buffer.writeShort(numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            buffer.writeShort(0);
+        }
+        ChannelFuture channelFuture = channel.write(buffer);
+        if (LOGGER.isTraceEnabled()) {
+            channelFuture.addListener((ChannelFutureListener) future -> LOGGER.trace(traceLogMsg));
+        }
+        return channelFuture;
+    }
+
+    /**
+     * CopyData
+     * | 'd' | int32 len | bytes data
+     */
+    static ChannelFuture sendCopyData(Channel channel, byte[] data) {
+        int length = 4 + data.length;
+        ByteBuf buffer = channel.alloc().buffer(length + 1);
+        buffer.writeByte('d');
+        buffer.writeInt(length);
+        buffer.writeBytes(data);
+        return channel.write(buffer);
+    }
+
+    /**
+     * CopyDone
+     * | 'c' | int32 len |
+     */
+    static ChannelFuture sendCopyDone(Channel channel) {
+        return sendShortMsg(channel, 'c', "sentCopyDone");
+    }
+
     /**
      * CloseComplete
      * | '3' | int32 len |
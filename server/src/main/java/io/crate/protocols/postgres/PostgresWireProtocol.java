@@ -53,6 +53,7 @@ import io.crate.action.sql.DescribeResult;
 import io.crate.action.sql.ResultReceiver;
 import io.crate.action.sql.Session;
 import io.crate.action.sql.Sessions;
+import io.crate.analyze.AnalyzedCopyToStdout;
 import io.crate.auth.AccessControl;
 import io.crate.auth.Authentication;
 import io.crate.auth.AuthenticationMethod;
@@ -60,8 +61,10 @@ import io.crate.auth.Credentials;
 import io.crate.auth.Protocol;
 import org.jetbrains.annotations.VisibleForTesting;
 import io.crate.common.collections.Lists;
+import io.crate.execution.engine.collect.files.CopyInStream;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
 import io.crate.metadata.settings.CoordinatorSessionSettings;
 import io.crate.metadata.settings.session.SessionSetting;
 import io.crate.metadata.settings.session.SessionSettingRegistry;
@@ -184,6 +187,45 @@ import joptsimple.OptionSet;
  *          |                                  |
  *          |  ReadyForQuery                   |
  *          |<---------------------------------|
+ *
+ * COPY FROM STDIN (Copy In)
+ *
+ *          +                                  +
+ *          |   Q (COPY t FROM STDIN)          |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CopyInResponse               |
+ *          |<---------------------------------|
+ *          |                                  |
+ *          |     CopyData                     |
+ *          |--------------------------------->|
+ *          |     CopyData                     |
+ *          |--------------------------------->|
+ *          |     CopyDone | CopyFail          |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CommandComplete |            |
+ *          |     ErrorResponse                |
+ *          |<---------------------------------|
+ *          |     ReadyForQuery                |
+ *          |<---------------------------------|
+ *
+ * COPY (query) TO STDOUT (Copy Out)
+ *
+ *          +                                  +
+ *          |   Q (COPY (query) TO STDOUT)     |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CopyOutResponse              |
+ *          |<---------------------------------|
+ *          |     CopyData                     |
+ *          |<---------------------------------|
+ *          |     CopyDone                     |
+ *          |<---------------------------------|
+ *          |     CommandComplete              |
+ *          |<---------------------------------|
+ *          |     ReadyForQuery                |
+ *          |<---------------------------------|
  * </pre>
  * <p>
  * Take a look at {@link Messages} to see how the messages are structured.
@@ -213,6 +255,12 @@ public class PostgresWireProtocol {
     private AuthenticationContext authContext;
     private Properties properties;
 
+    /**
+     * Set while the client streams data for a {@code COPY FROM STDIN} statement
+     */
+    @Nullable
+    private CopyInStream copyIn;
+
     PostgresWireProtocol(Sessions sessions,
                          SessionSettingRegistry sessionSettingRegistry,
                          Function<CoordinatorSessionSettings, AccessControl> getAcessControl,
@@ -363,6 +411,15 @@ public class PostgresWireProtocol {
                 case 'C':
                     handleClose(buffer, channel);
                     return;
+                case 'd':
+                    handleCopyData(buffer);
+                    return;
+                case 'c':
+                    handleCopyDone();
+                    return;
+                case 'f':
+                    handleCopyFail(buffer);
+                    return;
                 case 'X': // Terminate (called when jdbc connection is closed)
                     closeSession();
                     channel.close();
@@ -398,6 +455,10 @@ public class PostgresWireProtocol {
         public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
             LOGGER.trace("channelDisconnected");
             channel = null;
+            if (copyIn != null) {
+                copyIn.fail("Connection closed");
+                copyIn = null;
+            }
             closeSession();
             super.channelUnregistered(ctx);
         }
@@ -704,7 +765,18 @@ public class PostgresWireProtocol {
 
         DelayedWrites delayedWrites = channel.delayWrites();
         ResultReceiver<?> resultReceiver;
-        if (outputTypes == null) {
+        AnalyzedCopyToStdout copyToStdout = session.getCopyToStdout(portalName);
+        if (copyToStdout != null) {
+            maxRows = 0;
+            resultReceiver = new CopyOutReceiver(
+                query,
+                channel,
+                delayedWrites,
+                getAccessControl.apply(session.sessionSettings()),
+                columnNames(copyToStdout),
+                copyToStdout
+            );
+        } else if (outputTypes == null) {
             // this is a DML query
             maxRows = 0;
             resultReceiver = new RowCountReceiver(
@@ -748,6 +820,7 @@ public class PostgresWireProtocol {
         try {
             ReadyForQueryCallback readyForQueryCallback = new ReadyForQueryCallback(channel, session.transactionState());
             session.sync().whenComplete(readyForQueryCallback);
+            maybeStartCopyIn(channel);
         } catch (Throwable t) {
             channel.discardDelayedWrites();
             Messages.sendErrorResponse(channel, getAccessControl.apply(session.sessionSettings()), t);
@@ -806,8 +879,20 @@ public class PostgresWireProtocol {
             session.bind("", "", Collections.emptyList(), null);
             DescribeResult describeResult = session.describe('P', "");
             List<Symbol> fields = describeResult.getFields();
+            AnalyzedCopyToStdout copyToStdout = session.getCopyToStdout("");
 
-            if (fields == null) {
+            if (copyToStdout != null) {
+                DelayedWrites delayedWrites = channel.delayWrites();
+                CopyOutReceiver copyOutReceiver = new CopyOutReceiver(
+                    query,
+                    channel,
+                    delayedWrites,
+                    accessControl,
+                    columnNames(copyToStdout),
+                    copyToStdout
+                );
+                session.execute("", 0, copyOutReceiver);
+            } else if (fields == null) {
                 DelayedWrites delayedWrites = channel.delayWrites();
                 RowCountReceiver rowCountReceiver = new RowCountReceiver(
                     query,
@@ -830,7 +915,9 @@ public class PostgresWireProtocol {
                 );
                 session.execute("", 0, resultSetReceiver);
             }
-            return session.sync();
+            CompletableFuture<?> sync = session.sync();
+            maybeStartCopyIn(channel);
+            return sync;
         } catch (Throwable t) {
             channel.discardDelayedWrites();
             Messages.sendErrorResponse(channel, accessControl, t);
@@ -839,6 +926,75 @@ public class PostgresWireProtocol {
         }
     }
 
+    private static List<String> columnNames(AnalyzedCopyToStdout copyToStdout) {
+        List<Symbol> outputs = copyToStdout.query().outputs();
+        assert outputs != null : "The query of COPY TO STDOUT must have outputs";
+        return Lists.map(outputs, x -> Symbols.pathFromSymbol(x).sqlFqn());
+    }
+
+    /**
+     * Switches to the copy-in mode if the just triggered execution is a {@code COPY FROM STDIN}.
+     * The statement completes (and sends CommandComplete) once the client sent {@code CopyDone}
+     * and all data was imported.
+     */
+    private void maybeStartCopyIn(DelayableWriteChannel channel) {
+        CopyInStream stream = session.getCopyInStream();
+        if (stream == null) {
+            return;
+        }
+        copyIn = stream;
+        Channel directChannel = channel.bypassDelay();
+        // Stop reading from the client while the import can't keep up
+        stream.flowControl(autoRead -> directChannel.config().setAutoRead(autoRead));
+        // The columns are defined by the data (JSON objects or CSV header), not by the response
+        Messages.sendCopyInResponse(directChannel, 0);
+        directChannel.flush();
+    }
+
+    /**
+     * CopyData
+     * | 'd' | int32 len | bytes data
+     */
+    private void handleCopyData(ByteBuf buffer) {
+        int length = decoder.payloadLength();
+        CopyInStream stream = copyIn;
+        if (stream == null) {
+            // Like PostgreSQL, ignore data if there is no COPY in progress (e.g. because it failed)
+            buffer.skipBytes(length);
+            return;
+        }
+        byte[] bytes = new byte[length];
+        buffer.readBytes(bytes);
+        stream.write(bytes);
+    }
+
+    /**
+     * CopyDone
+     * | 'c' | int32 len
+     */
+    private void handleCopyDone() {
+        CopyInStream stream = copyIn;
+        if (stream != null) {
+            copyIn = null;
+            stream.finish();
+        }
+    }
+
+    /**
+     * CopyFail
+     * | 'f' | int32 len | string errorMessage
+     */
+    private void handleCopyFail(ByteBuf buffer) {
+        String message = readCString(buffer);
+        CopyInStream stream = copyIn;
+        if (stream != null) {
+            copyIn = null;
+            stream.fail(message);
+            // Rows read so far might already be imported, but the statement must not report success
+            session.cancelCurrentJob();
+        }
+    }
+
     private void handleCancelRequestBody(ByteBuf buffer, Channel channel) {
         var keyData = KeyData.of(buffer);
 
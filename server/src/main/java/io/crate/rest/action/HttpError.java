@@ -86,9 +86,16 @@ public class HttpError {
     }
 
     public XContentBuilder toXContent(boolean includeErrorTrace) throws IOException {
+        XContentBuilder builder = JsonXContent.builder().startObject();
+        return toXContent(builder, includeErrorTrace).endObject();
+    }
+
+    /**
+     * Adds the error fields to an object which has already been started on the builder
+     */
+    XContentBuilder toXContent(XContentBuilder builder, boolean includeErrorTrace) throws IOException {
         // @formatter:off
-        XContentBuilder builder = JsonXContent.builder()
-            .startObject()
+        builder
             .startObject("error")
             .field("message", userFriendlyMessage(t))
             .field("code", errorCode)
@@ -98,7 +105,7 @@ public class HttpError {
         if (includeErrorTrace) {
             builder.field("error_trace", Exceptions.stackTrace(t));
         }
-        return builder.endObject();
+        return builder;
     }
 
     @Override
@@ -112,12 +112,16 @@ class ResultToXContentBuilder {
      * @param numCols
      */
     ResultToXContentBuilder addRow(Row row, int numCols) throws IOException {
+        addRow(builder, row, numCols);
+        return this;
+    }
+
+    static void addRow(XContentBuilder builder, Row row, int numCols) throws IOException {
         builder.startArray();
         for (int j = 0; j < numCols; j++) {
             builder.value(row.get(j));
         }
         builder.endArray();
-        return this;
     }
 
     /**
@@ -143,6 +147,19 @@ class ResultToXContentBuilder {
         return this;
     }
 
+    ResultToXContentBuilder error(HttpError error, boolean includeErrorTrace) throws IOException {
+        error.toXContent(builder, includeErrorTrace);
+        return this;
+    }
+
+    /**
+     * Writes buffered content to the underlying output stream
+     */
+    ResultToXContentBuilder flush() throws IOException {
+        builder.flush();
+        return this;
+    }
+
     XContentBuilder build() throws IOException {
         builder.endObject();
         return builder;
@@ -92,6 +92,9 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
 
     private Session session;
 
+    @Nullable
+    private volatile StreamingResultSetResponse activeStream;
+
     public SqlHttpHandler(Settings settings,
                           Sessions sessions,
                           Function<String, CircuitBreaker> circuitBreakerProvider,
@@ -110,11 +113,14 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         if (request.uri().startsWith("/_sql")) {
             Session session = ensureSession(request);
             Map<String, List<String>> parameters = new QueryStringDecoder(request.uri()).parameters();
-            ByteBuf content = request.content();
-            handleSQLRequest(session, content, paramContainFlag(parameters, "types"))
+            handleSQLRequest(session, ctx, request, parameters)
                 .whenComplete((result, t) -> {
+                    activeStream = null;
                     try {
-                        sendResponse(session, ctx, request, parameters, result, t);
+                        // A streamed result set has already been sent
+                        if (result != null || t != null) {
+                            sendResponse(session, ctx, request, parameters, result, t);
+                        }
                     } catch (Throwable ex) {
                         LOGGER.error("Error sending response", ex);
                         throw ex;
@@ -135,6 +141,44 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         return values != null && (values.equals(singletonList("")) || values.equals(singletonList("true")));
     }
 
+    /**
+     * @return the format of a streamed response, null if the response is sent at once.
+     *         Streaming is enabled with the flag parameter "stream" or the format parameter "ndjson".
+     *         The format parameter is only validated for streamed responses.
+     */
+    @Nullable
+    private static StreamingResultSetResponse.Format streamFormat(Map<String, List<String>> parameters) {
+        List<String> formats = parameters.get("format");
+        String format = formats == null || formats.isEmpty() ? null : formats.get(0);
+        if (paramContainFlag(parameters, "stream")) {
+            return format == null
+                ? StreamingResultSetResponse.Format.JSON
+                : StreamingResultSetResponse.Format.of(format);
+        }
+        if (format != null && format.equalsIgnoreCase("ndjson")) {
+            return StreamingResultSetResponse.Format.NDJSON;
+        }
+        return null;
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        StreamingResultSetResponse stream = activeStream;
+        if (stream != null) {
+            stream.resumeIfWritable();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        StreamingResultSetResponse stream = activeStream;
+        if (stream != null) {
+            stream.resumeIfWritable();
+        }
+        super.channelInactive(ctx);
+    }
+
     @Override
     public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
         if (session != null) {
@@ -188,13 +232,22 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         ctx.writeAndFlush(resp, promise);
     }
 
-    private CompletableFuture<XContentBuilder> handleSQLRequest(Session session, ByteBuf content, boolean includeTypes) {
+    /**
+     * @return future with the response content, or with null if the response has been streamed already
+     */
+    private CompletableFuture<XContentBuilder> handleSQLRequest(Session session,
+                                                                ChannelHandlerContext ctx,
+                                                                FullHttpRequest request,
+                                                                Map<String, List<String>> parameters) {
         SQLRequestParseContext parseContext;
+        StreamingResultSetResponse.Format streamFormat;
         try {
-            parseContext = SQLRequestParser.parseSource(Netty4Utils.toBytesReference(content));
+            parseContext = SQLRequestParser.parseSource(Netty4Utils.toBytesReference(request.content()));
+            streamFormat = streamFormat(parameters);
         } catch (Throwable t) {
             return CompletableFuture.failedFuture(t);
         }
+        boolean includeTypes = paramContainFlag(parameters, "types");
         List<Object> args = parseContext.args();
         List<List<Object>> bulkArgs = parseContext.bulkArgs();
         if (bothProvided(args, bulkArgs)) {
@@ -203,6 +256,18 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         }
         try {
             if (args != null || bulkArgs == null) {
+                if (streamFormat != null) {
+                    return executeStreamingRequest(
+                        session,
+                        ctx,
+                        request,
+                        parseContext.stmt(),
+                        args,
+                        streamFormat,
+                        includeTypes,
+                        paramContainFlag(parameters, "error_trace")
+                    );
+                }
                 return executeSimpleRequest(session, parseContext.stmt(), args, includeTypes);
             } else {
                 return executeBulkRequest(session, parseContext.stmt(), bulkArgs);
@@ -261,6 +326,48 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
             .thenCompose(ignored -> resultReceiver.completionFuture());
     }
 
+    /**
+     * Like {@link #executeSimpleRequest} but sends result sets as {@link StreamingResultSetResponse}
+     */
+    private CompletableFuture<XContentBuilder> executeStreamingRequest(Session session,
+                                                                       ChannelHandlerContext ctx,
+                                                                       FullHttpRequest request,
+                                                                       String stmt,
+                                                                       List<Object> args,
+                                                                       StreamingResultSetResponse.Format format,
+                                                                       boolean includeTypes,
+                                                                       boolean includeErrorTrace) throws IOException {
+        long startTimeInNs = System.nanoTime();
+        session.parse(UNNAMED, stmt, emptyList());
+        session.bind(UNNAMED, UNNAMED, args == null ? emptyList() : args, null);
+        DescribeResult description = session.describe('P', UNNAMED);
+        List<Symbol> resultFields = description.getFields();
+        if (resultFields == null) {
+            var resultReceiver = new RestRowCountReceiver(JsonXContent.builder(), startTimeInNs, includeTypes);
+            session.execute(UNNAMED, 0, resultReceiver);
+            return session.sync()
+                .thenCompose(ignored -> resultReceiver.completionFuture());
+        }
+        CircuitBreaker breaker = circuitBreakerProvider.apply(HierarchyCircuitBreakerService.QUERY);
+        RamAccounting ramAccounting = new BlockBasedRamAccounting(
+            b -> breaker.addEstimateBytesAndMaybeBreak(b, "http-result"),
+            MAX_BLOCK_SIZE_IN_BYTES);
+        StreamingResultSetResponse response = new StreamingResultSetResponse(
+            ctx,
+            request,
+            corsConfig,
+            roles.getAccessControl(session.sessionSettings()),
+            format,
+            resultFields,
+            includeTypes,
+            includeErrorTrace,
+            startTimeInNs,
+            ramAccounting
+        );
+        activeStream = response;
+        return response.execute(session);
+    }
+
     private CompletableFuture<XContentBuilder> executeBulkRequest(Session session,
                                                                   String stmt,
                                                                   List<List<Object>> bulkArgs) {
@@ -0,0 +1,437 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.rest.action;
+
+import static io.crate.action.sql.Session.UNNAMED;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.elasticsearch.http.netty4.cors.Netty4CorsConfig;
+import org.elasticsearch.http.netty4.cors.Netty4CorsHandler;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.action.sql.BaseResultReceiver;
+import io.crate.action.sql.Session;
+import io.crate.auth.AccessControl;
+import io.crate.breaker.TypedRowAccounting;
+import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.exceptions.SQLExceptions;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
+import io.crate.protocols.http.Headers;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+
+/**
+ * Writes the result set of a statement as HTTP response while the rows are being produced.
+ *
+ * <p>
+ * The statement is executed with a fetch size of {@link #BATCH_SIZE} rows, the same way a PostgreSQL client
+ * with a fetch size executes a portal. Each batch is written as one chunk of a response using chunked transfer
+ * encoding. Once a batch is written the portal stays suspended until the channel becomes writable again, so
+ * the rows of a slow client are not buffered on the heap.
+ * </p>
+ *
+ * <p>
+ * Results which fit into a single batch are sent as a regular response with a content length. Errors which
+ * happen before the first chunk has been sent complete the future returned by {@link #execute(Session)}
+ * exceptionally, so that they can be sent with the matching HTTP status. Errors after that are added to the body,
+ * as the status has been sent already.
+ * </p>
+ */
+final class StreamingResultSetResponse {
+
+    static final int BATCH_SIZE = 1000;
+
+    enum Format {
+        JSON("application/json; charset=UTF-8"),
+        NDJSON("application/x-ndjson; charset=UTF-8");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        static Format of(String value) {
+            return switch (value.toLowerCase(Locale.ENGLISH)) {
+                case "json" -> JSON;
+                case "ndjson" -> NDJSON;
+                default -> throw new IllegalArgumentException(
+                    "Unsupported response format `" + value + "`, supported formats are `json` and `ndjson`");
+            };
+        }
+    }
+
+    private final ChannelHandlerContext ctx;
+    private final FullHttpRequest request;
+    private final Netty4CorsConfig corsConfig;
+    private final AccessControl accessControl;
+    private final Format format;
+    private final List<Symbol> outputFields;
+    private final boolean includeErrorTrace;
+    private final long startTimeNs;
+    private final RamAccounting ramAccounting;
+    private final TypedRowAccounting rowAccounting;
+    private final ChunkOutputStream out;
+    private final CompletableFuture<XContentBuilder> result = new CompletableFuture<>();
+    private final AtomicReference<Runnable> pendingResume = new AtomicReference<>();
+
+    /**
+     * Builder of the whole response for {@link Format#JSON}, null for {@link Format#NDJSON}
+     */
+    @Nullable
+    private final ResultToXContentBuilder jsonBuilder;
+
+    private boolean headerSent = false;
+    private long rowCount = 0;
+
+    StreamingResultSetResponse(ChannelHandlerContext ctx,
+                               FullHttpRequest request,
+                               Netty4CorsConfig corsConfig,
+                               AccessControl accessControl,
+                               Format format,
+                               List<Symbol> outputFields,
+                               boolean includeTypes,
+                               boolean includeErrorTrace,
+                               long startTimeNs,
+                               RamAccounting ramAccounting) throws IOException {
+        this.ctx = ctx;
+        this.request = request;
+        this.corsConfig = corsConfig;
+        this.accessControl = accessControl;
+        this.format = format;
+        this.outputFields = outputFields;
+        this.includeErrorTrace = includeErrorTrace;
+        this.startTimeNs = startTimeNs;
+        this.ramAccounting = ramAccounting;
+        this.rowAccounting = new TypedRowAccounting(Symbols.typeView(outputFields), ramAccounting);
+        this.out = new ChunkOutputStream(ctx);
+        ResultToXContentBuilder header = ResultToXContentBuilder
+            .builder(new XContentBuilder(JsonXContent.JSON_XCONTENT, out))
+            .cols(outputFields);
+        if (includeTypes) {
+            header.colTypes(outputFields);
+        }
+        if (format == Format.JSON) {
+            this.jsonBuilder = header.startRows();
+        } else {
+            this.jsonBuilder = null;
+            closeLine(header.build());
+        }
+    }
+
+    /**
+     * Executes the bound unnamed portal of the session and streams its rows.
+     *
+     * @return future completed with null once the response has been sent,
+     *         or exceptionally if the statement failed before any chunk has been sent.
+     */
+    CompletableFuture<XContentBuilder> execute(Session session) {
+        try {
+            session.execute(UNNAMED, BATCH_SIZE, new BatchReceiver(session));
+            session.sync();
+        } catch (Throwable t) {
+            fail(t);
+        }
+        return result;
+    }
+
+    /**
+     * Continues with the next batch if the execution is suspended and the channel is writable.
+     * If the channel has been closed the response is given up, the suspended portal is closed with the session.
+     */
+    void resumeIfWritable() {
+        Channel channel = ctx.channel();
+        boolean active = channel.isActive();
+        if (active && !channel.isWritable()) {
+            return;
+        }
+        Runnable resume = pendingResume.getAndSet(null);
+        if (resume == null) {
+            return;
+        }
+        if (active) {
+            // Fork to avoid growing the stack with every batch
+            ctx.executor().execute(resume);
+        } else {
+            out.release();
+            ramAccounting.close();
+            result.complete(null);
+        }
+    }
+
+    private void addRow(Row row) {
+        rowAccounting.accountForAndMaybeBreak(row);
+        try {
+            if (jsonBuilder == null) {
+                XContentBuilder line = new XContentBuilder(JsonXContent.JSON_XCONTENT, out);
+                ResultToXContentBuilder.addRow(line, row, outputFields.size());
+                closeLine(line);
+            } else {
+                jsonBuilder.addRow(row, outputFields.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rowCount++;
+    }
+
+    private void batchFinished(Session session) {
+        try {
+            if (jsonBuilder != null) {
+                jsonBuilder.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sendHeaderIfMissing();
+        ctx.writeAndFlush(new DefaultHttpContent(out.takeChunk()));
+        rowAccounting.release();
+        pendingResume.set(() -> {
+            try {
+                session.execute(UNNAMED, BATCH_SIZE, new BatchReceiver(session));
+            } catch (Throwable t) {
+                fail(t);
+            }
+        });
+        resumeIfWritable();
+    }
+
+    private void finish() {
+        try {
+            if (jsonBuilder == null) {
+                XContentBuilder line = ResultToXContentBuilder
+                    .builder(new XContentBuilder(JsonXContent.JSON_XCONTENT, out))
+                    .rowCount(rowCount)
+                    .duration(startTimeNs)
+                    .build();
+                closeLine(line);
+            } else {
+                jsonBuilder
+                    .finishRows()
+                    .rowCount(rowCount)
+                    .duration(startTimeNs)
+                    .build()
+                    .close();
+            }
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        sendLastChunk();
+    }
+
+    private void fail(Throwable t) {
+        if (result.isDone()) {
+            return;
+        }
+        if (!headerSent) {
+            out.release();
+            ramAccounting.close();
+            result.completeExceptionally(t);
+            return;
+        }
+        HttpError error = HttpError.fromThrowable(SQLExceptions.prepareForClientTransmission(accessControl, t));
+        try {
+            if (jsonBuilder == null) {
+                XContentBuilder line = ResultToXContentBuilder
+                    .builder(new XContentBuilder(JsonXContent.JSON_XCONTENT, out))
+                    .rowCount(rowCount)
+                    .error(error, includeErrorTrace)
+                    .build();
+                closeLine(line);
+            } else {
+                jsonBuilder
+                    .finishRows()
+                    .rowCount(rowCount)
+                    .error(error, includeErrorTrace)
+                    .build()
+                    .close();
+            }
+        } catch (IOException e) {
+            // Abort the response, the client will notice the missing last chunk
+            out.release();
+            ctx.close();
+            ramAccounting.close();
+            result.complete(null);
+            return;
+        }
+        sendLastChunk();
+    }
+
+    private void closeLine(XContentBuilder line) throws IOException {
+        line.close();
+        out.write('\n');
+    }
+
+    private boolean keepAlive() {
+        return !Headers.isCloseConnection(request);
+    }
+
+    private void sendHeaderIfMissing() {
+        if (headerSent) {
+            return;
+        }
+        headerSent = true;
+        HttpVersion httpVersion = request.protocolVersion();
+        HttpResponse resp = new DefaultHttpResponse(httpVersion, HttpResponseStatus.OK);
+        resp.headers().add(HttpHeaderNames.CONTENT_TYPE, format.mediaType);
+        Netty4CorsHandler.setCorsResponseHeaders(request, resp, corsConfig);
+        // HTTP/1.0 doesn't support chunked transfer encoding, the end of the body is marked by closing the connection
+        if (httpVersion.equals(HttpVersion.HTTP_1_1)) {
+            HttpUtil.setTransferEncodingChunked(resp, true);
+        }
+        ctx.write(resp);
+    }
+
+    private void sendLastChunk() {
+        ChannelFuture lastWrite;
+        boolean closeConnection = !keepAlive() || !request.protocolVersion().equals(HttpVersion.HTTP_1_1);
+        if (headerSent) {
+            lastWrite = ctx.writeAndFlush(new DefaultLastHttpContent(out.takeChunk()));
+        } else {
+            ByteBuf content = out.takeChunk();
+            HttpVersion httpVersion = request.protocolVersion();
+            DefaultFullHttpResponse resp = new DefaultFullHttpResponse(httpVersion, HttpResponseStatus.OK, content);
+            resp.headers().add(HttpHeaderNames.CONTENT_TYPE, format.mediaType);
+            resp.headers().add(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(content.readableBytes()));
+            Netty4CorsHandler.setCorsResponseHeaders(request, resp, corsConfig);
+            closeConnection = !keepAlive();
+            if (!closeConnection) {
+                Headers.setKeepAlive(httpVersion, resp);
+            }
+            lastWrite = ctx.writeAndFlush(resp);
+        }
+        if (closeConnection) {
+            lastWrite.addListener(ChannelFutureListener.CLOSE);
+        }
+        ramAccounting.close();
+        result.complete(null);
+    }
+
+    /**
+     * Receives the rows of one batch. A new receiver is used for every resumption of the suspended portal.
+     */
+    private class BatchReceiver extends BaseResultReceiver {
+
+        private final Session session;
+
+        BatchReceiver(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public void setNextRow(Row row) {
+            addRow(row);
+        }
+
+        @Override
+        public void batchFinished() {
+            // Completes this receiver, the next execute on the portal uses a new one
+            super.allFinished();
+            StreamingResultSetResponse.this.batchFinished(session);
+        }
+
+        @Override
+        public void allFinished() {
+            finish();
+            super.allFinished();
+        }
+
+        @Override
+        public void fail(Throwable t) {
+            StreamingResultSetResponse.this.fail(t);
+            super.fail(t);
+        }
+    }
+
+    /**
+     * Collects the bytes written by the {@link XContentBuilder} into buffers which are sent as chunks
+     */
+    private static final class ChunkOutputStream extends OutputStream {
+
+        private final ChannelHandlerContext ctx;
+
+        @Nullable
+        private ByteBuf buffer;
+
+        ChunkOutputStream(ChannelHandlerContext ctx) {
+            this.ctx = ctx;
+        }
+
+        private ByteBuf buffer() {
+            if (buffer == null) {
+                buffer = ctx.alloc().buffer();
+            }
+            return buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer().writeByte(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer().writeBytes(b, off, len);
+        }
+
+        /**
+         * @return the bytes written since the last call. Ownership is transferred to the caller.
+         */
+        ByteBuf takeChunk() {
+            ByteBuf chunk = buffer();
+            buffer = null;
+            return chunk;
+        }
+
+        void release() {
+            if (buffer != null) {
+                buffer.release();
+                buffer = null;
+            }
+        }
+    }
+}
@@ -51,6 +51,22 @@ public interface EqQuery<T> {
                      boolean hasDocValues,
                      boolean isIndexed);
 
+    /**
+     * Like {@link #rangeQuery} for a column the index is sorted by, see
+     * {@link org.elasticsearch.index.IndexSortConfig#INDEX_SORT_COLUMNS_SETTING}.
+     * Types which can skip to the matching block of docs of a sorted segment override it.
+     */
+    @Nullable
+    default Query indexSortRangeQuery(String field,
+                                      T lowerTerm,
+                                      T upperTerm,
+                                      boolean includeLower,
+                                      boolean includeUpper,
+                                      boolean hasDocValues,
+                                      boolean isIndexed) {
+        return rangeQuery(field, lowerTerm, upperTerm, includeLower, includeUpper, hasDocValues, isIndexed);
+    }
+
     @Nullable
     Query termsQuery(String field, List<T> nonNullValues, boolean hasDocValues, boolean isIndexed);
 }
@@ -27,6 +27,8 @@ import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.search.Query;
 
+import io.crate.lucene.IndexSortRangeQuery;
+
 public class IntEqQuery implements EqQuery<Number> {
 
     @Override
@@ -48,14 +50,8 @@ public class IntEqQuery implements EqQuery<Number> {
                             boolean includeUpper,
                             boolean hasDocValues,
                             boolean isIndexed) {
-        int lower = Integer.MIN_VALUE;
-        if (lowerTerm != null) {
-            lower = includeLower ? lowerTerm.intValue() : lowerTerm.intValue() + 1;
-        }
-        int upper = Integer.MAX_VALUE;
-        if (upperTerm != null) {
-            upper = includeUpper ? upperTerm.intValue() : upperTerm.intValue() - 1;
-        }
+        int lower = lower(lowerTerm, includeLower);
+        int upper = upper(upperTerm, includeUpper);
         if (isIndexed) {
             return IntPoint.newRangeQuery(field, lower, upper);
         }
@@ -65,6 +61,36 @@ public class IntEqQuery implements EqQuery<Number> {
         return null;
     }
 
+    @Override
+    public Query indexSortRangeQuery(String field,
+                                     Number lowerTerm,
+                                     Number upperTerm,
+                                     boolean includeLower,
+                                     boolean includeUpper,
+                                     boolean hasDocValues,
+                                     boolean isIndexed) {
+        Query query = rangeQuery(field, lowerTerm, upperTerm, includeLower, includeUpper, hasDocValues, isIndexed);
+        if (query == null || !hasDocValues) {
+            return query;
+        }
+        // Skips to the matching block of docs in segments sorted by the column
+        return new IndexSortRangeQuery(field, lower(lowerTerm, includeLower), upper(upperTerm, includeUpper), query);
+    }
+
+    private static int lower(Number lowerTerm, boolean includeLower) {
+        if (lowerTerm == null) {
+            return Integer.MIN_VALUE;
+        }
+        return includeLower ? lowerTerm.intValue() : lowerTerm.intValue() + 1;
+    }
+
+    private static int upper(Number upperTerm, boolean includeUpper) {
+        if (upperTerm == null) {
+            return Integer.MAX_VALUE;
+        }
+        return includeUpper ? upperTerm.intValue() : upperTerm.intValue() - 1;
+    }
+
     @Override
     public Query termsQuery(String field, List<Number> nonNullValues, boolean hasDocValues, boolean isIndexed) {
         if (isIndexed) {
@@ -27,6 +27,8 @@ import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.search.Query;
 
+import io.crate.lucene.IndexSortRangeQuery;
+
 public class LongEqQuery implements EqQuery<Long> {
 
     @Override
@@ -48,12 +50,8 @@ public class LongEqQuery implements EqQuery<Long> {
                             boolean includeUpper,
                             boolean hasDocValues,
                             boolean isIndexed) {
-        long lower = lowerTerm == null
-            ? Long.MIN_VALUE
-            : (includeLower ? lowerTerm : lowerTerm + 1);
-        long upper = upperTerm == null
-            ? Long.MAX_VALUE
-            : (includeUpper ? upperTerm : upperTerm - 1);
+        long lower = lower(lowerTerm, includeLower);
+        long upper = upper(upperTerm, includeUpper);
         if (isIndexed) {
             return LongPoint.newRangeQuery(field, lower, upper);
         }
@@ -63,6 +61,34 @@ public class LongEqQuery implements EqQuery<Long> {
         return null;
     }
 
+    @Override
+    public Query indexSortRangeQuery(String field,
+                                     Long lowerTerm,
+                                     Long upperTerm,
+                                     boolean includeLower,
+                                     boolean includeUpper,
+                                     boolean hasDocValues,
+                                     boolean isIndexed) {
+        Query query = rangeQuery(field, lowerTerm, upperTerm, includeLower, includeUpper, hasDocValues, isIndexed);
+        if (query == null || !hasDocValues) {
+            return query;
+        }
+        // Skips to the matching block of docs in segments sorted by the column
+        return new IndexSortRangeQuery(field, lower(lowerTerm, includeLower), upper(upperTerm, includeUpper), query);
+    }
+
+    private static long lower(Long lowerTerm, boolean includeLower) {
+        return lowerTerm == null
+            ? Long.MIN_VALUE
+            : (includeLower ? lowerTerm : lowerTerm + 1);
+    }
+
+    private static long upper(Long upperTerm, boolean includeUpper) {
+        return upperTerm == null
+            ? Long.MAX_VALUE
+            : (includeUpper ? upperTerm : upperTerm - 1);
+    }
+
     @Override
     public Query termsQuery(String field, List<Long> nonNullValues, boolean hasDocValues, boolean isIndexed) {
         if (isIndexed) {
@@ -0,0 +1,312 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package org.elasticsearch.common.compress;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.util.compress.LZ4;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+
+/**
+ * {@link Compressor} implementation based on the LZ4 block compression of Lucene.
+ *
+ * <p>
+ * LZ4 has a lower compression ratio than DEFLATE but is several times faster, which makes it suitable to compress
+ * transport messages without the CPU cost of DEFLATE.
+ * </p>
+ *
+ * Format:
+ * <pre>
+ *  HEADER
+ *  [uncompressedLength: int][compressedLength: int][compressed bytes]    (repeated, up to BLOCK_SIZE uncompressed)
+ *  [0: int]                                                              (end of stream)
+ * </pre>
+ */
+public class Lz4Compressor implements Compressor {
+
+    // Must be different from the header of the other compressors and not be detectable as XContent
+    private static final byte[] HEADER = new byte[]{'L', 'Z', '4', '\0'};
+
+    public static final int BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * Upper bound of the compressed size of {@code length} bytes (LZ4 worst case for incompressible input)
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    @Override
+    public boolean isCompressed(BytesReference bytes) {
+        if (bytes.length() < HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; ++i) {
+            if (bytes.get(i) != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int headerLength() {
+        return HEADER.length;
+    }
+
+    @Override
+    public InputStream threadLocalInputStream(InputStream in) throws IOException {
+        final byte[] headerBytes = new byte[HEADER.length];
+        int len = 0;
+        while (len < headerBytes.length) {
+            final int read = in.read(headerBytes, len, headerBytes.length - len);
+            if (read == -1) {
+                break;
+            }
+            len += read;
+        }
+        if (len != HEADER.length || Arrays.equals(headerBytes, HEADER) == false) {
+            throw new IllegalArgumentException("Input stream is not compressed with LZ4!");
+        }
+        return new Lz4InputStream(in);
+    }
+
+    @Override
+    public OutputStream threadLocalOutputStream(OutputStream out) throws IOException {
+        out.write(HEADER);
+        return new Lz4OutputStream(out);
+    }
+
+    @Override
+    public BytesReference uncompress(BytesReference bytesReference) throws IOException {
+        try (InputStream in = threadLocalInputStream(bytesReference.streamInput())) {
+            return Streams.readFully(in);
+        }
+    }
+
+    @Override
+    public BytesReference compress(BytesReference bytesReference) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        try (OutputStream compressed = threadLocalOutputStream(out)) {
+            bytesReference.writeTo(compressed);
+        }
+        return out.bytes();
+    }
+
+    public static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24)
+            | ((bytes[offset + 1] & 0xFF) << 16)
+            | ((bytes[offset + 2] & 0xFF) << 8)
+            | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Decompresses a single block.
+     *
+     * @throws IOException if the block lengths are out of bounds
+     */
+    public static void decompressBlock(byte[] compressed,
+                                       int compressedLength,
+                                       byte[] dest,
+                                       int uncompressedLength) throws IOException {
+        LZ4.decompress(new ByteArrayDataInput(compressed, 0, compressedLength), uncompressedLength, dest, 0);
+    }
+
+    /**
+     * Validates the lengths of a block header
+     */
+    public static void ensureValidBlock(int uncompressedLength, int compressedLength) throws IOException {
+        if (uncompressedLength < 0 || uncompressedLength > BLOCK_SIZE
+            || compressedLength <= 0 || compressedLength > maxCompressedLength(uncompressedLength)) {
+            throw new IOException(
+                "Invalid LZ4 block: uncompressedLength=" + uncompressedLength + ", compressedLength=" + compressedLength);
+        }
+    }
+
+    private static class Lz4OutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BLOCK_SIZE];
+        private final byte[] compressed = new byte[maxCompressedLength(BLOCK_SIZE)];
+        private final LZ4.FastCompressionHashTable hashTable = new LZ4.FastCompressionHashTable();
+        private int position = 0;
+        private boolean closed = false;
+
+        Lz4OutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (position == BLOCK_SIZE) {
+                flushBlock();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (position == BLOCK_SIZE) {
+                    flushBlock();
+                }
+                int toCopy = Math.min(len, BLOCK_SIZE - position);
+                System.arraycopy(b, off, buffer, position, toCopy);
+                position += toCopy;
+                off += toCopy;
+                len -= toCopy;
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (position == 0) {
+                return;
+            }
+            ByteArrayDataOutput dataOutput = new ByteArrayDataOutput(compressed);
+            LZ4.compress(buffer, 0, position, dataOutput, hashTable);
+            int compressedLength = dataOutput.getPosition();
+            writeInt(out, position);
+            writeInt(out, compressedLength);
+            out.write(compressed, 0, compressedLength);
+            position = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBlock();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                flushBlock();
+                writeInt(out, 0);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private static class Lz4InputStream extends InputStream {
+
+        private final InputStream in;
+        private final byte[] blockHeader = new byte[Integer.BYTES * 2];
+        private final byte[] uncompressed = new byte[BLOCK_SIZE];
+        private final byte[] compressed = new byte[maxCompressedLength(BLOCK_SIZE)];
+        private int position = 0;
+        private int limit = 0;
+        private boolean endOfStream = false;
+
+        Lz4InputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (fill() == false) {
+                return -1;
+            }
+            return uncompressed[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (fill() == false) {
+                return -1;
+            }
+            int toCopy = Math.min(len, limit - position);
+            System.arraycopy(uncompressed, position, b, off, toCopy);
+            position += toCopy;
+            return toCopy;
+        }
+
+        @Override
+        public int available() {
+            return limit - position;
+        }
+
+        private boolean fill() throws IOException {
+            while (position == limit) {
+                if (endOfStream) {
+                    return false;
+                }
+                readBlock();
+            }
+            return true;
+        }
+
+        private void readBlock() throws IOException {
+            readFully(blockHeader, Integer.BYTES);
+            int uncompressedLength = readInt(blockHeader, 0);
+            if (uncompressedLength == 0) {
+                endOfStream = true;
+                return;
+            }
+            readFully(blockHeader, Integer.BYTES);
+            int compressedLength = readInt(blockHeader, 0);
+            ensureValidBlock(uncompressedLength, compressedLength);
+            readFully(compressed, compressedLength);
+            decompressBlock(compressed, compressedLength, uncompressed, uncompressedLength);
+            position = 0;
+            limit = uncompressedLength;
+        }
+
+        private void readFully(byte[] dest, int length) throws IOException {
+            int read = 0;
+            while (read < length) {
+                int n = in.read(dest, read, length - read);
+                if (n == -1) {
+                    throw new EOFException("Unexpected end of LZ4 compressed stream");
+                }
+                read += n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -27,9 +27,11 @@ import org.apache.lucene.util.CloseableThreadLocal;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
 
 /** Utility class to resolve the Lucene doc ID, version, seqNo and primaryTerms for a given uid. */
 public final class VersionsAndSeqNoResolver {
@@ -145,6 +147,54 @@ public final class VersionsAndSeqNoResolver {
         return null;
     }
 
+    /**
+     * Batched variant of {@link #loadDocIdAndVersion(IndexReader, Term, boolean)}.
+     * <p>
+     * The uids are looked up in sorted order, so that the terms enum of each segment
+     * seeks forward through the terms dictionary instead of starting over for every uid.
+     * Uids found in a segment are not looked up in the remaining segments.
+     * </p>
+     *
+     * @param terms uid terms; all terms must be of the same field
+     * @return the results in the order of {@code terms}; an entry is null if the uid wasn't found
+     */
+    public static DocIdAndVersion[] loadDocIdsAndVersions(IndexReader reader,
+                                                          List<Term> terms,
+                                                          boolean loadSeqNo) throws IOException {
+        DocIdAndVersion[] results = new DocIdAndVersion[terms.size()];
+        if (terms.isEmpty()) {
+            return results;
+        }
+        PerThreadIDVersionAndSeqNoLookup[] lookups = getLookupState(reader, terms.get(0).field());
+        int[] pending = IntStream.range(0, terms.size())
+            .boxed()
+            .sorted(Comparator.comparing(i -> terms.get(i).bytes()))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        int numPending = pending.length;
+        List<LeafReaderContext> leaves = reader.leaves();
+        // iterate backwards to optimize for the frequently updated documents
+        // which are likely to be in the last segments
+        for (int i = leaves.size() - 1; i >= 0 && numPending > 0; i--) {
+            final LeafReaderContext leaf = leaves.get(i);
+            PerThreadIDVersionAndSeqNoLookup lookup = lookups[leaf.ord];
+            int stillPending = 0;
+            for (int j = 0; j < numPending; j++) {
+                int idx = pending[j];
+                assert terms.get(idx).field().equals(lookup.uidField) : "all terms must be of the uid field";
+                DocIdAndVersion result = lookup.lookupVersion(terms.get(idx).bytes(), loadSeqNo, leaf);
+                if (result == null) {
+                    // compacting in place keeps the remaining uids sorted
+                    pending[stillPending++] = idx;
+                } else {
+                    results[idx] = result;
+                }
+            }
+            numPending = stillPending;
+        }
+        return results;
+    }
+
     /**
      * Loads the internal docId and sequence number of the latest copy for a given uid from the provided reader.
      * The result is either null or the live and latest version of the given uid.
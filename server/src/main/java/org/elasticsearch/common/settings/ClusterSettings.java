@@ -103,13 +103,18 @@ import io.crate.action.sql.Sessions;
 import io.crate.auth.AuthSettings;
 import io.crate.blob.v2.BlobIndicesService;
 import io.crate.cluster.gracefulstop.DecommissioningService;
+import io.crate.execution.engine.collect.ShardResultCache;
 import io.crate.execution.engine.collect.stats.JobsLogService;
+import io.crate.execution.engine.columnar.ColumnBatchProjectors;
 import io.crate.execution.engine.indexing.ShardingUpsertExecutor;
+import io.crate.execution.engine.spill.SpillSettings;
 import io.crate.execution.jobs.NodeLimits;
+import io.crate.expression.compiler.ScalarCompiler;
 import io.crate.fdw.ForeignDataWrappers;
 import io.crate.legacy.LegacySettings;
 import io.crate.memory.MemoryManagerFactory;
 import io.crate.metadata.settings.AnalyzerSettings;
+import io.crate.planner.PlanCache;
 import io.crate.protocols.postgres.PostgresNetty;
 import io.crate.protocols.ssl.SslSettings;
 import io.crate.replication.logical.LogicalReplicationSettings;
@@ -304,6 +309,8 @@ public final class ClusterSettings extends AbstractScopedSettings {
         TransportSettings.PUBLISH_PORT,
         TransportSettings.OLD_TRANSPORT_COMPRESS,
         TransportSettings.TRANSPORT_COMPRESS,
+        TransportSettings.TRANSPORT_COMPRESSION_SCHEME,
+        TransportSettings.TRANSPORT_COMPRESSION_THRESHOLD,
         TransportSettings.PING_SCHEDULE,
         TransportSettings.TCP_CONNECT_TIMEOUT,
         TransportSettings.CONNECT_TIMEOUT,
@@ -421,7 +428,11 @@ public final class ClusterSettings extends AbstractScopedSettings {
         JobsLogService.STATS_OPERATIONS_LOG_EXPIRATION_SETTING,
         TableStatsService.STATS_SERVICE_REFRESH_INTERVAL_SETTING,
         TableStatsService.STATS_SERVICE_THROTTLING_SETTING,
+        PlanCache.PLAN_CACHE_SIZE_SETTING,
+        ShardResultCache.RESULT_CACHE_SIZE_SETTING,
         ShardingUpsertExecutor.BULK_REQUEST_TIMEOUT_SETTING,
+        ColumnBatchProjectors.COLUMNAR_EXECUTION_ENABLED_SETTING,
+        ScalarCompiler.SCALAR_COMPILER_ENABLED_SETTING,
         DecommissioningService.DECOMMISSION_INTERNAL_SETTING_GROUP,
         DecommissioningService.GRACEFUL_STOP_MIN_AVAILABILITY_SETTING,
         DecommissioningService.GRACEFUL_STOP_TIMEOUT_SETTING,
@@ -431,6 +442,8 @@ public final class ClusterSettings extends AbstractScopedSettings {
         UDCService.UDC_INITIAL_DELAY_SETTING,
         UDCService.UDC_INTERVAL_SETTING,
         MemoryManagerFactory.MEMORY_ALLOCATION_TYPE,
+        SpillSettings.SPILL_ENABLED,
+        SpillSettings.SPILL_PARTITIONS,
         AnalyzerSettings.CUSTOM_ANALYSIS_SETTING_GROUP,
         Sessions.NODE_READ_ONLY_SETTING,
         Sessions.STATEMENT_TIMEOUT,
@@ -0,0 +1,199 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package org.elasticsearch.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.MappingMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.NullValueOrder;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.common.Booleans;
+import io.crate.common.collections.Maps;
+import io.crate.execution.engine.sort.LuceneSort;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.Reference;
+import io.crate.metadata.doc.DocTableInfoFactory;
+import io.crate.metadata.doc.DocTableInfoFactory.MappingKeys;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.CharacterType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+
+/**
+ * Configures the order of the documents within the segments of an index.
+ * See {@link IndexWriterConfig#setIndexSort(Sort)}.
+ *
+ * <p>
+ * The sort order is declared with the {@code sort.columns} table setting as a comma separated list of top level
+ * columns, each optionally followed by {@code ASC} or {@code DESC}. For example: {@code 'ts DESC, device_id'}.
+ * Nulls are sorted like in an {@code ORDER BY} clause without {@code NULLS FIRST/LAST}: last for {@code ASC} and
+ * first for {@code DESC}.
+ * </p>
+ *
+ * <p>
+ * The sort fields are created the same way as those of an {@code ORDER BY} on the columns. If a query orders by a
+ * prefix of the index sort, Lucene stops collecting a segment once enough documents have been collected from it.
+ * The setting cannot be changed once the table has been created.
+ * </p>
+ */
+public final class IndexSortConfig {
+
+    public static final Setting<String> INDEX_SORT_COLUMNS_SETTING = Setting.simpleString(
+        "index.sort.columns",
+        value -> parse(value),
+        Property.IndexScope,
+        Property.Final
+    );
+
+    public record SortColumn(String name, boolean reverse) {
+    }
+
+    private IndexSortConfig() {
+    }
+
+    public static List<SortColumn> parse(String value) {
+        if (value.isBlank()) {
+            return List.of();
+        }
+        String[] items = value.split(",");
+        List<SortColumn> columns = new ArrayList<>(items.length);
+        for (String item : items) {
+            String[] parts = item.trim().split("\\s+");
+            if (parts.length == 0 || parts.length > 2 || parts[0].isEmpty()) {
+                throw invalidValue(value);
+            }
+            boolean reverse = false;
+            if (parts.length == 2) {
+                switch (parts[1].toLowerCase(Locale.ENGLISH)) {
+                    case "asc" -> reverse = false;
+                    case "desc" -> reverse = true;
+                    default -> throw invalidValue(value);
+                }
+            }
+            columns.add(new SortColumn(parts[0], reverse));
+        }
+        return columns;
+    }
+
+    private static IllegalArgumentException invalidValue(String value) {
+        return new IllegalArgumentException(
+            "Invalid value for setting 'sort.columns': '" + value + "'. " +
+            "Expected a comma separated list of columns, each optionally followed by ASC or DESC");
+    }
+
+    /**
+     * Validates that the columns of the index sort exist and can be used to sort the documents of the segments.
+     *
+     * @param getReference returns the top level column of a table or null if it doesn't exist.
+     */
+    public static void validate(Settings settings,
+                                Function<ColumnIdent, Reference> getReference,
+                                List<ColumnIdent> partitionedBy) {
+        List<SortColumn> columns = parse(INDEX_SORT_COLUMNS_SETTING.get(settings));
+        for (SortColumn column : columns) {
+            ColumnIdent columnIdent = ColumnIdent.of(column.name());
+            Reference ref = getReference.apply(columnIdent);
+            if (ref == null) {
+                throw new IllegalArgumentException(
+                    "Column `" + column.name() + "` used in 'sort.columns' does not exist");
+            }
+            if (partitionedBy.contains(columnIdent)) {
+                throw new IllegalArgumentException(
+                    "Cannot use the partition column `" + column.name() + "` in 'sort.columns'");
+            }
+            if (!ref.hasDocValues() || !isSortable(ref.valueType())) {
+                throw new IllegalArgumentException(
+                    "Cannot use column `" + column.name() + "` of type `" + ref.valueType().getName() +
+                    "` in 'sort.columns'. " +
+                    "Only numeric, timestamp, boolean and text columns with a columnstore are supported");
+            }
+        }
+    }
+
+    private static boolean isSortable(DataType<?> type) {
+        return switch (type.id()) {
+            case StringType.ID, CharacterType.ID, BooleanType.ID, ByteType.ID, ShortType.ID, IntegerType.ID,
+                LongType.ID, TimestampType.ID_WITHOUT_TZ, TimestampType.ID_WITH_TZ, FloatType.ID, DoubleType.ID -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Creates the index sort from the {@link #INDEX_SORT_COLUMNS_SETTING} and the mapping of the index.
+     *
+     * @return the sort or null if the index isn't sorted
+     */
+    @Nullable
+    public static Sort buildIndexSort(IndexMetadata indexMetadata) {
+        List<SortColumn> columns = parse(INDEX_SORT_COLUMNS_SETTING.get(indexMetadata.getSettings()));
+        if (columns.isEmpty()) {
+            return null;
+        }
+        MappingMetadata mapping = indexMetadata.mapping();
+        Map<String, Object> mappingSource = mapping == null ? Map.of() : mapping.sourceAsMap();
+        Map<String, Object> properties = Maps.getOrDefault(mappingSource, "properties", Map.of());
+        SortField[] sortFields = new SortField[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            SortColumn column = columns.get(i);
+            Map<String, Object> columnProperties = Maps.get(properties, column.name());
+            if (columnProperties == null) {
+                throw new IllegalArgumentException(
+                    "Column `" + column.name() + "` used in 'sort.columns' of index " + indexMetadata.getIndex() +
+                    " does not exist");
+            }
+            DataType<?> type = DocTableInfoFactory.getColumnDataType(columnProperties);
+            Object docValues = columnProperties.get(MappingKeys.DOC_VALUES);
+            if (docValues != null && !Booleans.parseBoolean(docValues.toString())) {
+                throw new IllegalArgumentException(
+                    "Column `" + column.name() + "` used in 'sort.columns' of index " + indexMetadata.getIndex() +
+                    " has no columnstore");
+            }
+            Number oid = Maps.getOrDefault(columnProperties, "oid", Metadata.COLUMN_OID_UNASSIGNED);
+            String storageIdent = oid.longValue() == Metadata.COLUMN_OID_UNASSIGNED
+                ? column.name()
+                : Long.toString(oid.longValue());
+            boolean reverse = column.reverse();
+            sortFields[i] = LuceneSort.mappedSortField(storageIdent, type, reverse, NullValueOrder.fromFlag(reverse));
+        }
+        return new Sort(sortFields);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package org.elasticsearch.index.cache.result;
+
+import org.elasticsearch.common.metrics.CounterMetric;
+
+/**
+ * Statistics of the entries a shard has in the node level result cache.
+ */
+public final class ShardResultCacheStats {
+
+    private final CounterMetric hits = new CounterMetric();
+    private final CounterMetric misses = new CounterMetric();
+    private final CounterMetric evictions = new CounterMetric();
+    private final CounterMetric sizeInBytes = new CounterMetric();
+
+    public void onHit() {
+        hits.inc();
+    }
+
+    public void onMiss() {
+        misses.inc();
+    }
+
+    public void onCached(long bytes) {
+        sizeInBytes.inc(bytes);
+    }
+
+    public void onRemoval(long bytes, boolean evicted) {
+        if (evicted) {
+            evictions.inc();
+        }
+        sizeInBytes.dec(bytes);
+    }
+
+    public long hits() {
+        return hits.count();
+    }
+
+    public long misses() {
+        return misses.count();
+    }
+
+    public long evictions() {
+        return evictions.count();
+    }
+
+    public long sizeInBytes() {
+        return sizeInBytes.count();
+    }
+}
@@ -21,8 +21,10 @@ package org.elasticsearch.index.codec;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.KnnVectorsFormat;
 import org.apache.lucene.codecs.lucene99.Lucene99Codec;
 
 /**
@@ -43,11 +45,18 @@ public class CodecService {
     public static final String LUCENE_DEFAULT_CODEC = "lucene_default";
 
     public CodecService() {
+        this(field -> null);
+    }
+
+    /**
+     * @param knnVectorsFormats returns the vectors format of a field or null to use the default format
+     */
+    public CodecService(Function<String, KnnVectorsFormat> knnVectorsFormats) {
         final var codecs = new HashMap<String, Codec>();
         codecs.put(DEFAULT_CODEC,
-            new CrateCodec(Lucene99Codec.Mode.BEST_SPEED));
+            new CrateCodec(Lucene99Codec.Mode.BEST_SPEED, knnVectorsFormats));
         codecs.put(BEST_COMPRESSION_CODEC,
-            new CrateCodec(Lucene99Codec.Mode.BEST_COMPRESSION));
+            new CrateCodec(Lucene99Codec.Mode.BEST_COMPRESSION, knnVectorsFormats));
         codecs.put(LUCENE_DEFAULT_CODEC, Codec.getDefault());
         for (String codec : Codec.availableCodecs()) {
             codecs.put(codec, Codec.forName(codec));
@@ -20,6 +20,7 @@
 package org.elasticsearch.index.codec;
 
 import java.io.IOException;
+import java.util.function.Function;
 
 import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.codecs.DocValuesFormat;
@@ -37,8 +38,9 @@ import io.crate.types.FloatVectorType;
 
 /**
  * {@link CrateCodec This codec} is the default {@link Codec} for Crate.
- * It disables compression on docvalues terms dictionaries, and increases
+ * It disables compression on docvalues terms dictionaries, increases
  * the max supported vector dimension to {@link FloatVectorType#MAX_DIMENSIONS}
+ * and allows to configure the vectors format per field.
  */
 // LUCENE UPGRADE: make sure to move to a new codec depending on the lucene version
 public class CrateCodec extends Lucene99Codec {
@@ -47,8 +49,18 @@ public class CrateCodec extends Lucene99Codec {
         assert Codec.forName(Lucene.LATEST_CODEC).getClass().isAssignableFrom(CrateCodec.class) : "CrateCodec must subclass the latest lucene codec: " + Lucene.LATEST_CODEC;
     }
 
+    private final Function<String, KnnVectorsFormat> knnVectorsFormats;
+
     public CrateCodec(Mode compressionMode) {
+        this(compressionMode, field -> null);
+    }
+
+    /**
+     * @param knnVectorsFormats returns the vectors format of a field or null to use the default format
+     */
+    public CrateCodec(Mode compressionMode, Function<String, KnnVectorsFormat> knnVectorsFormats) {
         super(compressionMode);
+        this.knnVectorsFormats = knnVectorsFormats;
     }
 
     @Override
@@ -58,7 +70,8 @@ public class CrateCodec extends Lucene99Codec {
 
     @Override
     public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
-        var format = super.getKnnVectorsFormatForField(field);
+        var fieldFormat = knnVectorsFormats.apply(field);
+        var format = fieldFormat == null ? super.getKnnVectorsFormatForField(field) : fieldFormat;
         return new KnnVectorsFormat(format.getName()) {
 
             @Override
@@ -25,6 +25,7 @@ import static org.elasticsearch.index.seqno.SequenceNumbers.UNASSIGNED_SEQ_NO;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Comparator;
@@ -85,6 +86,8 @@ import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.index.translog.TranslogStats;
 import org.jetbrains.annotations.Nullable;
 
+import com.carrotsearch.hppc.IntArrayList;
+
 import io.crate.common.exceptions.Exceptions;
 import io.crate.common.unit.TimeValue;
 import io.crate.exceptions.SQLExceptions;
@@ -283,6 +286,23 @@ public abstract class Engine implements Closeable {
      */
     public abstract IndexResult index(Index index) throws IOException;
 
+    /**
+     * Perform several document index operations on the engine.
+     * Engines can override this to amortize per operation costs like locking and translog writes.
+     *
+     * @param operations operations to perform
+     * @return an {@link IndexResult} per operation, in the same order as {@code operations}
+     *
+     * Note: engine level failures (i.e. persistent engine failures) are thrown
+     */
+    public List<IndexResult> index(List<Index> operations) throws IOException {
+        List<IndexResult> results = new ArrayList<>(operations.size());
+        for (Index operation : operations) {
+            results.add(index(operation));
+        }
+        return results;
+    }
+
     /**
      * Perform document delete operation on the engine
      * @param delete operation to perform
@@ -485,30 +505,13 @@ public abstract class Engine implements Closeable {
         }
 
         if (docIdAndVersion != null) {
-            if (get.versionType().isVersionConflictForReads(docIdAndVersion.version, get.version())) {
-                Releasables.close(searcher);
-                throw new VersionConflictEngineException(
-                    shardId,
-                    get.id(),
-                    get.versionType().explainConflictForReads(docIdAndVersion.version, get.version())
-                );
-            }
-            if (get.getIfSeqNo() != SequenceNumbers.UNASSIGNED_SEQ_NO && (
-                get.getIfSeqNo() != docIdAndVersion.seqNo || get.getIfPrimaryTerm() != docIdAndVersion.primaryTerm)) {
-
+            try {
+                ensureNoVersionConflictForRead(
+                    get, docIdAndVersion.version, docIdAndVersion.seqNo, docIdAndVersion.primaryTerm);
+            } catch (VersionConflictEngineException e) {
                 Releasables.close(searcher);
-                throw new VersionConflictEngineException(
-                    shardId,
-                    get.id(),
-                    get.getIfSeqNo(),
-                    get.getIfPrimaryTerm(),
-                    docIdAndVersion.seqNo,
-                    docIdAndVersion.primaryTerm
-                );
+                throw e;
             }
-        }
-
-        if (docIdAndVersion != null) {
             // don't release the searcher on this path, it is the
             // responsibility of the caller to call GetResult.release
             return new GetResult(docIdAndVersion, searcher);
@@ -518,8 +521,90 @@ public abstract class Engine implements Closeable {
         }
     }
 
+    /**
+     * Looks up the documents of all {@code gets} without a result yet using a single searcher.
+     *
+     * @param results results by position of the {@code gets}. Entries which are already set are kept as-is.
+     */
+    protected final MultiGetResult multiGetFromSearcher(List<Get> gets,
+                                                        GetResult[] results,
+                                                        BiFunction<String, SearcherScope, Searcher> searcherFactory,
+                                                        SearcherScope scope) throws EngineException {
+        assert gets.size() == results.length : "must have a result slot for each get";
+        IntArrayList pending = new IntArrayList();
+        List<Term> uids = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                pending.add(i);
+                uids.add(gets.get(i).uid());
+            }
+        }
+        if (pending.isEmpty()) {
+            return new MultiGetResult(results, null);
+        }
+        final Engine.Searcher searcher = searcherFactory.apply("multi_get", scope);
+        MultiGetResult multiGetResult = new MultiGetResult(results, searcher);
+        try {
+            DocIdAndVersion[] docIdAndVersions = VersionsAndSeqNoResolver.loadDocIdsAndVersions(
+                searcher.getIndexReader(),
+                uids,
+                true
+            );
+            for (int i = 0; i < docIdAndVersions.length; i++) {
+                int slot = pending.get(i);
+                DocIdAndVersion docIdAndVersion = docIdAndVersions[i];
+                if (docIdAndVersion == null) {
+                    results[slot] = GetResult.NOT_EXISTS;
+                } else {
+                    ensureNoVersionConflictForRead(
+                        gets.get(slot), docIdAndVersion.version, docIdAndVersion.seqNo, docIdAndVersion.primaryTerm);
+                    // the searcher is shared and released by the MultiGetResult
+                    results[slot] = new GetResult(docIdAndVersion, null);
+                }
+            }
+        } catch (VersionConflictEngineException e) {
+            multiGetResult.close();
+            throw e;
+        } catch (Exception e) {
+            multiGetResult.close();
+            throw new EngineException(shardId, "Couldn't resolve versions", e);
+        }
+        return multiGetResult;
+    }
+
+    protected final void ensureNoVersionConflictForRead(Get get, long version, long seqNo, long primaryTerm) {
+        if (get.versionType().isVersionConflictForReads(version, get.version())) {
+            throw new VersionConflictEngineException(
+                shardId,
+                get.id(),
+                get.versionType().explainConflictForReads(version, get.version())
+            );
+        }
+        if (get.getIfSeqNo() != SequenceNumbers.UNASSIGNED_SEQ_NO && (
+            get.getIfSeqNo() != seqNo || get.getIfPrimaryTerm() != primaryTerm)) {
+
+            throw new VersionConflictEngineException(
+                shardId,
+                get.id(),
+                get.getIfSeqNo(),
+                get.getIfPrimaryTerm(),
+                seqNo,
+                primaryTerm
+            );
+        }
+    }
+
     public abstract GetResult get(Get get, BiFunction<String, SearcherScope, Searcher> searcherFactory) throws EngineException;
 
+    /**
+     * Looks up multiple documents by id. Compared to calling {@link #get(Get, BiFunction)} for each id
+     * this acquires a single searcher for the whole batch and resolves the ids in sorted order.
+     *
+     * @return a result per get, in the order of {@code gets}. The caller must release the result.
+     */
+    public abstract MultiGetResult multiGet(List<Get> gets,
+                                            BiFunction<String, SearcherScope, Searcher> searcherFactory) throws EngineException;
+
 
     /**
      * Returns a new searcher instance. The consumer of this
@@ -1415,6 +1500,43 @@ public abstract class Engine implements Closeable {
         }
     }
 
+    /**
+     * Results of {@link #multiGet(List, BiFunction)}.
+     * The results share resources and are released together by releasing the {@link MultiGetResult}.
+     */
+    public static final class MultiGetResult implements Releasable {
+
+        private final GetResult[] results;
+        @Nullable
+        private final Engine.Searcher searcher;
+
+        MultiGetResult(GetResult[] results, @Nullable Engine.Searcher searcher) {
+            this.results = results;
+            this.searcher = searcher;
+        }
+
+        public int size() {
+            return results.length;
+        }
+
+        /**
+         * @return the result of the get at {@code position}
+         */
+        public GetResult get(int position) {
+            return results[position];
+        }
+
+        @Override
+        public void close() {
+            for (GetResult result : results) {
+                if (result != null) {
+                    result.release();
+                }
+            }
+            Releasables.close(searcher);
+        }
+    }
+
     /**
      * Method to close the engine while the write lock is held.
      * Must decrement the supplied when closing work is done and resources are
@@ -22,6 +22,7 @@ package org.elasticsearch.index.engine;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -71,6 +72,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.AlreadyClosedException;
@@ -80,6 +82,7 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.InfoStream;
 import org.elasticsearch.Assertions;
 import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.lucene.LoggerInfoStream;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
@@ -643,57 +646,11 @@ public class InternalEngine extends Engine {
             if (versionValue.isDelete()) {
                 return GetResult.NOT_EXISTS;
             }
-            if (get.versionType().isVersionConflictForReads(versionValue.version, get.version())) {
-                throw new VersionConflictEngineException(
-                    shardId,
-                    get.id(),
-                    get.versionType().explainConflictForReads(versionValue.version, get.version())
-                );
-            }
-            if (get.getIfSeqNo() != SequenceNumbers.UNASSIGNED_SEQ_NO && (
-                get.getIfSeqNo() != versionValue.seqNo || get.getIfPrimaryTerm() != versionValue.term)) {
-
-                throw new VersionConflictEngineException(
-                    shardId,
-                    get.id(),
-                    get.getIfSeqNo(),
-                    get.getIfPrimaryTerm(),
-                    versionValue.seqNo,
-                    versionValue.term
-                );
-            }
+            ensureNoVersionConflictForRead(get, versionValue.version, versionValue.seqNo, versionValue.term);
             if (versionValue.getLocation() != null) {
-                try {
-                    Translog.Operation operation = translog.readOperation(versionValue.getLocation());
-                    // in the case of a already pruned translog generation we might get null here - yet very unlikely
-                    if (operation == null) {
-                        assert versionValue.seqNo >= 0 : versionValue;
-                        refreshIfNeeded("realtime_get", versionValue.seqNo);
-                        return getFromSearcher(get, searcherFactory, SearcherScope.INTERNAL);
-                    }
-
-                    final Translog.Index index = (Translog.Index) operation;
-                    TranslogLeafReader reader = new TranslogLeafReader(index);
-                    return new GetResult(
-                        new VersionsAndSeqNoResolver.DocIdAndVersion(
-                            0,
-                            index.version(),
-                            index.seqNo(),
-                            index.primaryTerm(),
-                            reader,
-                            0
-                        ),
-                        new Engine.Searcher(
-                            "realtime_get",
-                            reader,
-                            null,
-                            IndexSearcher.getDefaultQueryCachingPolicy(),
-                            reader
-                        )
-                    );
-                } catch (IOException e) {
-                    maybeFailEngine("realtime_get", e); // lets check if the translog has failed with a tragic event
-                    throw new EngineException(shardId, "failed to read operation from translog", e);
+                GetResult getResult = getFromTranslog(versionValue);
+                if (getResult != null) {
+                    return getResult;
                 }
             } else {
                 trackTranslogLocation.set(true);
@@ -705,6 +662,88 @@ public class InternalEngine extends Engine {
         }
     }
 
+    @Override
+    public MultiGetResult multiGet(List<Get> gets,
+                                   BiFunction<String, SearcherScope, Engine.Searcher> searcherFactory) throws EngineException {
+        GetResult[] results = new GetResult[gets.size()];
+        try (ReleasableLock ignored = readLock.acquire()) {
+            ensureOpen();
+            VersionValue[] versionValues = getVersionsFromMap(gets);
+            long maxSeqNoToRefresh = SequenceNumbers.UNASSIGNED_SEQ_NO;
+            try {
+                for (int i = 0; i < versionValues.length; i++) {
+                    VersionValue versionValue = versionValues[i];
+                    if (versionValue == null) {
+                        // no version, looked up from the index below
+                        continue;
+                    }
+                    if (versionValue.isDelete()) {
+                        results[i] = GetResult.NOT_EXISTS;
+                        continue;
+                    }
+                    ensureNoVersionConflictForRead(
+                        gets.get(i), versionValue.version, versionValue.seqNo, versionValue.term);
+                    if (versionValue.getLocation() != null) {
+                        results[i] = getFromTranslog(versionValue);
+                        if (results[i] != null) {
+                            continue;
+                        }
+                    } else {
+                        trackTranslogLocation.set(true);
+                    }
+                    assert versionValue.seqNo >= 0 : versionValue;
+                    maxSeqNoToRefresh = Math.max(maxSeqNoToRefresh, versionValue.seqNo);
+                }
+            } catch (RuntimeException e) {
+                new MultiGetResult(results, null).close();
+                throw e;
+            }
+            // a single refresh makes all pending documents of the batch visible
+            if (maxSeqNoToRefresh != SequenceNumbers.UNASSIGNED_SEQ_NO) {
+                refreshIfNeeded("realtime_get", maxSeqNoToRefresh);
+            }
+            return multiGetFromSearcher(gets, results, searcherFactory, SearcherScope.INTERNAL);
+        }
+    }
+
+    /**
+     * @return the document of the operation at the location of the version value
+     *         or null if the translog generation has been pruned already.
+     */
+    @Nullable
+    private GetResult getFromTranslog(VersionValue versionValue) {
+        try {
+            Translog.Operation operation = translog.readOperation(versionValue.getLocation());
+            // in the case of a already pruned translog generation we might get null here - yet very unlikely
+            if (operation == null) {
+                return null;
+            }
+
+            final Translog.Index index = (Translog.Index) operation;
+            TranslogLeafReader reader = new TranslogLeafReader(index);
+            return new GetResult(
+                new VersionsAndSeqNoResolver.DocIdAndVersion(
+                    0,
+                    index.version(),
+                    index.seqNo(),
+                    index.primaryTerm(),
+                    reader,
+                    0
+                ),
+                new Engine.Searcher(
+                    "realtime_get",
+                    reader,
+                    null,
+                    IndexSearcher.getDefaultQueryCachingPolicy(),
+                    reader
+                )
+            );
+        } catch (IOException e) {
+            maybeFailEngine("realtime_get", e); // lets check if the translog has failed with a tragic event
+            throw new EngineException(shardId, "failed to read operation from translog", e);
+        }
+    }
+
     /**
      * the status of the current doc version in lucene, compared to the version in an incoming
      * operation
@@ -794,6 +833,23 @@ public class InternalEngine extends Engine {
         return versionMap.getUnderLock(id);
     }
 
+    /**
+     * Resolves the live versions of all gets in a single pass over the version map.
+     * Entries are null for ids without a live version.
+     */
+    private VersionValue[] getVersionsFromMap(List<Get> gets) {
+        VersionValue[] versionValues = new VersionValue[gets.size()];
+        for (int i = 0; i < versionValues.length; i++) {
+            Get get = gets.get(i);
+            assert Objects.equals(get.uid().field(), DocSysColumns.Names.ID) : get.uid().field();
+            BytesRef uid = get.uid().bytes();
+            try (Releasable ignore = versionMap.acquireLock(uid)) {
+                versionValues[i] = getVersionFromMap(uid);
+            }
+        }
+        return versionValues;
+    }
+
     private boolean canOptimizeAddDocument(Index index) {
         if (index.getAutoGeneratedIdTimestamp() != Translog.UNSET_AUTO_GENERATED_TIMESTAMP) {
             assert index.getAutoGeneratedIdTimestamp() >= 0 : "autoGeneratedIdTimestamp must be positive but was: "
@@ -978,6 +1034,236 @@ public class InternalEngine extends Engine {
         }
     }
 
+    /**
+     * Bulk variant of {@link #index(Index)}.
+     * <p>
+     * Operations which are append-only (auto generated ids on the primary, or replica operations while there were no
+     * updates or deletes above the local checkpoint) skip the version lookups, are added to Lucene with a single
+     * {@link IndexWriter#addDocuments(Iterable)} call and are written to the translog with a single {@link Translog#add(List)}.
+     * All other operations are processed one by one via {@link #index(Index)} after the append-only operations.
+     * </p>
+     */
+    @Override
+    public List<IndexResult> index(List<Index> operations) throws IOException {
+        final int numOperations = operations.size();
+        final IndexResult[] results = new IndexResult[numOperations];
+        final List<Index> appends = new ArrayList<>(numOperations);
+        final List<IndexingStrategy> plans = new ArrayList<>(numOperations);
+        final int[] appendPositions = new int[numOperations];
+        Index current = null;
+        try (ReleasableLock releasableLock = readLock.acquire()) {
+            ensureOpen();
+            int reservedDocs = 0;
+            // Like for a single operation the uid locks are held from planning until the version map is updated,
+            // otherwise a concurrent operation on the same id could slip in between
+            final List<Releasable> uidLocks = acquireUidLocks(operations);
+            try (Releasable indexThrottle = throttle.acquireThrottle()) {
+                for (int i = 0; i < numOperations; i++) {
+                    current = operations.get(i);
+                    assert Objects.equals(current.uid().field(), DocSysColumns.Names.ID) : current.uid().field();
+                    assert assertIncomingSequenceNumber(current.origin(), current.seqNo());
+                    final IndexingStrategy plan = planAppendOnly(current);
+                    if (plan == null) {
+                        continue;
+                    }
+                    reservedDocs += plan.reservedDocs;
+                    if (plan.earlyResultOnPreFlightError.isPresent()) {
+                        final IndexResult indexResult = plan.earlyResultOnPreFlightError.get();
+                        assert indexResult.getResultType() == Result.Type.FAILURE : indexResult.getResultType();
+                        indexResult.freeze();
+                        results[i] = indexResult;
+                        continue;
+                    }
+                    if (current.origin() == Operation.Origin.PRIMARY) {
+                        current = new Index(current.uid(), current.parsedDoc(), generateSeqNoForOperationOnPrimary(current),
+                            current.primaryTerm(), current.version(), current.versionType(), current.origin(), current.startTime(),
+                            current.getAutoGeneratedIdTimestamp(), current.isRetry(), current.getIfSeqNo(), current.getIfPrimaryTerm());
+                    } else {
+                        markSeqNoAsSeen(current.seqNo());
+                    }
+                    lastWriteNanos = current.startTime();
+                    appendPositions[appends.size()] = i;
+                    appends.add(current);
+                    plans.add(plan);
+                }
+                if (appends.isEmpty() == false) {
+                    current = appends.get(0);
+                    final IndexResult[] appendResults = indexIntoLucene(appends, plans);
+                    addToTranslog(appends, appendResults);
+                    for (int i = 0; i < appendResults.length; i++) {
+                        current = appends.get(i);
+                        final IndexResult indexResult = appendResults[i];
+                        if (indexResult.getResultType() == Result.Type.SUCCESS) {
+                            final Translog.Location translogLocation =
+                                trackTranslogLocation.get() ? indexResult.getTranslogLocation() : null;
+                            versionMap.maybePutIndexUnderLock(current.uid().bytes(),
+                                new IndexVersionValue(translogLocation, plans.get(i).versionForIndexing,
+                                    current.seqNo(), current.primaryTerm()));
+                        }
+                        localCheckpointTracker.markSeqNoAsProcessed(indexResult.getSeqNo());
+                        if (indexResult.getTranslogLocation() == null) {
+                            localCheckpointTracker.markSeqNoAsPersisted(indexResult.getSeqNo());
+                        }
+                        indexResult.freeze();
+                        results[appendPositions[i]] = indexResult;
+                    }
+                }
+            } finally {
+                releaseInFlightDocs(reservedDocs);
+                Releasables.close(uidLocks);
+            }
+        } catch (RuntimeException | IOException e) {
+            if (current != null) {
+                try {
+                    final String source = "index id[" + current.id() + "] origin[" + current.origin() + "] seq#[" + current.seqNo() + "]";
+                    if (e instanceof AlreadyClosedException == false && treatDocumentFailureAsTragicError(current)) {
+                        failEngine(source, e);
+                    } else {
+                        maybeFailEngine(source, e);
+                    }
+                } catch (Exception inner) {
+                    e.addSuppressed(inner);
+                }
+            }
+            throw e;
+        }
+        for (int i = 0; i < numOperations; i++) {
+            if (results[i] == null) {
+                results[i] = index(operations.get(i));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Acquires the version map locks for the uids of all operations.
+     * The locks are taken in uid order so that concurrent bulk requests can't deadlock.
+     */
+    private List<Releasable> acquireUidLocks(List<Index> operations) {
+        final BytesRef[] uids = new BytesRef[operations.size()];
+        for (int i = 0; i < uids.length; i++) {
+            uids[i] = operations.get(i).uid().bytes();
+        }
+        Arrays.sort(uids);
+        final List<Releasable> locks = new ArrayList<>(uids.length);
+        boolean success = false;
+        try {
+            for (int i = 0; i < uids.length; i++) {
+                if (i == 0 || uids[i].equals(uids[i - 1]) == false) {
+                    locks.add(versionMap.acquireLock(uids[i]));
+                }
+            }
+            success = true;
+            return locks;
+        } finally {
+            if (success == false) {
+                Releasables.close(locks);
+            }
+        }
+    }
+
+    /**
+     * Plans an operation of a bulk index request if it can be appended without looking at the version map.
+     *
+     * @return the plan or null if the operation must go through {@link #index(Index)}
+     */
+    @Nullable
+    private IndexingStrategy planAppendOnly(Index index) throws IOException {
+        switch (index.origin()) {
+            case PRIMARY:
+                if (canOptimizeAddDocument(index) == false || mayHaveBeenIndexedBefore(index)) {
+                    return null;
+                }
+                final Exception reserveError = tryAcquireInFlightDocs(index, 1);
+                if (reserveError != null) {
+                    return IndexingStrategy.failAsTooManyDocs(reserveError);
+                }
+                return IndexingStrategy.optimizedAppendOnly(1L, 1);
+
+            case REPLICA:
+                if (canOptimizeAddDocument(index)) {
+                    // needs to maintain the auto_id timestamp in case this replica becomes primary
+                    mayHaveBeenIndexedBefore(index);
+                }
+                if (hasBeenProcessedBefore(index) || getMaxSeqNoOfUpdatesOrDeletes() > localCheckpointTracker.getProcessedCheckpoint()) {
+                    return null;
+                }
+                return IndexingStrategy.optimizedAppendOnly(index.version(), 0);
+
+            default:
+                return null;
+        }
+    }
+
+    private IndexResult[] indexIntoLucene(List<Index> appends, List<IndexingStrategy> plans) throws IOException {
+        final IndexResult[] results = new IndexResult[appends.size()];
+        if (engineConfig.getIndexSort() != null) {
+            // Document blocks are restricted in sorted indices, fall back to adding one document at a time
+            for (int i = 0; i < results.length; i++) {
+                results[i] = indexIntoLucene(appends.get(i), plans.get(i));
+            }
+            return results;
+        }
+        final List<Document> docs = new ArrayList<>(results.length);
+        for (int i = 0; i < results.length; i++) {
+            final Index index = appends.get(i);
+            final IndexingStrategy plan = plans.get(i);
+            assert index.seqNo() >= 0 : "ops should have an assigned seq no.; origin: " + index.origin();
+            assert plan.indexIntoLucene && plan.useLuceneUpdateDocument == false : "bulk operations must be appends";
+            index.parsedDoc().updateSeqID(index.seqNo(), index.primaryTerm());
+            index.parsedDoc().version().setLongValue(plan.versionForIndexing);
+            assert assertDocDoesNotExist(index, canOptimizeAddDocument(index) == false);
+            docs.add(index.document());
+        }
+        try {
+            indexWriter.addDocuments(docs);
+        } catch (Exception ex) {
+            if (ex instanceof AlreadyClosedException == false && indexWriter.getTragicException() == null) {
+                // A document failure discards the whole block; index the documents one by one to
+                // only fail the documents which are actually broken.
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = indexIntoLucene(appends.get(i), plans.get(i));
+                }
+                return results;
+            }
+            throw ex;
+        }
+        numDocAppends.inc(docs.size());
+        for (int i = 0; i < results.length; i++) {
+            final Index index = appends.get(i);
+            results[i] = new IndexResult(
+                plans.get(i).versionForIndexing, index.primaryTerm(), index.seqNo(), plans.get(i).currentNotFoundOrDeleted);
+        }
+        return results;
+    }
+
+    private void addToTranslog(List<Index> appends, IndexResult[] results) throws IOException {
+        final List<Translog.Index> translogOps = new ArrayList<>(results.length);
+        final int[] positions = new int[results.length];
+        for (int i = 0; i < results.length; i++) {
+            final Index index = appends.get(i);
+            final IndexResult indexResult = results[i];
+            if (index.origin().isFromTranslog()) {
+                continue;
+            }
+            if (indexResult.getResultType() == Result.Type.SUCCESS) {
+                positions[translogOps.size()] = i;
+                translogOps.add(new Translog.Index(index, indexResult));
+            } else if (indexResult.getSeqNo() != SequenceNumbers.UNASSIGNED_SEQ_NO) {
+                // if we have document failure, record it as a no-op in the translog and Lucene with the generated seq_no
+                final NoOp noOp = new NoOp(indexResult.getSeqNo(), index.primaryTerm(), index.origin(),
+                    index.startTime(), indexResult.getFailure().toString());
+                indexResult.setTranslogLocation(innerNoOp(noOp).getTranslogLocation());
+            }
+        }
+        if (translogOps.isEmpty() == false) {
+            final Translog.Location[] locations = translog.add(translogOps);
+            for (int i = 0; i < locations.length; i++) {
+                results[positions[i]].setTranslogLocation(locations[i]);
+            }
+        }
+    }
+
     protected final IndexingStrategy planIndexingAsNonPrimary(Index index) throws IOException {
         assert assertNonPrimaryOrigin(index);
         // needs to maintain the auto_id timestamp in case this replica becomes primary
@@ -2307,6 +2593,10 @@ public class InternalEngine extends Engine {
         iwc.setMaxFullFlushMergeWaitMillis(0);
         iwc.setRAMBufferSizeMB(engineConfig.getIndexingBufferSize().getMbFrac());
         iwc.setCodec(engineConfig.getCodec());
+        Sort indexSort = engineConfig.getIndexSort();
+        if (indexSort != null) {
+            iwc.setIndexSort(indexSort);
+        }
         iwc.setUseCompoundFile(true); // always use compound on flush - reduces # of file-handles on refresh
         return iwc;
     }
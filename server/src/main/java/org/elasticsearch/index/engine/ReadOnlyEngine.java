@@ -225,6 +225,12 @@ public class ReadOnlyEngine extends Engine {
         return getFromSearcher(get, searcherFactory, SearcherScope.EXTERNAL);
     }
 
+    @Override
+    public MultiGetResult multiGet(List<Get> gets,
+                                   BiFunction<String, SearcherScope, Engine.Searcher> searcherFactory) throws EngineException {
+        return multiGetFromSearcher(gets, new GetResult[gets.size()], searcherFactory, SearcherScope.EXTERNAL);
+    }
+
     @Override
     protected ReferenceManager<ElasticsearchDirectoryReader> getReferenceManager(SearcherScope scope) {
         return readerManager;
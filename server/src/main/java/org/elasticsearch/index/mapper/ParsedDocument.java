@@ -88,7 +88,7 @@ public class ParsedDocument {
 
     private final Document document;
 
-    private final BytesReference source;
+    private BytesReference source;
 
     public ParsedDocument(Field version,
                           SequenceIDFields seqID,
@@ -134,6 +134,17 @@ public class ParsedDocument {
         return this.source;
     }
 
+    /**
+     * Copies the source into its own buffer.
+     * Needed if the document is kept around while the buffer the source was written into gets re-used.
+     */
+    public void detachSource() {
+        BytesRef copy = BytesRef.deepCopyOf(source.toBytesRef());
+        document.removeField(DocSysColumns.Source.NAME);
+        document.add(new StoredField(DocSysColumns.Source.NAME, copy.bytes, copy.offset, copy.length));
+        source = new BytesArray(copy);
+    }
+
     @Override
     public String toString() {
         return "Document id[" + id + "] doc [" + document + ']';
@@ -108,6 +108,7 @@ import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.analysis.IndexAnalyzers;
 import org.elasticsearch.index.analysis.NamedAnalyzer;
+import org.elasticsearch.index.cache.result.ShardResultCacheStats;
 import org.elasticsearch.index.codec.CodecService;
 import org.elasticsearch.index.engine.CommitStats;
 import org.elasticsearch.index.engine.Engine;
@@ -163,6 +164,7 @@ import io.crate.common.unit.TimeValue;
 import io.crate.exceptions.SQLExceptions;
 import io.crate.execution.dml.TranslogIndexer;
 import io.crate.execution.dml.TranslogMappingUpdateException;
+import io.crate.lucene.codec.MappedKnnVectorsFormats;
 import io.crate.metadata.IndexReference;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.Reference;
@@ -222,6 +224,7 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
     private final MeanMetric refreshMetric = new MeanMetric();
     private final MeanMetric flushMetric = new MeanMetric();
     private final CounterMetric periodicFlushMetric = new CounterMetric();
+    private final ShardResultCacheStats resultCacheStats = new ShardResultCacheStats();
 
     private final ShardEventListener shardEventListener = new ShardEventListener();
 
@@ -251,6 +254,11 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
     private final AtomicLong lastSearcherAccess = new AtomicLong();
     private final AtomicReference<Translog.Location> pendingRefreshLocation = new AtomicReference<>();
     private final RefreshPendingLocationListener refreshPendingLocationListener;
+    /**
+     * Listeners added via {@link #addExternalRefreshListener(ReferenceManager.RefreshListener)}.
+     * The engine only knows the {@link ExternalRefreshListeners} forwarding to them, so they're kept if the engine is reset.
+     */
+    private final List<ReferenceManager.RefreshListener> externalRefreshListeners = new CopyOnWriteArrayList<>();
     private volatile boolean useRetentionLeasesInPeerRecovery;
 
     private final Analyzer indexAnalyzer;
@@ -277,7 +285,7 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         assert shardRouting.initializing();
         this.shardRouting = shardRouting;
         final Settings settings = indexSettings.getSettings();
-        this.codecService = new CodecService();
+        this.codecService = new CodecService(new MappedKnnVectorsFormats(indexSettings::getIndexMetadata));
         Objects.requireNonNull(store, "Store must be provided to the index shard");
         this.engineFactoryProviders = engineFactoryProviders;
         this.engineFactory = getEngineFactory();
@@ -825,6 +833,38 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         }
     }
 
+    /**
+     * Indexes several operations with a single engine call, see {@link Engine#index(List)}.
+     *
+     * Engine level failures are thrown like in {@link #index(Engine, Engine.Index)}; it is unknown
+     * which of the operations made it into the engine, so they can't be reported as document level failures.
+     *
+     * @return a result per operation, in the same order as {@code operations}
+     */
+    public List<Engine.IndexResult> index(List<Engine.Index> operations) throws IOException {
+        final List<Engine.Index> prepared = new ArrayList<>(operations.size());
+        for (Engine.Index index : operations) {
+            assert index.primaryTerm() <= getOperationPrimaryTerm()
+                : "op term [ " + index.primaryTerm() + " ] > shard term [" + getOperationPrimaryTerm() + "]";
+            ensureWriteAllowed(index.origin());
+            prepared.add(indexingOperationListeners.preIndex(shardId, index));
+        }
+        active.set(true);
+        final List<Engine.IndexResult> results;
+        try {
+            results = getEngine().index(prepared);
+        } catch (Exception e) {
+            for (Engine.Index index : prepared) {
+                indexingOperationListeners.postIndex(shardId, index, e);
+            }
+            throw e;
+        }
+        for (int i = 0; i < prepared.size(); i++) {
+            indexingOperationListeners.postIndex(shardId, prepared.get(i), results.get(i));
+        }
+        return results;
+    }
+
     public Engine.IndexResult index(Engine engine, Engine.Index index) throws IOException {
         active.set(true);
         final Engine.IndexResult result;
@@ -1010,6 +1050,11 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         return getEngine().get(get, this::acquireSearcher);
     }
 
+    public Engine.MultiGetResult multiGet(List<Engine.Get> gets) {
+        readAllowed();
+        return getEngine().multiGet(gets, this::acquireSearcher);
+    }
+
     /**
      * Writes all indexing changes to disk and opens a new searcher reflecting all changes.  This can throw {@link AlreadyClosedException}.
      */
@@ -2703,7 +2748,7 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
             cachingPolicy,
             translogConfig,
             IndexingMemoryController.SHARD_INACTIVE_TIME_SETTING.get(indexSettings.getSettings()),
-            List.of(refreshListeners, refreshPendingLocationListener),
+            List.of(refreshListeners, refreshPendingLocationListener, new ExternalRefreshListeners()),
             Collections.singletonList(new RefreshMetricUpdater(refreshMetric)),
             circuitBreakerService,
             globalCheckpointSupplier,
@@ -3332,6 +3377,30 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         }
     }
 
+    /**
+     * Add a listener which is called on each refresh of the reader used for searches.
+     */
+    public void addExternalRefreshListener(ReferenceManager.RefreshListener listener) {
+        externalRefreshListeners.add(listener);
+    }
+
+    private class ExternalRefreshListeners implements ReferenceManager.RefreshListener {
+
+        @Override
+        public void beforeRefresh() throws IOException {
+            for (ReferenceManager.RefreshListener listener : externalRefreshListeners) {
+                listener.beforeRefresh();
+            }
+        }
+
+        @Override
+        public void afterRefresh(boolean didRefresh) throws IOException {
+            for (ReferenceManager.RefreshListener listener : externalRefreshListeners) {
+                listener.afterRefresh(didRefresh);
+            }
+        }
+    }
+
     private static class RefreshMetricUpdater implements ReferenceManager.RefreshListener {
 
         private final MeanMetric refreshMetric;
@@ -3506,6 +3575,10 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         return periodicFlushMetric.count();
     }
 
+    public ShardResultCacheStats resultCacheStats() {
+        return resultCacheStats;
+    }
+
     private EngineFactory getEngineFactory() {
         final IndexMetadata indexMetadata = indexSettings.getIndexMetadata();
         if (indexMetadata != null && indexMetadata.getState() == IndexMetadata.State.CLOSE) {
@@ -529,6 +529,63 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         }
     }
 
+    /**
+     * Adds several operations to the transaction log. The operations are serialized up-front and appended
+     * to the current generation under a single lock acquisition.
+     *
+     * @param operations the operations to add
+     * @return the locations of the operations in the translog, in the same order as {@code operations}
+     * @throws IOException if adding the operations to the translog resulted in an I/O exception
+     */
+    public Location[] add(final List<? extends Operation> operations) throws IOException {
+        final ReleasableBytesStreamOutput out = new ReleasableBytesStreamOutput(bigArrays);
+        try {
+            final int numOperations = operations.size();
+            final long[] offsets = new long[numOperations + 1];
+            final long[] seqNos = new long[numOperations];
+            for (int i = 0; i < numOperations; i++) {
+                final Operation operation = operations.get(i);
+                final long start = out.position();
+                out.skip(Integer.BYTES);
+                writeOperationNoSize(new BufferedChecksumStreamOutput(out), operation);
+                final long end = out.position();
+                final int operationSize = (int) (end - Integer.BYTES - start);
+                out.seek(start);
+                out.writeInt(operationSize);
+                out.seek(end);
+                offsets[i] = start;
+                seqNos[i] = operation.seqNo();
+            }
+            offsets[numOperations] = out.position();
+            final BytesReference bytes = out.bytes();
+            final BytesReference[] data = new BytesReference[numOperations];
+            for (int i = 0; i < numOperations; i++) {
+                data[i] = bytes.slice((int) offsets[i], (int) (offsets[i + 1] - offsets[i]));
+            }
+            try (ReleasableLock ignored = readLock.acquire()) {
+                ensureOpen();
+                for (Operation operation : operations) {
+                    if (operation.primaryTerm() > current.getPrimaryTerm()) {
+                        assert false :
+                            "Operation term is newer than the current term; "
+                                + "current term[" + current.getPrimaryTerm() + "], operation term[" + operation + "]";
+                        throw new IllegalArgumentException("Operation term is newer than the current term; "
+                            + "current term[" + current.getPrimaryTerm() + "], operation term[" + operation + "]");
+                    }
+                }
+                return current.add(data, seqNos);
+            }
+        } catch (final AlreadyClosedException | IOException ex) {
+            closeOnTragicEvent(ex);
+            throw ex;
+        } catch (final Exception ex) {
+            closeOnTragicEvent(ex);
+            throw new TranslogException(shardId, "Failed to write operations [" + operations.size() + "]", ex);
+        } finally {
+            Releasables.close(out);
+        }
+    }
+
     /**
      * Tests whether or not the translog generation should be rolled to a new generation. This test
      * is based on the size of the current generation compared to the configured generation
@@ -193,34 +193,62 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
             writeBufferedOps(Long.MAX_VALUE, bufferedBytesBeforeAdd >= forceWriteThreshold * 4);
         }
 
-        final Translog.Location location;
         synchronized (this) {
             ensureOpen();
-            if (buffer == null) {
-                buffer = new ReleasableBytesStreamOutput(bigArrays);
+            return addToBuffer(data, seqNo);
+        }
+    }
+
+    /**
+     * Add the given operations to the translog in one go; the writer is locked once for all operations and the operations
+     * end up next to each other in the same generation.
+     *
+     * @param data   the bytes of each operation
+     * @param seqNos the sequence numbers associated with the operations
+     * @return the locations the bytes were written to, in the same order as {@code data}
+     * @throws IOException if writing to the translog resulted in an I/O exception
+     */
+    public Translog.Location[] add(final BytesReference[] data, final long[] seqNos) throws IOException {
+        assert data.length == seqNos.length : "Need a sequence number per operation";
+        long bufferedBytesBeforeAdd = this.bufferedBytes;
+        if (bufferedBytesBeforeAdd >= forceWriteThreshold) {
+            writeBufferedOps(Long.MAX_VALUE, bufferedBytesBeforeAdd >= forceWriteThreshold * 4);
+        }
+
+        final Translog.Location[] locations = new Translog.Location[data.length];
+        synchronized (this) {
+            ensureOpen();
+            for (int i = 0; i < data.length; i++) {
+                locations[i] = addToBuffer(data[i], seqNos[i]);
             }
-            assert bufferedBytes == buffer.size();
-            final long offset = totalOffset;
-            totalOffset += data.length();
-            data.writeTo(buffer);
+        }
+        return locations;
+    }
 
-            assert minSeqNo != SequenceNumbers.NO_OPS_PERFORMED || operationCounter == 0;
-            assert maxSeqNo != SequenceNumbers.NO_OPS_PERFORMED || operationCounter == 0;
+    private Translog.Location addToBuffer(final BytesReference data, final long seqNo) throws IOException {
+        assert Thread.holdsLock(this);
+        if (buffer == null) {
+            buffer = new ReleasableBytesStreamOutput(bigArrays);
+        }
+        assert bufferedBytes == buffer.size();
+        final long offset = totalOffset;
+        totalOffset += data.length();
+        data.writeTo(buffer);
 
-            minSeqNo = SequenceNumbers.min(minSeqNo, seqNo);
-            maxSeqNo = SequenceNumbers.max(maxSeqNo, seqNo);
+        assert minSeqNo != SequenceNumbers.NO_OPS_PERFORMED || operationCounter == 0;
+        assert maxSeqNo != SequenceNumbers.NO_OPS_PERFORMED || operationCounter == 0;
 
-            nonFsyncedSequenceNumbers.add(seqNo);
+        minSeqNo = SequenceNumbers.min(minSeqNo, seqNo);
+        maxSeqNo = SequenceNumbers.max(maxSeqNo, seqNo);
 
-            operationCounter++;
+        nonFsyncedSequenceNumbers.add(seqNo);
 
-            assert assertNoSeqNumberConflict(seqNo, data);
+        operationCounter++;
 
-            location = new Translog.Location(generation, offset, data.length());
-            bufferedBytes = buffer.size();
-        }
+        assert assertNoSeqNumberConflict(seqNo, data);
 
-        return location;
+        bufferedBytes = buffer.size();
+        return new Translog.Location(generation, offset, data.length());
     }
 
     private synchronized boolean assertNoSeqNumberConflict(long seqNo, BytesReference data) throws IOException {
@@ -28,8 +28,9 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.transport.CompressiblePayload;
 
-public final class RecoveryFileChunkRequest extends RecoveryTransportRequest {
+public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements CompressiblePayload {
     private final boolean lastChunk;
     private final long recoveryId;
     private final ShardId shardId;
@@ -214,6 +214,7 @@ import io.crate.module.CrateCommonModule;
 import io.crate.monitor.MonitorModule;
 import io.crate.netty.NettyBootstrap;
 import io.crate.planner.DependencyCarrier;
+import io.crate.planner.PlanCache;
 import io.crate.planner.Planner;
 import io.crate.planner.optimizer.LoadedRules;
 import io.crate.plugin.CopyPlugin;
@@ -737,6 +738,7 @@ public class Node implements Closeable {
             AtomicReference<Injector> injectorRef = new AtomicReference<>();
             Provider<DependencyCarrier> dependencyCarrier = () -> injectorRef.get().getInstance(DependencyCarrier.class);
 
+            PlanCache planCache = new PlanCache(settings);
             Planner planner = new Planner(
                 settings,
                 clusterService,
@@ -746,7 +748,8 @@ public class Node implements Closeable {
                 new TableCreator(client),
                 rolesManager,
                 new ForeignDataWrappers(settings, clusterService, nodeContext),
-                sessionSettingRegistry
+                sessionSettingRegistry,
+                planCache
             );
             RepositoryService repositoryService = new RepositoryService(clusterService, client);
             Analyzer analyzer = new Analyzer(
@@ -795,6 +798,7 @@ public class Node implements Closeable {
                     b.bind(Analyzer.class).toInstance(analyzer);
                     b.bind(Sessions.class).toInstance(sessions);
                     b.bind(Planner.class).toInstance(planner);
+                    b.bind(PlanCache.class).toInstance(planCache);
                     b.bind(JobsLogService.class).toInstance(jobsLogService);
                     b.bind(RepositoryService.class).toInstance(repositoryService);
                     b.bind(RoleManager.class).toInstance(rolesManager);
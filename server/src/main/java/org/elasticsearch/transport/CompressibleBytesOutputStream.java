@@ -21,10 +21,10 @@ package org.elasticsearch.transport;
 
 import io.crate.common.io.IOUtils;
 import org.elasticsearch.common.bytes.BytesReference;
-import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.io.stream.BytesStream;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -36,6 +36,10 @@ import java.util.zip.DeflaterOutputStream;
  * {@link BytesStream} should not be closed yet, as we have not used the bytes. This class handles these
  * intricacies.
  *
+ * If a threshold is given, the bytes are written uncompressed until the threshold is exceeded. At that point the
+ * bytes written so far are re-written compressed. {@link #isCompressed()} tells if compression was used in the end.
+ * Seeking back requires that the {@link BytesStream} supports {@link BytesStream#seek(long)}.
+ *
  * {@link CompressibleBytesOutputStream#materializeBytes()} should be called when all the bytes have been
  * written to this stream. If compression is enabled, the proper EOS bytes will be written at that point.
  * The underlying {@link BytesReference} will be returned.
@@ -45,20 +49,67 @@ import java.util.zip.DeflaterOutputStream;
  */
 final class CompressibleBytesOutputStream extends StreamOutput {
 
-    private final OutputStream stream;
     private final BytesStream bytesStreamOutput;
-    private final boolean shouldCompress;
+    @Nullable
+    private final Compression.Scheme scheme;
+    private final int threshold;
+    private final long startPosition;
+    private OutputStream stream;
+    private boolean compressed = false;
 
     CompressibleBytesOutputStream(BytesStream bytesStreamOutput, boolean shouldCompress) throws IOException {
+        this(bytesStreamOutput, shouldCompress ? Compression.Scheme.DEFLATE : null, 0);
+    }
+
+    /**
+     * @param scheme the compression scheme to use, or null to disable compression
+     * @param threshold number of bytes which must be exceeded before compression is used.
+     */
+    CompressibleBytesOutputStream(BytesStream bytesStreamOutput,
+                                  @Nullable Compression.Scheme scheme,
+                                  int threshold) throws IOException {
         this.bytesStreamOutput = bytesStreamOutput;
-        this.shouldCompress = shouldCompress;
-        if (shouldCompress) {
-            this.stream = CompressorFactory.COMPRESSOR.threadLocalOutputStream(Streams.flushOnCloseStream(bytesStreamOutput));
+        this.scheme = scheme;
+        this.threshold = threshold;
+        this.stream = bytesStreamOutput;
+        if (scheme == null) {
+            this.startPosition = 0;
+        } else if (threshold > 0) {
+            this.startPosition = bytesStreamOutput.position();
         } else {
-            this.stream = bytesStreamOutput;
+            this.startPosition = 0;
+            startCompression();
         }
     }
 
+    private void startCompression() throws IOException {
+        assert scheme != null : "Must only start compression if a scheme is set";
+        stream = scheme.compressor().threadLocalOutputStream(Streams.flushOnCloseStream(bytesStreamOutput));
+        compressed = true;
+    }
+
+    private void maybeStartCompression(int length) throws IOException {
+        if (compressed || scheme == null) {
+            return;
+        }
+        long position = bytesStreamOutput.position();
+        if (position - startPosition + length <= threshold) {
+            return;
+        }
+        int written = Math.toIntExact(position - startPosition);
+        byte[] uncompressed = BytesReference.toBytes(bytesStreamOutput.bytes().slice((int) startPosition, written));
+        bytesStreamOutput.seek(startPosition);
+        startCompression();
+        stream.write(uncompressed);
+    }
+
+    /**
+     * @return true if the bytes written to the underlying stream are compressed
+     */
+    boolean isCompressed() {
+        return compressed;
+    }
+
     /**
      * This method ensures that compression is complete and returns the underlying bytes.
      *
@@ -69,7 +120,7 @@ final class CompressibleBytesOutputStream extends StreamOutput {
         // If we are using compression the stream needs to be closed to ensure that EOS marker bytes are written.
         // The actual ReleasableBytesStreamOutput will not be closed yet as it is wrapped in flushOnCloseStream when
         // passed to the deflater stream.
-        if (shouldCompress) {
+        if (compressed) {
             stream.close();
         }
 
@@ -78,11 +129,13 @@ final class CompressibleBytesOutputStream extends StreamOutput {
 
     @Override
     public void writeByte(byte b) throws IOException {
+        maybeStartCompression(1);
         stream.write(b);
     }
 
     @Override
     public void writeBytes(byte[] b, int offset, int length) throws IOException {
+        maybeStartCompression(length);
         stream.write(b, offset, length);
     }
 
@@ -94,7 +147,7 @@ final class CompressibleBytesOutputStream extends StreamOutput {
     @Override
     public void close() throws IOException {
         if (stream != bytesStreamOutput) {
-            assert shouldCompress : "If the streams are different we should be compressing";
+            assert compressed : "If the streams are different we should be compressing";
             IOUtils.close(stream);
         }
     }
@@ -0,0 +1,128 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package org.elasticsearch.transport;
+
+import java.util.Locale;
+
+import org.jetbrains.annotations.Nullable;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.Compressor;
+import org.elasticsearch.common.compress.CompressorFactory;
+import org.elasticsearch.common.compress.Lz4Compressor;
+
+public final class Compression {
+
+    private Compression() {
+    }
+
+    public enum Scheme {
+        DEFLATE(CompressorFactory.COMPRESSOR),
+        LZ4(new Lz4Compressor());
+
+        /**
+         * Nodes before this version can only decompress DEFLATE
+         */
+        static final Version LZ4_VERSION = Version.V_5_8_0;
+
+        private final Compressor compressor;
+
+        Scheme(Compressor compressor) {
+            this.compressor = compressor;
+        }
+
+        public Compressor compressor() {
+            return compressor;
+        }
+
+        /**
+         * All schemes use a header of the same length to identify the compressor
+         */
+        static int headerLength() {
+            return DEFLATE.compressor.headerLength();
+        }
+
+        /**
+         * Returns the scheme to use for a connection of the given version.
+         * The version is agreed on in the handshake of the connection.
+         */
+        Scheme forVersion(Version version) {
+            if (this == LZ4 && version.before(LZ4_VERSION)) {
+                return DEFLATE;
+            }
+            return this;
+        }
+
+        /**
+         * @return the scheme used to compress the bytes, or null if none matches the header
+         */
+        @Nullable
+        static Scheme readScheme(BytesReference bytes) {
+            for (Scheme scheme : values()) {
+                if (scheme.compressor.isCompressed(bytes)) {
+                    return scheme;
+                }
+            }
+            return null;
+        }
+
+        static Scheme parse(String value) {
+            return switch (value.toLowerCase(Locale.ENGLISH)) {
+                case "deflate" -> DEFLATE;
+                case "lz4" -> LZ4;
+                default -> throw new IllegalArgumentException(
+                    "Invalid compression scheme `" + value + "`, supported schemes are: `deflate`, `lz4`");
+            };
+        }
+    }
+
+    public enum Enabled {
+        /**
+         * Compress all messages
+         */
+        TRUE,
+
+        /**
+         * Only compress messages implementing {@link CompressiblePayload} which are larger than
+         * {@link TransportSettings#TRANSPORT_COMPRESSION_THRESHOLD}
+         */
+        LARGE_PAYLOADS,
+
+        FALSE;
+
+        static Enabled parse(String value) {
+            return switch (value.toLowerCase(Locale.ENGLISH)) {
+                case "true" -> TRUE;
+                case "large_payloads" -> LARGE_PAYLOADS;
+                case "false" -> FALSE;
+                default -> throw new IllegalArgumentException(
+                    "Invalid value `" + value + "` for transport compression, supported values are: " +
+                    "`true`, `large_payloads`, `false`");
+            };
+        }
+
+        static Enabled of(boolean compress) {
+            return compress ? TRUE : FALSE;
+        }
+    }
+}
@@ -46,6 +46,9 @@ public final class OutboundHandler {
     private final StatsTracker statsTracker;
     private final ThreadPool threadPool;
     private final BigArrays bigArrays;
+    private final Compression.Enabled compress;
+    private final Compression.Scheme compressionScheme;
+    private final int compressionThreshold;
 
     private volatile TransportMessageListener messageListener = TransportMessageListener.NOOP_LISTENER;
 
@@ -54,11 +57,32 @@ public final class OutboundHandler {
                     StatsTracker statsTracker,
                     ThreadPool threadPool,
                     BigArrays bigArrays) {
+        this(nodeName, version, statsTracker, threadPool, bigArrays, Compression.Enabled.FALSE,
+            Compression.Scheme.DEFLATE, 0);
+    }
+
+    /**
+     * @param compress the compression mode of this node, used for responses to uncompressed requests.
+     * @param compressionScheme the preferred compression scheme, used if supported by the other node.
+     * @param compressionThreshold minimum size of a message to be compressed if {@code compress} is
+     *                             {@link Compression.Enabled#LARGE_PAYLOADS}
+     */
+    OutboundHandler(String nodeName,
+                    Version version,
+                    StatsTracker statsTracker,
+                    ThreadPool threadPool,
+                    BigArrays bigArrays,
+                    Compression.Enabled compress,
+                    Compression.Scheme compressionScheme,
+                    int compressionThreshold) {
         this.nodeName = nodeName;
         this.version = version;
         this.statsTracker = statsTracker;
         this.threadPool = threadPool;
         this.bigArrays = bigArrays;
+        this.compress = compress;
+        this.compressionScheme = compressionScheme;
+        this.compressionThreshold = compressionThreshold;
     }
 
     ChannelFuture sendBytes(CloseableChannel channel, byte[] bytes) {
@@ -92,6 +116,32 @@ public final class OutboundHandler {
                             final Version channelVersion,
                             final boolean compressRequest,
                             final boolean isHandshake) throws IOException, TransportException {
+        sendRequest(
+            node,
+            channel,
+            requestId,
+            action,
+            request,
+            options,
+            channelVersion,
+            Compression.Enabled.of(compressRequest),
+            isHandshake
+        );
+    }
+
+    /**
+     * Sends the request to the given channel, compressing it according to {@code compressRequest}.
+     * The compression scheme depends on the version of the channel which is agreed on in the handshake.
+     */
+    public void sendRequest(final DiscoveryNode node,
+                            final CloseableChannel channel,
+                            final long requestId,
+                            final String action,
+                            final TransportRequest request,
+                            final TransportRequestOptions options,
+                            final Version channelVersion,
+                            final Compression.Enabled compressRequest,
+                            final boolean isHandshake) throws IOException, TransportException {
         Version version = Version.min(this.version, channelVersion);
         OutboundMessage.Request message = new OutboundMessage.Request(
             request,
@@ -99,7 +149,9 @@ public final class OutboundHandler {
             action,
             requestId,
             isHandshake,
-            compressRequest
+            compressRequest,
+            compressionScheme.forVersion(version),
+            compressionThreshold
         );
         ChannelFuture future = sendMessage(channel, message);
         future.addListener(f -> messageListener.onRequestSent(node, requestId, action, request, options));
@@ -109,6 +161,8 @@ public final class OutboundHandler {
      * Sends the response to the given channel. This method should be used to send {@link TransportResponse}
      * objects back to the caller.
      *
+     * Responses to compressed requests are always compressed. Otherwise large payloads are compressed if
+     * {@link TransportSettings#TRANSPORT_COMPRESS} is set to {@code large_payloads}.
      */
     void sendResponse(final Version nodeVersion,
                       final CloseableChannel channel,
@@ -118,12 +172,22 @@ public final class OutboundHandler {
                       final boolean compress,
                       final boolean isHandshake) throws IOException {
         Version version = Version.min(this.version, nodeVersion);
+        final Compression.Enabled compressResponse;
+        if (compress) {
+            compressResponse = Compression.Enabled.TRUE;
+        } else if (this.compress == Compression.Enabled.LARGE_PAYLOADS) {
+            compressResponse = Compression.Enabled.LARGE_PAYLOADS;
+        } else {
+            compressResponse = Compression.Enabled.FALSE;
+        }
         OutboundMessage.Response message = new OutboundMessage.Response(
             response,
             version,
             requestId,
             isHandshake,
-            compress
+            compressResponse,
+            compressionScheme.forVersion(version),
+            compressionThreshold
         );
         ChannelFuture future = sendMessage(channel, message);
         future.addListener(f -> messageListener.onResponseSent(requestId, action, response));
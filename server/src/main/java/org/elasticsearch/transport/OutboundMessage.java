@@ -30,6 +30,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.jetbrains.annotations.Nullable;
 
 abstract class OutboundMessage {
 
@@ -37,12 +38,26 @@ abstract class OutboundMessage {
     protected final Version version;
     protected final long requestId;
     protected final byte status;
-
-    OutboundMessage(Version version, byte status, long requestId, Writeable message) {
+    @Nullable
+    private final Compression.Scheme compressionScheme;
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionScheme scheme used to compress the message or null if the message must not be compressed.
+     * @param compressionThreshold the message is only compressed if its size exceeds this threshold.
+     */
+    OutboundMessage(Version version,
+                    byte status,
+                    long requestId,
+                    Writeable message,
+                    @Nullable Compression.Scheme compressionScheme,
+                    int compressionThreshold) {
         this.version = version;
         this.status = status;
         this.requestId = requestId;
         this.message = message;
+        this.compressionScheme = compressionScheme;
+        this.compressionThreshold = compressionThreshold;
     }
 
     BytesReference serialize(BytesStreamOutput bytesStream) throws IOException {
@@ -51,6 +66,7 @@ abstract class OutboundMessage {
 
         // The compressible bytes stream will not close the underlying bytes stream
         BytesReference reference;
+        byte status = this.status;
         int variableHeaderLength = -1;
         final long preHeaderPosition = bytesStream.position();
 
@@ -59,12 +75,15 @@ abstract class OutboundMessage {
             variableHeaderLength = Math.toIntExact(bytesStream.position() - preHeaderPosition);
         }
 
-        try (CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(bytesStream, TransportStatus.isCompress(status))) {
+        try (var stream = new CompressibleBytesOutputStream(bytesStream, compressionScheme, compressionThreshold)) {
             stream.setVersion(version);
             if (variableHeaderLength == -1) {
                 writeVariableHeader(stream);
             }
             reference = writeMessage(stream);
+            if (stream.isCompressed()) {
+                status = TransportStatus.setCompress(status);
+            }
         }
 
         bytesStream.seek(0);
@@ -113,7 +132,26 @@ abstract class OutboundMessage {
                 long requestId,
                 boolean isHandshake,
                 boolean compress) {
-            super(version, setStatus(compress, isHandshake, message), requestId, message);
+            this(message, version, action, requestId, isHandshake, Compression.Enabled.of(compress),
+                Compression.Scheme.DEFLATE, 0);
+        }
+
+        Request(Writeable message,
+                Version version,
+                String action,
+                long requestId,
+                boolean isHandshake,
+                Compression.Enabled compress,
+                Compression.Scheme scheme,
+                int compressionThreshold) {
+            super(
+                version,
+                setStatus(isHandshake),
+                requestId,
+                message,
+                compressionScheme(message, compress, scheme),
+                compress == Compression.Enabled.LARGE_PAYLOADS ? compressionThreshold : 0
+            );
             this.action = action;
         }
 
@@ -127,12 +165,9 @@ abstract class OutboundMessage {
             stream.writeString(action);
         }
 
-        private static byte setStatus(boolean compress, boolean isHandshake, Writeable message) {
+        private static byte setStatus(boolean isHandshake) {
             byte status = 0;
             status = TransportStatus.setRequest(status);
-            if (compress && OutboundMessage.canCompress(message)) {
-                status = TransportStatus.setCompress(status);
-            }
             if (isHandshake) {
                 status = TransportStatus.setHandshake(status);
             }
@@ -148,18 +183,32 @@ abstract class OutboundMessage {
                  long requestId,
                  boolean isHandshake,
                  boolean compress) {
-            super(version, setStatus(compress, isHandshake, message), requestId, message);
+            this(message, version, requestId, isHandshake, Compression.Enabled.of(compress), Compression.Scheme.DEFLATE, 0);
         }
 
-        private static byte setStatus(boolean compress, boolean isHandshake, Writeable message) {
+        Response(Writeable message,
+                 Version version,
+                 long requestId,
+                 boolean isHandshake,
+                 Compression.Enabled compress,
+                 Compression.Scheme scheme,
+                 int compressionThreshold) {
+            super(
+                version,
+                setStatus(isHandshake, message),
+                requestId,
+                message,
+                compressionScheme(message, compress, scheme),
+                compress == Compression.Enabled.LARGE_PAYLOADS ? compressionThreshold : 0
+            );
+        }
+
+        private static byte setStatus(boolean isHandshake, Writeable message) {
             byte status = 0;
             status = TransportStatus.setResponse(status);
             if (message instanceof RemoteTransportException) {
                 status = TransportStatus.setError(status);
             }
-            if (compress) {
-                status = TransportStatus.setCompress(status);
-            }
             if (isHandshake) {
                 status = TransportStatus.setHandshake(status);
             }
@@ -168,6 +217,17 @@ abstract class OutboundMessage {
         }
     }
 
+    @Nullable
+    private static Compression.Scheme compressionScheme(Writeable message,
+                                                        Compression.Enabled compress,
+                                                        Compression.Scheme scheme) {
+        return switch (compress) {
+            case TRUE -> canCompress(message) ? scheme : null;
+            case LARGE_PAYLOADS -> message instanceof CompressiblePayload ? scheme : null;
+            case FALSE -> null;
+        };
+    }
+
     private static boolean canCompress(Writeable message) {
         return message instanceof BytesTransportRequest == false;
     }
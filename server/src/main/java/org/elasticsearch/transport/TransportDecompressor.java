@@ -24,7 +24,7 @@ import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
-import org.elasticsearch.common.compress.CompressorFactory;
+import org.elasticsearch.common.compress.Lz4Compressor;
 import org.elasticsearch.common.recycler.Recycler;
 import org.elasticsearch.common.util.PageCacheRecycler;
 
@@ -34,24 +34,40 @@ import java.util.ArrayDeque;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
 
+/**
+ * Decompresses the content of a transport message.
+ * The {@link Compression.Scheme} is detected from the header of the compressed content.
+ */
 public class TransportDecompressor implements Closeable {
 
-    private final Inflater inflater;
     private final PageCacheRecycler recycler;
     private final ArrayDeque<Recycler.V<byte[]>> pages;
     private int pageOffset = PageCacheRecycler.BYTE_PAGE_SIZE;
-    private boolean hasReadHeader = false;
+    private Compression.Scheme scheme = null;
+
+    // DEFLATE state
+    private Inflater inflater;
+
+    // LZ4 state, see Lz4Compressor for the format
+    private final byte[] lz4BlockHeader = new byte[Integer.BYTES * 2];
+    private int lz4BlockHeaderRead = 0;
+    private int lz4UncompressedLength;
+    private int lz4CompressedLength;
+    private byte[] lz4Compressed;
+    private int lz4CompressedRead = 0;
+    private byte[] lz4Uncompressed;
+    private boolean lz4Finished = false;
 
     public TransportDecompressor(PageCacheRecycler recycler) {
         this.recycler = recycler;
-        inflater = new Inflater(true);
         pages = new ArrayDeque<>(4);
     }
 
     public int decompress(BytesReference bytesReference) throws IOException {
         int bytesConsumed = 0;
-        if (hasReadHeader == false) {
-            if (CompressorFactory.COMPRESSOR.isCompressed(bytesReference) == false) {
+        if (scheme == null) {
+            scheme = Compression.Scheme.readScheme(bytesReference);
+            if (scheme == null) {
                 int maxToRead = Math.min(bytesReference.length(), 10);
                 StringBuilder sb = new StringBuilder("stream marked as compressed, but no compressor found, first [")
                     .append(maxToRead).append("] content bytes out of [").append(bytesReference.length())
@@ -62,8 +78,10 @@ public class TransportDecompressor implements Closeable {
                 sb.append("]");
                 throw new IllegalStateException(sb.toString());
             }
-            hasReadHeader = true;
-            int headerLength = CompressorFactory.COMPRESSOR.headerLength();
+            if (scheme == Compression.Scheme.DEFLATE) {
+                inflater = new Inflater(true);
+            }
+            int headerLength = scheme.compressor().headerLength();
             bytesReference = bytesReference.slice(headerLength, bytesReference.length() - headerLength);
             bytesConsumed += headerLength;
         }
@@ -71,53 +89,131 @@ public class TransportDecompressor implements Closeable {
         BytesRefIterator refIterator = bytesReference.iterator();
         BytesRef ref;
         while ((ref = refIterator.next()) != null) {
-            inflater.setInput(ref.bytes, ref.offset, ref.length);
-            bytesConsumed += ref.length;
-            boolean continueInflating = true;
-            while (continueInflating) {
-                final Recycler.V<byte[]> page;
-                final boolean isNewPage = pageOffset == PageCacheRecycler.BYTE_PAGE_SIZE;
+            if (scheme == Compression.Scheme.DEFLATE) {
+                bytesConsumed += inflate(ref);
+            } else {
+                bytesConsumed += decompressLz4(ref);
+            }
+        }
+
+        return bytesConsumed;
+    }
+
+    private int inflate(BytesRef ref) throws IOException {
+        inflater.setInput(ref.bytes, ref.offset, ref.length);
+        int bytesConsumed = ref.length;
+        boolean continueInflating = true;
+        while (continueInflating) {
+            final Recycler.V<byte[]> page;
+            final boolean isNewPage = pageOffset == PageCacheRecycler.BYTE_PAGE_SIZE;
+            if (isNewPage) {
+                pageOffset = 0;
+                page = recycler.bytePage(false);
+            } else {
+                page = pages.getLast();
+            }
+            byte[] output = page.v();
+            try {
+                int bytesInflated = inflater.inflate(output, pageOffset, PageCacheRecycler.BYTE_PAGE_SIZE - pageOffset);
+                pageOffset += bytesInflated;
                 if (isNewPage) {
-                    pageOffset = 0;
-                    page = recycler.bytePage(false);
-                } else {
-                    page = pages.getLast();
+                    if (bytesInflated == 0) {
+                        page.close();
+                        pageOffset = PageCacheRecycler.BYTE_PAGE_SIZE;
+                    } else {
+                        pages.add(page);
+                    }
                 }
-                byte[] output = page.v();
-                try {
-                    int bytesInflated = inflater.inflate(output, pageOffset, PageCacheRecycler.BYTE_PAGE_SIZE - pageOffset);
-                    pageOffset += bytesInflated;
-                    if (isNewPage) {
-                        if (bytesInflated == 0) {
-                            page.close();
-                            pageOffset = PageCacheRecycler.BYTE_PAGE_SIZE;
-                        } else {
-                            pages.add(page);
-                        }
+            } catch (DataFormatException e) {
+                throw new IOException("Exception while inflating bytes", e);
+            }
+            if (inflater.needsInput()) {
+                continueInflating = false;
+            }
+            if (inflater.finished()) {
+                bytesConsumed -= inflater.getRemaining();
+                continueInflating = false;
+            }
+            assert inflater.needsDictionary() == false;
+        }
+        return bytesConsumed;
+    }
+
+    /**
+     * Blocks can span several network buffers, so the block headers and compressed bytes are buffered until a
+     * block is complete.
+     */
+    private int decompressLz4(BytesRef ref) throws IOException {
+        int offset = ref.offset;
+        final int end = ref.offset + ref.length;
+        while (offset < end && lz4Finished == false) {
+            if (lz4BlockHeaderRead < Integer.BYTES) {
+                int toCopy = Math.min(end - offset, Integer.BYTES - lz4BlockHeaderRead);
+                System.arraycopy(ref.bytes, offset, lz4BlockHeader, lz4BlockHeaderRead, toCopy);
+                offset += toCopy;
+                lz4BlockHeaderRead += toCopy;
+                if (lz4BlockHeaderRead == Integer.BYTES) {
+                    lz4UncompressedLength = Lz4Compressor.readInt(lz4BlockHeader, 0);
+                    if (lz4UncompressedLength == 0) {
+                        lz4Finished = true;
                     }
-                } catch (DataFormatException e) {
-                    throw new IOException("Exception while inflating bytes", e);
                 }
-                if (inflater.needsInput()) {
-                    continueInflating = false;
+            } else if (lz4BlockHeaderRead < lz4BlockHeader.length) {
+                int toCopy = Math.min(end - offset, lz4BlockHeader.length - lz4BlockHeaderRead);
+                System.arraycopy(ref.bytes, offset, lz4BlockHeader, lz4BlockHeaderRead, toCopy);
+                offset += toCopy;
+                lz4BlockHeaderRead += toCopy;
+                if (lz4BlockHeaderRead == lz4BlockHeader.length) {
+                    lz4CompressedLength = Lz4Compressor.readInt(lz4BlockHeader, Integer.BYTES);
+                    Lz4Compressor.ensureValidBlock(lz4UncompressedLength, lz4CompressedLength);
+                    if (lz4Compressed == null) {
+                        lz4Compressed = new byte[Lz4Compressor.maxCompressedLength(Lz4Compressor.BLOCK_SIZE)];
+                        lz4Uncompressed = new byte[Lz4Compressor.BLOCK_SIZE];
+                    }
                 }
-                if (inflater.finished()) {
-                    bytesConsumed -= inflater.getRemaining();
-                    continueInflating = false;
+            } else {
+                int toCopy = Math.min(end - offset, lz4CompressedLength - lz4CompressedRead);
+                System.arraycopy(ref.bytes, offset, lz4Compressed, lz4CompressedRead, toCopy);
+                offset += toCopy;
+                lz4CompressedRead += toCopy;
+                if (lz4CompressedRead == lz4CompressedLength) {
+                    Lz4Compressor.decompressBlock(lz4Compressed, lz4CompressedLength, lz4Uncompressed, lz4UncompressedLength);
+                    addToPages(lz4Uncompressed, lz4UncompressedLength);
+                    lz4BlockHeaderRead = 0;
+                    lz4CompressedRead = 0;
                 }
-                assert inflater.needsDictionary() == false;
             }
         }
+        return offset - ref.offset;
+    }
 
-        return bytesConsumed;
+    private void addToPages(byte[] bytes, int length) {
+        int offset = 0;
+        while (offset < length) {
+            final Recycler.V<byte[]> page;
+            if (pageOffset == PageCacheRecycler.BYTE_PAGE_SIZE) {
+                page = recycler.bytePage(false);
+                pages.add(page);
+                pageOffset = 0;
+            } else {
+                page = pages.getLast();
+            }
+            int toCopy = Math.min(length - offset, PageCacheRecycler.BYTE_PAGE_SIZE - pageOffset);
+            System.arraycopy(bytes, offset, page.v(), pageOffset, toCopy);
+            pageOffset += toCopy;
+            offset += toCopy;
+        }
     }
 
     public boolean canDecompress(int bytesAvailable) {
-        return hasReadHeader || bytesAvailable >= CompressorFactory.COMPRESSOR.headerLength();
+        return scheme != null || bytesAvailable >= Compression.Scheme.headerLength();
     }
 
     public boolean isEOS() {
-        return inflater.finished();
+        if (scheme == null) {
+            return false;
+        }
+        return scheme == Compression.Scheme.DEFLATE ? inflater.finished() : lz4Finished;
     }
 
     public ReleasableBytesReference pollDecompressedPage() {
@@ -140,7 +236,9 @@ public class TransportDecompressor implements Closeable {
 
     @Override
     public void close() {
-        inflater.end();
+        if (inflater != null) {
+            inflater.end();
+        }
         for (Recycler.V<byte[]> page : pages) {
             page.close();
         }
@@ -22,6 +22,7 @@ package org.elasticsearch.transport;
 import static io.crate.types.DataTypes.STRING_ARRAY;
 import static java.util.Collections.emptyList;
 import static org.elasticsearch.common.settings.Setting.boolSetting;
+import static org.elasticsearch.common.settings.Setting.byteSizeSetting;
 import static org.elasticsearch.common.settings.Setting.intSetting;
 import static org.elasticsearch.common.settings.Setting.listSetting;
 import static org.elasticsearch.common.settings.Setting.timeSetting;
@@ -32,6 +33,7 @@ import java.util.function.Function;
 import org.elasticsearch.common.network.NetworkService;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 
 import io.crate.common.unit.TimeValue;
@@ -59,10 +61,32 @@ public final class TransportSettings {
     public static final Setting<Integer> PUBLISH_PORT =
         intSetting("transport.publish_port", -1, -1, Setting.Property.NodeScope);
     // TODO: Deprecate in 7.0
-    public static final Setting<Boolean> OLD_TRANSPORT_COMPRESS =
-        boolSetting("transport.tcp.compress", false, Setting.Property.NodeScope);
-    public static final Setting<Boolean> TRANSPORT_COMPRESS =
-        boolSetting("transport.compress", OLD_TRANSPORT_COMPRESS, Setting.Property.NodeScope);
+    public static final Setting<Compression.Enabled> OLD_TRANSPORT_COMPRESS = new Setting<>(
+        "transport.tcp.compress",
+        "false",
+        Compression.Enabled::parse,
+        DataTypes.STRING,
+        Setting.Property.NodeScope
+    );
+    public static final Setting<Compression.Enabled> TRANSPORT_COMPRESS = new Setting<>(
+        "transport.compress",
+        OLD_TRANSPORT_COMPRESS,
+        Compression.Enabled::parse,
+        DataTypes.STRING,
+        Setting.Property.NodeScope
+    );
+    public static final Setting<Compression.Scheme> TRANSPORT_COMPRESSION_SCHEME = new Setting<>(
+        "transport.compression_scheme",
+        "lz4",
+        Compression.Scheme::parse,
+        DataTypes.STRING,
+        Setting.Property.NodeScope
+    );
+    public static final Setting<ByteSizeValue> TRANSPORT_COMPRESSION_THRESHOLD = byteSizeSetting(
+        "transport.compression_threshold",
+        new ByteSizeValue(16, ByteSizeUnit.KB),
+        Setting.Property.NodeScope
+    );
     // the scheduled internal ping interval setting, defaults to disabled (-1)
     public static final Setting<TimeValue> PING_SCHEDULE =
         timeSetting("transport.ping_schedule", TimeValue.timeValueSeconds(-1), Setting.Property.NodeScope);
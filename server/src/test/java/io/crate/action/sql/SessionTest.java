@@ -25,6 +25,7 @@ import static io.crate.testing.Asserts.assertThat;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -278,35 +279,35 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             .addTable("create table t1 (x int)");
         sqlExecutor.jobsLogsEnabled = true;
         Session session = sqlExecutor.createSession();
-        when(planner.plan(any(AnalyzedStatement.class), any(PlannerContext.class)))
-            .thenReturn(
-                new Plan() {
-                    @Override
-                    public StatementType type() {
-                        return StatementType.INSERT;
-                    }
-
-                    @Override
-                    public void executeOrFail(DependencyCarrier dependencies,
-                                              PlannerContext plannerContext,
-                                              RowConsumer consumer,
-                                              Row params,
-                                              SubQueryResults subQueryResults) throws Exception {
-                        // Make sure `quickExec()` below completes, and its job is moved to jobs_log
-                        consumer.completionFuture().complete(null);
-                    }
-
-                    @Override
-                    public List<CompletableFuture<Long>> executeBulk(DependencyCarrier executor,
-                                                                     PlannerContext plannerContext,
-                                                                     List<Row> bulkParams,
-                                                                     SubQueryResults subQueryResults) {
-                        // Do another execution to overwrite `mostRecentJobID`
-                        session.quickExec("SELECT 1", new BaseResultReceiver(), null);
-                        return List.of(completedFuture(1L), completedFuture(1L));
-                    }
-                }
-            );
+        Plan plan = new Plan() {
+            @Override
+            public StatementType type() {
+                return StatementType.INSERT;
+            }
+
+            @Override
+            public void executeOrFail(DependencyCarrier dependencies,
+                                      PlannerContext plannerContext,
+                                      RowConsumer consumer,
+                                      Row params,
+                                      SubQueryResults subQueryResults) throws Exception {
+                // Make sure `quickExec()` below completes, and its job is moved to jobs_log
+                consumer.completionFuture().complete(null);
+            }
+
+            @Override
+            public List<CompletableFuture<Long>> executeBulk(DependencyCarrier executor,
+                                                             PlannerContext plannerContext,
+                                                             List<Row> bulkParams,
+                                                             SubQueryResults subQueryResults) {
+                // Do another execution to overwrite `mostRecentJobID`
+                session.quickExec("SELECT 1", new BaseResultReceiver(), null);
+                return List.of(completedFuture(1L), completedFuture(1L));
+            }
+        };
+        when(planner.plan(any(AnalyzedStatement.class), any(PlannerContext.class))).thenReturn(plan);
+        when(planner.plan(any(String.class), any(), anyLong(), any(AnalyzedStatement.class), any(PlannerContext.class)))
+            .thenReturn(plan);
 
         session.parse("S_1", "INSERT INTO t1 (x) VALUES (1)", List.of());
         session.bind("P_1", "S_1", List.of(), null);
@@ -326,31 +327,31 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
         SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService)
             .setPlanner(planner)
             .build();
-        when(planner.plan(any(AnalyzedStatement.class), any(PlannerContext.class)))
-            .thenReturn(
-                new Plan() {
-                    @Override
-                    public StatementType type() {
-                        return StatementType.INSERT;
-                    }
-
-                    @Override
-                    public void executeOrFail(DependencyCarrier dependencies,
-                                              PlannerContext plannerContext,
-                                              RowConsumer consumer,
-                                              Row params,
-                                              SubQueryResults subQueryResults) throws Exception {
-                    }
-
-                    @Override
-                    public List<CompletableFuture<Long>> executeBulk(DependencyCarrier executor,
-                                                                     PlannerContext plannerContext,
-                                                                     List<Row> bulkParams,
-                                                                     SubQueryResults subQueryResults) {
-                        return List.of(new CompletableFuture<>());
-                    }
-                }
-            );
+        Plan plan = new Plan() {
+            @Override
+            public StatementType type() {
+                return StatementType.INSERT;
+            }
+
+            @Override
+            public void executeOrFail(DependencyCarrier dependencies,
+                                      PlannerContext plannerContext,
+                                      RowConsumer consumer,
+                                      Row params,
+                                      SubQueryResults subQueryResults) throws Exception {
+            }
+
+            @Override
+            public List<CompletableFuture<Long>> executeBulk(DependencyCarrier executor,
+                                                             PlannerContext plannerContext,
+                                                             List<Row> bulkParams,
+                                                             SubQueryResults subQueryResults) {
+                return List.of(new CompletableFuture<>());
+            }
+        };
+        when(planner.plan(any(AnalyzedStatement.class), any(PlannerContext.class))).thenReturn(plan);
+        when(planner.plan(any(String.class), any(), anyLong(), any(AnalyzedStatement.class), any(PlannerContext.class)))
+            .thenReturn(plan);
 
         ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
         DependencyCarrier dependencies = sqlExecutor.dependencyMock;
@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import org.apache.lucene.index.VectorSimilarityFunction;
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
@@ -47,6 +48,7 @@ import org.elasticsearch.cluster.routing.allocation.decider.EnableAllocationDeci
 import org.elasticsearch.cluster.routing.allocation.decider.MaxRetryAllocationDecider;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.IndexSortConfig;
 import org.elasticsearch.test.ClusterServiceUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -64,6 +66,7 @@ import io.crate.exceptions.InvalidSchemaNameException;
 import io.crate.exceptions.OperationOnInaccessibleRelationException;
 import io.crate.exceptions.UnsupportedFeatureException;
 import io.crate.exceptions.UnsupportedFunctionException;
+import io.crate.lucene.codec.VectorIndexOptions;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.CoordinatorTxnCtx;
 import io.crate.metadata.FulltextAnalyzerResolver;
@@ -72,6 +75,7 @@ import io.crate.metadata.IndexReference;
 import io.crate.metadata.Reference;
 import io.crate.metadata.RelationName;
 import io.crate.metadata.Schemas;
+import io.crate.metadata.VectorReference;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.planner.PlannerContext;
 import io.crate.planner.node.ddl.AlterTablePlan;
@@ -1902,6 +1906,45 @@ public class CreateAlterTableStatementAnalyzerTest extends CrateDummyClusterServ
             .hasMessage("Arrays of float_vector are not supported");
     }
 
+    @Test
+    public void test_create_table_with_hnsw_index_options_on_float_vector() throws Exception {
+        BoundCreateTable stmt = analyze("""
+            create table tbl (
+                x float_vector(4) index using hnsw with (similarity = 'cosine', quantization = 'int4', m = 32)
+            )
+            """);
+        Reference x = stmt.columns().get(ColumnIdent.of("x"));
+        assertThat(x).isExactlyInstanceOf(VectorReference.class);
+        assertThat(((VectorReference) x).indexOptions()).isEqualTo(new VectorIndexOptions(
+            VectorSimilarityFunction.COSINE,
+            VectorIndexOptions.Quantization.INT4,
+            32,
+            VectorIndexOptions.DEFAULT.efConstruction()
+        ));
+        assertThat(x.toMapping(0))
+            .containsEntry("similarity", "cosine")
+            .containsEntry("quantization", "int4")
+            .containsEntry("m", 32)
+            .doesNotContainKey("ef_construction");
+    }
+
+    @Test
+    public void test_hnsw_index_options_are_validated() throws Exception {
+        assertThatThrownBy(() -> analyze("create table tbl (x int index using hnsw)"))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("INDEX USING hnsw can only be used on columns of type \"float_vector\": `x`");
+        assertThatThrownBy(() -> analyze("create table tbl (x float_vector(2) index using plain with (m = 4))"))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Columns of type \"float_vector\" only support options for INDEX USING hnsw: `x`");
+        assertThatThrownBy(() -> analyze(
+                "create table tbl (x float_vector(2) index using hnsw with (similarity = 'manhattan'))"))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid value for HNSW option `similarity`: manhattan");
+        assertThatThrownBy(() -> analyze("create table tbl (x float_vector(2) index using hnsw with (m = 1))"))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid value for HNSW option `m`: 1. Must be between 2 and 512");
+    }
+
     @Test
     public void test_named_primary_key_constraints() {
         BoundCreateTable createTable = analyze("create table tbl (a int constraint c_1 check (a > 10) constraint c_2 primary key constraint c_3 check (a < 20))");
@@ -1942,4 +1985,27 @@ public class CreateAlterTableStatementAnalyzerTest extends CrateDummyClusterServ
             .isExactlyInstanceOf(UnsupportedOperationException.class)
             .hasMessage("Cannot use table function in default expression of column `x`");
     }
+
+    @Test
+    public void test_create_table_with_index_sort() {
+        BoundCreateTable analysis = analyze(
+            "create table t (ts timestamp with time zone, id text) with (\"sort.columns\" = 'ts DESC, id')");
+        assertThat(analysis.tableParameter().settings().get(IndexSortConfig.INDEX_SORT_COLUMNS_SETTING.getKey()))
+            .isEqualTo("ts DESC, id");
+    }
+
+    @Test
+    public void test_index_sort_columns_must_exist_and_be_sortable() {
+        assertThatThrownBy(() -> analyze("create table t (x int) with (\"sort.columns\" = 'y')"))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Column `y` used in 'sort.columns' does not exist");
+        assertThatThrownBy(() -> analyze("create table t (x int[]) with (\"sort.columns\" = 'x')"))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Cannot use column `x` of type `integer_array` in 'sort.columns'. " +
+                        "Only numeric, timestamp, boolean and text columns with a columnstore are supported");
+        assertThatThrownBy(() -> analyze(
+                "create table t (x int, p int) partitioned by (p) with (\"sort.columns\" = 'p')"))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Cannot use the partition column `p` in 'sort.columns'");
+    }
 }
@@ -63,6 +63,7 @@ import io.crate.common.collections.MapBuilder;
 import io.crate.execution.ddl.tables.AddColumnRequest;
 import io.crate.execution.ddl.tables.AlterTableTask;
 import io.crate.execution.ddl.tables.TransportAddColumnAction;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.expression.reference.doc.lucene.SourceParser;
 import io.crate.expression.symbol.DynamicReference;
 import io.crate.expression.symbol.Symbol;
@@ -862,7 +863,7 @@ public class IndexerTest extends CrateDummyClusterServiceUnitTest {
         List<Reference> newColumns = indexer.collectSchemaUpdates(item);
         ParsedDocument doc = indexer.index(item);
         assertThat(newColumns).isEmpty();
-        assertThat(doc.source().utf8ToString()).isEqualTo("{}");
+        assertThat(BinarySource.asJson(doc.source()).utf8ToString()).isEqualTo("{}");
         assertTranslogParses(doc, e.resolveTableInfo("tbl"));
     }
 
@@ -1145,7 +1146,7 @@ public class IndexerTest extends CrateDummyClusterServiceUnitTest {
 
         var indexer = getIndexer(e, "tbl", "empty_arr");
         ParsedDocument doc = indexer.index(item(List.of()));
-        assertThat(doc.source().utf8ToString()).isEqualToIgnoringWhitespace(
+        assertThat(BinarySource.asJson(doc.source()).utf8ToString()).isEqualToIgnoringWhitespace(
                 """
                 {"_u_empty_arr":[]}
                 """
@@ -1170,7 +1171,7 @@ public class IndexerTest extends CrateDummyClusterServiceUnitTest {
 
         var indexer = getIndexer(e, "tbl", "empty_arr");
         ParsedDocument doc = indexer.index(item(List.of()));
-        assertThat(doc.source().utf8ToString()).isEqualToIgnoringWhitespace(
+        assertThat(BinarySource.asJson(doc.source()).utf8ToString()).isEqualToIgnoringWhitespace(
                 """
                 {"empty_arr":[]}
                 """
@@ -1188,7 +1189,7 @@ public class IndexerTest extends CrateDummyClusterServiceUnitTest {
 
         var indexer = getIndexer(e, "tbl", "o");
         ParsedDocument doc = indexer.index(item(Map.of("i", 1, "ignored_col", "foo")));
-        assertThat(doc.source().utf8ToString()).isEqualToIgnoringWhitespace(
+        assertThat(BinarySource.asJson(doc.source()).utf8ToString()).isEqualToIgnoringWhitespace(
                 """
                 {"1":{"2":1,"_u_ignored_col":"foo"}}
                 """
@@ -1213,7 +1214,7 @@ public class IndexerTest extends CrateDummyClusterServiceUnitTest {
 
         var indexer = getIndexer(e, "tbl", "o");
         ParsedDocument doc = indexer.index(item(Map.of("i", 1, "ignored_col", "foo")));
-        assertThat(doc.source().utf8ToString()).isEqualToIgnoringWhitespace(
+        assertThat(BinarySource.asJson(doc.source()).utf8ToString()).isEqualToIgnoringWhitespace(
                 """
                 {"o":{"i":1,"ignored_col":"foo"}}
                 """
@@ -1237,7 +1238,7 @@ public class IndexerTest extends CrateDummyClusterServiceUnitTest {
 
         ParsedDocument doc = indexer.index(item(1, Map.of("x", 2)));
         // Ensure source contains OID's instead of column names
-        assertThat(doc.source().utf8ToString()).isEqualToIgnoringWhitespace(
+        assertThat(BinarySource.asJson(doc.source()).utf8ToString()).isEqualToIgnoringWhitespace(
             """
             {"1":1,"2":{"3":2}}
             """
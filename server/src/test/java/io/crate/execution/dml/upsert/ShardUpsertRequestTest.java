@@ -29,6 +29,7 @@ import java.util.UUID;
 
 import org.elasticsearch.Version;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.index.seqno.SequenceNumbers;
@@ -202,4 +203,45 @@ public class ShardUpsertRequestTest extends ESTestCase {
         ShardUpsertRequest request2 = new ShardUpsertRequest(in);
         assertThat(request2.items().get(0).seqNo()).isEqualTo(SequenceNumbers.SKIP_ON_REPLICA);
     }
+
+    @Test
+    public void test_streaming_item_source_is_only_sent_to_nodes_which_read_it() throws Exception {
+        ShardId shardId = new ShardId("test", UUIDs.randomBase64UUID(), 1);
+        ShardUpsertRequest request = new ShardUpsertRequest.Builder(
+            new SessionSettings("dummyUser", SearchPath.createSearchPathFrom("dummySchema")),
+            TimeValue.timeValueSeconds(30),
+            DuplicateKeyAction.UPDATE_OR_FAIL,
+            false,
+            null,
+            new SimpleReference[]{ID_REF, NAME_REF},
+            null,
+            UUID.randomUUID()
+        ).newRequest(shardId);
+        ShardUpsertRequest.Item item = ShardUpsertRequest.Item.forInsert(
+            "42",
+            List.of(),
+            Translog.UNSET_AUTO_GENERATED_TIMESTAMP,
+            new Object[]{42, "Marvin"},
+            null
+        );
+        item.source(new BytesArray("{\"id\":42,\"name\":\"Marvin\"}"));
+        request.add(42, item);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+        ShardUpsertRequest request2 = new ShardUpsertRequest(out.bytes().streamInput());
+        assertThat(request2.items().get(0).source()).isEqualTo(item.source());
+        assertThat(request2.items().get(0).insertValues())
+            .as("insert values are redundant if the source is sent")
+            .isNull();
+
+        out = new BytesStreamOutput();
+        out.setVersion(Version.V_5_7_0);
+        request.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        in.setVersion(Version.V_5_7_0);
+        request2 = new ShardUpsertRequest(in);
+        assertThat(request2.items().get(0).source()).isNull();
+        assertThat(request2.items().get(0).insertValues()).containsExactly(42, "Marvin");
+    }
 }
@@ -23,6 +23,7 @@ package io.crate.execution.dml.upsert;
 
 import static io.crate.testing.TestingHelpers.createNodeContext;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
@@ -33,21 +34,30 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import org.apache.lucene.index.IndexableField;
 import org.elasticsearch.Version;
+import org.elasticsearch.action.support.replication.TransportReplicationAction;
 import org.elasticsearch.action.support.replication.TransportWriteAction;
 import org.elasticsearch.cluster.action.shard.ShardStateAction;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
+import org.elasticsearch.index.mapper.ParsedDocument;
 import org.elasticsearch.index.seqno.SequenceNumbers;
 import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardNotFoundException;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.indices.IndicesService;
@@ -60,6 +70,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 
 import io.crate.common.unit.TimeValue;
 import io.crate.execution.ddl.tables.TransportAddColumnAction;
@@ -70,6 +81,7 @@ import io.crate.execution.dml.upsert.ShardUpsertRequest.DuplicateKeyAction;
 import io.crate.execution.jobs.TasksService;
 import io.crate.expression.symbol.DynamicReference;
 import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.CoordinatorTxnCtx;
 import io.crate.metadata.IndexType;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.PartitionName;
@@ -85,6 +97,7 @@ import io.crate.metadata.settings.SessionSettings;
 import io.crate.netty.NettyBootstrap;
 import io.crate.sql.tree.ColumnPolicy;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
 import io.crate.types.DataTypes;
 
 public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnitTest {
@@ -141,8 +154,42 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
         }
     }
 
+    /**
+     * Processes item "1" like a primary with replicas and fails on the next item with a retryable exception
+     */
+    static class PartiallyFailingTransportShardUpsertAction extends TestingTransportShardUpsertAction {
+
+        public PartiallyFailingTransportShardUpsertAction(ThreadPool threadPool,
+                                                          ClusterService clusterService,
+                                                          TransportService transportService,
+                                                          TasksService tasksService,
+                                                          IndicesService indicesService,
+                                                          ShardStateAction shardStateAction,
+                                                          NodeContext nodeCtx) {
+            super(threadPool, clusterService, transportService, tasksService, indicesService, shardStateAction, nodeCtx);
+        }
+
+        @Override
+        protected IndexItemResponse insert(Indexer indexer,
+                                           ShardUpsertRequest request,
+                                           ShardUpsertRequest.Item item,
+                                           IndexShard indexShard,
+                                           boolean isRetry,
+                                           @Nullable RawIndexer rawIndexer,
+                                           long version) throws Exception {
+            if (item.id().equals("1")) {
+                item.source(new BytesArray("{\"id\":1}"));
+                return null;
+            }
+            throw new ShardNotFoundException(request.shardId());
+        }
+    }
+
     private TransportShardUpsertAction transportShardUpsertAction;
+    private IndicesService indicesService;
     private IndexShard indexShard;
+    private Schemas schemas;
+    private NodeContext nodeCtx;
     private NettyBootstrap nettyBootstrap;
 
     @Before
@@ -152,7 +199,7 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
         nettyBootstrap = new NettyBootstrap(Settings.EMPTY);
         nettyBootstrap.start();
 
-        IndicesService indicesService = mock(IndicesService.class);
+        indicesService = mock(IndicesService.class);
         IndexService indexService = mock(IndexService.class);
         Index charactersIndex = new Index(TABLE_IDENT.indexNameOrAlias(), charactersIndexUUID);
         Index partitionIndex = new Index(PARTITION_INDEX, partitionIndexUUID);
@@ -160,11 +207,12 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
         when(indicesService.indexServiceSafe(charactersIndex)).thenReturn(indexService);
         when(indicesService.indexServiceSafe(partitionIndex)).thenReturn(indexService);
         indexShard = mock(IndexShard.class, Answers.RETURNS_MOCKS);
+        resetIndexShard();
         when(indexService.getShard(0)).thenReturn(indexShard);
 
         // Avoid null pointer exceptions
         DocTableInfo tableInfo = mock(DocTableInfo.class);
-        Schemas schemas = mock(Schemas.class);
+        schemas = mock(Schemas.class);
         when(tableInfo.columns()).thenReturn(Collections.<Reference>emptyList());
         when(tableInfo.versionCreated()).thenReturn(Version.CURRENT);
         when(schemas.getTableInfo(any(RelationName.class))).thenReturn(tableInfo);
@@ -185,6 +233,7 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
         when(tableInfo.getReference(ColumnIdent.of("dynamic_long_col"))).thenReturn(dynamicLongColRef);
         when(tableInfo.iterator()).thenReturn(List.<Reference>of(ID_REF, dynamicLongColRef).iterator());
 
+        nodeCtx = createNodeContext(schemas, List.of());
         transportShardUpsertAction = new TestingTransportShardUpsertAction(
             mock(ThreadPool.class),
             clusterService,
@@ -192,7 +241,7 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
             mock(TasksService.class),
             indicesService,
             mock(ShardStateAction.class),
-            createNodeContext(schemas, List.of())
+            nodeCtx
         );
     }
 
@@ -283,7 +332,7 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
         request.add(1, ShardUpsertRequest.Item.forInsert("1", List.of(), Translog.UNSET_AUTO_GENERATED_TIMESTAMP, new Object[]{1}, null));
         request.items().get(0).seqNo(SequenceNumbers.SKIP_ON_REPLICA);
 
-        reset(indexShard);
+        resetIndexShard();
 
         // would fail with NPE if not skipped
         transportShardUpsertAction.processRequestItemsOnReplica(indexShard, request);
@@ -321,4 +370,174 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
         // verifies that it does not throw a ClassCastException: class java.lang.Integer cannot be cast to class java.lang.Long
         transportShardUpsertAction.processRequestItemsOnReplica(indexShard, request);
     }
+
+    @Test
+    public void test_replica_indexes_source_of_primary_including_non_deterministic_defaults() throws Exception {
+        DocTableInfo table = SQLExecutor.tableInfo(
+            TABLE_IDENT,
+            "create table doc.characters (id int, name text, created timestamp with time zone default now())",
+            clusterService
+        );
+        when(schemas.getTableInfo(any(RelationName.class))).thenReturn(table);
+        Reference idRef = table.getReference(ColumnIdent.of("id"));
+        Reference nameRef = table.getReference(ColumnIdent.of("name"));
+        ShardId shardId = new ShardId(TABLE_IDENT.indexNameOrAlias(), charactersIndexUUID, 0);
+        ShardUpsertRequest request = new ShardUpsertRequest.Builder(
+            DUMMY_SESSION_INFO,
+            TimeValue.timeValueSeconds(30),
+            DuplicateKeyAction.UPDATE_OR_FAIL,
+            false,
+            null,
+            new Reference[]{idRef, nameRef},
+            null,
+            UUID.randomUUID()
+        ).newRequest(shardId);
+        ShardUpsertRequest.Item item = ShardUpsertRequest.Item.forInsert(
+            "1", List.of(), Translog.UNSET_AUTO_GENERATED_TIMESTAMP, new Object[]{1, "Arthur"}, null);
+        request.add(1, item);
+
+        // Index on the "primary" like TransportShardUpsertAction#prepareInsert does
+        Indexer indexer = new Indexer(
+            TABLE_IDENT.indexNameOrAlias(),
+            table,
+            CoordinatorTxnCtx.systemTransactionContext(),
+            nodeCtx,
+            List.of(idRef, nameRef),
+            null
+        );
+        ParsedDocument primaryDoc = indexer.index(item);
+        item.source(primaryDoc.source());
+        item.insertValues(indexer.addGeneratedValues(item));
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+        ShardUpsertRequest replicaRequest = new ShardUpsertRequest(out.bytes().streamInput());
+        assertThat(replicaRequest.items().get(0).insertValues()).isNull();
+
+        resetIndexShard();
+        transportShardUpsertAction.processRequestItemsOnReplica(indexShard, replicaRequest);
+
+        ArgumentCaptor<Engine.Index> operation = ArgumentCaptor.forClass(Engine.Index.class);
+        verify(indexShard).index(operation.capture());
+        ParsedDocument replicaDoc = operation.getValue().parsedDoc();
+        assertThat(replicaDoc.source()).isEqualTo(primaryDoc.source());
+
+        String createdField = table.getReference(ColumnIdent.of("created")).storageIdent();
+        List<Number> primaryValues = numericValues(primaryDoc, createdField);
+        assertThat(primaryValues).isNotEmpty();
+        assertThat(numericValues(replicaDoc, createdField)).isEqualTo(primaryValues);
+    }
+
+    @Test
+    public void test_replica_retries_if_source_contains_unknown_child_column() throws Exception {
+        DocTableInfo table = SQLExecutor.tableInfo(
+            TABLE_IDENT,
+            "create table doc.characters (id int, obj object(dynamic) as (a int))",
+            clusterService
+        );
+        when(schemas.getTableInfo(any(RelationName.class))).thenReturn(table);
+        ShardId shardId = new ShardId(TABLE_IDENT.indexNameOrAlias(), charactersIndexUUID, 0);
+        ShardUpsertRequest request = new ShardUpsertRequest.Builder(
+            DUMMY_SESSION_INFO,
+            TimeValue.timeValueSeconds(30),
+            DuplicateKeyAction.UPDATE_OR_FAIL,
+            false,
+            null,
+            new Reference[]{table.getReference(ColumnIdent.of("id")), table.getReference(ColumnIdent.of("obj"))},
+            null,
+            UUID.randomUUID()
+        ).newRequest(shardId);
+        ShardUpsertRequest.Item item = ShardUpsertRequest.Item.forInsert(
+            "1", List.of(), Translog.UNSET_AUTO_GENERATED_TIMESTAMP, new Object[]{1, Map.of("a", 1, "child", "foo")}, null);
+        // The primary added obj['child'] dynamically, the replica doesn't know it yet
+        item.source(new BytesArray("{\"id\":1,\"obj\":{\"a\":1,\"child\":\"foo\"}}"));
+        request.add(1, item);
+        when(indexShard.shardId()).thenReturn(shardId);
+
+        assertThatThrownBy(() -> transportShardUpsertAction.processRequestItemsOnReplica(indexShard, request))
+            .isExactlyInstanceOf(TransportReplicationAction.RetryOnReplicaException.class)
+            .hasMessageContaining("Mappings are not available on the replica yet");
+
+        // Empty values don't add columns on the primary
+        item.source(new BytesArray("{\"id\":1,\"obj\":{\"a\":1,\"child\":null}}"));
+        resetIndexShard();
+        transportShardUpsertAction.processRequestItemsOnReplica(indexShard, request);
+        verify(indexShard).index(any(Engine.Index.class));
+    }
+
+    @Test
+    public void test_primary_retry_after_partial_processing_keeps_insert_values() throws Exception {
+        var action = new PartiallyFailingTransportShardUpsertAction(
+            mock(ThreadPool.class),
+            clusterService,
+            MockTransportService.createNewService(Settings.EMPTY, Version.CURRENT, THREAD_POOL, nettyBootstrap, clusterService.getClusterSettings()),
+            mock(TasksService.class),
+            indicesService,
+            mock(ShardStateAction.class),
+            nodeCtx
+        );
+        ShardId shardId = new ShardId(TABLE_IDENT.indexNameOrAlias(), charactersIndexUUID, 0);
+        ShardUpsertRequest request = new ShardUpsertRequest.Builder(
+            DUMMY_SESSION_INFO,
+            TimeValue.timeValueSeconds(30),
+            DuplicateKeyAction.UPDATE_OR_FAIL,
+            false,
+            null,
+            new SimpleReference[]{ID_REF},
+            null,
+            UUID.randomUUID()
+        ).newRequest(shardId);
+        request.add(1, ShardUpsertRequest.Item.forInsert("1", List.of(), Translog.UNSET_AUTO_GENERATED_TIMESTAMP, new Object[]{(short) 1}, null));
+        request.add(2, ShardUpsertRequest.Item.forInsert("2", List.of(), Translog.UNSET_AUTO_GENERATED_TIMESTAMP, new Object[]{(short) 2}, null));
+
+        assertThatThrownBy(() -> action.processRequestItems(indexShard, request, new AtomicBoolean(false)))
+            .isExactlyInstanceOf(ShardNotFoundException.class);
+
+        // The request is sent to the node holding the new primary
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+        ShardUpsertRequest retryRequest = new ShardUpsertRequest(out.bytes().streamInput());
+        assertThat(retryRequest.items()).satisfiesExactly(
+            item -> assertThat(item.insertValues()).containsExactly((short) 1),
+            item -> assertThat(item.insertValues()).containsExactly((short) 2)
+        );
+    }
+
+    @Test
+    public void test_replica_fails_if_indexing_an_item_failed() throws Exception {
+        ShardId shardId = new ShardId(TABLE_IDENT.indexNameOrAlias(), charactersIndexUUID, 0);
+        ShardUpsertRequest request = new ShardUpsertRequest.Builder(
+            DUMMY_SESSION_INFO,
+            TimeValue.timeValueSeconds(30),
+            DuplicateKeyAction.UPDATE_OR_FAIL,
+            false,
+            null,
+            new SimpleReference[]{ID_REF},
+            null,
+            UUID.randomUUID()
+        ).newRequest(shardId);
+        request.add(1, ShardUpsertRequest.Item.forInsert("1", List.of(), Translog.UNSET_AUTO_GENERATED_TIMESTAMP, new Object[]{1}, null));
+
+        when(indexShard.index(any(Engine.Index.class)))
+            .thenReturn(new Engine.IndexResult(new IOException("disk full"), 1L));
+
+        assertThatThrownBy(() -> transportShardUpsertAction.processRequestItemsOnReplica(indexShard, request))
+            .isExactlyInstanceOf(IOException.class)
+            .hasMessage("disk full");
+    }
+
+    /**
+     * Resets the shard mock, indexing succeeds by default
+     */
+    private void resetIndexShard() throws IOException {
+        reset(indexShard);
+        when(indexShard.index(any(Engine.Index.class))).thenReturn(new Engine.IndexResult(1L, 1L, 1L, true));
+    }
+
+    private static List<Number> numericValues(ParsedDocument doc, String field) {
+        return Stream.of(doc.doc().getFields(field))
+            .map(IndexableField::numericValue)
+            .filter(Objects::nonNull)
+            .toList();
+    }
 }
@@ -129,6 +129,37 @@ public class WindowAggProjectionSerialisationTest {
         assertThat(actualWindowAggProjection.windowFunctions().get(0).filter()).isNull();
     }
 
+    @Test
+    public void test_source_sorted_flag_is_only_streamed_to_nodes_supporting_it() throws IOException {
+        FunctionImplementation sumFunctionImpl = getSumFunction();
+        WindowDefinition windowDefinition = new WindowDefinition(singletonList(Literal.of(1L)), null, null);
+        WindowFunction windowFunction = new WindowFunction(
+            sumFunctionImpl.signature(),
+            singletonList(Literal.of(2L)),
+            sumFunctionImpl.boundSignature().returnType(),
+            null,
+            windowDefinition,
+            null);
+        var windowAggProjection = new WindowAggProjection(
+            windowDefinition,
+            List.of(windowFunction),
+            List.of(Literal.of(42L)),
+            true);
+
+        var output = new BytesStreamOutput();
+        windowAggProjection.writeTo(output);
+        var actual = new WindowAggProjection(output.bytes().streamInput());
+        assertThat(actual.sourceSorted()).isTrue();
+        assertThat(actual).isEqualTo(windowAggProjection);
+
+        output = new BytesStreamOutput();
+        output.setVersion(Version.V_5_7_0);
+        windowAggProjection.writeTo(output);
+        var input = output.bytes().streamInput();
+        input.setVersion(Version.V_5_7_0);
+        assertThat(new WindowAggProjection(input).sourceSorted()).isFalse();
+    }
+
     private FunctionImplementation getSumFunction() {
         return functions.getQualified(
             Signature.aggregate(
@@ -0,0 +1,122 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.Streamer;
+import io.crate.data.Input;
+import io.crate.expression.symbol.Literal;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+public class GroupKeyPackerTest extends ESTestCase {
+
+    private static final List<DataType<?>> TYPES = List.of(
+        DataTypes.INTEGER,
+        DataTypes.STRING,
+        DataTypes.DOUBLE,
+        DataTypes.BOOLEAN,
+        DataTypes.SHORT,
+        DataTypes.TIMESTAMPZ
+    );
+
+    private static List<Input<?>> inputs(Integer i, String s, Double d, Boolean b, Short sh, Long ts) {
+        return List.of(
+            Literal.of(DataTypes.INTEGER, i),
+            Literal.of(DataTypes.STRING, s),
+            Literal.of(DataTypes.DOUBLE, d),
+            Literal.of(DataTypes.BOOLEAN, b),
+            Literal.of(DataTypes.SHORT, sh),
+            Literal.of(DataTypes.TIMESTAMPZ, ts)
+        );
+    }
+
+    @Test
+    public void test_unpack_returns_packed_values() {
+        GroupKeyPacker packer = new GroupKeyPacker(TYPES);
+        PackedGroupKey key = packer.pack(inputs(10, "foo", 1.5, true, (short) 3, 1_700_000_000_000L));
+
+        Object[] cells = new Object[TYPES.size()];
+        packer.unpack(key, cells);
+        assertThat(cells).containsExactly(10, "foo", 1.5, true, (short) 3, 1_700_000_000_000L);
+    }
+
+    @Test
+    public void test_nulls_are_distinct_from_zero_values() {
+        GroupKeyPacker packer = new GroupKeyPacker(TYPES);
+        PackedGroupKey zeros = packer.copy(packer.pack(inputs(0, "", 0.0, false, (short) 0, 0L)));
+        PackedGroupKey nulls = packer.copy(packer.pack(inputs(null, null, null, null, null, null)));
+
+        assertThat(nulls).isNotEqualTo(zeros);
+        Object[] cells = new Object[TYPES.size()];
+        packer.unpack(nulls, cells);
+        assertThat(cells).containsOnlyNulls();
+    }
+
+    @Test
+    public void test_copy_is_not_affected_by_subsequent_packs() {
+        GroupKeyPacker packer = new GroupKeyPacker(TYPES);
+        PackedGroupKey probe = packer.pack(inputs(1, "a", 1.0, true, (short) 1, 1L));
+        PackedGroupKey stored = packer.copy(probe);
+
+        assertThat(stored).isNotSameAs(probe);
+        assertThat(packer.pack(inputs(1, "a", 1.0, true, (short) 1, 1L)))
+            .isEqualTo(stored)
+            .hasSameHashCodeAs(stored);
+        assertThat(packer.pack(inputs(2, "a", 1.0, true, (short) 1, 1L))).isNotEqualTo(stored);
+
+        Object[] cells = new Object[TYPES.size()];
+        packer.unpack(stored, cells);
+        assertThat(cells[0]).isEqualTo(1);
+    }
+
+    @Test
+    public void test_ram_bytes_used_includes_values_held_by_reference() {
+        GroupKeyPacker packer = new GroupKeyPacker(TYPES);
+        long small = packer.ramBytesUsed(packer.pack(inputs(1, "a", 1.0, true, (short) 1, 1L)));
+        long large = packer.ramBytesUsed(packer.pack(inputs(1, "a".repeat(100), 1.0, true, (short) 1, 1L)));
+
+        assertThat(large).isGreaterThan(small);
+    }
+
+    @Test
+    public void test_streamer_round_trip() throws Exception {
+        GroupKeyPacker packer = new GroupKeyPacker(TYPES);
+        Streamer<PackedGroupKey> streamer = packer.streamer();
+        PackedGroupKey key = packer.copy(packer.pack(inputs(42, "bar", null, false, null, -1L)));
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        streamer.writeValueTo(out, key);
+        StreamInput in = out.bytes().streamInput();
+        PackedGroupKey read = streamer.readValueFrom(in);
+
+        assertThat(read).isEqualTo(key).hasSameHashCodeAs(key);
+    }
+}
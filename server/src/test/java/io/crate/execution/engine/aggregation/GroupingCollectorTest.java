@@ -0,0 +1,168 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import static io.crate.data.SentinelRow.SENTINEL;
+import static io.crate.testing.TestingHelpers.createNodeContext;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.execution.engine.aggregation.impl.CountAggregation;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.RowCollectExpression;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Literal;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.metadata.NodeContext;
+import io.crate.types.DataTypes;
+
+public class GroupingCollectorTest extends ESTestCase {
+
+    private final NodeContext nodeCtx = createNodeContext();
+
+    private AggregationFunction<?, ?> countFunction() {
+        return (AggregationFunction<?, ?>) nodeCtx.functions().getQualified(
+            CountAggregation.COUNT_STAR_SIGNATURE,
+            List.of(),
+            DataTypes.LONG
+        );
+    }
+
+    private static RamAccounting limitedRamAccounting(int limitInBytes) {
+        return new ConcurrentRamAccounting(bytes -> {}, bytes -> {}, "test", limitInBytes);
+    }
+
+    private static List<Row> rows(int numKeys, int rowsPerKey) {
+        List<Row> rows = new ArrayList<>(numKeys * rowsPerKey);
+        for (int i = 0; i < rowsPerKey; i++) {
+            for (int key = 0; key < numKeys; key++) {
+                rows.add(new RowN(key, "k" + (key % 7)));
+            }
+        }
+        Collections.shuffle(rows, random());
+        return rows;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private GroupingCollector<Object> singleKeyCollector(RamAccounting ramAccounting, int numSpillPartitions) {
+        RowCollectExpression keyInput = new RowCollectExpression(0);
+        return GroupingCollector.singleKey(
+            new CollectExpression[] { keyInput },
+            AggregateMode.ITER_FINAL,
+            new AggregationFunction[] { countFunction() },
+            new Input[][] { new Input[0] },
+            new Input[] { Literal.BOOLEAN_TRUE },
+            ramAccounting,
+            new OnHeapMemoryManager(ramAccounting::addBytes),
+            Version.CURRENT,
+            keyInput,
+            DataTypes.INTEGER,
+            Version.CURRENT,
+            numSpillPartitions
+        );
+    }
+
+    private static Map<List<Object>, Object> toMap(Iterable<Row> result, int numKeys) {
+        Map<List<Object>, Object> countByKey = new HashMap<>();
+        for (Row row : result) {
+            Object[] cells = row.materialize();
+            List<Object> key = new ArrayList<>(numKeys);
+            for (int i = 0; i < numKeys; i++) {
+                key.add(cells[i]);
+            }
+            Object previous = countByKey.put(key, cells[numKeys]);
+            assertThat(previous).as("Key " + key + " must only be emitted once").isNull();
+        }
+        return countByKey;
+    }
+
+    @Test
+    public void test_grouping_fails_with_circuit_breaking_exception_if_spilling_is_disabled() throws Exception {
+        var collector = singleKeyCollector(limitedRamAccounting(2_000), 0);
+        var it = InMemoryBatchIterator.of(rows(500, 2), SENTINEL, true);
+
+        assertThatThrownBy(() -> it.collect(collector).get())
+            .hasCauseInstanceOf(CircuitBreakingException.class);
+    }
+
+    @Test
+    public void test_grouping_spills_groups_to_disk_if_circuit_breaker_trips() throws Exception {
+        int numKeys = 500;
+        try (var collector = singleKeyCollector(limitedRamAccounting(2_000), 64)) {
+            var it = InMemoryBatchIterator.of(rows(numKeys, 3), SENTINEL, true);
+            Iterable<Row> result = it.collect(collector).get();
+
+            // The result can be iterated multiple times
+            for (int i = 0; i < 2; i++) {
+                Map<List<Object>, Object> countByKey = toMap(result, 1);
+                assertThat(countByKey).hasSize(numKeys);
+                assertThat(countByKey.values()).allMatch(count -> count.equals(3L));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void test_grouping_with_many_keys_spills_groups_to_disk_if_circuit_breaker_trips() throws Exception {
+        RamAccounting ramAccounting = limitedRamAccounting(4_000);
+        RowCollectExpression intKey = new RowCollectExpression(0);
+        RowCollectExpression stringKey = new RowCollectExpression(1);
+        int numKeys = 700;
+        try (var collector = GroupingCollector.manyKeys(
+                new CollectExpression[] { intKey, stringKey },
+                AggregateMode.ITER_FINAL,
+                new AggregationFunction[] { countFunction() },
+                new Input[][] { new Input[0] },
+                new Input[] { Literal.BOOLEAN_TRUE },
+                ramAccounting,
+                new OnHeapMemoryManager(ramAccounting::addBytes),
+                Version.CURRENT,
+                List.of(intKey, stringKey),
+                List.of(DataTypes.INTEGER, DataTypes.STRING),
+                Version.CURRENT,
+                64)) {
+            var it = InMemoryBatchIterator.of(rows(numKeys, 2), SENTINEL, true);
+            Map<List<Object>, Object> countByKey = toMap(it.collect(collector).get(), 2);
+
+            assertThat(countByKey).hasSize(numKeys);
+            assertThat(countByKey.get(List.of(10, "k3"))).isEqualTo(2L);
+            assertThat(countByKey.values()).allMatch(count -> count.equals(2L));
+        }
+    }
+}
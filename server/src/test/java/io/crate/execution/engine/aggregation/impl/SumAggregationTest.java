@@ -135,6 +135,27 @@ public class SumAggregationTest extends AggregationTestCase {
         assertThat(result).isEqualTo(10L);
     }
 
+    @Test
+    public void test_sum_with_doc_values_spanning_multiple_doc_batches() throws Exception {
+        int numRows = 2500;
+        Object[][] longRows = new Object[numRows][];
+        Object[][] doubleRows = new Object[numRows][];
+        Object[][] floatRows = new Object[numRows][];
+        long expectedSum = 0;
+        for (int i = 0; i < numRows; i++) {
+            boolean isNull = i % 10 == 0;
+            longRows[i] = new Object[] { isNull ? null : (long) i };
+            doubleRows[i] = new Object[] { isNull ? null : i * 0.5d };
+            floatRows[i] = new Object[] { isNull ? null : i * 0.5f };
+            if (!isNull) {
+                expectedSum += i;
+            }
+        }
+        assertThat(executeAggregation(DataTypes.LONG, DataTypes.LONG, longRows)).isEqualTo(expectedSum);
+        assertThat(executeAggregation(DataTypes.DOUBLE, DataTypes.DOUBLE, doubleRows)).isEqualTo(expectedSum * 0.5d);
+        assertThat(executeAggregation(DataTypes.FLOAT, DataTypes.FLOAT, floatRows)).isEqualTo(expectedSum * 0.5f);
+    }
+
     @Test(expected = ArithmeticException.class)
     public void testLongOverflow() throws Exception {
         executeAggregation(DataTypes.LONG, DataTypes.LONG, new Object[][]{{Long.MAX_VALUE}, {1}});
@@ -25,15 +25,33 @@ import static io.crate.testing.TestingHelpers.createNodeContext;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.elasticsearch.Version;
 import org.junit.Before;
 import org.junit.Test;
 
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.relations.TableRelation;
+import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.execution.engine.aggregation.DocValueAggregator;
 import io.crate.execution.engine.aggregation.impl.CountAggregation;
 import io.crate.execution.engine.aggregation.impl.SumAggregation;
 import io.crate.execution.engine.aggregation.impl.templates.SortedNumericDocValueAggregator;
@@ -41,6 +59,7 @@ import io.crate.expression.reference.doc.lucene.LuceneReferenceResolver;
 import io.crate.expression.symbol.Aggregation;
 import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Literal;
+import io.crate.memory.MemoryManager;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Reference;
 import io.crate.metadata.RelationName;
@@ -199,6 +218,70 @@ public class DocValuesAggregatesTest extends CrateDummyClusterServiceUnitTest {
             );
     }
 
+    @Test
+    public void test_matching_live_docs_are_passed_to_aggregators_in_batches() throws Exception {
+        int numDocs = 2 * DocValuesAggregates.DOC_BATCH_SIZE + 10;
+        try (var writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig())) {
+            for (int i = 0; i < numDocs; i++) {
+                Document doc = new Document();
+                doc.add(new StringField("id", Integer.toString(i), Field.Store.NO));
+                writer.addDocument(doc);
+            }
+            writer.commit();
+            int numDeleted = 0;
+            for (int i = 0; i < numDocs; i += 3) {
+                writer.deleteDocuments(new Term("id", Integer.toString(i)));
+                numDeleted++;
+            }
+            List<Integer> batchSizes = new ArrayList<>();
+            DocValueAggregator<long[]> aggregator = new DocValueAggregator<>() {
+
+                @Override
+                public long[] initialState(RamAccounting ramAccounting,
+                                           MemoryManager memoryManager,
+                                           Version minNodeVersion) {
+                    return new long[1];
+                }
+
+                @Override
+                public void loadDocValues(LeafReaderContext leafReaderContext) throws IOException {
+                }
+
+                @Override
+                public void apply(RamAccounting ramAccounting, int doc, long[] state) throws IOException {
+                    state[0]++;
+                }
+
+                @Override
+                public void apply(RamAccounting ramAccounting, int[] docs, int numDocs, long[] state) throws IOException {
+                    batchSizes.add(numDocs);
+                    DocValueAggregator.super.apply(ramAccounting, docs, numDocs, state);
+                }
+
+                @Override
+                public Object partialResult(RamAccounting ramAccounting, long[] state) {
+                    return state[0];
+                }
+            };
+            try (var reader = DirectoryReader.open(writer)) {
+                Iterable<Row> rows = DocValuesAggregates.getRow(
+                    RamAccounting.NO_ACCOUNTING,
+                    mock(MemoryManager.class),
+                    Version.CURRENT,
+                    new AtomicReference<>(),
+                    new IndexSearcher(reader),
+                    new MatchAllDocsQuery(),
+                    List.of(aggregator)
+                );
+                long numLiveDocs = numDocs - numDeleted;
+                assertThat(rows).satisfiesExactly(row -> assertThat(row.get(0)).isEqualTo(numLiveDocs));
+            }
+            assertThat(batchSizes).hasSizeGreaterThan(1);
+            assertThat(batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(DocValuesAggregates.DOC_BATCH_SIZE));
+            assertThat(batchSizes.get(0)).isEqualTo(DocValuesAggregates.DOC_BATCH_SIZE);
+        }
+    }
+
     private static Aggregation countAggregation(int inputCol) {
         return new Aggregation(
             CountAggregation.SIGNATURE,
@@ -82,6 +82,7 @@ import io.crate.metadata.functions.Signature;
 import io.crate.sql.tree.ColumnPolicy;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.TestingHelpers;
+import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 
 public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServiceUnitTest {
@@ -254,6 +255,85 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
             new Object[]{"0", 0L, 6L}, new Object[]{"1", 1L, 4L});
     }
 
+    private static Reference keyRef(String name, DataType<?> type, int position) {
+        return new SimpleReference(
+            new ReferenceIdent(RelationName.fromIndexName("test"), name),
+            RowGranularity.DOC,
+            type,
+            ColumnPolicy.DYNAMIC,
+            IndexType.PLAIN,
+            true,
+            true,
+            position,
+            COLUMN_OID_UNASSIGNED,
+            false,
+            null
+        );
+    }
+
+    @Test
+    public void test_group_by_many_keys_with_nulls_over_multiple_segments() throws Exception {
+        var indexWriter = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig());
+        // The ordinals of the keyword column differ between the segments
+        List<List<Object[]>> segments = List.of(
+            List.of(new Object[]{"b", 1L, 1L}, new Object[]{"c", null, 2L}),
+            List.of(new Object[]{"a", 5L, 3L}, new Object[]{"c", null, 4L}, new Object[]{"b", 1L, 5L}, new Object[]{null, 5L, 6L})
+        );
+        for (var segment : segments) {
+            for (var row : segment) {
+                Document doc = new Document();
+                if (row[0] != null) {
+                    doc.add(new SortedSetDocValuesField("x", BytesRefs.toBytesRef(row[0])));
+                }
+                if (row[1] != null) {
+                    doc.add(new NumericDocValuesField("y", (Long) row[1]));
+                }
+                doc.add(new NumericDocValuesField("z", (Long) row[2]));
+                indexWriter.addDocument(doc);
+            }
+            indexWriter.commit();
+        }
+        IndexSearcher searcher = new IndexSearcher(DirectoryReader.open(indexWriter));
+        assertThat(searcher.getTopReaderContext().leaves()).hasSize(2);
+
+        SumAggregation<?> sumAggregation = (SumAggregation<?>) functions.getQualified(
+            Signature.aggregate(
+                SumAggregation.NAME,
+                DataTypes.LONG.getTypeSignature(),
+                DataTypes.LONG.getTypeSignature()
+            ),
+            List.of(DataTypes.LONG),
+            DataTypes.LONG
+        );
+        var sumDocValuesAggregator = sumAggregation.getDocValueAggregator(
+            mock(LuceneReferenceResolver.class),
+            List.of(keyRef("z", DataTypes.LONG, 0)),
+            mock(DocTableInfo.class),
+            List.of()
+        );
+        var it = DocValuesGroupByOptimizedIterator.GroupByIterator.forManyKeys(
+            List.of(sumDocValuesAggregator),
+            searcher,
+            List.of(keyRef("x", DataTypes.STRING, 1), keyRef("y", DataTypes.LONG, 2)),
+            List.of(new BytesRefColumnReference("x"), new LongColumnReference("y")),
+            RamAccounting.NO_ACCOUNTING,
+            null,
+            null,
+            new MatchAllDocsQuery(),
+            new CollectorContext(Set.of(), UnaryOperator.identity())
+        );
+
+        var rowConsumer = new TestingRowConsumer();
+        rowConsumer.accept(it, null);
+
+        assertThat(rowConsumer.getResult()).containsExactlyInAnyOrder(
+            new Object[]{"a", 5L, 3L},
+            new Object[]{"b", 1L, 6L},
+            new Object[]{"c", null, 6L},
+            new Object[]{null, 5L, 6L}
+        );
+    }
+
     @Test
     public void test_create_optimized_iterator_for_single_string_key() throws Exception {
         GroupProjection groupProjection = new GroupProjection(
@@ -372,6 +452,7 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
             (states, key) -> {
             },
             (expressions) -> expressions.get(0).value(),
+            UnaryOperator.identity(),
             (key, cells) -> cells[0] = key,
             new MatchAllDocsQuery(),
             new CollectorContext(Set.of(), UnaryOperator.identity())
@@ -0,0 +1,179 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.cache.result.ShardResultCacheStats;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.crate.Streamer;
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.SentinelRow;
+import io.crate.data.testing.TestingRowConsumer;
+import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.types.DataTypes;
+
+public class ShardResultCacheTest extends ESTestCase {
+
+    private final ShardId shardId = new ShardId("t", "uuid", 0);
+    private final Streamer<?>[] streamers = new Streamer[] { DataTypes.LONG.streamer() };
+    private final ShardResultCacheStats stats = new ShardResultCacheStats();
+
+    private IndexWriter writer;
+    private DirectoryReader reader;
+    private IndexShard indexShard;
+
+    @Before
+    public void setupShard() throws Exception {
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig());
+        writer.commit();
+        reader = DirectoryReader.open(writer);
+        indexShard = mock(IndexShard.class);
+        when(indexShard.shardId()).thenReturn(shardId);
+        when(indexShard.resultCacheStats()).thenReturn(stats);
+        when(indexShard.acquireSearcher("result-cache")).thenAnswer(invocation -> new Engine.Searcher(
+            "result-cache",
+            reader,
+            IndexSearcher.getDefaultQueryCache(),
+            IndexSearcher.getDefaultQueryCachingPolicy(),
+            () -> {}
+        ));
+    }
+
+    @After
+    public void closeShard() throws Exception {
+        reader.close();
+        writer.close();
+    }
+
+    private static BatchIterator<Row> rows(long... values) {
+        List<Row> rows = new ArrayList<>(values.length);
+        for (long value : values) {
+            rows.add(new RowN(value));
+        }
+        return InMemoryBatchIterator.of(rows, SentinelRow.SENTINEL, false);
+    }
+
+    private static List<Object[]> consume(BatchIterator<Row> it) throws Exception {
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(it, null);
+        return consumer.getResult();
+    }
+
+    @Test
+    public void test_rows_of_all_slices_are_cached_once_all_slices_are_consumed() throws Exception {
+        ShardResultCache cache = new ShardResultCache(Settings.EMPTY);
+        var key = new ShardResultCache.Key(shardId, reader.getVersion(), new BytesArray("fingerprint"));
+        assertThat(cache.get(indexShard, key, streamers)).isNull();
+        assertThat(stats.misses()).isEqualTo(1L);
+
+        List<BatchIterator<Row>> slices = cache.record(indexShard, key, streamers, List.of(rows(1L, 2L), rows(3L)));
+        assertThat(consume(slices.get(0))).hasSize(2);
+        assertThat(cache.get(indexShard, key, streamers)).isNull();
+        assertThat(consume(slices.get(1))).hasSize(1);
+        assertThat(stats.sizeInBytes()).isGreaterThan(0L);
+
+        BatchIterator<Row> cached = cache.get(indexShard, key, streamers);
+        assertThat(cached).isNotNull();
+        assertThat(consume(cached)).containsExactly(
+            new Object[] { 1L },
+            new Object[] { 2L },
+            new Object[] { 3L }
+        );
+        assertThat(stats.hits()).isEqualTo(1L);
+        assertThat(stats.misses()).isEqualTo(2L);
+
+        cache.invalidate(shardId);
+        assertThat(cache.get(indexShard, key, streamers)).isNull();
+        assertThat(stats.sizeInBytes()).isEqualTo(0L);
+        assertThat(stats.evictions()).isEqualTo(0L);
+    }
+
+    @Test
+    public void test_result_is_not_cached_if_reader_changed_while_collecting() throws Exception {
+        ShardResultCache cache = new ShardResultCache(Settings.EMPTY);
+        var key = new ShardResultCache.Key(shardId, reader.getVersion() - 1, new BytesArray("fingerprint"));
+        List<BatchIterator<Row>> slices = cache.record(indexShard, key, streamers, List.of(rows(1L, 2L)));
+        assertThat(consume(slices.get(0))).hasSize(2);
+
+        assertThat(cache.get(indexShard, key, streamers)).isNull();
+        assertThat(stats.sizeInBytes()).isEqualTo(0L);
+    }
+
+    @Test
+    public void test_entries_of_the_shard_are_removed_once_a_refresh_opened_a_new_reader() throws Exception {
+        List<ReferenceManager.RefreshListener> refreshListeners = new ArrayList<>();
+        doAnswer(invocation -> refreshListeners.add(invocation.getArgument(0)))
+            .when(indexShard).addExternalRefreshListener(any());
+        ShardResultCache cache = new ShardResultCache(Settings.EMPTY);
+        cache.register(indexShard);
+        assertThat(refreshListeners).hasSize(1);
+
+        var key = new ShardResultCache.Key(shardId, reader.getVersion(), new BytesArray("fingerprint"));
+        consume(cache.record(indexShard, key, streamers, List.of(rows(1L, 2L))).get(0));
+        assertThat(stats.sizeInBytes()).isGreaterThan(0L);
+
+        refreshListeners.get(0).beforeRefresh();
+        refreshListeners.get(0).afterRefresh(false);
+        assertThat(cache.get(indexShard, key, streamers)).isNotNull();
+
+        refreshListeners.get(0).beforeRefresh();
+        refreshListeners.get(0).afterRefresh(true);
+        assertThat(cache.get(indexShard, key, streamers)).isNull();
+        assertThat(stats.sizeInBytes()).isEqualTo(0L);
+    }
+
+    @Test
+    public void test_cache_with_size_0_creates_no_keys() throws Exception {
+        Settings settings = Settings.builder()
+            .put(ShardResultCache.RESULT_CACHE_SIZE_SETTING.getKey(), "0b")
+            .build();
+        ShardResultCache cache = new ShardResultCache(settings);
+        assertThat(cache.key(indexShard, mock(RoutedCollectPhase.class), List.of()))
+            .isNull();
+    }
+}
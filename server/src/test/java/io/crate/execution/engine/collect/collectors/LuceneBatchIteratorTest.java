@@ -21,6 +21,8 @@
 
 package io.crate.execution.engine.collect.collectors;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,12 +35,16 @@ import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.store.ByteBuffersDirectory;
 import org.junit.Before;
 import org.junit.Test;
 
+import io.crate.data.BatchIterator;
+import io.crate.data.CompositeBatchIterator;
+import io.crate.data.Row;
 import io.crate.data.testing.BatchIteratorTester;
 import io.crate.data.testing.BatchIteratorTester.ResultOrder;
 import io.crate.expression.reference.doc.lucene.CollectorContext;
@@ -83,4 +89,55 @@ public class LuceneBatchIteratorTest {
         );
         tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
     }
+
+    @Test
+    public void test_slices_balance_the_number_of_docs() throws Exception {
+        IndexWriter iw = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(new StandardAnalyzer()));
+        List<Object[]> expected = new ArrayList<>();
+        long value = 0;
+        for (int segmentSize : new int[] { 10, 5, 10, 5 }) {
+            for (int i = 0; i < segmentSize; i++) {
+                Document doc = new Document();
+                doc.add(new NumericDocValuesField("x", value));
+                iw.addDocument(doc);
+                expected.add(new Object[] { value });
+                value++;
+            }
+            iw.commit();
+        }
+        IndexSearcher searcher = new IndexSearcher(DirectoryReader.open(iw));
+        List<LeafReaderContext> leaves = searcher.getTopReaderContext().leaves();
+        assertThat(leaves).hasSize(4);
+
+        assertThat(LuceneBatchIterator.slices(leaves, 1, 1)).containsExactly(leaves);
+        assertThat(LuceneBatchIterator.slices(leaves, 4, 20)).containsExactly(leaves);
+        assertThat(LuceneBatchIterator.slices(leaves, 8, 1)).hasSize(4);
+
+        List<List<LeafReaderContext>> slices = LuceneBatchIterator.slices(leaves, 2, 1);
+        assertThat(slices).hasSize(2);
+        for (List<LeafReaderContext> slice : slices) {
+            assertThat(slice.stream().mapToInt(leaf -> leaf.reader().maxDoc()).sum()).isEqualTo(15);
+        }
+
+        var tester = BatchIteratorTester.forRows(
+            () -> {
+                List<BatchIterator<Row>> iterators = new ArrayList<>();
+                for (List<LeafReaderContext> slice : slices) {
+                    List<LongColumnReference> refs = List.of(new LongColumnReference("x"));
+                    iterators.add(new LuceneBatchIterator(
+                        searcher,
+                        slice,
+                        new MatchAllDocsQuery(),
+                        null,
+                        false,
+                        new CollectorContext(Set.of(), UnaryOperator.identity()),
+                        refs,
+                        refs
+                    ));
+                }
+                return CompositeBatchIterator.seqComposite(iterators);
+            }, ResultOrder.ANY
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(expected);
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class CopyInStreamTest {
+
+    @Test
+    public void test_reader_receives_written_chunks_until_finish() throws Exception {
+        CopyInStream stream = new CopyInStream();
+        stream.write("{\"x\": 1}\n{\"x\"".getBytes(StandardCharsets.UTF_8));
+        stream.write(": 2}\n".getBytes(StandardCharsets.UTF_8));
+        stream.finish();
+        stream.write("ignored after finish".getBytes(StandardCharsets.UTF_8));
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        assertThat(reader.readLine()).isEqualTo("{\"x\": 1}");
+        assertThat(reader.readLine()).isEqualTo("{\"x\": 2}");
+        assertThat(reader.readLine()).isNull();
+    }
+
+    @Test
+    public void test_reader_fails_after_buffered_data_if_client_sent_copy_fail() throws Exception {
+        CopyInStream stream = new CopyInStream();
+        stream.write(new byte[] { 1, 2 });
+        stream.fail("aborted by user");
+
+        assertThat(stream.read()).isEqualTo(1);
+        assertThat(stream.read()).isEqualTo(2);
+        assertThatThrownBy(stream::read)
+            .isExactlyInstanceOf(IOException.class)
+            .hasMessage("COPY FROM STDIN failed: aborted by user");
+    }
+
+    @Test
+    public void test_reading_is_paused_above_threshold_and_resumed_once_drained() throws Exception {
+        CopyInStream stream = new CopyInStream();
+        List<Boolean> autoRead = new ArrayList<>();
+        stream.flowControl(autoRead::add);
+
+        int chunkSize = 1024 * 1024;
+        for (int i = 0; i < 5; i++) {
+            stream.write(new byte[chunkSize]);
+        }
+        assertThat(autoRead).containsExactly(false);
+
+        byte[] buffer = new byte[chunkSize];
+        for (int i = 0; i < 3; i++) {
+            assertThat(stream.readNBytes(buffer, 0, chunkSize)).isEqualTo(chunkSize);
+        }
+        assertThat(autoRead).containsExactly(false);
+        assertThat(stream.readNBytes(buffer, 0, chunkSize)).isEqualTo(chunkSize);
+        assertThat(autoRead).containsExactly(false, true);
+    }
+
+    @Test
+    public void test_close_unblocks_reader_and_resumes_reading() throws Exception {
+        CopyInStream stream = new CopyInStream();
+        List<Boolean> autoRead = new ArrayList<>();
+        stream.flowControl(autoRead::add);
+        stream.write(new byte[(int) CopyInStream.PAUSE_THRESHOLD_BYTES + 1]);
+        stream.close();
+
+        assertThat(autoRead).containsExactly(false, true);
+        assertThat(stream.read()).isEqualTo(-1);
+    }
+
+    @Test
+    public void test_kill_unblocks_waiting_reader() throws Exception {
+        CopyInStream stream = new CopyInStream();
+        CompletableFuture<Integer> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return stream.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        stream.kill(new InterruptedException("Job killed"));
+
+        assertThatThrownBy(() -> read.get(5, TimeUnit.SECONDS))
+            .cause()
+            .cause()
+            .isExactlyInstanceOf(InterruptedIOException.class)
+            .hasMessage("COPY FROM STDIN was killed")
+            .hasCauseExactlyInstanceOf(InterruptedException.class);
+        assertThatThrownBy(stream::read)
+            .isExactlyInstanceOf(InterruptedIOException.class);
+    }
+
+    @Test
+    public void test_factory_provides_registered_stream_via_job_uri() throws Exception {
+        StdinFileInputFactory factory = new StdinFileInputFactory();
+        UUID jobId = UUID.randomUUID();
+        CopyInStream stream = factory.register(jobId);
+        FileInput fileInput = factory.create(FileReadingIterator.toURI(StdinFileInputFactory.uri(jobId)), null);
+
+        assertThat(fileInput.expandUri()).containsExactly(fileInput.uri());
+        assertThat(fileInput.getStream(fileInput.uri())).isSameAs(stream);
+
+        factory.unregister(jobId);
+        assertThat(factory.get(jobId)).isNull();
+        assertThatThrownBy(() -> fileInput.getStream(fileInput.uri()))
+            .isExactlyInstanceOf(IOException.class)
+            .hasMessage("No COPY FROM STDIN in progress for job " + jobId);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.columnar;
+
+import static io.crate.data.SentinelRow.SENTINEL;
+import static io.crate.testing.TestingHelpers.createNodeContext;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.columnar.ColumnBatch;
+import io.crate.data.columnar.VectorPredicate;
+import io.crate.data.testing.BatchIteratorTester;
+import io.crate.data.testing.BatchIteratorTester.ResultOrder;
+import io.crate.execution.dsl.projection.EvalProjection;
+import io.crate.execution.dsl.projection.FilterProjection;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.LteOperator;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.SearchPath;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+public class ColumnBatchProjectorsTest extends ESTestCase {
+
+    private final NodeContext nodeCtx = createNodeContext();
+
+    private Function operator(String name, Symbol left, Symbol right) {
+        List<Symbol> args = List.of(left, right);
+        FunctionImplementation impl = nodeCtx.functions().get(null, name, args, SearchPath.pathWithPGCatalogAndDoc());
+        return new Function(impl.signature(), args, DataTypes.BOOLEAN);
+    }
+
+    @Test
+    public void test_compiled_predicate_filters_selection_and_skips_nulls() {
+        InputColumn x = new InputColumn(0, DataTypes.LONG);
+        Symbol condition = operator(
+            AndOperator.NAME,
+            operator(GtOperator.NAME, x, Literal.of(2L)),
+            operator(LteOperator.NAME, Literal.of(5L), x)
+        );
+        VectorPredicate predicate = VectorPredicates.compile(condition, List.of(DataTypes.LONG));
+        assertThat(predicate).isNotNull();
+
+        ColumnBatch batch = ColumnVectors.createBatch(List.of(DataTypes.LONG), 8);
+        Long[] values = new Long[] { 1L, 5L, null, 7L, 3L };
+        for (int i = 0; i < values.length; i++) {
+            batch.column(0).set(i, values[i]);
+        }
+        batch.setSize(values.length);
+
+        assertThat(predicate.filter(batch)).isEqualTo(2);
+        assertThat(Arrays.copyOf(batch.selection(), batch.numSelected())).containsExactly(1, 3);
+    }
+
+    @Test
+    public void test_unsupported_conditions_are_not_compiled() {
+        InputColumn name = new InputColumn(0, DataTypes.STRING);
+        Symbol condition = operator(EqOperator.NAME, name, Literal.of("foo"));
+        assertThat(VectorPredicates.compile(condition, List.of(DataTypes.STRING))).isNull();
+    }
+
+    @Test
+    public void test_filter_and_eval_on_batches_matches_row_based_result() throws Exception {
+        List<DataType<?>> types = List.of(DataTypes.LONG, DataTypes.STRING, DataTypes.DOUBLE);
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> expectedResult = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Long x = i % 7 == 0 ? null : (long) i;
+            rows.add(new Object[] { x, "name-" + i, i * 0.5 });
+            if (x != null && x > 10) {
+                expectedResult.add(new Object[] { i * 0.5, x });
+            }
+        }
+        InputColumn x = new InputColumn(0, DataTypes.LONG);
+        var filter = new FilterProjection(
+            operator(GtOperator.NAME, x, Literal.of(10L)),
+            List.of(x, new InputColumn(1, DataTypes.STRING), new InputColumn(2, DataTypes.DOUBLE))
+        );
+        var eval = new EvalProjection(List.of(new InputColumn(2, DataTypes.DOUBLE), x));
+
+        var tester = BatchIteratorTester.forRows(() -> {
+            BatchIterator<Row> source = InMemoryBatchIterator.of(
+                rows.stream().map(RowN::new).toList(),
+                SENTINEL,
+                true
+            );
+            return ColumnBatchProjectors.tryWrap(List.of(filter, eval), types, source, 16);
+        }, ResultOrder.EXACT);
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+}
@@ -53,7 +53,7 @@ public class DistributedResultRequestTest extends ESTestCase {
         builder.add(new RowN(new Object[] {"cd"}));
         DistributedResultRequest r1 =
             DistributedResultRequest.of(
-                "dummyNodeId", uuid, 1, (byte) 3, 1, builder.build(), false
+                "dummyNodeId", uuid, 1, (byte) 3, 1, 4, builder.build(), false
             ).innerRequest();
 
         BytesStreamOutput out = new BytesStreamOutput();
@@ -64,6 +64,7 @@ public class DistributedResultRequestTest extends ESTestCase {
         assertThat(r2.readRows(streamers).size()).isEqualTo(r1.readRows(streamers).size());
         assertThat(r1.isLast()).isEqualTo(r2.isLast());
         assertThat(r1.executionPhaseInputId()).isEqualTo(r2.executionPhaseInputId());
+        assertThat(r2.pageIdx()).isEqualTo(4);
 
         Bucket result = r2.readRows(streamers);
         List<Object[]> rows = StreamSupport.stream(result.spliterator(), false)
@@ -36,6 +36,7 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import org.elasticsearch.common.breaker.CircuitBreakingException;
@@ -57,6 +58,7 @@ import io.crate.execution.engine.distribution.merge.PassThroughPagingIterator;
 import io.crate.execution.jobs.CumulativePageBucketReceiver;
 import io.crate.execution.jobs.DistResultRXTask;
 import io.crate.execution.jobs.PageBucketReceiver;
+import io.crate.execution.support.ActionExecutor;
 import io.crate.execution.support.NodeRequest;
 import io.crate.testing.TestingHelpers;
 import io.crate.types.DataTypes;
@@ -162,7 +164,47 @@ public class DistributingConsumerTest extends ESTestCase {
             .isExactlyInstanceOf(CircuitBreakingException.class);
     }
 
+    @Test
+    public void test_sends_pages_without_waiting_for_response_if_downstream_grants_credits() throws Exception {
+        Streamer<?>[] streamers = { DataTypes.INTEGER.streamer() };
+        List<DistributedResultRequest> requests = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<DistributedResultResponse>> responses = new CopyOnWriteArrayList<>();
+        DistributingConsumer distributingConsumer = createDistributingConsumer(streamers, req -> {
+            CompletableFuture<DistributedResultResponse> response = new CompletableFuture<>();
+            requests.add(req.innerRequest());
+            responses.add(response);
+            return response;
+        });
+
+        // pageSize=2 and 10 rows causes 5 pages
+        distributingConsumer.accept(TestingBatchIterators.range(0, 10), null);
+
+        // the first page is sent with a single credit
+        assertThat(requests).hasSize(1);
+        responses.get(0).complete(new DistributedResultResponse(true, 2));
+
+        // 2 pages in flight
+        assertBusy(() -> assertThat(requests).hasSize(3));
+        for (int i = 1; i < 5; i++) {
+            int pageIdx = i;
+            assertBusy(() -> assertThat(requests).hasSizeGreaterThan(pageIdx));
+            assertThat(distributingConsumer.completionFuture()).isNotDone();
+            responses.get(i).complete(new DistributedResultResponse(!requests.get(i).isLast(), 2));
+        }
+        distributingConsumer.completionFuture().get(5, TimeUnit.SECONDS);
+
+        assertThat(requests).extracting(DistributedResultRequest::pageIdx).containsExactly(0, 1, 2, 3, 4);
+        assertThat(requests).extracting(DistributedResultRequest::isLast)
+            .containsExactly(false, false, false, false, true);
+    }
+
     private DistributingConsumer createDistributingConsumer(Streamer<?>[] streamers, TransportDistributedResultAction distributedResultAction) {
+        return createDistributingConsumer(streamers, distributedResultAction::execute);
+    }
+
+    private DistributingConsumer createDistributingConsumer(
+            Streamer<?>[] streamers,
+            ActionExecutor<NodeRequest<DistributedResultRequest>, DistributedResultResponse> distributedResultAction) {
         return new DistributingConsumer(
             executorService,
             UUID.randomUUID(),
@@ -171,7 +213,7 @@ public class DistributingConsumerTest extends ESTestCase {
             (byte) 0,
             0,
             Collections.singletonList("n1"),
-            distributedResultAction::execute,
+            distributedResultAction,
             2 // pageSize
         );
     }
@@ -184,7 +226,8 @@ public class DistributingConsumerTest extends ESTestCase {
             streamers,
             collectingConsumer,
             PassThroughPagingIterator.oneShot(),
-            1);
+            1,
+            RamAccounting.NO_ACCOUNTING);
 
         return new DistResultRXTask(
             1,
@@ -207,9 +250,10 @@ public class DistributingConsumerTest extends ESTestCase {
             if (throwable == null) {
                 bucketReceiver.setBucket(
                     resultRequest.bucketIdx(),
+                    resultRequest.pageIdx(),
                     resultRequest.readRows(streamers),
                     resultRequest.isLast(),
-                    needMore -> result.complete(new DistributedResultResponse(needMore)));
+                    needMore -> result.complete(new DistributedResultResponse(needMore, bucketReceiver.credits())));
             } else {
                 bucketReceiver.kill(throwable);
             }
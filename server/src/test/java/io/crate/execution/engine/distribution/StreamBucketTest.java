@@ -0,0 +1,180 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.distribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.Streamer;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+public class StreamBucketTest extends ESTestCase {
+
+    private static StreamBucket bucket(List<DataType<?>> types, int numRows, IntFunction<Object[]> rowSupplier) {
+        Streamer<?>[] streamers = DataTypes.getStreamers(types);
+        StreamBucket.Builder builder = new StreamBucket.Builder(streamers, RamAccounting.NO_ACCOUNTING);
+        for (int i = 0; i < numRows; i++) {
+            builder.add(new RowN(rowSupplier.apply(i)));
+        }
+        return builder.build();
+    }
+
+    private static StreamBucket roundtrip(StreamBucket bucket, Version version, Streamer<?>[] streamers) throws Exception {
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(version);
+        bucket.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        in.setVersion(version);
+        return new StreamBucket(in, streamers);
+    }
+
+    private static List<Object[]> materialize(StreamBucket bucket) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Row row : bucket) {
+            rows.add(row.materialize());
+        }
+        return rows;
+    }
+
+    private Object maybeNull(Object value) {
+        return rarely() ? null : value;
+    }
+
+    @Test
+    public void test_columnar_roundtrip_retains_values_of_all_encodings() throws Exception {
+        List<DataType<?>> types = List.of(
+            DataTypes.STRING,     // dictionary
+            DataTypes.STRING,     // too many distinct values for a dictionary
+            DataTypes.LONG,       // delta
+            DataTypes.LONG,       // packed
+            DataTypes.INTEGER,
+            DataTypes.SHORT,
+            DataTypes.BYTE,
+            DataTypes.TIMESTAMPZ,
+            DataTypes.BOOLEAN,
+            DataTypes.DOUBLE,     // generic
+            DataTypes.INTEGER     // all null
+        );
+        int numRows = randomIntBetween(1, 2000);
+        StreamBucket bucket = bucket(types, numRows, i -> new Object[] {
+            maybeNull("value-" + (i % 7)),
+            maybeNull(randomAlphaOfLength(10)),
+            maybeNull(1_000_000L + i * 3L),
+            maybeNull(randomLong()),
+            maybeNull(randomInt()),
+            maybeNull((short) randomIntBetween(Short.MIN_VALUE, Short.MAX_VALUE)),
+            maybeNull(randomByte()),
+            maybeNull(1_700_000_000_000L + randomIntBetween(0, 1000)),
+            maybeNull(randomBoolean()),
+            maybeNull(randomDouble()),
+            null
+        });
+
+        StreamBucket streamed = roundtrip(bucket, Version.CURRENT, DataTypes.getStreamers(types));
+
+        assertThat(streamed.size()).isEqualTo(numRows);
+        assertThat(materialize(streamed)).containsExactlyElementsOf(materialize(bucket));
+    }
+
+    @Test
+    public void test_extreme_longs_are_packed_without_overflow() throws Exception {
+        List<DataType<?>> types = List.of(DataTypes.LONG, DataTypes.LONG);
+        long[] values = new long[] { Long.MIN_VALUE, Long.MAX_VALUE, 0L, -1L, Long.MAX_VALUE };
+        StreamBucket bucket = bucket(types, values.length, i -> new Object[] { values[i], Long.MIN_VALUE + i });
+
+        StreamBucket streamed = roundtrip(bucket, Version.CURRENT, DataTypes.getStreamers(types));
+
+        assertThat(materialize(streamed)).containsExactlyElementsOf(materialize(bucket));
+    }
+
+    @Test
+    public void test_low_cardinality_strings_are_smaller_in_columnar_format() throws Exception {
+        List<DataType<?>> types = List.of(DataTypes.STRING, DataTypes.LONG);
+        StreamBucket bucket = bucket(types, 10_000, i -> new Object[] { "category-" + (i % 10), (long) i });
+
+        BytesStreamOutput columnar = new BytesStreamOutput();
+        bucket.writeTo(columnar);
+        BytesStreamOutput rows = new BytesStreamOutput();
+        rows.setVersion(Version.V_5_7_0);
+        bucket.writeTo(rows);
+
+        assertThat(columnar.size()).isLessThan(rows.size() / 10);
+    }
+
+    @Test
+    public void test_nodes_before_5_8_0_receive_row_format() throws Exception {
+        List<DataType<?>> types = List.of(DataTypes.STRING, DataTypes.INTEGER);
+        Streamer<?>[] streamers = DataTypes.getStreamers(types);
+        StreamBucket bucket = bucket(types, 20, i -> new Object[] { maybeNull("a" + (i % 2)), maybeNull(i) });
+
+        StreamBucket streamed = roundtrip(bucket, Version.V_5_7_0, streamers);
+        assertThat(materialize(streamed)).containsExactlyElementsOf(materialize(bucket));
+
+        // a received columnar bucket is re-encoded to rows if it is sent on to an older node
+        StreamBucket columnar = roundtrip(bucket, Version.CURRENT, streamers);
+        StreamBucket rows = roundtrip(columnar, Version.V_5_7_0, streamers);
+        assertThat(materialize(rows)).containsExactlyElementsOf(materialize(bucket));
+    }
+
+    @Test
+    public void test_columnar_bucket_rows_are_decoded_by_each_iterator() throws Exception {
+        List<DataType<?>> types = List.of(DataTypes.STRING, DataTypes.LONG, DataTypes.BOOLEAN);
+        StreamBucket bucket = bucket(types, 100, i -> new Object[] {
+            maybeNull("a" + (i % 3)),
+            maybeNull((long) i),
+            maybeNull(i % 2 == 0)
+        });
+        StreamBucket streamed = roundtrip(bucket, Version.CURRENT, DataTypes.getStreamers(types));
+
+        Iterator<Row> partial = streamed.iterator();
+        Object[] firstRow = partial.next().materialize();
+
+        assertThat(materialize(streamed)).containsExactlyElementsOf(materialize(bucket));
+        assertThat(firstRow).isEqualTo(materialize(bucket).get(0));
+        assertThat(partial.next().materialize()).isEqualTo(materialize(bucket).get(1));
+    }
+
+    @Test
+    public void test_empty_bucket_roundtrip() throws Exception {
+        List<DataType<?>> types = List.of(DataTypes.STRING);
+        StreamBucket bucket = bucket(types, 0, i -> new Object[] { "a" });
+
+        StreamBucket streamed = roundtrip(bucket, Version.CURRENT, DataTypes.getStreamers(types));
+
+        assertThat(streamed.size()).isEqualTo(0);
+        assertThat(streamed).isEmpty();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.Streamer;
+import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.breaker.TypedCellsAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Paging;
+import io.crate.data.Row;
+import io.crate.data.breaker.RowAccounting;
+import io.crate.data.join.CombinedRow;
+import io.crate.data.testing.BatchIteratorTester;
+import io.crate.data.testing.BatchIteratorTester.ResultOrder;
+import io.crate.data.testing.BatchSimulatingIterator;
+import io.crate.data.testing.TestingBatchIterators;
+import io.crate.data.testing.TestingRowConsumer;
+import io.crate.types.DataTypes;
+
+public class GraceHashJoinBatchIteratorTest extends ESTestCase {
+
+    private static final Streamer<?>[] STREAMERS = new Streamer[] { DataTypes.INTEGER.streamer() };
+
+    private static final List<Object[]> RESULT_FOR_DUPLICATE_VALUES = Arrays.asList(
+        new Object[] { 1, 1 }, new Object[] { 1, 1 },
+        new Object[] { 2, 2 }, new Object[] { 2, 2 },
+        new Object[] { 3, 3 },
+        new Object[] { 4, 4 }, new Object[] { 4, 4 }, new Object[] { 4, 4 }, new Object[] { 4, 4 }
+    );
+
+    private static Predicate<Row> getCol0EqCol1JoinCondition() {
+        return row -> Objects.equals(row.get(0), row.get(1));
+    }
+
+    private static ToIntFunction<Row> getHash() {
+        return row -> Objects.hash(row.get(0));
+    }
+
+    private static ToIntFunction<Row> getHashWithCollisions() {
+        return row -> (Integer) row.get(0) % 3;
+    }
+
+    private static BatchIterator<Row> leftWithDuplicates() {
+        return new BatchSimulatingIterator<>(
+            TestingBatchIterators.ofValues(Arrays.asList(0, 0, 1, 2, 2, 3, 4, 4)), 2, 4, null);
+    }
+
+    private static BatchIterator<Row> rightWithDuplicates() {
+        return new BatchSimulatingIterator<>(
+            TestingBatchIterators.ofValues(Arrays.asList(1, 1, 2, 3, 4, 4, 5, 5, 6)), 2, 4, null);
+    }
+
+    private static GraceHashJoinBatchIterator graceHashJoin(BatchIterator<Row> left,
+                                                            BatchIterator<Row> right,
+                                                            RowAccounting<Object[]> rowAccounting,
+                                                            ToIntFunction<Row> hash,
+                                                            int numPartitions) {
+        return new GraceHashJoinBatchIterator(
+            left,
+            right,
+            rowAccounting,
+            new CombinedRow(1, 1),
+            getCol0EqCol1JoinCondition(),
+            hash,
+            hash,
+            STREAMERS,
+            STREAMERS,
+            numPartitions
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGraceHashJoin() throws Exception {
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> graceHashJoin(
+            leftWithDuplicates(),
+            rightWithDuplicates(),
+            mock(RowAccounting.class),
+            getHash(),
+            4
+        );
+        var tester = BatchIteratorTester.forRows(batchIteratorSupplier, ResultOrder.ANY);
+        tester.verifyResultAndEdgeCaseBehaviour(RESULT_FOR_DUPLICATE_VALUES);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGraceHashJoinWithHashCollisions() throws Exception {
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> graceHashJoin(
+            leftWithDuplicates(),
+            rightWithDuplicates(),
+            mock(RowAccounting.class),
+            getHashWithCollisions(),
+            2
+        );
+        var tester = BatchIteratorTester.forRows(batchIteratorSupplier, ResultOrder.ANY);
+        tester.verifyResultAndEdgeCaseBehaviour(RESULT_FOR_DUPLICATE_VALUES);
+    }
+
+    @Test
+    public void testPartitionsExceedingMemoryAreJoinedInMultiplePasses() throws Exception {
+        var ramAccounting = new ConcurrentRamAccounting(bytes -> {}, bytes -> {}, "test", 2000);
+        var rowAccounting = new TypedCellsAccounting(List.of(DataTypes.INTEGER), ramAccounting, 110);
+        BatchIterator<Row> it = graceHashJoin(
+            new BatchSimulatingIterator<>(TestingBatchIterators.range(0, 1000), 100, 10, null),
+            new BatchSimulatingIterator<>(TestingBatchIterators.range(500, 1500), 100, 10, null),
+            rowAccounting,
+            getHash(),
+            2
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(it, null);
+        List<Object[]> result = consumer.getResult();
+
+        List<Object[]> expectedResult = new ArrayList<>();
+        for (int i = 500; i < 1000; i++) {
+            expectedResult.add(new Object[] { i, i });
+        }
+        assertThat(result).containsExactlyInAnyOrderElementsOf(expectedResult);
+        assertThat(ramAccounting.totalBytes()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testNumGracePartitionsIsBasedOnEstimatedSizeOfLeftSide() {
+        CircuitBreaker circuitBreaker = mock(CircuitBreaker.class);
+        when(circuitBreaker.getLimit()).thenReturn(1000L);
+        when(circuitBreaker.getUsed()).thenReturn(0L);
+        var blockSizeCalculator = new RamBlockSizeCalculator(Paging.PAGE_SIZE, circuitBreaker, 10);
+
+        // 1000 bytes available, up to 100 rows fit into a single block
+        assertThat(HashJoinOperation.numGracePartitions(blockSizeCalculator, circuitBreaker, 10, 100, 32)).isEqualTo(0);
+        // 500 bytes per partition
+        assertThat(HashJoinOperation.numGracePartitions(blockSizeCalculator, circuitBreaker, 10, 101, 32)).isEqualTo(3);
+        assertThat(HashJoinOperation.numGracePartitions(blockSizeCalculator, circuitBreaker, 10, 10_000, 32)).isEqualTo(32);
+        // no stats
+        assertThat(HashJoinOperation.numGracePartitions(blockSizeCalculator, circuitBreaker, 10, -1, 32)).isEqualTo(0);
+        // spilling disabled
+        assertThat(HashJoinOperation.numGracePartitions(blockSizeCalculator, circuitBreaker, 10, 10_000, 0)).isEqualTo(0);
+    }
+}
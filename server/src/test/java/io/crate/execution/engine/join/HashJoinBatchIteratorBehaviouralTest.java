@@ -22,7 +22,6 @@
 package io.crate.execution.engine.join;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
 
 import java.util.Arrays;
 import java.util.List;
@@ -35,13 +34,16 @@ import org.junit.Test;
 import io.crate.data.BatchIterator;
 import io.crate.data.Paging;
 import io.crate.data.Row;
-import io.crate.data.breaker.RowAccounting;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.data.testing.BatchSimulatingIterator;
 import io.crate.data.testing.TestingBatchIterators;
 import io.crate.data.testing.TestingRowConsumer;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.sql.tree.JoinType;
+import io.crate.types.DataTypes;
 
-public class HashInnerJoinBatchIteratorBehaviouralTest {
+public class HashJoinBatchIteratorBehaviouralTest {
 
     private int originalPageSize = Paging.PAGE_SIZE;
 
@@ -55,6 +57,14 @@ public class HashInnerJoinBatchIteratorBehaviouralTest {
         Paging.PAGE_SIZE = originalPageSize;
     }
 
+    private static PagedRowHashTable createLeftRows() {
+        return new PagedRowHashTable(
+            List.of(DataTypes.INTEGER),
+            new OnHeapMemoryManager(bytes -> {}),
+            RamAccounting.NO_ACCOUNTING
+        );
+    }
+
     @Test
     public void testDistributed_SwitchToRightEvenIfLeftBatchDoesNotDeliverAllRowsExpectedByOneBatch() throws Exception {
         BatchSimulatingIterator<Row> leftIterator = new BatchSimulatingIterator<>(
@@ -62,11 +72,12 @@ public class HashInnerJoinBatchIteratorBehaviouralTest {
         BatchSimulatingIterator<Row> rightIterator = new BatchSimulatingIterator<>(
             TestingBatchIterators.ofValues(Arrays.asList(2, 0, 4, 5)), 2, 1, null);
 
-        BatchIterator<Row> batchIterator = new HashInnerJoinBatchIterator(
+        BatchIterator<Row> batchIterator = new HashJoinBatchIterator(
                 leftIterator,
                 rightIterator,
-                mock(RowAccounting.class),
+                createLeftRows(),
                 new CombinedRow(1, 1),
+                JoinType.INNER,
                 row -> Objects.equals(row.get(0), row.get(1)),
                 row -> Objects.hash(row.get(0)),
                 row -> Objects.hash(row.get(0)),
@@ -92,11 +103,12 @@ public class HashInnerJoinBatchIteratorBehaviouralTest {
         BatchSimulatingIterator<Row> rightIterator = new BatchSimulatingIterator<>(
             TestingBatchIterators.ofValues(Arrays.asList(2, 0, 4, 5)), 2, 1, null);
 
-        BatchIterator<Row> batchIterator = new HashInnerJoinBatchIterator(
+        BatchIterator<Row> batchIterator = new HashJoinBatchIterator(
             leftIterator,
             rightIterator,
-            mock(RowAccounting.class),
+            createLeftRows(),
             new CombinedRow(1, 1),
+            JoinType.INNER,
             row -> Objects.equals(row.get(0), row.get(1)),
             row -> Objects.hash(row.get(0)),
             row -> Objects.hash(row.get(0)),
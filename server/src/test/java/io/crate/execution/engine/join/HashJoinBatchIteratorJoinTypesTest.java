@@ -0,0 +1,170 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import static io.crate.data.SentinelRow.SENTINEL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.data.join.CombinedRow;
+import io.crate.data.testing.BatchIteratorTester;
+import io.crate.data.testing.BatchIteratorTester.ResultOrder;
+import io.crate.data.testing.BatchSimulatingIterator;
+import io.crate.data.testing.TestingBatchIterators;
+import io.crate.data.testing.TestingRowConsumer;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.sql.tree.JoinType;
+import io.crate.types.DataTypes;
+
+public class HashJoinBatchIteratorJoinTypesTest {
+
+    private static final List<Object> LEFT_VALUES = List.of(0, 1, 2, 2, 3, 6);
+    private static final List<Object> RIGHT_VALUES = List.of(2, 3, 3, 4, 5);
+
+    private static PagedRowHashTable createLeftRows() {
+        return new PagedRowHashTable(
+            List.of(DataTypes.INTEGER),
+            new OnHeapMemoryManager(bytes -> {}),
+            RamAccounting.NO_ACCOUNTING
+        );
+    }
+
+    private static BatchIterator<Row> createIterator(JoinType joinType,
+                                                     BatchIterator<Row> left,
+                                                     BatchIterator<Row> right,
+                                                     int blockSize) {
+        return new HashJoinBatchIterator(
+            left,
+            right,
+            createLeftRows(),
+            new CombinedRow(1, 1),
+            joinType,
+            row -> Objects.equals(row.get(0), row.get(1)),
+            row -> Objects.hash(row.get(0)),
+            row -> Objects.hash(row.get(0)),
+            ignored -> blockSize
+        );
+    }
+
+    private static void assertJoin(JoinType joinType, List<Object[]> expectedResult) throws Exception {
+        // single block
+        Supplier<BatchIterator<Row>> plain = () -> createIterator(
+            joinType,
+            TestingBatchIterators.ofValues(LEFT_VALUES),
+            TestingBatchIterators.ofValues(RIGHT_VALUES),
+            100
+        );
+        BatchIteratorTester.forRows(plain, ResultOrder.ANY).verifyResultAndEdgeCaseBehaviour(expectedResult);
+
+        // multiple blocks with the right side being iterated once per block
+        Supplier<BatchIterator<Row>> batched = () -> createIterator(
+            joinType,
+            new BatchSimulatingIterator<>(TestingBatchIterators.ofValues(LEFT_VALUES), 2, 3, null),
+            new BatchSimulatingIterator<>(TestingBatchIterators.ofValues(RIGHT_VALUES), 2, 3, null),
+            2
+        );
+        BatchIteratorTester.forRows(batched, ResultOrder.ANY).verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void test_left_join() throws Exception {
+        assertJoin(JoinType.LEFT, List.of(
+            new Object[] { 0, null },
+            new Object[] { 1, null },
+            new Object[] { 2, 2 },
+            new Object[] { 2, 2 },
+            new Object[] { 3, 3 },
+            new Object[] { 3, 3 },
+            new Object[] { 6, null }
+        ));
+    }
+
+    @Test
+    public void test_right_join() throws Exception {
+        assertJoin(JoinType.RIGHT, List.of(
+            new Object[] { 2, 2 },
+            new Object[] { 2, 2 },
+            new Object[] { 3, 3 },
+            new Object[] { 3, 3 },
+            new Object[] { null, 4 },
+            new Object[] { null, 5 }
+        ));
+    }
+
+    @Test
+    public void test_full_join() throws Exception {
+        assertJoin(JoinType.FULL, List.of(
+            new Object[] { 0, null },
+            new Object[] { 1, null },
+            new Object[] { 2, 2 },
+            new Object[] { 2, 2 },
+            new Object[] { 3, 3 },
+            new Object[] { 3, 3 },
+            new Object[] { 6, null },
+            new Object[] { null, 4 },
+            new Object[] { null, 5 }
+        ));
+    }
+
+    @Test
+    public void test_left_join_with_empty_right_side_emits_all_left_rows() throws Exception {
+        BatchIterator<Row> iterator = createIterator(
+            JoinType.LEFT,
+            TestingBatchIterators.range(0, 3),
+            InMemoryBatchIterator.empty(SENTINEL),
+            2
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(iterator, null);
+        assertThat(consumer.getResult()).containsExactly(
+            new Object[] { 0, null },
+            new Object[] { 1, null },
+            new Object[] { 2, null }
+        );
+    }
+
+    @Test
+    public void test_right_join_with_empty_left_side_emits_all_right_rows() throws Exception {
+        BatchIterator<Row> iterator = createIterator(
+            JoinType.RIGHT,
+            InMemoryBatchIterator.empty(SENTINEL),
+            TestingBatchIterators.range(0, 3),
+            2
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(iterator, null);
+        assertThat(consumer.getResult()).containsExactly(
+            new Object[] { null, 0 },
+            new Object[] { null, 1 },
+            new Object[] { null, 2 }
+        );
+    }
+}
@@ -21,28 +21,33 @@
 
 package io.crate.execution.engine.join;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.junit.Test;
-import org.mockito.Mockito;
 
 import io.crate.data.BatchIterator;
 import io.crate.data.Row;
-import io.crate.data.breaker.RowAccounting;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.data.testing.BatchSimulatingIterator;
 import io.crate.data.testing.TestingBatchIterators;
 import io.crate.data.testing.TestingRowConsumer;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.sql.tree.JoinType;
+import io.crate.types.DataTypes;
 
-public class HashInnerJoinBatchIteratorMemoryTest {
+public class HashJoinBatchIteratorMemoryTest {
 
     private final CircuitBreaker circuitBreaker = mock(CircuitBreaker.class);
 
@@ -71,12 +76,19 @@ public class HashInnerJoinBatchIteratorMemoryTest {
         when(circuitBreaker.getLimit()).thenReturn(110L);
         when(circuitBreaker.getUsed()).thenReturn(10L);
 
-        RowAccounting<Object[]> rowAccounting = mock(RowAccounting.class);
-        BatchIterator<Row> it = new HashInnerJoinBatchIterator(
+        RamAccounting ramAccounting = mock(RamAccounting.class);
+        List<Integer> allocatedPages = new ArrayList<>();
+        PagedRowHashTable leftRows = new PagedRowHashTable(
+            List.of(DataTypes.INTEGER),
+            new OnHeapMemoryManager(allocatedPages::add),
+            ramAccounting
+        );
+        BatchIterator<Row> it = new HashJoinBatchIterator(
             leftIterator,
             rightIterator,
-            rowAccounting,
+            leftRows,
             new CombinedRow(1, 1),
+            JoinType.INNER,
             getCol0EqCol1JoinCondition(),
             getHashForLeft(),
             getHashForRight(),
@@ -85,7 +97,12 @@ public class HashInnerJoinBatchIteratorMemoryTest {
         TestingRowConsumer consumer = new TestingRowConsumer();
         consumer.accept(it, null);
         consumer.getResult();
-        verify(rowAccounting, times(8)).release();
-        verify(rowAccounting, times(12)).accountForAndMaybeBreak(Mockito.any(Object[].class));
+        // released for each block and once more on close
+        verify(ramAccounting, times(9)).release();
+        // one page for each block and the index entry of each row
+        verify(ramAccounting, times(6)).addBytes(PagedRowHashTable.PAGE_SIZE);
+        verify(ramAccounting, times(12)).addBytes(PagedRowHashTable.BYTES_PER_ROW_IN_INDEX);
+        // the page of the first block is re-used for all other blocks
+        assertThat(allocatedPages).containsExactly(PagedRowHashTable.PAGE_SIZE);
     }
 }
@@ -43,16 +43,19 @@ import com.carrotsearch.randomizedtesting.annotations.ThreadLeakScope;
 
 import io.crate.data.BatchIterator;
 import io.crate.data.Row;
-import io.crate.data.breaker.RowAccounting;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.data.testing.BatchIteratorTester;
 import io.crate.data.testing.BatchIteratorTester.ResultOrder;
 import io.crate.data.testing.BatchSimulatingIterator;
 import io.crate.data.testing.TestingBatchIterators;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.sql.tree.JoinType;
+import io.crate.types.DataTypes;
 
 @RunWith(RandomizedRunner.class)
 @ThreadLeakScope(ThreadLeakScope.Scope.NONE)
-public class HashInnerJoinBatchIteratorTest {
+public class HashJoinBatchIteratorTest {
 
     private final CircuitBreaker circuitBreaker = mock(CircuitBreaker.class);
     private final List<Object[]> expectedResult;
@@ -75,7 +78,15 @@ public class HashInnerJoinBatchIteratorTest {
         return row -> (Integer) row.get(0) % 3;
     }
 
-    public HashInnerJoinBatchIteratorTest(@SuppressWarnings("unused") @Name("dataSetName") String testName,
+    private static PagedRowHashTable createLeftRows() {
+        return new PagedRowHashTable(
+            List.of(DataTypes.INTEGER),
+            new OnHeapMemoryManager(bytes -> {}),
+            RamAccounting.NO_ACCOUNTING
+        );
+    }
+
+    public HashJoinBatchIteratorTest(@SuppressWarnings("unused") @Name("dataSetName") String testName,
                                           @Name("dataForLeft") Supplier<BatchIterator<Row>> leftIterator,
                                           @Name("dataForRight") Supplier<BatchIterator<Row>> rightIterator,
                                           @Name("expectedResult") List<Object[]> expectedResult) {
@@ -129,11 +140,12 @@ public class HashInnerJoinBatchIteratorTest {
 
     @Test
     public void testInnerHashJoin() throws Exception {
-        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashInnerJoinBatchIterator(
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashJoinBatchIterator(
             leftIterator.get(),
             rightIterator.get(),
-            mock(RowAccounting.class),
+            createLeftRows(),
             new CombinedRow(1, 1),
+            JoinType.INNER,
             getCol0EqCol1JoinCondition(),
             getHashForLeft(),
             getHashForRight(),
@@ -145,11 +157,12 @@ public class HashInnerJoinBatchIteratorTest {
 
     @Test
     public void testInnerHashJoinWithHashCollisions() throws Exception {
-        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashInnerJoinBatchIterator(
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashJoinBatchIterator(
             leftIterator.get(),
             rightIterator.get(),
-            mock(RowAccounting.class),
+            createLeftRows(),
             new CombinedRow(1, 1),
+            JoinType.INNER,
             getCol0EqCol1JoinCondition(),
             getHashWithCollisions(),
             getHashWithCollisions(),
@@ -161,11 +174,12 @@ public class HashInnerJoinBatchIteratorTest {
 
     @Test
     public void testInnerHashJoinWithBlockSizeSmallerThanDataSet() throws Exception {
-        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashInnerJoinBatchIterator(
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashJoinBatchIterator(
             leftIterator.get(),
             rightIterator.get(),
-            mock(RowAccounting.class),
+            createLeftRows(),
             new CombinedRow(1, 1),
+            JoinType.INNER,
             getCol0EqCol1JoinCondition(),
             getHashForLeft(),
             getHashForRight(),
@@ -177,11 +191,12 @@ public class HashInnerJoinBatchIteratorTest {
 
     @Test
     public void testInnerHashJoinWithBlockSizeBiggerThanIteratorBatchSize() throws Exception {
-        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashInnerJoinBatchIterator(
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashJoinBatchIterator(
             leftIterator.get(),
             rightIterator.get(),
-            mock(RowAccounting.class),
+            createLeftRows(),
             new CombinedRow(1, 1),
+            JoinType.INNER,
             getCol0EqCol1JoinCondition(),
             getHashForLeft(),
             getHashForRight(),
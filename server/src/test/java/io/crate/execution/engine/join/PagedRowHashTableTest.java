@@ -0,0 +1,173 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.data.RowN;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.memory.OffHeapMemoryManager;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.types.DataTypes;
+
+public class PagedRowHashTableTest extends ESTestCase {
+
+    private static List<Object[]> rowsWithHash(PagedRowHashTable table, int hash) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int pos = table.first(hash); pos != -1; pos = table.next(pos)) {
+            rows.add(table.get(pos).clone());
+        }
+        return rows;
+    }
+
+    @Test
+    public void test_rows_with_the_same_hash_are_returned_in_insertion_order() throws Exception {
+        try (var memoryManager = new OffHeapMemoryManager()) {
+            var table = new PagedRowHashTable(
+                List.of(DataTypes.INTEGER, DataTypes.STRING),
+                memoryManager,
+                RamAccounting.NO_ACCOUNTING
+            );
+            table.add(new RowN(1, "a"), 1);
+            table.add(new RowN(2, null), 2);
+            table.add(new RowN(3, "c"), 1);
+            table.add(new RowN(null, "d"), 1);
+
+            assertThat(table.size()).isEqualTo(4);
+            assertThat(rowsWithHash(table, 1)).containsExactly(
+                new Object[] { 1, "a" },
+                new Object[] { 3, "c" },
+                new Object[] { null, "d" }
+            );
+            assertThat(rowsWithHash(table, 2)).containsExactly(new Object[] { 2, null });
+            assertThat(table.first(3)).isEqualTo(-1);
+            assertThat(table.get(1)).containsExactly(2, null);
+        }
+    }
+
+    @Test
+    public void test_many_distinct_hashes_grow_the_hash_table() throws Exception {
+        var table = new PagedRowHashTable(
+            List.of(DataTypes.LONG),
+            new OnHeapMemoryManager(bytes -> {}),
+            RamAccounting.NO_ACCOUNTING
+        );
+        int numRows = 10_000;
+        for (int i = 0; i < numRows; i++) {
+            table.add(new RowN((long) i), i);
+        }
+        for (int i = 0; i < numRows; i++) {
+            assertThat(rowsWithHash(table, i)).containsExactly(new Object[] { (long) i });
+        }
+    }
+
+    @Test
+    public void test_row_larger_than_a_page_is_stored_on_a_page_on_its_own() throws Exception {
+        List<Integer> allocatedPages = new ArrayList<>();
+        var table = new PagedRowHashTable(
+            List.of(DataTypes.STRING),
+            new OnHeapMemoryManager(allocatedPages::add),
+            RamAccounting.NO_ACCOUNTING
+        );
+        String largeValue = "x".repeat(PagedRowHashTable.PAGE_SIZE * 2);
+        table.add(new RowN("a"), 1);
+        table.add(new RowN(largeValue), 2);
+        table.add(new RowN("b"), 3);
+
+        assertThat(allocatedPages).hasSize(3);
+        assertThat(allocatedPages.get(1)).isGreaterThan(PagedRowHashTable.PAGE_SIZE * 2);
+        assertThat(table.get(0)).containsExactly("a");
+        assertThat(table.get(1)).containsExactly(largeValue);
+        assertThat(table.get(2)).containsExactly("b");
+    }
+
+    @Test
+    public void test_clear_releases_memory_and_re_uses_pages() throws Exception {
+        List<Integer> allocatedPages = new ArrayList<>();
+        var ramAccounting = new ConcurrentRamAccounting(bytes -> {}, bytes -> {}, "test", 0);
+        var table = new PagedRowHashTable(
+            List.of(DataTypes.INTEGER),
+            new OnHeapMemoryManager(allocatedPages::add),
+            ramAccounting
+        );
+        for (int i = 0; i < 10; i++) {
+            table.add(new RowN(i), i);
+        }
+        long usedBytes = ramAccounting.totalBytes();
+        assertThat(usedBytes).isEqualTo(PagedRowHashTable.PAGE_SIZE + 10L * PagedRowHashTable.BYTES_PER_ROW_IN_INDEX);
+
+        table.clear();
+        assertThat(table.size()).isEqualTo(0);
+        assertThat(table.first(1)).isEqualTo(-1);
+        assertThat(ramAccounting.totalBytes()).isEqualTo(0);
+
+        for (int i = 0; i < 10; i++) {
+            table.add(new RowN(i + 10), i);
+        }
+        assertThat(ramAccounting.totalBytes()).isEqualTo(usedBytes);
+        assertThat(allocatedPages).hasSize(1);
+        assertThat(rowsWithHash(table, 1)).containsExactly(new Object[] { 11 });
+
+        table.close();
+        assertThat(ramAccounting.totalBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_add_trips_the_circuit_breaker_if_a_page_doesnt_fit() throws Exception {
+        var ramAccounting = new ConcurrentRamAccounting(bytes -> {}, bytes -> {}, "test", 1024);
+        var table = new PagedRowHashTable(
+            List.of(DataTypes.INTEGER),
+            new OnHeapMemoryManager(bytes -> {}),
+            ramAccounting
+        );
+        assertThatThrownBy(() -> table.add(new RowN(1), 1))
+            .isExactlyInstanceOf(CircuitBreakingException.class);
+        assertThat(table.size()).isEqualTo(0);
+        assertThat(table.first(1)).isEqualTo(-1);
+        assertThat(ramAccounting.totalBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_failed_page_allocation_releases_the_accounted_bytes() throws Exception {
+        var ramAccounting = new ConcurrentRamAccounting(bytes -> {}, bytes -> {}, "test", 0);
+        var table = new PagedRowHashTable(
+            List.of(DataTypes.INTEGER),
+            new OnHeapMemoryManager(bytes -> {
+                throw new CircuitBreakingException("page doesn't fit");
+            }),
+            ramAccounting
+        );
+        assertThatThrownBy(() -> table.add(new RowN(1), 1))
+            .isExactlyInstanceOf(CircuitBreakingException.class);
+        assertThat(table.size()).isEqualTo(0);
+        assertThat(ramAccounting.totalBytes()).isEqualTo(0);
+    }
+}
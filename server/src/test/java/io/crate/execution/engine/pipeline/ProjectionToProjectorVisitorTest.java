@@ -63,12 +63,14 @@ import io.crate.execution.dsl.projection.OrderedLimitAndOffsetProjection;
 import io.crate.execution.engine.aggregation.AggregationPipe;
 import io.crate.execution.engine.aggregation.GroupingProjector;
 import io.crate.execution.engine.aggregation.impl.CountAggregation;
+import io.crate.execution.engine.columnar.ColumnBatchProjectors;
 import io.crate.execution.engine.sort.SortingLimitAndOffsetProjector;
 import io.crate.execution.engine.sort.SortingProjector;
 import io.crate.execution.jobs.NodeLimits;
 import io.crate.expression.InputFactory;
 import io.crate.expression.eval.EvaluatingNormalizer;
 import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
 import io.crate.expression.symbol.AggregateMode;
 import io.crate.expression.symbol.Aggregation;
 import io.crate.expression.symbol.Function;
@@ -77,6 +79,7 @@ import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
 import io.crate.memory.OnHeapMemoryManager;
 import io.crate.metadata.CoordinatorTxnCtx;
+import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.SearchPath;
@@ -301,4 +304,58 @@ public class ProjectionToProjectorVisitorTest extends CrateDummyClusterServiceUn
         Bucket bucket = consumer.getBucket();
         assertThat(bucket).hasSize(1);
     }
+
+    @Test
+    public void test_filter_projection_is_applied_on_column_batches_if_enabled() throws Exception {
+        ProjectionToProjectorVisitor columnarVisitor = new ProjectionToProjectorVisitor(
+            clusterService,
+            new NodeLimits(new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS)),
+            new NoneCircuitBreakerService(),
+            nodeCtx,
+            THREAD_POOL,
+            Settings.builder().put(ColumnBatchProjectors.COLUMNAR_EXECUTION_ENABLED_SETTING.getKey(), true).build(),
+            mock(ElasticsearchClient.class),
+            new InputFactory(nodeCtx),
+            EvaluatingNormalizer.functionOnlyNormalizer(nodeCtx),
+            t -> null,
+            t -> null
+        );
+        InputColumn x = new InputColumn(0, DataTypes.LONG);
+        InputColumn name = new InputColumn(1, DataTypes.STRING);
+        List<Symbol> arguments = List.of(x, Literal.of(1L));
+        FunctionImplementation op =
+            nodeCtx.functions().get(null, GtOperator.NAME, arguments, SearchPath.pathWithPGCatalogAndDoc());
+        FilterProjection projection = new FilterProjection(
+            new Function(op.signature(), arguments, DataTypes.BOOLEAN),
+            List.of(x, name)
+        );
+
+        Projector projector = columnarVisitor.create(
+            projection, txnCtx, RamAccounting.NO_ACCOUNTING, memoryManager, UUID.randomUUID());
+        assertThat(projector).isNotInstanceOf(FilterProjector.class);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add($(1L, "vogon"));
+        rows.add($(2L, "human"));
+        rows.add($(null, "dolphin"));
+        rows.add($(42L, "mouse"));
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(projector.apply(InMemoryBatchIterator.of(new CollectionBucket(rows), SENTINEL, true)), null);
+        assertThat(consumer.getResult()).containsExactly(
+            new Object[] { 2L, "human" },
+            new Object[] { 42L, "mouse" }
+        );
+
+        // Conditions which can't be compiled into vector predicates fall back to the row based filter
+        List<Symbol> eqArguments = List.of(name, Literal.of("human"));
+        EqOperator eq =
+            (EqOperator) nodeCtx.functions().get(null, EqOperator.NAME, eqArguments, SearchPath.pathWithPGCatalogAndDoc());
+        FilterProjection unsupported = new FilterProjection(
+            new Function(eq.signature(), eqArguments, EqOperator.RETURN_TYPE),
+            List.of(x, name)
+        );
+        projector = columnarVisitor.create(
+            unsupported, txnCtx, RamAccounting.NO_ACCOUNTING, memoryManager, UUID.randomUUID());
+        assertThat(projector).isExactlyInstanceOf(FilterProjector.class);
+    }
 }
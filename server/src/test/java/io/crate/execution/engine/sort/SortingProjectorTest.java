@@ -23,6 +23,8 @@ package io.crate.execution.engine.sort;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
@@ -45,6 +47,7 @@ import io.crate.data.testing.TestingBatchIterators;
 import io.crate.data.testing.TestingRowConsumer;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.collect.RowCollectExpression;
+import io.crate.execution.engine.spill.SpillRamAccounting;
 import io.crate.expression.symbol.Literal;
 import io.crate.types.DataTypes;
 
@@ -123,4 +126,39 @@ public class SortingProjectorTest extends ESTestCase {
         expectedException.expect(CircuitBreakingException.class);
         consumer.getResult();
     }
+
+    @Test
+    public void test_rows_are_sorted_on_disk_if_circuit_breaker_trips_and_spilling_is_enabled() throws Exception {
+        var ramAccounting = new ConcurrentRamAccounting(bytes -> {}, bytes -> {}, "test", 1_000);
+        TypedCellsAccounting rowAccounting = new TypedCellsAccounting(
+            List.of(DataTypes.INTEGER, DataTypes.BOOLEAN),
+            new SpillRamAccounting(ramAccounting),
+            0
+        );
+        RowCollectExpression input = new RowCollectExpression(0);
+        SortingProjector projector = new SortingProjector(
+            rowAccounting,
+            List.of(input, Literal.of(true)),
+            List.<CollectExpression<Row, ?>>of(input),
+            2,
+            OrderingByPosition.arrayOrdering(DataTypes.INTEGER, 0, false, false),
+            5,
+            DataTypes.getStreamers(List.of(DataTypes.INTEGER, DataTypes.BOOLEAN))
+        );
+        int numRows = 4_000;
+        List<Integer> values = new ArrayList<>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, random());
+
+        consumer.accept(projector.apply(TestingBatchIterators.ofValues(values)), null);
+        List<Object[]> rows = consumer.getResult();
+
+        assertThat(rows).hasSize(numRows - 5);
+        int expected = 5;
+        for (Object[] row : rows) {
+            assertThat(row).containsExactly(expected++, true);
+        }
+    }
 }
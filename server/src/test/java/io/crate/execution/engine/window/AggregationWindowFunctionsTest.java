@@ -299,6 +299,37 @@ public class AggregationWindowFunctionsTest extends AbstractWindowFunctionTest {
                        new Object[]{12.0, 12.0});
     }
 
+    @Test
+    public void test_max_and_min_over_sliding_rows_frames() throws Throwable {
+        Object[][] rows = new Object[][] {
+            $(5, 1L),
+            $(1, 2L),
+            $(3, 3L),
+            $(null, 4L),
+            $(2, 5L),
+            $(7, 6L),
+            $(4, 7L),
+        };
+        assertEvaluate(
+            "max(x) OVER(ORDER BY y ROWS BETWEEN 2 PRECEDING and CURRENT ROW)",
+            new Object[] {5, 5, 5, 3, 3, 7, 7},
+            List.of(ColumnIdent.of("x"), ColumnIdent.of("y")),
+            rows
+        );
+        assertEvaluate(
+            "min(x) OVER(ORDER BY y ROWS BETWEEN 2 PRECEDING and CURRENT ROW)",
+            new Object[] {5, 1, 1, 1, 2, 2, 2},
+            List.of(ColumnIdent.of("x"), ColumnIdent.of("y")),
+            rows
+        );
+        assertEvaluate(
+            "min(x) OVER(ORDER BY y ROWS BETWEEN 1 PRECEDING and 1 FOLLOWING)",
+            new Object[] {1, 1, 1, 2, 2, 2, 4},
+            List.of(ColumnIdent.of("x"), ColumnIdent.of("y")),
+            rows
+        );
+    }
+
     @Test
     public void test_sum_with_range_offset_preceding_following_including_partitions() throws Throwable {
         Object[][] rows = new Object[][] {
@@ -33,6 +33,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.function.LongConsumer;
 import java.util.stream.IntStream;
@@ -42,6 +43,7 @@ import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.junit.Test;
 
 import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.breaker.TypedCellsAccounting;
 import io.crate.breaker.TypedRowAccounting;
 import io.crate.common.collections.Lists;
 import io.crate.common.collections.Tuple;
@@ -56,6 +58,7 @@ import io.crate.data.testing.TestingBatchIterators;
 import io.crate.data.testing.TestingRowConsumer;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.sort.OrderingByPosition;
+import io.crate.execution.engine.spill.SpillRamAccounting;
 import io.crate.metadata.functions.BoundSignature;
 import io.crate.metadata.functions.Signature;
 import io.crate.sql.tree.FrameBound;
@@ -119,6 +122,103 @@ public class WindowBatchIteratorTest {
         tester.verifyResultAndEdgeCaseBehaviour(expectedRowNumberResult);
     }
 
+    @Test
+    public void test_sorted_source_is_computed_one_partition_at_a_time() throws Exception {
+        RamAccounting ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        Comparator<Object[]> cmpPartitionBy = Comparator.comparingInt(row -> (int) row[0] / 3);
+        var tester = BatchIteratorTester.forRows(
+            () -> WindowFunctionBatchIterator.ofSorted(
+                new BatchSimulatingIterator<>(TestingBatchIterators.range(0, 10), 4, 2, null),
+                ramAccounting::addBytes,
+                new TypedCellsAccounting(List.of(DataTypes.INTEGER), ramAccounting, 32),
+                getComputeFrameStart(null, FrameBound.Type.UNBOUNDED_PRECEDING),
+                getComputeFrameEnd(null, FrameBound.Type.CURRENT_ROW),
+                cmpPartitionBy,
+                1,
+                List.of(rowNumberWindowFunction()),
+                List.of(),
+                new Boolean[]{null},
+                new Input[0]
+            ),
+            ResultOrder.EXACT
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(List.of(
+            new Object[]{0, 1},
+            new Object[]{1, 2},
+            new Object[]{2, 3},
+            new Object[]{3, 1},
+            new Object[]{4, 2},
+            new Object[]{5, 3},
+            new Object[]{6, 1},
+            new Object[]{7, 2},
+            new Object[]{8, 3},
+            new Object[]{9, 1}
+        ));
+    }
+
+    @Test
+    public void test_sorted_source_releases_memory_of_computed_partitions() throws Exception {
+        RamAccounting ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        BatchIterator<Row> iterator = WindowFunctionBatchIterator.ofSorted(
+            TestingBatchIterators.range(0, 10),
+            ramAccounting::addBytes,
+            new TypedCellsAccounting(List.of(DataTypes.INTEGER), ramAccounting, 32),
+            getComputeFrameStart(null, FrameBound.Type.UNBOUNDED_PRECEDING),
+            getComputeFrameEnd(null, FrameBound.Type.CURRENT_ROW),
+            Comparator.comparingInt(row -> (int) row[0] / 3),
+            1,
+            List.of(rowNumberWindowFunction()),
+            List.of(),
+            new Boolean[]{null},
+            new Input[0]
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(iterator, null);
+        assertThat(consumer.getResult()).hasSize(10);
+        assertThat(ramAccounting.totalBytes()).isEqualTo(0L);
+    }
+
+    @Test
+    public void test_unsorted_source_spills_sorted_runs_if_memory_limit_is_reached() throws Exception {
+        int numRows = 2_000;
+        List<Integer> values = new ArrayList<>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(42));
+        var ramAccounting = new ConcurrentRamAccounting(bytes -> {}, bytes -> {}, "test", 10_000);
+        Comparator<Object[]> cmpPartitionBy = Comparator.comparingInt(row -> (int) row[0] % 10);
+        Comparator<Object[]> cmpOrderBy = OrderingByPosition.arrayOrdering(DataTypes.INTEGER, 0, false, false);
+        BatchIterator<Row> iterator = WindowFunctionBatchIterator.ofExternalSort(
+            TestingBatchIterators.ofValues(values),
+            ramAccounting::addBytes,
+            new TypedCellsAccounting(List.of(DataTypes.INTEGER), ramAccounting, 0),
+            new TypedCellsAccounting(List.of(DataTypes.INTEGER), new SpillRamAccounting(ramAccounting), 0),
+            DataTypes.getStreamers(List.of(DataTypes.INTEGER, DataTypes.INTEGER)),
+            getComputeFrameStart(cmpOrderBy, FrameBound.Type.UNBOUNDED_PRECEDING),
+            getComputeFrameEnd(cmpOrderBy, FrameBound.Type.CURRENT_ROW),
+            cmpPartitionBy,
+            cmpOrderBy,
+            1,
+            List.of(rowNumberWindowFunction()),
+            List.of(),
+            new Boolean[]{null},
+            new Input[0]
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(iterator, null);
+        List<Object[]> rows = consumer.getResult();
+
+        assertThat(rows).hasSize(numRows);
+        int idx = 0;
+        for (int partition = 0; partition < 10; partition++) {
+            for (int rowNumber = 1; rowNumber <= numRows / 10; rowNumber++) {
+                assertThat(rows.get(idx++)).containsExactly((rowNumber - 1) * 10 + partition, rowNumber);
+            }
+        }
+        assertThat(ramAccounting.totalBytes()).isEqualTo(0L);
+    }
+
     @Test
     public void testFrameBoundsEmptyWindow() throws Exception {
         var rows = IntStream.range(0, 10).mapToObj(i -> new Object[]{i, null}).collect(toList());
@@ -69,7 +69,8 @@ public class DistResultRXTaskTest extends ESTestCase {
             new Streamer[1],
             batchConsumer,
             pagingIterator,
-            numBuckets);
+            numBuckets,
+            RamAccounting.NO_ACCOUNTING);
 
         return new DistResultRXTask(
             1,
@@ -0,0 +1,90 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.jobs;
+
+import static io.crate.testing.TestingHelpers.createNodeContext;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.data.testing.TestingRowConsumer;
+import io.crate.exceptions.JobKilledException;
+import io.crate.execution.engine.collect.PKLookupOperation;
+import io.crate.expression.InputFactory;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.metadata.CoordinatorTxnCtx;
+import io.crate.metadata.Schemas;
+
+public class PKLookupTaskTest extends ESTestCase {
+
+    @Test
+    public void test_kill_while_lookup_is_pending_cancels_lookup_and_fails_consumer() throws Exception {
+        CompletableFuture<BatchIterator<Row>> lookup = new CompletableFuture<>();
+        PKLookupOperation pkLookupOperation = mock(PKLookupOperation.class);
+        when(pkLookupOperation.lookup(any(), any(), any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(), any()))
+            .thenReturn(lookup);
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        PKLookupTask task = new PKLookupTask(
+            UUID.randomUUID(),
+            1,
+            "pkLookup",
+            RamAccounting.NO_ACCOUNTING,
+            ramAccounting -> new OnHeapMemoryManager(ramAccounting::addBytes),
+            1024,
+            CoordinatorTxnCtx.systemTransactionContext(),
+            mock(Schemas.class),
+            new InputFactory(createNodeContext()),
+            pkLookupOperation,
+            List.of(),
+            List.of(),
+            Map.of(),
+            List.of(),
+            consumer
+        );
+
+        task.start();
+        task.kill(JobKilledException.of("dummy"));
+
+        assertThat(lookup).isCancelled();
+        assertThat(task.isClosed()).isTrue();
+        assertThatThrownBy(consumer::getResult)
+            .isExactlyInstanceOf(JobKilledException.class);
+        assertThatThrownBy(task::getMemoryManager)
+            .isExactlyInstanceOf(IllegalStateException.class)
+            .hasMessage("PKLookupTask pkLookup is already closed, can't create a MemoryManager");
+    }
+}
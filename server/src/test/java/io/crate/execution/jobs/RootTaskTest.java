@@ -142,7 +142,8 @@ public class RootTaskTest extends ESTestCase {
             new Streamer[]{IntegerType.INSTANCE.streamer()},
             batchConsumer,
             PassThroughPagingIterator.oneShot(),
-            1);
+            1,
+            RamAccounting.NO_ACCOUNTING);
         DistResultRXTask distResultRXTask = spy(new DistResultRXTask(
             2,
             "dummy",
@@ -0,0 +1,142 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.compiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.analyze.relations.DocTableRelation;
+import io.crate.data.Input;
+import io.crate.expression.FunctionExpression;
+import io.crate.expression.InputFactory;
+import io.crate.expression.reference.ReferenceResolver;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.CoordinatorTxnCtx;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.TransactionContext;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SqlExpressions;
+import io.crate.testing.T3;
+
+public class ScalarCompilerTest extends CrateDummyClusterServiceUnitTest {
+
+    private static final List<Integer> VALUES = Arrays.asList(null, -7, 0, 1, 5, 12, Integer.MAX_VALUE);
+
+    private final TransactionContext txnCtx = CoordinatorTxnCtx.systemTransactionContext();
+    private final Map<String, Object> row = new HashMap<>();
+    private final ReferenceResolver<Input<?>> refResolver = ref -> {
+        String name = ref.column().name();
+        return () -> row.get(name);
+    };
+    private SqlExpressions expressions;
+
+    @Before
+    public void prepare() throws Exception {
+        Map<RelationName, AnalyzedRelation> sources = T3.sources(List.of(T3.T1), clusterService);
+        DocTableRelation t1 = (DocTableRelation) sources.get(T3.T1);
+        expressions = new SqlExpressions(sources, t1);
+    }
+
+    private void assertSameResultAsInterpreter(String expression) {
+        Symbol symbol = expressions.normalize(expressions.asSymbol(expression));
+        Input<?> compiled = new InputFactory(expressions.nodeCtx, true).ctxForRefs(txnCtx, refResolver).add(symbol);
+        Input<?> interpreted = new InputFactory(expressions.nodeCtx, false).ctxForRefs(txnCtx, refResolver).add(symbol);
+        assertThat(compiled).isNotInstanceOf(FunctionExpression.class);
+        assertThat(interpreted).isInstanceOf(FunctionExpression.class);
+
+        for (Integer x : VALUES) {
+            for (Integer i : VALUES) {
+                row.put("x", x);
+                row.put("i", i);
+                assertThat(evaluate(compiled))
+                    .as(expression + " with x=" + x + ", i=" + i)
+                    .isEqualTo(evaluate(interpreted));
+            }
+        }
+    }
+
+    private static List<Object> evaluate(Input<?> input) {
+        List<Object> result = new ArrayList<>(2);
+        try {
+            result.add(input.value());
+        } catch (Exception e) {
+            result.add(e.getClass());
+            result.add(e.getMessage());
+        }
+        return result;
+    }
+
+    @Test
+    public void test_integer_arithmetic_and_comparison() {
+        assertSameResultAsInterpreter("x + i * 2 > 10");
+        assertSameResultAsInterpreter("x - i");
+        assertSameResultAsInterpreter("x / i");
+        assertSameResultAsInterpreter("x % 3 = 0");
+    }
+
+    @Test
+    public void test_widening_casts() {
+        assertSameResultAsInterpreter("x::bigint * 3 - i::bigint <= 20");
+        assertSameResultAsInterpreter("x::bigint * x::bigint");
+        assertSameResultAsInterpreter("x::double / 4 < i::double");
+        assertSameResultAsInterpreter("x::bigint::double / i");
+    }
+
+    @Test
+    public void test_three_valued_logic() {
+        assertSameResultAsInterpreter("x > 1 and i < 5");
+        assertSameResultAsInterpreter("x > 1 or i < 5");
+        assertSameResultAsInterpreter("not (x > 5 and i < 10)");
+        assertSameResultAsInterpreter("x % 2 = 0 or i is null");
+    }
+
+    @Test
+    public void test_case() {
+        assertSameResultAsInterpreter("case when x > 10 then x * 2 when i is null then 0 else i end");
+        assertSameResultAsInterpreter("case when x > 10 then true else i > 3 end");
+        assertSameResultAsInterpreter("case when x is null then -1::double else x::double / 2 end");
+    }
+
+    @Test
+    public void test_unsupported_arguments_are_interpreted() {
+        assertSameResultAsInterpreter("length(a) + x > 3");
+    }
+
+    @Test
+    public void test_scalars_are_interpreted_by_default() {
+        assertThat(ScalarCompiler.SCALAR_COMPILER_ENABLED_SETTING.get(Settings.EMPTY)).isFalse();
+
+        Symbol symbol = expressions.normalize(expressions.asSymbol("x + i * 2 > 10"));
+        Input<?> input = new InputFactory(expressions.nodeCtx).ctxForRefs(txnCtx, refResolver).add(symbol);
+        assertThat(input).isInstanceOf(FunctionExpression.class);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import static io.crate.testing.TestingHelpers.createReference;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.common.collections.Maps;
+import io.crate.metadata.ColumnIdent;
+import io.crate.types.DataTypes;
+
+public class BinarySourceTest extends ESTestCase {
+
+    private static BytesReference source() throws Exception {
+        BinarySource.Writer writer = new BinarySource.Writer();
+        assertThat(writer.writeValue("1", DataTypes.INTEGER, 10)).isTrue();
+        assertThat(writer.writeValue("name", DataTypes.STRING, "Arthur")).isTrue();
+        assertThat(writer.writeValue("3", DataTypes.LONG, 42L)).isTrue();
+        assertThat(writer.writeValue("4", DataTypes.FLOAT, 1.1f)).isTrue();
+        assertThat(writer.writeValue("5", DataTypes.BOOLEAN, true)).isTrue();
+        assertThat(writer.writeValue("6", DataTypes.UNTYPED_OBJECT, Map.of("x", 1))).isFalse();
+        XContentBuilder builder = writer.startJson("6");
+        builder.startObject("6").field("x", 1).field("y", "foo").endObject();
+        writer.endJson(builder);
+        return writer.finish(new BytesStreamOutput());
+    }
+
+    @Test
+    public void test_binary_source_is_detected() throws Exception {
+        assertThat(BinarySource.isBinary(source())).isTrue();
+        assertThat(BinarySource.isBinary(new BytesArray("{\"x\": 1}"))).isFalse();
+        assertThat(BinarySource.isBinary(BytesArray.EMPTY)).isFalse();
+    }
+
+    @Test
+    public void test_only_required_columns_are_decoded() throws Exception {
+        SourceParser sourceParser = new SourceParser(Set.of(), UnaryOperator.identity());
+        sourceParser.register(ColumnIdent.of("_doc", List.of("3")), DataTypes.LONG);
+        sourceParser.register(ColumnIdent.of("_doc", List.of("6", "y")), DataTypes.STRING);
+
+        Map<String, Object> result = sourceParser.parse(source());
+
+        assertThat(result).containsOnlyKeys("3", "6");
+        assertThat(result.get("3")).isEqualTo(42L);
+        assertThat(Maps.getByPath(result, "6.y")).isEqualTo("foo");
+        assertThat(Maps.getByPath(result, "6.x")).isNull();
+    }
+
+    @Test
+    public void test_parse_all_columns_uses_json_value_types() throws Exception {
+        SourceParser sourceParser = new SourceParser(Set.of(), UnaryOperator.identity());
+
+        Map<String, Object> result = sourceParser.parse(source());
+
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of(
+            "1", 10,
+            "name", "Arthur",
+            "3", 42,
+            "4", 1.1d,
+            "5", true,
+            "6", Map.of("x", 1, "y", "foo")
+        ));
+    }
+
+    @Test
+    public void test_typed_columns_are_returned_with_the_registered_type() throws Exception {
+        SourceParser sourceParser = new SourceParser(Set.of(), UnaryOperator.identity());
+        sourceParser.register(ColumnIdent.of("_doc", List.of("4")), DataTypes.FLOAT);
+        sourceParser.register(ColumnIdent.of("_doc", List.of("6")), DataTypes.UNTYPED_OBJECT);
+
+        Map<String, Object> result = sourceParser.parse(source());
+
+        assertThat(result.get("4")).isEqualTo(1.1f);
+        assertThat(result.get("6")).isEqualTo(Map.of("x", 1, "y", "foo"));
+    }
+
+    @Test
+    public void test_dropped_columns_are_skipped() throws Exception {
+        SourceParser sourceParser = new SourceParser(
+            Set.of(createReference("name", DataTypes.STRING)),
+            UnaryOperator.identity()
+        );
+
+        Map<String, Object> result = sourceParser.parse(source());
+
+        assertThat(result).doesNotContainKey("name");
+        assertThat(result).containsKey("1");
+    }
+
+    @Test
+    public void test_source_keys_are_mapped_to_column_names() throws Exception {
+        SourceParser sourceParser = new SourceParser(Set.of(), key -> key.equals("1") ? "id" : key);
+        sourceParser.register(ColumnIdent.of("_doc", List.of("id")), DataTypes.INTEGER);
+
+        Map<String, Object> result = sourceParser.parse(source());
+
+        assertThat(result).containsOnlyKeys("id");
+        assertThat(result.get("id")).isEqualTo(10);
+    }
+
+    @Test
+    public void test_binary_source_can_be_converted_to_json() throws Exception {
+        assertThat(BinarySource.asJson(source()).utf8ToString()).isEqualTo(
+            "{\"1\":10,\"name\":\"Arthur\",\"3\":42,\"4\":1.1,\"5\":true,\"6\":{\"x\":1,\"y\":\"foo\"}}");
+
+        BytesArray json = new BytesArray("{\"x\":1}");
+        assertThat(BinarySource.asJson(json)).isSameAs(json);
+    }
+}
@@ -45,6 +45,7 @@ import org.elasticsearch.cluster.routing.UnassignedInfo;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.cache.result.ShardResultCacheStats;
 import org.elasticsearch.index.shard.DocsStats;
 import org.elasticsearch.index.shard.IllegalIndexShardStateException;
 import org.elasticsearch.index.shard.IndexShard;
@@ -132,6 +133,13 @@ public class SysShardsExpressionsTest extends CrateDummyClusterServiceUnitTest {
         when(indexShard.routingEntry()).thenReturn(shardRouting);
         when(indexShard.minimumCompatibleVersion()).thenReturn(Version.LATEST);
 
+        ShardResultCacheStats resultCacheStats = new ShardResultCacheStats();
+        resultCacheStats.onMiss();
+        resultCacheStats.onCached(512L);
+        resultCacheStats.onHit();
+        resultCacheStats.onHit();
+        when(indexShard.resultCacheStats()).thenReturn(resultCacheStats);
+
         RecoveryState recoveryState = mock(RecoveryState.class);
         when(indexShard.recoveryState()).thenReturn(recoveryState);
         RecoveryState.Index recoveryStateIndex = mock(RecoveryState.Index.class);
@@ -339,6 +347,18 @@ public class SysShardsExpressionsTest extends CrateDummyClusterServiceUnitTest {
         assertThat(input.value(), Matchers.nullValue());
     }
 
+    @Test
+    public void test_result_cache_stats() {
+        Reference refInfo = refInfo("sys.shards.result_cache", DataTypes.UNTYPED_OBJECT, RowGranularity.SHARD);
+        NestableInput<Map<String, Object>> ref = (NestableInput<Map<String, Object>>) resolver.getImplementation(refInfo);
+        assertThat(ref.value()).isEqualTo(Map.of(
+            "hits", 2L,
+            "misses", 1L,
+            "evictions", 0L,
+            "size", 512L
+        ));
+    }
+
     @Test
     public void testShardSizeExpressionWhenIndexShardHasBeenClosed() {
         IndexShard mock = mockIndexShard();
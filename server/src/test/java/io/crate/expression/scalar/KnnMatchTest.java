@@ -27,6 +27,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.List;
 
+import org.apache.lucene.search.KnnFloatVectorQuery;
 import org.apache.lucene.search.Query;
 import org.elasticsearch.Version;
 import org.junit.Test;
@@ -66,5 +67,55 @@ public class KnnMatchTest extends ScalarTestCase {
             );
         }
     }
-}
 
+    @Test
+    public void test_knn_match_uses_other_conjunctions_as_pre_filter() throws Exception {
+        String createTable = "create table tbl (x float_vector(2), y int)";
+        QueryTester.Builder builder = new QueryTester.Builder(
+            THREAD_POOL,
+            clusterService,
+            Version.CURRENT,
+            createTable
+        );
+        float[] vector1 = new float[] { 1.0f, 1.0f };
+        float[] vector2 = new float[] { 10.0f, 10.0f };
+        builder.indexValues(List.of("x", "y"), vector1, 1);
+        builder.indexValues(List.of("x", "y"), vector2, 2);
+        try (QueryTester tester = builder.build()) {
+            Query query = tester.toQuery("knn_match(x, [1.0, 1.0], 1) and y = 2");
+            assertThat(query).isExactlyInstanceOf(KnnFloatVectorQuery.class);
+            assertThat(((KnnFloatVectorQuery) query).getFilter()).isNotNull();
+
+            // Without pre-filtering the nearest neighbour (vector1) would be removed by the post filter
+            List<Object> result = tester.runQuery("x", "knn_match(x, [1.0, 1.0], 1) and y = 2");
+            assertThat(result).containsExactly(
+                vector2
+            );
+        }
+    }
+
+    @Test
+    public void test_knn_query_on_column_with_index_options() throws Exception {
+        String createTable = """
+            create table tbl (
+                x float_vector(2) index using hnsw with (similarity = 'cosine', quantization = 'int8', m = 8)
+            )
+            """;
+        QueryTester.Builder builder = new QueryTester.Builder(
+            THREAD_POOL,
+            clusterService,
+            Version.CURRENT,
+            createTable
+        );
+        float[] vector1 = new float[] { 1.0f, 0.1f };
+        float[] vector2 = new float[] { 0.1f, 1.0f };
+        builder.indexValue("x", vector1);
+        builder.indexValue("x", vector2);
+        try (QueryTester tester = builder.build()) {
+            List<Object> result = tester.runQuery("x", "knn_match(x, [5.0, 0.4], 1)");
+            assertThat(result).containsExactly(
+                vector1
+            );
+        }
+    }
+}
@@ -1171,7 +1171,7 @@ public class JoinIntegrationTest extends IntegTestCase {
         // ensure that the query is using the execution plan we want to test
         // This should prevent from the test case becoming invalid
         assertThat(response).hasLines(
-                "NestedLoopJoin[LEFT | (id = id)]",
+                "HashJoin[LEFT | (id = id)]",
                 "  ├ Eval[id, a, id, b, id, c]",
                 "  │  └ HashJoin[(id = id)]",
                 "  │    ├ Collect[doc.t3 | [id, c] | true]",
@@ -1336,7 +1336,7 @@ public class JoinIntegrationTest extends IntegTestCase {
         execute("EXPLAIN (COSTS FALSE)" + stmt);
         assertThat(response).hasLines(
                 "Eval[id, reference]",
-                "  └ NestedLoopJoin[LEFT | (cluster_id = id)]",
+                "  └ HashJoin[LEFT | (cluster_id = id)]",
                 "    ├ HashJoin[(cluster_id = id)]",
                 "    │  ├ HashJoin[(subscription_id = id)]",
                 "    │  │  ├ Collect[doc.t3 | [id, reference] | (reference = 'bazinga')]",
@@ -1389,7 +1389,7 @@ public class JoinIntegrationTest extends IntegTestCase {
         execute("EXPLAIN (COSTS FALSE)" + stmt);
         assertThat(response).hasLines(
                    "OrderBy[z ASC x ASC]",
-                   "  └ NestedLoopJoin[LEFT | (z = x)]",
+                   "  └ HashJoin[LEFT | (z = x)]",
                    "    ├ Rename[z] AS d",
                    "    │  └ Rename[z] AS generated",
                    "    │    └ Rename[z] AS z",
@@ -1397,7 +1397,7 @@ public class JoinIntegrationTest extends IntegTestCase {
                    "    └ Rename[x] AS c",
                    "      └ Rename[x] AS combined",
                    "        └ Eval[x]",
-                   "          └ NestedLoopJoin[LEFT | (x = y)]",
+                   "          └ HashJoin[LEFT | (x = y)]",
                    "            ├ Collect[doc.t1 | [x] | true]",
                    "            └ Collect[doc.t2 | [y] | true]"
         );
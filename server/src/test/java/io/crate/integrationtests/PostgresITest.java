@@ -27,6 +27,8 @@ import static io.crate.protocols.postgres.PostgresNetty.PSQL_PORT_SETTING;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.sql.Array;
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
@@ -54,7 +56,9 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
+import org.postgresql.PGConnection;
 import org.postgresql.PGProperty;
+import org.postgresql.copy.CopyManager;
 import org.postgresql.geometric.PGpoint;
 import org.postgresql.jdbc.PreferQueryMode;
 import org.postgresql.util.PGobject;
@@ -1235,6 +1239,81 @@ public class PostgresITest extends IntegTestCase {
         }
     }
 
+    @Test
+    public void test_copy_from_stdin_imports_data_streamed_by_client() throws Exception {
+        try (Connection conn = DriverManager.getConnection(url(RW), properties)) {
+            conn.createStatement().executeUpdate(
+                "create table t (id int primary key, name text) with (number_of_replicas = 0)");
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+            // PostgreSQL's text format is the default
+            long rowCount = copyManager.copyIn(
+                "copy t from stdin",
+                new StringReader("1\tArthur\n2\t\\N\n\\.\n"));
+            assertThat(rowCount).isEqualTo(2L);
+
+            String data = "{\"id\": 3, \"name\": \"Trillian\"}\n";
+            rowCount = copyManager.copyIn("copy t from stdin with (format = 'json')", new StringReader(data));
+            assertThat(rowCount).isEqualTo(1L);
+
+            rowCount = copyManager.copyIn(
+                "copy t from stdin with (format = 'csv')",
+                new StringReader("id,name\n4,Ford\n"));
+            assertThat(rowCount).isEqualTo(1L);
+
+            assertThatThrownBy(() -> copyManager.copyIn(
+                    "copy t from stdin with (format = 'binary')",
+                    new StringReader("")))
+                .hasMessageContaining("The binary COPY format is not supported. Use one of: text, csv, json");
+
+            conn.createStatement().executeUpdate("refresh table t");
+            ResultSet result = conn.createStatement().executeQuery("select id, name from t order by id");
+            assertThat(result.next()).isTrue();
+            assertThat(result.getString(2)).isEqualTo("Arthur");
+            assertThat(result.next()).isTrue();
+            assertThat(result.getString(2)).isNull();
+            assertThat(result.next()).isTrue();
+            assertThat(result.getString(2)).isEqualTo("Trillian");
+            assertThat(result.next()).isTrue();
+            assertThat(result.getString(2)).isEqualTo("Ford");
+            assertThat(result.next()).isFalse();
+        }
+    }
+
+    @Test
+    public void test_copy_to_stdout_streams_query_result_to_client() throws Exception {
+        try (Connection conn = DriverManager.getConnection(url(RW), properties)) {
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+            // PostgreSQL's text format is the default
+            StringWriter text = new StringWriter();
+            long rowCount = copyManager.copyOut(
+                "copy (select x, case when x = 1 then 'a\tb' end as name from generate_series(1, 2, 1) as t(x)) to stdout",
+                text);
+            assertThat(rowCount).isEqualTo(2L);
+            assertThat(text.toString()).isEqualTo(
+                "1\ta\\tb\n" +
+                "2\t\\N\n");
+
+            StringWriter json = new StringWriter();
+            rowCount = copyManager.copyOut(
+                "copy (select x, 'n' || x as name from generate_series(1, 2, 1) as t(x)) to stdout with (format = 'json')",
+                json);
+            assertThat(rowCount).isEqualTo(2L);
+            assertThat(json.toString()).isEqualTo(
+                "{\"x\":1,\"name\":\"n1\"}\n" +
+                "{\"x\":2,\"name\":\"n2\"}\n");
+
+            StringWriter csv = new StringWriter();
+            rowCount = copyManager.copyOut(
+                "copy (select x, 'a,b' as name from generate_series(1, 2, 1) as t(x)) to stdout with (format = 'csv')",
+                csv);
+            assertThat(rowCount).isEqualTo(2L);
+            assertThat(csv.toString()).isEqualTo(
+                "x,name\n" +
+                "1,\"a,b\"\n" +
+                "2,\"a,b\"\n");
+        }
+    }
+
     private long getNumQueriesFromJobsLogs() {
         long result = 0;
         Iterable<JobsLogs> jobLogs = cluster().getInstances(JobsLogs.class);
@@ -142,4 +142,63 @@ public class RestSQLActionIntegrationTest extends SQLHttpIntegrationTest {
         var resp = post("{\"stmt\": \"select '5 days'::interval as x\"}");
         assertThat(resp.body()).contains("5 days");
     }
+
+    @Test
+    public void test_stream_result_set_in_chunks() throws Exception {
+        var resp = post("_sql?stream", "{\"stmt\": \"select * from generate_series(1, 2500)\"}");
+        assertThat(resp.statusCode()).isEqualTo(200);
+        assertThat(resp.headers().firstValue("transfer-encoding")).hasValue("chunked");
+        assertThat(resp.headers().firstValue("content-type")).hasValue("application/json; charset=UTF-8");
+        assertThat(resp.body())
+            .startsWith("{\"cols\":[\"generate_series\"],\"rows\":[[1],[2],[3]")
+            .contains("[2499],[2500]],\"rowcount\":2500,\"duration\":");
+    }
+
+    @Test
+    public void test_stream_result_set_fitting_into_one_chunk_is_sent_with_content_length() throws Exception {
+        var resp = post("_sql?stream&types", "{\"stmt\": \"select 1 as x\"}");
+        assertThat(resp.statusCode()).isEqualTo(200);
+        assertThat(resp.headers().firstValue("transfer-encoding")).isEmpty();
+        assertThat(resp.headers().firstValue("content-length")).isPresent();
+        assertThat(resp.body()).startsWith("{\"cols\":[\"x\"],\"col_types\":[9],\"rows\":[[1]],\"rowcount\":1,");
+    }
+
+    @Test
+    public void test_stream_result_set_as_ndjson() throws Exception {
+        var resp = post("_sql?format=ndjson", "{\"stmt\": \"select * from generate_series(1, 2500)\"}");
+        assertThat(resp.statusCode()).isEqualTo(200);
+        assertThat(resp.headers().firstValue("content-type")).hasValue("application/x-ndjson; charset=UTF-8");
+        String[] lines = resp.body().split("\n");
+        assertThat(lines).hasSize(2502);
+        assertThat(lines[0]).isEqualTo("{\"cols\":[\"generate_series\"]}");
+        assertThat(lines[1]).isEqualTo("[1]");
+        assertThat(lines[2500]).isEqualTo("[2500]");
+        assertThat(lines[2501]).startsWith("{\"rowcount\":2500,\"duration\":");
+    }
+
+    @Test
+    public void test_stream_errors_before_first_chunk_use_http_status() throws Exception {
+        var resp = post("_sql?format=ndjson", "{\"stmt\": \"select * from unknown_table\"}");
+        assertThat(resp.statusCode()).isEqualTo(404);
+        assertThat(resp.body()).contains("RelationUnknown");
+
+        resp = post("_sql?stream&format=xml", "{\"stmt\": \"select 1\"}");
+        assertThat(resp.statusCode()).isGreaterThanOrEqualTo(400);
+        assertThat(resp.body()).contains("Unsupported response format `xml`");
+    }
+
+    @Test
+    public void test_format_parameter_is_ignored_without_streaming() throws Exception {
+        var resp = post("_sql?format=xyz", "{\"stmt\": \"select 1 as x\"}");
+        assertThat(resp.statusCode()).isEqualTo(200);
+        assertThat(resp.body()).contains("\"rows\":[[1]]");
+    }
+
+    @Test
+    public void test_stream_statement_without_result_set_returns_row_count() throws Exception {
+        execute("create table doc.t1 (x int)");
+        var resp = post("_sql?stream", "{\"stmt\": \"insert into doc.t1 (x) values (1)\"}");
+        assertThat(resp.statusCode()).isEqualTo(200);
+        assertThat(resp.body()).contains("\"rowcount\":1");
+    }
 }
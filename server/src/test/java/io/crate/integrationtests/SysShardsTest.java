@@ -185,6 +185,7 @@ public class SysShardsTest extends IntegTestCase {
             "primary",
             "recovery",
             "relocating_node",
+            "result_cache",
             "retention_leases",
             "routing_state",
             "schema_name",
@@ -0,0 +1,58 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.lucene.search.Query;
+import org.junit.Test;
+
+public class IndexSortRangeQueryBuilderTest extends LuceneQueryBuilderTest {
+    @Override
+    protected String createStmt() {
+        return """
+                create table m (
+                i int,
+                l long,
+                u long
+            ) with ("sort.columns" = 'i, l')
+            """;
+    }
+
+    @Test
+    public void test_range_query_on_index_sort_column_uses_index_sort_range_query() {
+        Query query = convert("i > 1");
+        assertThat(query).isExactlyInstanceOf(IndexSortRangeQuery.class);
+        assertThat(query).hasToString("i:[2 TO 2147483647]");
+
+        query = convert("l <= 1");
+        assertThat(query).isExactlyInstanceOf(IndexSortRangeQuery.class);
+        assertThat(query).hasToString("l:[-9223372036854775808 TO 1]");
+    }
+
+    @Test
+    public void test_range_query_on_unsorted_column_is_not_wrapped() {
+        Query query = convert("u > 1");
+        assertThat(query.getClass().getName()).endsWith("LongPoint$1"); // the query class is anonymous
+        assertThat(query).hasToString("u:[2 TO 9223372036854775807]");
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.index.fielddata.NullValueOrder;
+import org.elasticsearch.test.ESTestCase;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import io.crate.execution.engine.sort.LuceneSort;
+import io.crate.types.DataTypes;
+
+public class IndexSortRangeQueryTest extends ESTestCase {
+
+    private static final int NUM_DOCS = 1000;
+
+    private static Directory createIndex(@Nullable Sort indexSort) throws IOException {
+        Directory directory = new ByteBuffersDirectory();
+        IndexWriterConfig config = new IndexWriterConfig();
+        if (indexSort != null) {
+            config.setIndexSort(indexSort);
+        }
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            for (int i = 0; i < NUM_DOCS; i++) {
+                Document doc = new Document();
+                // every 10th doc has a null value
+                if (i % 10 != 0) {
+                    long value = randomLongBetween(0, 999);
+                    doc.add(new LongPoint("x", value));
+                    doc.add(new SortedNumericDocValuesField("x", value));
+                }
+                writer.addDocument(doc);
+            }
+            writer.forceMerge(1);
+        }
+        return directory;
+    }
+
+    private static Set<Integer> matchingDocs(IndexSearcher searcher, Query query) throws IOException {
+        Set<Integer> docs = new HashSet<>();
+        for (ScoreDoc scoreDoc : searcher.search(query, NUM_DOCS).scoreDocs) {
+            docs.add(scoreDoc.doc);
+        }
+        return docs;
+    }
+
+    private static long cost(IndexSearcher searcher, Query query) throws IOException {
+        Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1.0f);
+        LeafReaderContext leaf = searcher.getIndexReader().leaves().get(0);
+        ScorerSupplier scorerSupplier = weight.scorerSupplier(leaf);
+        return scorerSupplier == null ? 0L : scorerSupplier.cost();
+    }
+
+    @Test
+    public void test_range_query_only_visits_matching_block_of_sorted_segment() throws Exception {
+        for (boolean reverse : new boolean[] { false, true }) {
+            Sort indexSort = new Sort(
+                LuceneSort.mappedSortField("x", DataTypes.LONG, reverse, NullValueOrder.fromFlag(reverse)));
+            try (Directory directory = createIndex(indexSort);
+                 DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setQueryCache(null);
+                Query fallbackQuery = LongPoint.newRangeQuery("x", 100, 199);
+                Query query = new IndexSortRangeQuery("x", 100, 199, fallbackQuery);
+
+                assertThat(matchingDocs(searcher, query)).isEqualTo(matchingDocs(searcher, fallbackQuery));
+                // the block of docs with a value in [100, 199] is a fraction of the segment
+                assertThat(cost(searcher, query)).isLessThan(NUM_DOCS / 2);
+            }
+        }
+    }
+
+    @Test
+    public void test_range_query_with_open_bounds_on_sorted_segment() throws Exception {
+        Sort indexSort = new Sort(LuceneSort.mappedSortField("x", DataTypes.LONG, true, NullValueOrder.FIRST));
+        try (Directory directory = createIndex(indexSort);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            Query lowerOpen = new IndexSortRangeQuery(
+                "x", Long.MIN_VALUE, 500, LongPoint.newRangeQuery("x", Long.MIN_VALUE, 500));
+            Query upperOpen = new IndexSortRangeQuery(
+                "x", 500, Long.MAX_VALUE, LongPoint.newRangeQuery("x", 500, Long.MAX_VALUE));
+            assertThat(matchingDocs(searcher, lowerOpen))
+                .isEqualTo(matchingDocs(searcher, ((IndexSortRangeQuery) lowerOpen).fallbackQuery()));
+            assertThat(matchingDocs(searcher, upperOpen))
+                .isEqualTo(matchingDocs(searcher, ((IndexSortRangeQuery) upperOpen).fallbackQuery()));
+        }
+    }
+
+    @Test
+    public void test_range_query_uses_fallback_query_on_unsorted_segment() throws Exception {
+        try (Directory directory = createIndex(null);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            Query fallbackQuery = LongPoint.newRangeQuery("x", 100, 199);
+            Query query = new IndexSortRangeQuery("x", 100, 199, fallbackQuery);
+
+            assertThat(matchingDocs(searcher, query)).isEqualTo(matchingDocs(searcher, fallbackQuery));
+            assertThat(query).hasToString(fallbackQuery.toString());
+        }
+    }
+}
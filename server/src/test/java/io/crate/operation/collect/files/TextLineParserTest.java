@@ -0,0 +1,78 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TextLineParserTest {
+
+    private final TextLineParser parser = new TextLineParser('\t', List.of("id", "name", "city"));
+
+    @Test
+    public void test_parse_tab_separated_values() throws Exception {
+        byte[] result = parser.parse("1\tArthur\tCottington", 1);
+        assertThat(new String(result, StandardCharsets.UTF_8))
+            .isEqualTo("{\"id\":\"1\",\"name\":\"Arthur\",\"city\":\"Cottington\"}");
+    }
+
+    @Test
+    public void test_backslash_n_is_null_and_empty_values_are_empty_strings() throws Exception {
+        byte[] result = parser.parse("1\t\\N\t", 1);
+        assertThat(new String(result, StandardCharsets.UTF_8))
+            .isEqualTo("{\"id\":\"1\",\"name\":null,\"city\":\"\"}");
+
+        result = parser.parse("1\t\\Nx\tN", 1);
+        assertThat(new String(result, StandardCharsets.UTF_8))
+            .isEqualTo("{\"id\":\"1\",\"name\":\"Nx\",\"city\":\"N\"}");
+    }
+
+    @Test
+    public void test_escape_sequences_are_decoded() throws Exception {
+        byte[] result = parser.parse("1\ta\\tb\\nc\\\\d\\101\\x42\tx\\\ty", 1);
+        assertThat(new String(result, StandardCharsets.UTF_8))
+            .isEqualTo("{\"id\":\"1\",\"name\":\"a\\tb\\nc\\\\dAB\",\"city\":\"x\\ty\"}");
+    }
+
+    @Test
+    public void test_custom_delimiter() throws Exception {
+        TextLineParser pipeParser = new TextLineParser('|', List.of("id", "name"));
+        byte[] result = pipeParser.parse("1|a\\|b", 1);
+        assertThat(new String(result, StandardCharsets.UTF_8))
+            .isEqualTo("{\"id\":\"1\",\"name\":\"a|b\"}");
+    }
+
+    @Test
+    public void test_number_of_values_must_match_the_columns() throws Exception {
+        assertThatThrownBy(() -> parser.parse("1\tArthur", 3))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Expected 3 values, encountered 2 at line 3");
+        assertThatThrownBy(() -> parser.parse("1\tArthur\tCottington\tEarth", 4))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Number of values exceeds number of columns at line 4");
+    }
+}
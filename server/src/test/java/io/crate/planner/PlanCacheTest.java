@@ -0,0 +1,96 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.planner;
+
+import static io.crate.testing.Asserts.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Test;
+
+import io.crate.metadata.SearchPath;
+import io.crate.planner.operators.LogicalPlan;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+
+public class PlanCacheTest extends CrateDummyClusterServiceUnitTest {
+
+    private static PlanCache.Key key(String statement, long metadataVersion) {
+        return new PlanCache.Key(
+            statement,
+            List.of(),
+            "crate",
+            SearchPath.pathWithPGCatalogAndDoc(),
+            List.of(),
+            0,
+            metadataVersion,
+            metadataVersion
+        );
+    }
+
+    @Test
+    public void test_plan_is_reused_for_same_key() {
+        PlanCache planCache = new PlanCache(Settings.EMPTY);
+        LogicalPlan plan = mock(LogicalPlan.class);
+
+        assertThat(planCache.getOrCreate(key("select x from t", 1L), () -> plan)).isSameAs(plan);
+        assertThat(planCache.getOrCreate(key("select x from t", 1L), () -> mock(LogicalPlan.class))).isSameAs(plan);
+        assertThat(planCache.hits()).isEqualTo(1L);
+        assertThat(planCache.misses()).isEqualTo(1L);
+
+        // metadata changed, the plan must be re-created
+        assertThat(planCache.getOrCreate(key("select x from t", 2L), () -> mock(LogicalPlan.class))).isNotSameAs(plan);
+        assertThat(planCache.misses()).isEqualTo(2L);
+    }
+
+    @Test
+    public void test_only_logical_plans_are_cached() {
+        PlanCache planCache = new PlanCache(Settings.EMPTY);
+        planCache.getOrCreate(key("insert into t (x) values (?)", 1L), () -> NoopPlan.INSTANCE);
+        planCache.getOrCreate(key("insert into t (x) values (?)", 1L), () -> NoopPlan.INSTANCE);
+
+        assertThat(planCache.hits()).isEqualTo(0L);
+        assertThat(planCache.misses()).isEqualTo(2L);
+    }
+
+    @Test
+    public void test_cache_is_disabled_with_size_0() {
+        PlanCache planCache = new PlanCache(Settings.builder()
+            .put(PlanCache.PLAN_CACHE_SIZE_SETTING.getKey(), 0)
+            .build());
+        assertThat(planCache.enabled()).isFalse();
+        assertThat(planCache.size()).isEqualTo(0L);
+    }
+
+    @Test
+    public void test_only_deterministic_queries_are_cacheable() throws Exception {
+        SQLExecutor e = SQLExecutor.of(clusterService)
+            .addTable("create table t (x int)");
+
+        assertThat(PlanCache.isCacheable(e.analyze("select x from t where x = ?"))).isTrue();
+        assertThat(PlanCache.isCacheable(e.analyze("insert into t (x) select x from t"))).isTrue();
+        assertThat(PlanCache.isCacheable(e.analyze("select x, random() from t"))).isFalse();
+        assertThat(PlanCache.isCacheable(e.analyze("update t set x = 1"))).isFalse();
+    }
+}
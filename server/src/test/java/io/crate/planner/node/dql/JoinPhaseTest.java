@@ -144,11 +144,14 @@ public class JoinPhaseTest extends ESTestCase {
             2,
             3,
             Set.of("node1", "node2"),
+            JoinType.LEFT,
             joinCondition,
             List.of(Literal.of("testLeft"), Literal.of(10)),
             List.of(Literal.of("testRight"), Literal.of(20)),
             List.of(DataTypes.STRING, DataTypes.INTEGER),
-            111);
+            List.of(DataTypes.STRING, DataTypes.INTEGER, DataTypes.LONG),
+            111,
+            2_000);
 
         BytesStreamOutput output = new BytesStreamOutput();
         node.writeTo(output);
@@ -171,6 +174,8 @@ public class JoinPhaseTest extends ESTestCase {
         assertThat(node.numLeftOutputs()).isEqualTo(node2.numLeftOutputs());
         assertThat(node.numRightOutputs()).isEqualTo(node2.numRightOutputs());
         assertThat(node.leftOutputTypes()).isEqualTo(node2.leftOutputTypes());
+        assertThat(node.rightOutputTypes()).isEqualTo(node2.rightOutputTypes());
         assertThat(node.estimatedRowSizeForLeft()).isEqualTo(node2.estimatedRowSizeForLeft());
+        assertThat(node.estimatedNumRowsForLeft()).isEqualTo(node2.estimatedNumRowsForLeft());
     }
 }
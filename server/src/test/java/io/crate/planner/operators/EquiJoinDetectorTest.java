@@ -81,15 +81,21 @@ public class EquiJoinDetectorTest extends CrateDummyClusterServiceUnitTest {
     }
 
     @Test
-    public void testNotPossibleIfNotAnInnerJoin() {
+    public void testNotPossibleOnCrossJoin() {
         assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.CROSS, null)).isFalse();
+    }
 
+    @Test
+    public void testPossibleOnOuterJoins() {
         Symbol joinCondition = sqlExpressions.asSymbol("t1.x = t2.y");
-        assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.LEFT, joinCondition)).isFalse();
-        assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.RIGHT, joinCondition)).isFalse();
-        assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.FULL, joinCondition)).isFalse();
+        assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.LEFT, joinCondition)).isTrue();
+        assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.RIGHT, joinCondition)).isTrue();
+        assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.FULL, joinCondition)).isTrue();
         assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.ANTI, joinCondition)).isFalse();
         assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.SEMI, joinCondition)).isFalse();
+
+        Symbol nonEquiJoinCondition = sqlExpressions.asSymbol("t1.x > t2.y");
+        assertThat(EquiJoinDetector.isHashJoinPossible(JoinType.LEFT, nonEquiJoinCondition)).isFalse();
     }
 
     @Test
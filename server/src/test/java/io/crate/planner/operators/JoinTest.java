@@ -152,11 +152,11 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         rowCountByTable.put(TEST_DOC_LOCATIONS_TABLE_IDENT, new Stats(0, 0, Map.of()));
         e.updateTableStats(rowCountByTable);
 
-        LogicalPlan operator = buildLogicalPlan(mss);
-        assertThat(operator).isExactlyInstanceOf(NestedLoopJoin.class);
-
         PlannerContext context = e.getPlannerContext();
         context.transactionContext().sessionSettings().setHashJoinEnabled(false);
+        LogicalPlan operator = buildLogicalPlan(mss, context);
+        assertThat(operator).isExactlyInstanceOf(NestedLoopJoin.class);
+
         Join nl = plan(mss, context);
         assertThat(tableName(nl.left())).isEqualTo("users");
         assertThat(tableName(nl.right())).isEqualTo("locations");
@@ -230,7 +230,9 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         rowCountByTable.put(rightName, new Stats(10_000, 0, Map.of()));
         e.updateTableStats(rowCountByTable);
 
-        Join nl = plan(mss);
+        PlannerContext context = e.getPlannerContext();
+        context.transactionContext().sessionSettings().setHashJoinEnabled(false);
+        Join nl = plan(mss, context);
         assertThat(tableName(nl.left())).isEqualTo(leftName.name());
         assertThat(nl.joinPhase().joinType()).isEqualTo(JoinType.LEFT);
 
@@ -238,7 +240,7 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         rowCountByTable.put(rightName, new Stats(10, 0, Map.of()));
         e.updateTableStats(rowCountByTable);
 
-        nl = plan(mss);
+        nl = plan(mss, context);
         assertThat(tableName(nl.left())).isEqualTo(rightName.name());
         assertThat(nl.joinPhase().joinType()).isEqualTo(JoinType.RIGHT);  // ensure that also the join type inverted
     }
@@ -365,7 +367,7 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
     public void testMixedHashJoinNestedLoop() {
         QueriedSelectRelation mss = e.analyze("select * " +
                                               "from t1 inner join t2 on t1.a = t2.b " +
-                                              "left join t3 on t3.c = t2.b");
+                                              "left join t3 on t3.c > t2.b");
 
         LogicalPlan operator = buildLogicalPlan(mss);
         assertThat(operator).isExactlyInstanceOf(NestedLoopJoin.class);
@@ -694,7 +696,7 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         assertThat(logicalPlan).isEqualTo(
             """
             Eval[time, sensor_id, battery_level]
-              └ NestedLoopJoin[LEFT | ((time = time) AND (sensor_id = sensor_id))]
+              └ HashJoin[LEFT | ((time = time) AND (sensor_id = sensor_id))]
                 ├ NestedLoopJoin[CROSS]
                 │  ├ Rename[time] AS time_series
                 │  │  └ TableFunction[generate_series | [generate_series] | true]
@@ -1083,7 +1085,7 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
 
         var plannerCtx = executor.getPlannerContext();
         plannerCtx.transactionContext().sessionSettings().setHashJoinEnabled(false);
-        NestedLoopJoin result = (NestedLoopJoin) buildLogicalPlan(mss, plannerCtx);
+        LogicalPlan result = buildLogicalPlan(mss, plannerCtx);
 
         assertThat(result).isEqualTo(
             """
@@ -1109,10 +1111,10 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         QueriedSelectRelation mss = e.analyze("SELECT * FROM t1 RIGHT JOIN t2 ON t1.a = t2.b AND t1.a > 1");
 
         var plannerCtx = executor.getPlannerContext();
-        NestedLoopJoin result = (NestedLoopJoin) buildLogicalPlan(mss, plannerCtx);
+        LogicalPlan result = buildLogicalPlan(mss, plannerCtx);
 
         assertThat(result).hasOperators(
-            "NestedLoopJoin[RIGHT | (a = b)]",
+            "HashJoin[RIGHT | (a = b)]",
             "  ├ Collect[doc.t1 | [a] | (a > 1)]",
             "  └ Collect[doc.t2 | [b] | true]"
         );
@@ -66,7 +66,7 @@ public class OuterJoinRewriteTest extends CrateDummyClusterServiceUnitTest {
         var expectedPlan =
             """
             Filter[(coalesce(x, 10) = 10)]
-              └ NestedLoopJoin[LEFT | (x = x)]
+              └ HashJoin[LEFT | (x = x)]
                 ├ Collect[doc.t1 | [x] | true]
                 └ Collect[doc.t2 | [x] | true]
             """;
@@ -82,7 +82,7 @@ public class OuterJoinRewriteTest extends CrateDummyClusterServiceUnitTest {
         var expectedPlan =
             """
             Filter[(coalesce(x, 10) = 10)]
-              └ NestedLoopJoin[LEFT | (x = x)]
+              └ HashJoin[LEFT | (x = x)]
                 ├ Collect[doc.t1 | [x] | (x > 5)]
                 └ Collect[doc.t2 | [x] | true]
             """;
@@ -98,7 +98,7 @@ public class OuterJoinRewriteTest extends CrateDummyClusterServiceUnitTest {
         var expectedPlan =
             """
             Filter[(coalesce(x, 10) = 10)]
-              └ NestedLoopJoin[RIGHT | (x = x)]
+              └ HashJoin[RIGHT | (x = x)]
                 ├ Collect[doc.t1 | [x] | true]
                 └ Collect[doc.t2 | [x] | (x > 5)]
             """;
@@ -114,7 +114,7 @@ public class OuterJoinRewriteTest extends CrateDummyClusterServiceUnitTest {
         var expectedPlan =
             """
             Filter[((coalesce(x, 10) = 10) AND (x > 5))]
-              └ NestedLoopJoin[FULL | (x = x)]
+              └ HashJoin[FULL | (x = x)]
                 ├ Collect[doc.t1 | [x] | true]
                 └ Collect[doc.t2 | [x] | (x > 5)]
             """;
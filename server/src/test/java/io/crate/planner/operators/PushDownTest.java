@@ -191,7 +191,7 @@ public class PushDownTest extends CrateDummyClusterServiceUnitTest {
         assertThat(plan).isEqualTo(
             """
             OrderBy[a ASC]
-              └ NestedLoopJoin[LEFT | (a = a)]
+              └ HashJoin[LEFT | (a = a)]
                 ├ NestedLoopJoin[INNER | (a = b)]
                 │  ├ Collect[doc.t1 | [a] | true]
                 │  └ Collect[doc.t2 | [b] | true]
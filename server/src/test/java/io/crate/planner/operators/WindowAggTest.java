@@ -25,6 +25,8 @@ import static io.crate.testing.Asserts.assertThat;
 import static io.crate.testing.Asserts.isReference;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -32,6 +34,7 @@ import io.crate.analyze.OrderBy;
 import io.crate.analyze.WindowDefinition;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.WindowFunction;
+import io.crate.planner.PositionalOrderBy;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.SQLExecutor;
 
@@ -143,6 +146,26 @@ public class WindowAggTest extends CrateDummyClusterServiceUnitTest {
         assertThat(orderBy.orderBySymbols()).satisfiesExactly(isReference("y"), isReference("x"));
     }
 
+    @Test
+    public void test_source_is_sorted_if_order_starts_with_partition_by_and_order_by_keys() {
+        WindowDefinition windowDefinition = wd("avg(x) OVER (PARTITION BY y ORDER BY x)");
+        List<Symbol> sourceOutputs = List.of(e.asSymbol("x"), e.asSymbol("y"));
+
+        var partitionThenOrder = new PositionalOrderBy(new int[] {1, 0}, new boolean[2], new boolean[2]);
+        assertThat(WindowAgg.isSortedByPartitionAndOrder(partitionThenOrder, windowDefinition, sourceOutputs)).isTrue();
+
+        var orderThenPartition = new PositionalOrderBy(new int[] {0, 1}, new boolean[2], new boolean[2]);
+        assertThat(WindowAgg.isSortedByPartitionAndOrder(orderThenPartition, windowDefinition, sourceOutputs)).isFalse();
+
+        var partitionOnly = new PositionalOrderBy(new int[] {1}, new boolean[1], new boolean[1]);
+        assertThat(WindowAgg.isSortedByPartitionAndOrder(partitionOnly, windowDefinition, sourceOutputs)).isFalse();
+
+        var descending = new PositionalOrderBy(new int[] {1, 0}, new boolean[] {true, false}, new boolean[2]);
+        assertThat(WindowAgg.isSortedByPartitionAndOrder(descending, windowDefinition, sourceOutputs)).isFalse();
+
+        assertThat(WindowAgg.isSortedByPartitionAndOrder(null, windowDefinition, sourceOutputs)).isFalse();
+    }
+
     private WindowDefinition wd(String expression) {
         Symbol symbol = e.asSymbol(expression);
         assertThat(symbol).isExactlyInstanceOf(WindowFunction.class);
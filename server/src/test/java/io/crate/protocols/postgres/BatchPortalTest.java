@@ -67,6 +67,8 @@ public class BatchPortalTest extends CrateDummyClusterServiceUnitTest {
         };
         Planner plannerMock = mock(Planner.class);
         when(plannerMock.plan(Mockito.any(), Mockito.any())).thenReturn(insertPlan);
+        when(plannerMock.plan(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any()))
+            .thenReturn(insertPlan);
         SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService)
             .setPlanner(plannerMock)
             .build()
@@ -36,6 +36,7 @@ import org.junit.Test;
 
 import io.crate.execution.dml.IndexItem;
 import io.crate.execution.dml.Indexer;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.testing.DataTypeTesting;
@@ -88,6 +89,6 @@ public class NestedArrayTypeTest extends DataTypeTestCase<List<List<Object>>> {
         assertThat(doc).hasSameResolvedFields(expected, resolvedField);
 
         // Source stores the original nested array structure
-        assertThat(doc.source().utf8ToString()).isEqualTo("{\"" + resolvedField + "\":[[1,2],[3,4]]}");
+        assertThat(BinarySource.asJson(doc.source()).utf8ToString()).isEqualTo("{\"" + resolvedField + "\":[[1,2],[3,4]]}");
     }
 }
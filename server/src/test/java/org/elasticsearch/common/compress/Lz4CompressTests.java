@@ -0,0 +1,120 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package org.elasticsearch.common.compress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.lucene.tests.util.LineFileDocs;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+public class Lz4CompressTests extends ESTestCase {
+
+    private final Compressor compressor = new Lz4Compressor();
+
+    @Test
+    public void test_random_bytes_roundtrip() throws IOException {
+        Random r = random();
+        for (int i = 0; i < 10; i++) {
+            byte[] bytes = new byte[r.nextInt(1, 200000)];
+            r.nextBytes(bytes);
+            doTest(bytes);
+        }
+    }
+
+    @Test
+    public void test_line_docs_roundtrip_and_compress() throws IOException {
+        Random r = random();
+        try (LineFileDocs lineFileDocs = new LineFileDocs(r)) {
+            for (int i = 0; i < 10; i++) {
+                int numDocs = r.nextInt(1, 200);
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                for (int j = 0; j < numDocs; j++) {
+                    String s = lineFileDocs.nextDoc().get("body");
+                    bos.write(s.getBytes(StandardCharsets.UTF_8));
+                }
+                doTest(bos.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void test_empty_input_roundtrip() throws IOException {
+        BytesReference compressed = compressor.compress(BytesArray.EMPTY);
+        assertThat(compressor.isCompressed(compressed)).isTrue();
+        assertThat(compressor.uncompress(compressed).length()).isEqualTo(0);
+    }
+
+    @Test
+    public void test_header_differs_from_deflate() throws IOException {
+        BytesReference lz4 = compressor.compress(new BytesArray(new byte[] { 1, 2, 3 }));
+        BytesReference deflate = CompressorFactory.COMPRESSOR.compress(new BytesArray(new byte[] { 1, 2, 3 }));
+        assertThat(CompressorFactory.COMPRESSOR.isCompressed(lz4)).isFalse();
+        assertThat(compressor.isCompressed(deflate)).isFalse();
+    }
+
+    @Test
+    public void test_truncated_input_fails() throws IOException {
+        byte[] bytes = new byte[1000];
+        random().nextBytes(bytes);
+        BytesReference compressed = compressor.compress(new BytesArray(bytes));
+        BytesReference truncated = compressed.slice(0, compressed.length() - 10);
+        assertThatThrownBy(() -> compressor.uncompress(truncated))
+            .isExactlyInstanceOf(EOFException.class);
+    }
+
+    private void doTest(byte[] bytes) throws IOException {
+        Random r = random();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        int bufferSize = r.nextInt(1, 70000);
+        try (OutputStream os = compressor.threadLocalOutputStream(bos)) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int len = Math.min(bufferSize, bytes.length - offset);
+                os.write(bytes, offset, len);
+                offset += len;
+            }
+        }
+
+        byte[] buffer = new byte[r.nextInt(1, 70000)];
+        ByteArrayOutputStream uncompressedOut = new ByteArrayOutputStream();
+        try (InputStream in = compressor.threadLocalInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            int len;
+            while ((len = in.read(buffer, 0, buffer.length)) != -1) {
+                uncompressedOut.write(buffer, 0, len);
+            }
+        }
+        assertThat(uncompressedOut.toByteArray()).isEqualTo(bytes);
+    }
+}
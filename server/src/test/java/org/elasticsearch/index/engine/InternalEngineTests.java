@@ -3911,6 +3911,79 @@ public class InternalEngineTests extends EngineTestCase {
     }
 
 
+    @Test
+    public void test_bulk_index_of_append_only_operations_on_primary() throws IOException {
+        int numDocs = randomIntBetween(2, 50);
+        List<Engine.Index> operations = new ArrayList<>(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            ParsedDocument doc = testParsedDocument(Integer.toString(i), testDocumentWithTextField(), B_1);
+            operations.add(appendOnlyPrimary(doc, false, i));
+        }
+        List<Engine.IndexResult> results = engine.index(operations);
+
+        assertThat(results).hasSize(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            Engine.IndexResult result = results.get(i);
+            assertThat(result.getResultType()).isEqualTo(Engine.Result.Type.SUCCESS);
+            assertThat(result.getSeqNo()).isEqualTo(i);
+            assertThat(result.getTranslogLocation()).isNotNull();
+        }
+        assertLuceneOperations(engine, numDocs, 0, 0);
+        assertThat(engine.getNumVersionLookups()).isEqualTo(0);
+        assertThat(engine.getProcessedLocalCheckpoint()).isEqualTo(numDocs - 1);
+        assertThat(engine.getTranslog().totalOperations()).isEqualTo(numDocs);
+
+        engine.refresh("test");
+        try (Engine.Searcher searcher = engine.acquireSearcher("test")) {
+            assertThat(searcher.getIndexReader().numDocs()).isEqualTo(numDocs);
+        }
+    }
+
+    @Test
+    public void test_bulk_index_of_append_only_operations_on_replica() throws IOException {
+        int numDocs = randomIntBetween(2, 50);
+        List<Engine.Index> operations = new ArrayList<>(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            ParsedDocument doc = testParsedDocument(Integer.toString(i), testDocumentWithTextField(), B_1);
+            operations.add(appendOnlyReplica(doc, false, i, i));
+        }
+        Collections.shuffle(operations, random());
+        List<Engine.IndexResult> results = replicaEngine.index(operations);
+
+        for (int i = 0; i < numDocs; i++) {
+            assertThat(results.get(i).getResultType()).isEqualTo(Engine.Result.Type.SUCCESS);
+            assertThat(results.get(i).getSeqNo()).isEqualTo(operations.get(i).seqNo());
+        }
+        assertLuceneOperations(replicaEngine, numDocs, 0, 0);
+        assertThat(replicaEngine.getProcessedLocalCheckpoint()).isEqualTo(numDocs - 1);
+        assertThat(replicaEngine.getTranslog().totalOperations()).isEqualTo(numDocs);
+    }
+
+    @Test
+    public void test_bulk_index_processes_retries_one_by_one() throws IOException {
+        ParsedDocument doc1 = testParsedDocument("1", testDocumentWithTextField(), B_1);
+        ParsedDocument doc2 = testParsedDocument("2", testDocumentWithTextField(), B_1);
+        engine.index(appendOnlyPrimary(doc1, false, 1, true));
+
+        List<Engine.IndexResult> results = engine.index(List.of(
+            appendOnlyPrimary(doc1, true, 1, true),
+            appendOnlyPrimary(doc2, false, 2, true)
+        ));
+
+        // the retry needs a version lookup and conflicts with the existing document
+        assertThat(results.get(0).getResultType()).isEqualTo(Engine.Result.Type.FAILURE);
+        assertThat(results.get(0).getFailure()).isExactlyInstanceOf(VersionConflictEngineException.class);
+        assertThat(results.get(0).getTranslogLocation()).isNull();
+        assertThat(results.get(1).getResultType()).isEqualTo(Engine.Result.Type.SUCCESS);
+        assertThat(results.get(1).getTranslogLocation()).isNotNull();
+        assertLuceneOperations(engine, 2, 0, 0);
+
+        engine.refresh("test");
+        try (Engine.Searcher searcher = engine.acquireSearcher("test")) {
+            assertThat(searcher.getIndexReader().numDocs()).isEqualTo(2);
+        }
+    }
+
     @Test
     public void testAppendConcurrently() throws InterruptedException, IOException {
         Thread[] thread = new Thread[randomIntBetween(3, 5)];
@@ -6305,6 +6378,53 @@ public class InternalEngineTests extends EngineTestCase {
         }
     }
 
+    @Test
+    public void testMultiGetReturnsResultsInOrderOfGets() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            engine.index(indexForDoc(createParsedDoc(Integer.toString(i))));
+        }
+        engine.refresh("test");
+        engine.flush();
+        // not refreshed yet, must be resolved via the version map
+        for (int i = 10; i < 15; i++) {
+            engine.index(indexForDoc(createParsedDoc(Integer.toString(i))));
+        }
+        ParsedDocument deleted = createParsedDoc("3");
+        engine.delete(new Engine.Delete(deleted.id(), newUid(deleted), primaryTerm.get()));
+
+        List<String> ids = List.of("12", "3", "1", "missing", "7", "14", "1");
+        List<Engine.Get> gets = ids.stream().map(id -> newGet(createParsedDoc(id))).toList();
+        try (Engine.MultiGetResult result = engine.multiGet(gets, engine::acquireSearcher)) {
+            assertThat(result.size()).isEqualTo(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                try (Engine.GetResult single = engine.get(gets.get(i), engine::acquireSearcher)) {
+                    if (id.equals("3") || id.equals("missing")) {
+                        assertThat(result.get(i).docIdAndVersion()).as(id).isNull();
+                        assertThat(single.docIdAndVersion()).as(id).isNull();
+                    } else {
+                        assertThat(result.get(i).docIdAndVersion()).as(id).isNotNull();
+                        assertThat(result.get(i).docIdAndVersion().seqNo).isEqualTo(single.docIdAndVersion().seqNo);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultiGetFailsOnVersionConflict() throws Exception {
+        ParsedDocument doc = createParsedDoc("1");
+        engine.index(indexForDoc(doc));
+        engine.index(indexForDoc(createParsedDoc("2")));
+        engine.refresh("test");
+        List<Engine.Get> gets = List.of(
+            newGet(createParsedDoc("2")),
+            newGet(doc).version(2L).versionType(VersionType.EXTERNAL)
+        );
+        assertThatThrownBy(() -> engine.multiGet(gets, engine::acquireSearcher))
+            .isExactlyInstanceOf(VersionConflictEngineException.class);
+    }
+
     @Test
     public void testRefreshDoesNotBlockClosing() throws Exception {
         final CountDownLatch refreshStarted = new CountDownLatch(1);
@@ -534,6 +534,25 @@ public class TranslogTests extends ESTestCase {
         assertNull(translog.readOperation(new Location(100, 0, 0)));
     }
 
+    @Test
+    public void test_add_multiple_operations_at_once() throws IOException {
+        List<Translog.Operation> ops = List.of(
+            new Translog.Index("1", 0, primaryTerm.get(), new byte[]{1}),
+            new Translog.Delete("2", 1, primaryTerm.get(), newUid("2")),
+            new Translog.Index("3", 2, primaryTerm.get(), new byte[]{3})
+        );
+        Translog.Location[] locations = translog.add(ops);
+
+        assertThat(locations).hasSize(ops.size());
+        for (int i = 0; i < ops.size(); i++) {
+            assertThat(translog.readOperation(locations[i])).isEqualTo(ops.get(i));
+        }
+        try (Translog.Snapshot snapshot = translog.newSnapshot()) {
+            assertThat(snapshot, SnapshotMatchers.equalsTo(ops));
+            assertThat(snapshot.totalOperations()).isEqualTo(ops.size());
+        }
+    }
+
     @Test
     public void testSnapshotWithNewTranslog() throws IOException {
         List<Closeable> toClose = new ArrayList<>();
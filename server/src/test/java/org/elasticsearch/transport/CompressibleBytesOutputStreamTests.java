@@ -106,6 +106,39 @@ public class CompressibleBytesOutputStreamTests extends ESTestCase {
         stream.close();
     }
 
+    public void testStreamIsOnlyCompressedIfThresholdIsExceeded() throws IOException {
+        int threshold = randomIntBetween(10, 100);
+        for (boolean exceedThreshold : new boolean[] { false, true }) {
+            BytesStreamOutput bStream = new BytesStreamOutput();
+            byte[] prefix = randomBytes(5);
+            bStream.write(prefix);
+            CompressibleBytesOutputStream stream = new CompressibleBytesOutputStream(
+                bStream,
+                Compression.Scheme.LZ4,
+                threshold
+            );
+            byte[] expectedBytes = randomBytes(exceedThreshold ? threshold + randomInt(100) + 1 : threshold);
+            // write in pieces so that the threshold is exceeded after some bytes have been written uncompressed
+            int offset = 0;
+            while (offset < expectedBytes.length) {
+                int length = Math.min(expectedBytes.length - offset, randomIntBetween(1, 20));
+                stream.write(expectedBytes, offset, length);
+                offset += length;
+            }
+            BytesReference bytesRef = stream.materializeBytes();
+            stream.close();
+
+            assertThat(stream.isCompressed()).isEqualTo(exceedThreshold);
+            assertThat(BytesReference.toBytes(bytesRef.slice(0, prefix.length))).isEqualTo(prefix);
+            BytesReference content = bytesRef.slice(prefix.length, bytesRef.length() - prefix.length);
+            assertThat(Compression.Scheme.LZ4.compressor().isCompressed(content)).isEqualTo(exceedThreshold);
+            if (exceedThreshold) {
+                content = Compression.Scheme.LZ4.compressor().uncompress(content);
+            }
+            assertThat(BytesReference.toBytes(content)).isEqualTo(expectedBytes);
+        }
+    }
+
     private static byte[] randomBytes(int length) {
         byte[] bytes = new byte[length];
         for (int i = 0; i < bytes.length; ++i) {
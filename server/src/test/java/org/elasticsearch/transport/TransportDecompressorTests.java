@@ -24,6 +24,8 @@ import static org.junit.Assert.assertNull;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.CompositeBytesReference;
@@ -132,4 +134,41 @@ public class TransportDecompressorTests extends ESTestCase {
         }
     }
 
+    public void testIncrementalLz4Decompression() throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (StreamOutput lz4Stream = new OutputStreamStreamOutput(
+                    Compression.Scheme.LZ4.compressor().threadLocalOutputStream(Streams.flushOnCloseStream(output)))) {
+                for (int i = 0; i < 100000; ++i) {
+                    lz4Stream.writeInt(i);
+                }
+            }
+
+            BytesReference bytes = output.bytes();
+
+            TransportDecompressor decompressor = new TransportDecompressor(PageCacheRecycler.NON_RECYCLING_INSTANCE);
+            int offset = 0;
+            while (offset < bytes.length()) {
+                // the first chunk must contain the full header to detect the scheme
+                int length = Math.min(bytes.length() - offset, between(Compression.Scheme.headerLength(), 5000));
+                assertThat(decompressor.isEOS()).isFalse();
+                int bytesConsumed = decompressor.decompress(bytes.slice(offset, length));
+                assertThat(bytesConsumed).isEqualTo(length);
+                offset += length;
+            }
+            assertThat(decompressor.isEOS()).isTrue();
+
+            List<ReleasableBytesReference> references = new ArrayList<>();
+            ReleasableBytesReference reference;
+            while ((reference = decompressor.pollDecompressedPage()) != null) {
+                references.add(reference);
+            }
+            BytesReference composite = CompositeBytesReference.of(references.toArray(new BytesReference[0]));
+            assertThat(composite.length()).isEqualTo(4 * 100000);
+            StreamInput streamInput = composite.streamInput();
+            for (int i = 0; i < 100000; ++i) {
+                assertThat(streamInput.readInt()).isEqualTo(i);
+            }
+            Releasables.close(references);
+        }
+    }
 }
@@ -158,6 +158,7 @@ import io.crate.metadata.view.ViewsMetadata;
 import io.crate.planner.CreateForeignTablePlan;
 import io.crate.planner.DependencyCarrier;
 import io.crate.planner.Plan;
+import io.crate.planner.PlanCache;
 import io.crate.planner.Planner;
 import io.crate.planner.PlannerContext;
 import io.crate.planner.node.ddl.CreateBlobTablePlan;
@@ -396,7 +397,8 @@ public class SQLExecutor {
                         null,
                         roleManager,
                         foreignDataWrappers,
-                        sessionSettingRegistry
+                        sessionSettingRegistry,
+                        new PlanCache(settings)
                     ),
                 relationAnalyzer,
                 new CoordinatorSessionSettings(Role.CRATE_USER, Role.CRATE_USER, LoadedRules.INSTANCE.disabledRules()),